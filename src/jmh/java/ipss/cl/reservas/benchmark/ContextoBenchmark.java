@@ -0,0 +1,182 @@
+package ipss.cl.reservas.benchmark;
+
+import ipss.cl.reservas.ReservasApplication;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.utils.DateUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Aplicación completa sobre H2 en memoria con un volumen realista:
+ * cientos de mesas y meses de reservas (pasadas y futuras), cargadas por JDBC en lotes.
+ * Los datos son deterministas (semilla fija) para comparar resultados entre commits.
+ */
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+    
+    // Mesas con números desde aquí, para no chocar con las de DataLoader
+    private static final int PRIMER_NUMERO = 1000;
+    private static final TipoMesa[] TIPOS = TipoMesa.values();
+    // Un turno de almuerzo y dos de cena que no se solapan ni con la duración más larga
+    private static final LocalTime[] TURNOS = {LocalTime.of(12, 30), LocalTime.of(19, 0), LocalTime.of(21, 30)};
+    
+    @Param("300")
+    public int mesas;
+    
+    @Param("60")
+    public int diasPasados;
+    
+    @Param("30")
+    public int diasFuturos;
+    
+    @Param("true")
+    public boolean indice;
+    
+    private ConfigurableApplicationContext contexto;
+    private LocalDate hoy;
+    
+    @Setup(Level.Trial)
+    public void iniciar() {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.ipss.cl.reservas=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--reservas.indice.habilitado=" + indice));
+        argumentos.addAll(argumentosAdicionales());
+        contexto = new SpringApplicationBuilder(ReservasApplication.class)
+                .web(WebApplicationType.NONE)
+                // Como argumentos para que tengan prioridad sobre application.properties
+                .run(argumentos.toArray(String[]::new));
+        hoy = LocalDate.now();
+        cargarDatos();
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+    
+    /**
+     * Propiedades extra para un benchmark que necesita otra configuración (en una subclase)
+     */
+    protected List<String> argumentosAdicionales() {
+        return List.of();
+    }
+    
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+    
+    public LocalDate hoy() {
+        return hoy;
+    }
+    
+    /**
+     * Fecha futura dentro del rango con reservas
+     */
+    public LocalDate fechaConReservas(int desplazamiento) {
+        return hoy.plusDays(1 + Math.floorMod(desplazamiento, diasFuturos));
+    }
+    
+    /**
+     * Primera fecha sin reservas precargadas (para crear reservas sin conflictos)
+     */
+    public LocalDate primeraFechaLibre() {
+        return hoy.plusDays(diasFuturos + 1L);
+    }
+    
+    private void cargarDatos() {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        Random random = new Random(42);
+        
+        List<Object[]> filasMesas = new ArrayList<>(mesas);
+        for (int i = 0; i < mesas; i++) {
+            TipoMesa tipo = TIPOS[i % TIPOS.length];
+            int minima = tipo == TipoMesa.BARRA ? 1 : 2 + random.nextInt(3);
+            int maxima = minima + 1 + random.nextInt(tipo == TipoMesa.VIP ? 8 : 4);
+            filasMesas.add(new Object[]{PRIMER_NUMERO + i, minima, maxima, tipo.name(), "DISPONIBLE", true});
+        }
+        jdbc.batchUpdate("INSERT INTO mesas (numero, capacidad_minima, capacidad_maxima, tipo, estado, activa) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", filasMesas);
+        
+        List<Object[]> mesasCargadas = jdbc.query(
+                "SELECT id, capacidad_minima, capacidad_maxima, tipo FROM mesas WHERE numero >= ?",
+                (rs, n) -> new Object[]{rs.getLong(1), rs.getInt(2), rs.getInt(3), TipoMesa.valueOf(rs.getString(4))},
+                PRIMER_NUMERO);
+        
+        // Cada fila toma un valor propio de la secuencia (Hibernate reserva bloques distintos)
+        String insertReserva = "INSERT INTO reservas (id, nombre_cliente, email_cliente, telefono_cliente, mesa_id, " +
+                "fecha, hora, duracion_minutos, hora_fin, numero_personas, estado, codigo_reserva, " +
+                "clave_ocupacion, fecha_creacion) VALUES (NEXT VALUE FOR reservas_seq, " +
+                "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> lote = new ArrayList<>(5_000);
+        long secuencia = 0;
+        for (LocalDate fecha = hoy.minusDays(diasPasados); !fecha.isAfter(hoy.plusDays(diasFuturos)); fecha = fecha.plusDays(1)) {
+            boolean pasada = fecha.isBefore(hoy);
+            for (Object[] mesa : mesasCargadas) {
+                for (LocalTime hora : TURNOS) {
+                    if (random.nextInt(100) >= 60) {
+                        continue;
+                    }
+                    EstadoReserva estado = estadoAleatorio(random, pasada);
+                    TipoMesa tipo = (TipoMesa) mesa[3];
+                    int minima = (Integer) mesa[1];
+                    int maxima = (Integer) mesa[2];
+                    secuencia++;
+                    lote.add(new Object[]{
+                            "Cliente " + secuencia,
+                            "cliente" + (secuencia % 5_000) + "@example.com",
+                            "+569" + (10_000_000 + secuencia % 90_000_000),
+                            mesa[0],
+                            Date.valueOf(fecha),
+                            Time.valueOf(hora),
+                            tipo.getDuracionMinutos(),
+                            Time.valueOf(DateUtils.calcularHoraFin(hora, tipo.getDuracionMinutos())),
+                            minima + random.nextInt(maxima - minima + 1),
+                            estado.name(),
+                            "BENCH-" + Long.toString(secuencia, 36).toUpperCase(),
+                            estado.esActivo() ? mesa[0] + "|" + fecha + "|" + hora : null,
+                            Timestamp.valueOf(LocalDateTime.of(fecha.minusDays(7), LocalTime.NOON))});
+                    if (lote.size() == 5_000) {
+                        jdbc.batchUpdate(insertReserva, lote);
+                        lote.clear();
+                    }
+                }
+            }
+        }
+        jdbc.batchUpdate(insertReserva, lote);
+        
+        // El catálogo pudo cargarse durante el arranque: descartarlo para que incluya las mesas nuevas
+        bean(CatalogoMesas.class).invalidar();
+    }
+    
+    private static EstadoReserva estadoAleatorio(Random random, boolean pasada) {
+        int r = random.nextInt(100);
+        if (pasada) {
+            return r < 80 ? EstadoReserva.COMPLETADA : r < 95 ? EstadoReserva.CANCELADA : EstadoReserva.NO_ASISTIO;
+        }
+        return r < 50 ? EstadoReserva.CONFIRMADA : r < 90 ? EstadoReserva.PENDIENTE : EstadoReserva.CANCELADA;
+    }
+}
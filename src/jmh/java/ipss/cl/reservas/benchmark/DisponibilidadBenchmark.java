@@ -0,0 +1,65 @@
+package ipss.cl.reservas.benchmark;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.services.DisponibilidadService;
+import ipss.cl.reservas.services.ReservaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de disponibilidad y asignación automática sobre fechas con reservas
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisponibilidadBenchmark {
+    
+    @Param("4")
+    public int personas;
+    
+    private DisponibilidadService disponibilidadService;
+    private ReservaService reservaService;
+    private ContextoBenchmark contexto;
+    private int siguiente;
+    
+    @Setup(Level.Trial)
+    public void preparar(ContextoBenchmark contexto) {
+        this.contexto = contexto;
+        disponibilidadService = contexto.bean(DisponibilidadService.class);
+        reservaService = contexto.bean(ReservaService.class);
+    }
+    
+    @Benchmark
+    public List<LocalTime> obtenerHorariosDisponibles() {
+        return disponibilidadService.obtenerHorariosDisponibles(siguienteFecha(), personas);
+    }
+    
+    @Benchmark
+    public Optional<Mesa> buscarMesaDisponible() {
+        return reservaService.buscarMesaDisponible(siguienteFecha(), LocalTime.of(20, 0), personas);
+    }
+    
+    // Recorre todas las fechas futuras con reservas
+    private LocalDate siguienteFecha() {
+        return contexto.fechaConReservas(siguiente++);
+    }
+}
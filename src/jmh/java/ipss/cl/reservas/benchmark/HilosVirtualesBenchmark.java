@@ -0,0 +1,87 @@
+package ipss.cl.reservas.benchmark;
+
+import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests concurrentes (más clientes que hilos de Tomcat) atendidos por un pool de 200 hilos de plataforma
+ * (el máximo por defecto de Tomcat) o por un hilo virtual por request con el acceso a la base de datos
+ * limitado al pool de Hikari. Cada request consulta las reservas de un cliente y espera una latencia
+ * de I/O externa (red, otro servicio). Throughput en requests/ms y percentiles (p99) de SampleTime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class HilosVirtualesBenchmark {
+    
+    private static final int HILOS_TOMCAT = 200;
+    
+    /**
+     * Contexto con o sin el modo de hilos virtuales (semáforo de conexiones incluido)
+     */
+    @State(Scope.Benchmark)
+    public static class Contexto extends ContextoBenchmark {
+        
+        @Param({"false", "true"})
+        public boolean hilosVirtuales;
+        
+        @Override
+        protected List<String> argumentosAdicionales() {
+            return List.of("--spring.threads.virtual.enabled=" + hilosVirtuales);
+        }
+    }
+    
+    @Param("5")
+    public int latenciaExternaMs;
+    
+    private ReservaService reservaService;
+    private ExecutorService executor;
+    
+    @Setup(Level.Trial)
+    public void preparar(Contexto contexto) {
+        reservaService = contexto.bean(ReservaService.class);
+        executor = contexto.hilosVirtuales
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(HILOS_TOMCAT);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    public List<ReservaVista> request() throws Exception {
+        // Los emails de ContextoBenchmark van de cliente0 a cliente4999
+        String email = "cliente" + ThreadLocalRandom.current().nextInt(5_000) + "@example.com";
+        return executor.submit(() -> {
+            List<ReservaVista> reservas = reservaService.listarVistasFuturasPorEmail(email);
+            Thread.sleep(latenciaExternaMs);
+            return reservas;
+        }).get();
+    }
+}
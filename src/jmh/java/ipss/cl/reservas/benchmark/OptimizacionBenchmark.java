@@ -0,0 +1,71 @@
+package ipss.cl.reservas.benchmark;
+
+import ipss.cl.reservas.services.OptimizacionService;
+import ipss.cl.reservas.services.optimizacion.PlanReubicacion;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reorganización de las mesas de un día completo (300 mesas, unas 500 reservas activas por día).
+ * El tiempo incluye la lectura del día y la búsqueda, acotada por el presupuesto; los contadores
+ * muestran cuánto mejora el plan con más presupuesto (asientos sobrantes ahorrados y cambios de mesa).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OptimizacionBenchmark {
+    
+    @Param({"50", "300"})
+    public long presupuestoMs;
+    
+    private OptimizacionService optimizacionService;
+    private ContextoBenchmark contexto;
+    private int siguiente;
+    
+    /**
+     * Suma de la mejora de los planes calculados en cada iteración
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Mejora {
+        
+        public long asientosAhorrados;
+        public long cambiosDeMesa;
+        
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            asientosAhorrados = 0;
+            cambiosDeMesa = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void preparar(ContextoBenchmark contexto) {
+        this.contexto = contexto;
+        optimizacionService = contexto.bean(OptimizacionService.class);
+    }
+    
+    @Benchmark
+    public PlanReubicacion proponer(Mejora mejora) {
+        PlanReubicacion plan = optimizacionService.proponer(contexto.fechaConReservas(siguiente++), presupuestoMs);
+        mejora.asientosAhorrados += plan.asientosSobrantesAntes() - plan.asientosSobrantesDespues();
+        mejora.cambiosDeMesa += plan.movimientos().size();
+        return plan;
+    }
+}
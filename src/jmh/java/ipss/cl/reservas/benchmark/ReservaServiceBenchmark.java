@@ -0,0 +1,69 @@
+package ipss.cl.reservas.benchmark;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creación de reservas: cada invocación usa una combinación (mesa, fecha, hora) libre,
+ * así se mide el camino exitoso completo (validación, lock, insert y actualización del índice)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservaServiceBenchmark {
+    
+    // Separadas por más que la duración máxima: nunca se solapan en la misma mesa
+    private static final LocalTime[] HORAS = {
+            LocalTime.of(11, 0), LocalTime.of(14, 0), LocalTime.of(17, 0), LocalTime.of(20, 0)};
+    
+    private ReservaService reservaService;
+    private List<Mesa> mesas;
+    private LocalDate primeraFecha;
+    private long siguiente;
+    
+    @Setup(Level.Trial)
+    public void preparar(ContextoBenchmark contexto) {
+        reservaService = contexto.bean(ReservaService.class);
+        mesas = contexto.bean(CatalogoMesas.class).porEstado(EstadoMesa.DISPONIBLE);
+        primeraFecha = contexto.primeraFechaLibre();
+    }
+    
+    @Benchmark
+    public Reserva crearReserva() {
+        long n = siguiente++;
+        Mesa mesa = mesas.get((int) (n % mesas.size()));
+        long combinacion = n / mesas.size();
+        
+        Reserva reserva = new Reserva();
+        reserva.setNombreCliente("Cliente Benchmark");
+        reserva.setEmailCliente("benchmark@example.com");
+        reserva.setTelefonoCliente("+56900000000");
+        reserva.setMesa(mesa);
+        reserva.setFecha(primeraFecha.plusDays(combinacion / HORAS.length));
+        reserva.setHora(HORAS[(int) (combinacion % HORAS.length)]);
+        reserva.setNumeroPersonas(mesa.getCapacidadMinima());
+        return reservaService.crearReserva(reserva);
+    }
+}
@@ -0,0 +1,71 @@
+package ipss.cl.reservas.controllers.api;
+
+import ipss.cl.reservas.benchmark.ContextoBenchmark;
+import ipss.cl.reservas.models.dto.response.PaginaResponse;
+import ipss.cl.reservas.models.dto.response.ReservaResponse;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.services.ReservaService;
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de reservas a ReservaResponse: solo el mapeo (reservas y mesas ya cargadas)
+ * y una página de 200 reservas de un día (query proyectada con su mesa + mapeo), como lo ve un request con open-in-view
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionReservaBenchmark {
+    
+    private ReservaRestController controller;
+    private TransactionTemplate transaccion;
+    private LocalDate fecha;
+    private List<Reserva> reservasDelDia;
+    
+    @Setup(Level.Trial)
+    public void preparar(ContextoBenchmark contexto) {
+        controller = contexto.bean(ReservaRestController.class);
+        transaccion = new TransactionTemplate(contexto.bean(PlatformTransactionManager.class));
+        transaccion.setReadOnly(true);
+        fecha = contexto.fechaConReservas(0);
+        
+        ReservaService reservaService = contexto.bean(ReservaService.class);
+        reservasDelDia = transaccion.execute(status -> {
+            List<Reserva> reservas = reservaService.listarReservasDelDia(fecha);
+            reservas.forEach(reserva -> Hibernate.initialize(reserva.getMesa()));
+            return reservas;
+        });
+    }
+    
+    @Benchmark
+    public List<ReservaResponse> convertirAResponse() {
+        return reservasDelDia.stream()
+                .map(controller::convertirAResponse)
+                .toList();
+    }
+    
+    @Benchmark
+    public ResponseEntity<PaginaResponse<ReservaResponse>> listarPorFecha() {
+        return transaccion.execute(status -> controller.listarPorFecha(fecha, null, 200));
+    }
+}
@@ -0,0 +1,73 @@
+package ipss.cl.reservas.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de códigos de reserva con todos los hilos disponibles: generador actual frente al
+ * SecureRandom compartido anterior, y validación sin objetos frente a las dos regex anteriores.
+ * No necesita el contexto de Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class ReservaCodeGeneratorBenchmark {
+    
+    private static final String CARACTERES = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private final String codigoValido = ReservaCodeGenerator.generarCodigo();
+    // Mismo código con el último carácter de datos cambiado: lo rechaza el carácter de control
+    private final String codigoAlterado = alterar(codigoValido);
+    
+    @Benchmark
+    public String generarCodigo() {
+        return ReservaCodeGenerator.generarCodigo();
+    }
+    
+    @Benchmark
+    public String generarCodigoSecureRandomCompartido() {
+        StringBuilder codigo = new StringBuilder("RSV-");
+        for (int i = 0; i < 8; i++) {
+            codigo.append(CARACTERES.charAt(RANDOM.nextInt(CARACTERES.length())));
+        }
+        return codigo.toString();
+    }
+    
+    @Benchmark
+    public boolean validarCodigo() {
+        return ReservaCodeGenerator.esCodigoValido(codigoValido)
+                & ReservaCodeGenerator.esCodigoValido(codigoAlterado);
+    }
+    
+    @Benchmark
+    public boolean validarCodigoConRegex() {
+        return validarConRegex(codigoValido) & validarConRegex(codigoAlterado);
+    }
+    
+    private static boolean validarConRegex(String codigo) {
+        return codigo.matches("^RSV-[A-Z0-9]{8}$") || codigo.matches("^RSV-\\d{8}-[A-Z0-9]{4}$");
+    }
+    
+    private static String alterar(String codigo) {
+        char[] caracteres = codigo.toCharArray();
+        int posicion = caracteres.length - 2;
+        caracteres[posicion] = caracteres[posicion] == 'Z' ? 'Y' : 'Z';
+        return new String(caracteres);
+    }
+}
@@ -0,0 +1,30 @@
+package ipss.cl.reservas.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ipss.cl.reservas.services.EstadisticasService;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    /**
+     * Registrar cada cache con su propio tamaño y TTL (spec de Caffeine).
+     * Con recordStats el actuator publica aciertos, fallos y expulsiones en /actuator/metrics/cache.*
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cachesConLimites(
+            @Value("${reservas.cache.catalogo-mesas.spec:maximumSize=8,expireAfterWrite=10m,recordStats}") String catalogoMesas,
+            @Value("${reservas.cache.estadisticas.spec:maximumSize=2,expireAfterWrite=5s,recordStats}") String estadisticas) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(CatalogoMesas.CACHE, Caffeine.from(catalogoMesas).build());
+            cacheManager.registerCustomCache(EstadisticasService.CACHE, Caffeine.from(estadisticas).build());
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package ipss.cl.reservas.config;
+
+import ipss.cl.reservas.utils.ReservaCodeGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CodigoReservaConfig {
+    
+    /**
+     * Nodo del generador de códigos: distinto en cada instancia que comparta la base de datos
+     */
+    public CodigoReservaConfig(@Value("${reservas.codigo.nodo:0}") int nodo) {
+        ReservaCodeGenerator.configurarNodo(nodo);
+    }
+}
@@ -0,0 +1,120 @@
+package ipss.cl.reservas.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource que deja abiertas a la vez como máximo tantas conexiones como permisos tiene:
+ * los hilos virtuales de sobra esperan en un semáforo justo (en orden de llegada) en vez de
+ * competir en la cola del pool. El permiso se devuelve al cerrar la conexión.
+ */
+public class ConexionesLimitadasDataSource extends DelegatingDataSource {
+    
+    private final Semaphore permisos;
+    private final long esperaMaximaNanos;
+    
+    public ConexionesLimitadasDataSource(DataSource dataSource, int maximo, Duration esperaMaxima) {
+        super(dataSource);
+        this.permisos = new Semaphore(maximo, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        adquirir();
+        try {
+            return envolver(obtainTargetDataSource().getConnection(usuario, clave));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Hilos esperando una conexión
+     */
+    public int enEspera() {
+        return permisos.getQueueLength();
+    }
+    
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No hubo una conexión libre en "
+                        + Duration.ofNanos(esperaMaximaNanos).toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+    
+    private Connection envolver(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Liberar(conexion));
+    }
+    
+    /**
+     * Delegar todo en la conexión real y devolver el permiso en el primer close()
+     */
+    private final class Liberar implements InvocationHandler {
+        
+        private final Connection conexion;
+        private boolean cerrada;
+        
+        private Liberar(Connection conexion) {
+            this.conexion = conexion;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            switch (metodo.getName()) {
+                case "equals":
+                    return proxy == argumentos[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (metodo.getName().equals("close") && metodo.getParameterCount() == 0) {
+                if (cerrada) {
+                    return null;
+                }
+                cerrada = true;
+                try {
+                    conexion.close();
+                } finally {
+                    permisos.release();
+                }
+                return null;
+            }
+            try {
+                return metodo.invoke(conexion, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
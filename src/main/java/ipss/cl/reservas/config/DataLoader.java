@@ -15,6 +15,9 @@ import org.springframework.context.annotation.Configuration;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Configuration
@@ -103,6 +106,13 @@ public class DataLoader {
             mesaRepository.save(mesa5);
             mesaRepository.save(mesa6);
 
+            // Mesas que se pueden juntar para grupos grandes: 6-1-2-5 en línea
+            mesa1.setCombinableCon(new HashSet<>(Set.of(mesa6.getId(), mesa2.getId())));
+            mesa2.setCombinableCon(new HashSet<>(Set.of(mesa1.getId(), mesa5.getId())));
+            mesa5.setCombinableCon(new HashSet<>(Set.of(mesa2.getId())));
+            mesa6.setCombinableCon(new HashSet<>(Set.of(mesa1.getId())));
+            mesaRepository.saveAll(List.of(mesa1, mesa2, mesa5, mesa6));
+
             log.info("Se crearon {} mesas", mesaRepository.count());
 
             // Crear Reservas de ejemplo
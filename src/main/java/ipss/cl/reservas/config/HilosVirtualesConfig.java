@@ -0,0 +1,59 @@
+package ipss.cl.reservas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Modo de hilos virtuales (opcional, spring.threads.virtual.enabled=true): Spring Boot ya corre los requests
+ * de Tomcat, el executor de @Async y los @Scheduled en hilos virtuales; aquí se limita el acceso a la
+ * base de datos al tamaño del pool de Hikari.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class HilosVirtualesConfig {
+    
+    // Valor que usa Hikari cuando maximum-pool-size no está configurado
+    private static final int POOL_POR_DEFECTO = 10;
+    
+    @Bean
+    public static BeanPostProcessor limitarConexiones(
+            @Value("${reservas.hilos-virtuales.espera-conexion-ms:30000}") long esperaConexionMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int maximo = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : POOL_POR_DEFECTO;
+                log.info("Hilos virtuales: acceso a la base de datos limitado a {} conexiones", maximo);
+                return new ConexionesLimitadasDataSource(hikari, maximo, Duration.ofMillis(esperaConexionMs));
+            }
+        };
+    }
+    
+    /**
+     * Hilos esperando conexión en el semáforo (reservas_conexiones_en_espera en /actuator/prometheus)
+     */
+    @Bean
+    public MeterBinder conexionesEnEspera(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConexionesLimitadasDataSource limitado) {
+                Gauge.builder("reservas.conexiones.en.espera", limitado, ConexionesLimitadasDataSource::enEspera)
+                        .description("Hilos esperando una conexión a la base de datos")
+                        .register(registry);
+            }
+        };
+    }
+}
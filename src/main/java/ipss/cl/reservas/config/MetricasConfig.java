@@ -0,0 +1,18 @@
+package ipss.cl.reservas.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricasConfig {
+    
+    /**
+     * Habilitar @Timed en los servicios (timers con histograma de percentiles en /actuator/prometheus)
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,59 @@
+package ipss.cl.reservas.controllers.api;
+
+import ipss.cl.reservas.models.dto.response.DiaSemanaResponse;
+import ipss.cl.reservas.models.dto.response.HorarioAnaliticaResponse;
+import ipss.cl.reservas.models.dto.response.TasasReservasResponse;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.AnaliticaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analitica")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AnaliticaRestController {
+    
+    private final AnaliticaService analiticaService;
+    
+    /**
+     * GET /api/analitica/dias-semana?fechaInicio=&fechaFin=&tipo=
+     * Reservas y personas por día de la semana
+     */
+    @GetMapping("/dias-semana")
+    public ResponseEntity<List<DiaSemanaResponse>> porDiaSemana(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) TipoMesa tipo) {
+        return ResponseEntity.ok(analiticaService.porDiaSemana(fechaInicio, fechaFin, tipo));
+    }
+    
+    /**
+     * GET /api/analitica/tasas?fechaInicio=&fechaFin=&tipo=
+     * Tasas de cancelación y de no asistencia
+     */
+    @GetMapping("/tasas")
+    public ResponseEntity<TasasReservasResponse> tasas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) TipoMesa tipo) {
+        return ResponseEntity.ok(analiticaService.tasas(fechaInicio, fechaFin, tipo));
+    }
+    
+    /**
+     * GET /api/analitica/horarios?fechaInicio=&fechaFin=&tipo=
+     * Reservas y personas por horario de inicio
+     */
+    @GetMapping("/horarios")
+    public ResponseEntity<List<HorarioAnaliticaResponse>> porHorario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) TipoMesa tipo) {
+        return ResponseEntity.ok(analiticaService.porHorario(fechaInicio, fechaFin, tipo));
+    }
+}
@@ -1,12 +1,26 @@
 package ipss.cl.reservas.controllers.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ipss.cl.reservas.models.dto.response.CombinacionResponse;
+import ipss.cl.reservas.models.dto.response.DisponibilidadDiaResponse;
+import ipss.cl.reservas.models.dto.response.MesaResponse;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.services.DisponibilidadService;
+import ipss.cl.reservas.services.MesaService;
+import ipss.cl.reservas.services.combinacion.CombinacionMesas;
+import ipss.cl.reservas.services.disponibilidad.SuscripcionesDisponibilidad;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -19,24 +33,52 @@ import java.util.Map;
 public class DisponibilidadRestController {
     
     private final DisponibilidadService disponibilidadService;
+    private final MesaService mesaService;
+    private final SuscripcionesDisponibilidad suscripciones;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${reservas.calendario.max-dias:366}")
+    private long maxDiasCalendario;
     
     /**
      * GET /api/disponibilidad/mesas
      * Obtener mesas disponibles para una fecha, hora y número de personas
      */
     @GetMapping("/mesas")
-    public ResponseEntity<List<Mesa>> obtenerMesasDisponibles(
+    public ResponseEntity<List<MesaResponse>> obtenerMesasDisponibles(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hora,
             @RequestParam Integer personas) {
         
         List<Mesa> mesas = disponibilidadService.obtenerMesasDisponibles(fecha, hora, personas);
-        return ResponseEntity.ok(mesas);
+        return ResponseEntity.ok(mesaService.convertirAResponse(mesas, null));
+    }
+    
+    /**
+     * GET /api/disponibilidad/combinaciones
+     * Obtener combinaciones de mesas libres (mesas que se juntan) para grupos que no caben en una mesa
+     */
+    @GetMapping("/combinaciones")
+    public ResponseEntity<List<CombinacionResponse>> obtenerCombinacionesDisponibles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hora,
+            @RequestParam Integer personas) {
+        
+        List<CombinacionMesas> combinaciones = disponibilidadService.obtenerCombinacionesDisponibles(
+                fecha, hora, personas, null);
+        return ResponseEntity.ok(combinaciones.stream()
+                .map(combinacion -> CombinacionResponse.builder()
+                        .mesas(mesaService.convertirAResponse(combinacion.mesas(), null))
+                        .capacidadMinima(combinacion.capacidadMinima())
+                        .capacidadMaxima(combinacion.capacidadMaxima())
+                        .duracionMinutos(combinacion.duracionMinutos())
+                        .build())
+                .toList());
     }
     
     /**
      * GET /api/disponibilidad/horarios
-     * Obtener horarios disponibles para una fecha y número de personas
+     * Obtener horarios disponibles para una fecha y número de personas (en una mesa o en mesas juntas)
      */
     @GetMapping("/horarios")
     public ResponseEntity<List<LocalTime>> obtenerHorariosDisponibles(
@@ -47,6 +89,56 @@ public class DisponibilidadRestController {
         return ResponseEntity.ok(horarios);
     }
     
+    /**
+     * GET /api/disponibilidad/dia
+     * Obtener la grilla completa horario × mesa de una fecha para un número de personas
+     */
+    @GetMapping("/dia")
+    public ResponseEntity<DisponibilidadDiaResponse> obtenerDisponibilidadDia(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam Integer personas) {
+        
+        DisponibilidadDiaResponse disponibilidad = disponibilidadService.obtenerDisponibilidadDia(fecha, personas);
+        return ResponseEntity.ok(disponibilidad);
+    }
+    
+    /**
+     * GET /api/disponibilidad/calendario
+     * Resumen por día y horario de un rango de fechas, en NDJSON (una línea por día a medida que se calcula)
+     */
+    @GetMapping(value = "/calendario", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> obtenerCalendario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam Integer personas) {
+        
+        // Validar antes de empezar a escribir la respuesta
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("fechaFin no puede ser anterior a fechaInicio");
+        }
+        if (fechaInicio.plusDays(maxDiasCalendario).isBefore(fechaFin)) {
+            throw new IllegalArgumentException("El rango no puede superar " + maxDiasCalendario + " días");
+        }
+        
+        StreamingResponseBody body = salida -> disponibilidadService.recorrerCalendario(
+                fechaInicio, fechaFin, personas, resumen -> escribirLinea(salida, resumen));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * GET /api/disponibilidad/stream
+     * Disponibilidad en vivo de una fecha (Server-Sent Events): evento "estado" con las mesas libres
+     * de cada horario al conectarse y eventos "cambio" con los horarios que cambian
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirDisponibilidad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        
+        return suscripciones.suscribir(fecha);
+    }
+    
     /**
      * GET /api/disponibilidad/verificar
      * Verificar si una mesa específica está disponible
@@ -74,4 +166,17 @@ public class DisponibilidadRestController {
         long count = disponibilidadService.contarMesasDisponibles(fecha, hora, personas);
         return ResponseEntity.ok(Map.of("count", count));
     }
+    
+    /**
+     * Escribir un objeto como una línea JSON y enviarla de inmediato
+     */
+    private void escribirLinea(OutputStream salida, Object objeto) {
+        try {
+            salida.write(objectMapper.writeValueAsBytes(objeto));
+            salida.write('\n');
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package ipss.cl.reservas.controllers.api;
+
+import ipss.cl.reservas.models.dto.request.EsperaRequest;
+import ipss.cl.reservas.models.dto.response.EsperaResponse;
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import ipss.cl.reservas.services.ListaEsperaService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lista-espera")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ListaEsperaRestController {
+    
+    private final ListaEsperaService listaEsperaService;
+    
+    /**
+     * POST /api/lista-espera
+     * Anotar un grupo para un horario sin mesas; al liberarse una se le crea una reserva PENDIENTE
+     */
+    @PostMapping
+    public ResponseEntity<EsperaResponse> registrar(@Valid @RequestBody EsperaRequest request) {
+        EntradaEspera entrada = EntradaEspera.builder()
+                .nombreCliente(request.getNombreCliente())
+                .emailCliente(request.getEmailCliente())
+                .telefonoCliente(request.getTelefonoCliente())
+                .fecha(request.getFecha())
+                .hora(request.getHora())
+                .numeroPersonas(request.getNumeroPersonas())
+                .tipoPreferido(request.getTipoPreferido())
+                .build();
+        EntradaEspera registrada = listaEsperaService.registrar(entrada);
+        return ResponseEntity.status(HttpStatus.CREATED).body(convertirAResponse(registrada));
+    }
+    
+    /**
+     * GET /api/lista-espera?fecha=2025-01-15
+     * Grupos que siguen esperando en una fecha
+     */
+    @GetMapping
+    public ResponseEntity<List<EsperaResponse>> listarEsperando(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(listaEsperaService.listarEsperando(fecha).stream()
+                .map(this::convertirAResponse)
+                .toList());
+    }
+    
+    /**
+     * GET /api/lista-espera/{id}
+     * Estado de una espera (y la reserva, si ya se le asignó mesa)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<EsperaResponse> obtener(@PathVariable Long id) {
+        return listaEsperaService.buscarPorId(id)
+                .map(this::convertirAResponse)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * DELETE /api/lista-espera/{id}
+     * Retirar un grupo de la lista
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelar(@PathVariable Long id) {
+        return listaEsperaService.cancelar(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    private EsperaResponse convertirAResponse(EntradaEspera entrada) {
+        return EsperaResponse.builder()
+                .id(entrada.getId())
+                .nombreCliente(entrada.getNombreCliente())
+                .emailCliente(entrada.getEmailCliente())
+                .telefonoCliente(entrada.getTelefonoCliente())
+                .fecha(entrada.getFecha())
+                .hora(entrada.getHora())
+                .numeroPersonas(entrada.getNumeroPersonas())
+                .tipoPreferido(entrada.getTipoPreferido())
+                .estado(entrada.getEstado())
+                .posicion(entrada.getEstado() == EstadoEspera.ESPERANDO
+                        ? listaEsperaService.posicion(entrada.getId()) : null)
+                .reservaId(entrada.getReservaId())
+                .fechaCreacion(entrada.getFechaCreacion())
+                .build();
+    }
+}
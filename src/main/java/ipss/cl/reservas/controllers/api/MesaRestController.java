@@ -1,5 +1,6 @@
 package ipss.cl.reservas.controllers.api;
 
+import ipss.cl.reservas.models.dto.response.MesaResponse;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.models.enums.EstadoMesa;
 import ipss.cl.reservas.models.enums.TipoMesa;
@@ -20,13 +21,13 @@ public class MesaRestController {
     private final MesaService mesaService;
     
     /**
-     * GET /api/mesas
-     * Listar todas las mesas
+     * GET /api/mesas?reservasDias=
+     * Listar todas las mesas (con sus reservas de los próximos días solo si se piden)
      */
     @GetMapping
-    public ResponseEntity<List<Mesa>> listarMesas() {
+    public ResponseEntity<List<MesaResponse>> listarMesas(@RequestParam(required = false) Integer reservasDias) {
         List<Mesa> mesas = mesaService.listarMesas();
-        return ResponseEntity.ok(mesas);
+        return ResponseEntity.ok(mesaService.convertirAResponse(mesas, reservasDias));
     }
     
     /**
@@ -34,8 +35,11 @@ public class MesaRestController {
      * Obtener mesa por ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Mesa> obtenerMesa(@PathVariable Long id) {
+    public ResponseEntity<MesaResponse> obtenerMesa(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer reservasDias) {
         return mesaService.obtenerMesaPorId(id)
+                .map(mesa -> mesaService.convertirAResponse(mesa, reservasDias))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -45,8 +49,11 @@ public class MesaRestController {
      * Obtener mesa por número
      */
     @GetMapping("/numero/{numero}")
-    public ResponseEntity<Mesa> obtenerMesaPorNumero(@PathVariable Integer numero) {
+    public ResponseEntity<MesaResponse> obtenerMesaPorNumero(
+            @PathVariable Integer numero,
+            @RequestParam(required = false) Integer reservasDias) {
         return mesaService.obtenerMesaPorNumero(numero)
+                .map(mesa -> mesaService.convertirAResponse(mesa, reservasDias))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -56,9 +63,9 @@ public class MesaRestController {
      * Listar mesas por estado
      */
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<Mesa>> listarPorEstado(@PathVariable EstadoMesa estado) {
+    public ResponseEntity<List<MesaResponse>> listarPorEstado(@PathVariable EstadoMesa estado) {
         List<Mesa> mesas = mesaService.listarMesasPorEstado(estado);
-        return ResponseEntity.ok(mesas);
+        return ResponseEntity.ok(mesaService.convertirAResponse(mesas, null));
     }
     
     /**
@@ -66,9 +73,9 @@ public class MesaRestController {
      * Listar mesas por tipo
      */
     @GetMapping("/tipo/{tipo}")
-    public ResponseEntity<List<Mesa>> listarPorTipo(@PathVariable TipoMesa tipo) {
+    public ResponseEntity<List<MesaResponse>> listarPorTipo(@PathVariable TipoMesa tipo) {
         List<Mesa> mesas = mesaService.listarMesasPorTipo(tipo);
-        return ResponseEntity.ok(mesas);
+        return ResponseEntity.ok(mesaService.convertirAResponse(mesas, null));
     }
     
     /**
@@ -76,9 +83,9 @@ public class MesaRestController {
      * Listar mesas por capacidad
      */
     @GetMapping("/capacidad/{personas}")
-    public ResponseEntity<List<Mesa>> listarPorCapacidad(@PathVariable Integer personas) {
+    public ResponseEntity<List<MesaResponse>> listarPorCapacidad(@PathVariable Integer personas) {
         List<Mesa> mesas = mesaService.listarMesasPorCapacidad(personas);
-        return ResponseEntity.ok(mesas);
+        return ResponseEntity.ok(mesaService.convertirAResponse(mesas, null));
     }
     
     /**
@@ -86,10 +93,10 @@ public class MesaRestController {
      * Crear nueva mesa
      */
     @PostMapping
-    public ResponseEntity<Mesa> crearMesa(@RequestBody Mesa mesa) {
+    public ResponseEntity<MesaResponse> crearMesa(@RequestBody Mesa mesa) {
         try {
             Mesa nuevaMesa = mesaService.crearMesa(mesa);
-            return ResponseEntity.status(HttpStatus.CREATED).body(nuevaMesa);
+            return ResponseEntity.status(HttpStatus.CREATED).body(mesaService.convertirAResponse(nuevaMesa, null));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -100,10 +107,10 @@ public class MesaRestController {
      * Actualizar mesa
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Mesa> actualizarMesa(@PathVariable Long id, @RequestBody Mesa mesa) {
+    public ResponseEntity<MesaResponse> actualizarMesa(@PathVariable Long id, @RequestBody Mesa mesa) {
         try {
             Mesa mesaActualizada = mesaService.actualizarMesa(id, mesa);
-            return ResponseEntity.ok(mesaActualizada);
+            return ResponseEntity.ok(mesaService.convertirAResponse(mesaActualizada, null));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -114,12 +121,12 @@ public class MesaRestController {
      * Cambiar estado de mesa
      */
     @PatchMapping("/{id}/estado")
-    public ResponseEntity<Mesa> cambiarEstado(
+    public ResponseEntity<MesaResponse> cambiarEstado(
             @PathVariable Long id,
             @RequestParam EstadoMesa estado) {
         try {
             Mesa mesa = mesaService.cambiarEstado(id, estado);
-            return ResponseEntity.ok(mesa);
+            return ResponseEntity.ok(mesaService.convertirAResponse(mesa, null));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,23 +1,61 @@
 package ipss.cl.reservas.controllers.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ipss.cl.reservas.models.dto.request.CambioEstadoLoteRequest;
 import ipss.cl.reservas.models.dto.request.ReservaCreateRequest;
+import ipss.cl.reservas.models.dto.request.ReservaLoteRequest;
 import ipss.cl.reservas.models.dto.request.ReservaUpdateRequest;
+import ipss.cl.reservas.models.dto.request.ReubicacionRequest;
+import ipss.cl.reservas.models.dto.response.CambioEstadoLoteResponse;
+import ipss.cl.reservas.models.dto.response.CambioEstadoLoteResponse.RechazoEstadoResponse;
+import ipss.cl.reservas.models.dto.response.PaginaResponse;
+import ipss.cl.reservas.models.dto.response.PlanReubicacionResponse;
+import ipss.cl.reservas.models.dto.response.PlanReubicacionResponse.EsperaSentableResponse;
+import ipss.cl.reservas.models.dto.response.PlanReubicacionResponse.MovimientoMesaResponse;
 import ipss.cl.reservas.models.dto.response.ReservaResponse;
+import ipss.cl.reservas.models.dto.response.ResultadoLoteResponse;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.models.entities.Reserva;
 import ipss.cl.reservas.models.enums.EstadoReserva;
 import ipss.cl.reservas.services.MesaService;
+import ipss.cl.reservas.services.OptimizacionService;
 import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.services.consulta.CursorReserva;
+import ipss.cl.reservas.services.consulta.FiltroReservas;
+import ipss.cl.reservas.services.consulta.PaginaReservas;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import ipss.cl.reservas.services.lote.ResultadoCambioEstado;
+import ipss.cl.reservas.services.lote.ResultadoLote;
+import ipss.cl.reservas.services.lote.SolicitudLote;
+import ipss.cl.reservas.services.optimizacion.PlanReubicacion;
+import ipss.cl.reservas.services.optimizacion.Reubicacion;
+import ipss.cl.reservas.services.retencion.Retencion;
+import ipss.cl.reservas.utils.CsvUtils;
 import ipss.cl.reservas.utils.DateUtils;
+import ipss.cl.reservas.utils.ReservaCodeGenerator;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,20 +64,39 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ReservaRestController {
     
+    private static final String[] COLUMNAS_CSV = {
+            "id", "codigoReserva", "fecha", "hora", "horaFin", "duracionMinutos",
+            "mesaId", "mesaNumero", "mesaTipo", "numeroPersonas", "estado",
+            "nombreCliente", "emailCliente", "telefonoCliente", "observaciones",
+            "fechaCreacion", "fechaModificacion"};
+    
     private final ReservaService reservaService;
     private final MesaService mesaService;
+    private final OptimizacionService optimizacionService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    
+    
+    @Value("${reservas.paginacion.tamano-defecto:50}")
+    private int tamanoPorDefecto;
+    
+    @Value("${reservas.paginacion.tamano-maximo:200}")
+    private int tamanoMaximo;
     
     /**
-     * GET /api/reservas
-     * Listar todas las reservas
+     * GET /api/reservas?estado=&fechaDesde=&fechaHasta=&mesaId=&cursor=&tamano=
+     * Listar reservas paginadas por cursor, ordenadas por fecha, hora e id
      */
     @GetMapping
-    public ResponseEntity<List<ReservaResponse>> listarReservas() {
-        List<Reserva> reservas = reservaService.listarReservas();
-        List<ReservaResponse> response = reservas.stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PaginaResponse<ReservaResponse>> listarReservas(
+            @RequestParam(required = false) EstadoReserva estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @RequestParam(required = false) Long mesaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        FiltroReservas filtro = new FiltroReservas(estado, fechaDesde, fechaHasta, mesaId, null);
+        return ResponseEntity.ok(pagina(filtro, cursor, tamano));
     }
     
     /**
@@ -48,7 +105,7 @@ public class ReservaRestController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ReservaResponse> obtenerReserva(@PathVariable Long id) {
-        return reservaService.obtenerReservaPorId(id)
+        return reservaService.obtenerVistaPorId(id)
                 .map(this::convertirAResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -60,7 +117,11 @@ public class ReservaRestController {
      */
     @GetMapping("/codigo/{codigo}")
     public ResponseEntity<ReservaResponse> buscarPorCodigo(@PathVariable String codigo) {
-        return reservaService.buscarPorCodigo(codigo)
+        if (!ReservaCodeGenerator.esCodigoValido(codigo)) {
+            // Formato o carácter de control incorrecto: no puede existir, no se consulta la base de datos
+            return ResponseEntity.notFound().build();
+        }
+        return reservaService.buscarVistaPorCodigo(codigo)
                 .map(this::convertirAResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -71,12 +132,12 @@ public class ReservaRestController {
      * Listar reservas por email
      */
     @GetMapping("/email/{email}")
-    public ResponseEntity<List<ReservaResponse>> listarPorEmail(@PathVariable String email) {
-        List<Reserva> reservas = reservaService.listarReservasPorEmail(email);
-        List<ReservaResponse> response = reservas.stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PaginaResponse<ReservaResponse>> listarPorEmail(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        FiltroReservas filtro = new FiltroReservas(null, null, null, null, email);
+        return ResponseEntity.ok(pagina(filtro, cursor, tamano));
     }
     
     /**
@@ -85,7 +146,7 @@ public class ReservaRestController {
      */
     @GetMapping("/futuras/{email}")
     public ResponseEntity<List<ReservaResponse>> listarFuturasPorEmail(@PathVariable String email) {
-        List<Reserva> reservas = reservaService.listarReservasFuturasPorEmail(email);
+        List<ReservaVista> reservas = reservaService.listarVistasFuturasPorEmail(email);
         List<ReservaResponse> response = reservas.stream()
                 .map(this::convertirAResponse)
                 .collect(Collectors.toList());
@@ -97,13 +158,60 @@ public class ReservaRestController {
      * Listar reservas del día
      */
     @GetMapping("/fecha/{fecha}")
-    public ResponseEntity<List<ReservaResponse>> listarPorFecha(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
-        List<Reserva> reservas = reservaService.listarReservasDelDia(fecha);
-        List<ReservaResponse> response = reservas.stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PaginaResponse<ReservaResponse>> listarPorFecha(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        FiltroReservas filtro = new FiltroReservas(null, fecha, fecha, null, null);
+        return ResponseEntity.ok(pagina(filtro, cursor, tamano));
+    }
+    
+    /**
+     * GET /api/reservas/exportar?fechaDesde=&fechaHasta=&formato=ndjson|csv
+     * Exportar las reservas de un rango fila por fila, sin armar la lista en memoria
+     */
+    @GetMapping(value = "/exportar", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportarReservas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        
+        // Validar antes de empezar a escribir la respuesta
+        if (fechaHasta.isBefore(fechaDesde)) {
+            throw new IllegalArgumentException("fechaHasta no puede ser anterior a fechaDesde");
+        }
+        boolean csv = switch (formato.toLowerCase()) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new IllegalArgumentException("Formato no soportado: " + formato + " (ndjson o csv)");
+        };
+        
+        StreamingResponseBody body = salida -> {
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) {
+                CsvUtils.escribirFila(escritor, (Object[]) COLUMNAS_CSV);
+            }
+            reservaService.recorrerReservas(fechaDesde, fechaHasta, reserva -> {
+                try {
+                    ReservaResponse fila = convertirAResponse(reserva);
+                    if (csv) {
+                        escribirFilaCsv(escritor, fila);
+                    } else {
+                        escritor.write(objectMapper.writeValueAsString(fila));
+                        escritor.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+        
+        String archivo = "reservas_" + fechaDesde + "_" + fechaHasta + (csv ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"")
+                .body(body);
     }
     
     /**
@@ -112,7 +220,7 @@ public class ReservaRestController {
      */
     @GetMapping("/hoy")
     public ResponseEntity<List<ReservaResponse>> listarReservasDeHoy() {
-        List<Reserva> reservas = reservaService.listarReservasDeHoy();
+        List<ReservaVista> reservas = reservaService.listarVistasDeHoy();
         List<ReservaResponse> response = reservas.stream()
                 .map(this::convertirAResponse)
                 .collect(Collectors.toList());
@@ -124,12 +232,12 @@ public class ReservaRestController {
      * Listar reservas por estado
      */
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<ReservaResponse>> listarPorEstado(@PathVariable EstadoReserva estado) {
-        List<Reserva> reservas = reservaService.listarReservasPorEstado(estado);
-        List<ReservaResponse> response = reservas.stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PaginaResponse<ReservaResponse>> listarPorEstado(
+            @PathVariable EstadoReserva estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        FiltroReservas filtro = new FiltroReservas(estado, null, null, null, null);
+        return ResponseEntity.ok(pagina(filtro, cursor, tamano));
     }
     
     /**
@@ -138,7 +246,7 @@ public class ReservaRestController {
      */
     @GetMapping("/pendientes")
     public ResponseEntity<List<ReservaResponse>> listarPendientes() {
-        List<Reserva> reservas = reservaService.listarReservasPendientes();
+        List<ReservaVista> reservas = reservaService.listarVistasPendientes();
         List<ReservaResponse> response = reservas.stream()
                 .map(this::convertirAResponse)
                 .collect(Collectors.toList());
@@ -151,39 +259,75 @@ public class ReservaRestController {
      */
     @PostMapping
     public ResponseEntity<ReservaResponse> crearReserva(@Valid @RequestBody ReservaCreateRequest request) {
-        Mesa mesa;
+        Long mesaId = request.getMesaId();
+        
+        // Con una retención vigente y sin mesa indicada, usar la mesa retenida
+        if (mesaId == null && request.getRetencion() != null) {
+            mesaId = reservaService.buscarRetencion(request.getRetencion()).map(Retencion::mesaId).orElse(null);
+        }
         
         // Si no se especifica mesa, buscar una disponible automáticamente
-        if (request.getMesaId() == null) {
-            mesa = reservaService.buscarMesaDisponible(
-                    request.getFecha(), 
-                    request.getHora(), 
-                    request.getNumeroPersonas())
-                .orElseThrow(() -> new IllegalStateException(
-                        "No hay mesas disponibles para la fecha, hora y número de personas especificados"));
-        } else {
-            // Obtener la mesa especificada
-            mesa = mesaService.obtenerMesaPorId(request.getMesaId())
-                    .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
+        if (mesaId == null) {
+            return crearConMesaAutomatica(request);
         }
         
-        // Crear la reserva
-        Reserva reserva = new Reserva();
-        reserva.setNombreCliente(request.getNombreCliente());
-        reserva.setEmailCliente(request.getEmailCliente());
-        reserva.setTelefonoCliente(request.getTelefonoCliente());
-        reserva.setMesa(mesa);
-        reserva.setFecha(request.getFecha());
-        reserva.setHora(request.getHora());
-        reserva.setNumeroPersonas(request.getNumeroPersonas());
-        reserva.setObservaciones(request.getObservaciones());
+        // Obtener la mesa especificada
+        Mesa mesa = mesaService.obtenerMesaPorId(mesaId)
+                .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
         
-        Reserva nuevaReserva = reservaService.crearReserva(reserva);
+        // Crear la reserva
+        Reserva nuevaReserva = reservaService.crearReserva(nuevaReserva(request, mesa), request.getRetencion());
         ReservaResponse response = convertirAResponse(nuevaReserva);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    /**
+     * POST /api/reservas/lote
+     * Crear varias reservas de una vez (grupos, importaciones).
+     * Responde un resultado por reserva, en el mismo orden: creada o rechazada con motivo.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoLoteResponse>> crearReservasEnLote(
+            @Valid @RequestBody ReservaLoteRequest request) {
+        List<ReservaCreateRequest> items = request.getReservas();
+        ResultadoLoteResponse[] resultados = new ResultadoLoteResponse[items.size()];
+        List<SolicitudLote> solicitudes = new ArrayList<>(items.size());
+        List<Integer> posiciones = new ArrayList<>(items.size());
+        
+        for (int i = 0; i < items.size(); i++) {
+            ReservaCreateRequest item = items.get(i);
+            Set<ConstraintViolation<ReservaCreateRequest>> errores = validator.validate(item);
+            if (!errores.isEmpty()) {
+                resultados[i] = rechazada(i, errores.stream()
+                        .map(error -> error.getPropertyPath() + ": " + error.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            Mesa mesa = item.getMesaId() != null ? Mesa.builder().id(item.getMesaId()).build() : null;
+            solicitudes.add(new SolicitudLote(nuevaReserva(item, mesa), item.getTipoPreferido()));
+            posiciones.add(i);
+        }
+        
+        if (!solicitudes.isEmpty()) {
+            List<ResultadoLote> creadas = reservaService.crearReservasEnLote(solicitudes);
+            for (int j = 0; j < creadas.size(); j++) {
+                int indice = posiciones.get(j);
+                ResultadoLote resultado = creadas.get(j);
+                resultados[indice] = resultado.esCreada()
+                        ? ResultadoLoteResponse.builder()
+                                .indice(indice)
+                                .resultado("CREADA")
+                                .reserva(convertirAResponse(resultado.reserva()))
+                                .build()
+                        : rechazada(indice, resultado.motivo());
+            }
+        }
+        
+        return ResponseEntity.ok(List.of(resultados));
+    }
+    
     /**
      * PUT /api/reservas/{id}
      * Actualizar reserva
@@ -193,41 +337,21 @@ public class ReservaRestController {
             @PathVariable Long id,
             @Valid @RequestBody ReservaUpdateRequest request) {
         try {
-            Reserva reserva = reservaService.obtenerReservaPorId(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Reserva no encontrada"));
+            // Solo los cambios pedidos, sin tocar la entidad: el servicio compara contra la reserva guardada
+            Reserva cambios = Reserva.builder()
+                    .nombreCliente(request.getNombreCliente())
+                    .emailCliente(request.getEmailCliente())
+                    .telefonoCliente(request.getTelefonoCliente())
+                    .mesa(request.getMesaId() != null ? Mesa.builder().id(request.getMesaId()).build() : null)
+                    .fecha(request.getFecha())
+                    .hora(request.getHora())
+                    .numeroPersonas(request.getNumeroPersonas())
+                    .duracionMinutos(request.getDuracionMinutos())
+                    .observaciones(request.getObservaciones())
+                    .estado(request.getEstado() != null ? EstadoReserva.valueOf(request.getEstado()) : null)
+                    .build();
             
-            // Actualizar campos
-            if (request.getNombreCliente() != null) {
-                reserva.setNombreCliente(request.getNombreCliente());
-            }
-            if (request.getEmailCliente() != null) {
-                reserva.setEmailCliente(request.getEmailCliente());
-            }
-            if (request.getTelefonoCliente() != null) {
-                reserva.setTelefonoCliente(request.getTelefonoCliente());
-            }
-            if (request.getMesaId() != null) {
-                Mesa mesa = mesaService.obtenerMesaPorId(request.getMesaId())
-                        .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
-                reserva.setMesa(mesa);
-            }
-            if (request.getFecha() != null) {
-                reserva.setFecha(request.getFecha());
-            }
-            if (request.getHora() != null) {
-                reserva.setHora(request.getHora());
-            }
-            if (request.getNumeroPersonas() != null) {
-                reserva.setNumeroPersonas(request.getNumeroPersonas());
-            }
-            if (request.getObservaciones() != null) {
-                reserva.setObservaciones(request.getObservaciones());
-            }
-            if (request.getEstado() != null) {
-                reserva.setEstado(EstadoReserva.valueOf(request.getEstado()));
-            }
-            
-            Reserva reservaActualizada = reservaService.actualizarReserva(id, reserva);
+            Reserva reservaActualizada = reservaService.actualizarReserva(id, cambios);
             return ResponseEntity.ok(convertirAResponse(reservaActualizada));
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().build();
@@ -276,6 +400,51 @@ public class ReservaRestController {
         }
     }
     
+    /**
+     * PATCH /api/reservas/estado
+     * Cambiar el estado de varias reservas (p. ej. confirmar o completar las del servicio).
+     * Responde qué reservas cambiaron y cuáles se rechazaron con su motivo.
+     */
+    @PatchMapping("/estado")
+    public ResponseEntity<CambioEstadoLoteResponse> cambiarEstadoEnLote(
+            @Valid @RequestBody CambioEstadoLoteRequest request) {
+        ResultadoCambioEstado resultado = reservaService.cambiarEstadoEnLote(request.getIds(), request.getEstado());
+        return ResponseEntity.ok(CambioEstadoLoteResponse.builder()
+                .estado(resultado.estado())
+                .cambiadas(resultado.cambiadas())
+                .rechazadas(resultado.rechazadas().stream()
+                        .map(rechazo -> new RechazoEstadoResponse(rechazo.id(), rechazo.motivo()))
+                        .toList())
+                .build());
+    }
+    
+    /**
+     * GET /api/reservas/reubicaciones?fecha=2025-11-15&presupuestoMs=300
+     * Proponer cambios de mesa para las reservas del día (menos asientos sobrantes y lugar
+     * para la lista de espera). No modifica nada.
+     */
+    @GetMapping("/reubicaciones")
+    public ResponseEntity<PlanReubicacionResponse> proponerReubicaciones(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) Long presupuestoMs) {
+        return ResponseEntity.ok(convertirAResponse(optimizacionService.proponer(fecha, presupuestoMs)));
+    }
+    
+    /**
+     * POST /api/reservas/reubicaciones
+     * Aplicar cambios de mesa de un día, todos o ninguno (409 si alguno dejó de ser posible)
+     */
+    @PostMapping("/reubicaciones")
+    public ResponseEntity<List<ReservaResponse>> aplicarReubicaciones(@Valid @RequestBody ReubicacionRequest request) {
+        List<Reubicacion> reubicaciones = request.getMovimientos().stream()
+                .map(m -> new Reubicacion(m.getReservaId(), m.getMesaOrigenId(), m.getMesaDestinoId()))
+                .toList();
+        List<ReservaResponse> movidas = optimizacionService.aplicar(request.getFecha(), reubicaciones).stream()
+                .map(this::convertirAResponse)
+                .toList();
+        return ResponseEntity.ok(movidas);
+    }
+    
     /**
      * DELETE /api/reservas/{id}
      * Eliminar reserva
@@ -290,10 +459,106 @@ public class ReservaRestController {
         }
     }
     
+    private void escribirFilaCsv(Writer escritor, ReservaResponse r) throws IOException {
+        CsvUtils.escribirFila(escritor,
+                r.getId(), r.getCodigoReserva(), r.getFecha(), r.getHora(), r.getHoraFin(), r.getDuracionMinutos(),
+                r.getMesaId(), r.getMesaNumero(), r.getMesaTipo(), r.getNumeroPersonas(), r.getEstado(),
+                r.getNombreCliente(), r.getEmailCliente(), r.getTelefonoCliente(), r.getObservaciones(),
+                r.getFechaCreacion(), r.getFechaModificacion());
+    }
+    
     /**
-     * Convertir Reserva a ReservaResponse
+     * Crear la reserva en la mesa (o mesas juntas) que elija la estrategia de asignación
      */
-    private ReservaResponse convertirAResponse(Reserva reserva) {
+    private ResponseEntity<ReservaResponse> crearConMesaAutomatica(ReservaCreateRequest request) {
+        List<Reserva> creadas = reservaService.crearReservaConMesaAutomatica(
+                nuevaReserva(request, null), request.getTipoPreferido(), request.getRetencion());
+        ReservaResponse response = convertirAResponse(creadas.get(0));
+        if (creadas.size() > 1) {
+            // La primera reserva del grupo, con el total de personas y todas las mesas
+            response.setNumeroPersonas(request.getNumeroPersonas());
+            response.setMesasCombinadas(creadas.stream().map(reserva -> reserva.getMesa().getNumero()).toList());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    /**
+     * Crear la entidad Reserva a partir del request
+     */
+    private Reserva nuevaReserva(ReservaCreateRequest request, Mesa mesa) {
+        Reserva reserva = new Reserva();
+        reserva.setNombreCliente(request.getNombreCliente());
+        reserva.setEmailCliente(request.getEmailCliente());
+        reserva.setTelefonoCliente(request.getTelefonoCliente());
+        reserva.setMesa(mesa);
+        reserva.setFecha(request.getFecha());
+        reserva.setHora(request.getHora());
+        reserva.setNumeroPersonas(request.getNumeroPersonas());
+        reserva.setDuracionMinutos(request.getDuracionMinutos());
+        reserva.setObservaciones(request.getObservaciones());
+        return reserva;
+    }
+    
+    /**
+     * Página de reservas para los listados: tamaño por defecto si no viene y nunca mayor al máximo
+     */
+    private PaginaResponse<ReservaResponse> pagina(FiltroReservas filtro, String cursor, Integer tamano) {
+        if (tamano != null && tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser al menos 1");
+        }
+        int tamanoPagina = Math.min(tamano != null ? tamano : tamanoPorDefecto, tamanoMaximo);
+        CursorReserva despuesDe = cursor != null && !cursor.isBlank() ? CursorReserva.decodificar(cursor) : null;
+        
+        PaginaReservas pagina = reservaService.buscarReservas(filtro, despuesDe, tamanoPagina);
+        List<ReservaResponse> items = pagina.reservas().stream()
+                .map(this::convertirAResponse)
+                .toList();
+        return PaginaResponse.<ReservaResponse>builder()
+                .items(items)
+                .tamano(items.size())
+                .siguiente(pagina.siguiente() != null ? pagina.siguiente().codificar() : null)
+                .build();
+    }
+    
+    private ResultadoLoteResponse rechazada(int indice, String motivo) {
+        return ResultadoLoteResponse.builder()
+                .indice(indice)
+                .resultado("RECHAZADA")
+                .motivo(motivo)
+                .build();
+    }
+    
+    /**
+     * Convertir la vista de solo lectura a ReservaResponse (visible en el paquete para los benchmarks JMH)
+     */
+    ReservaResponse convertirAResponse(ReservaVista reserva) {
+        return ReservaResponse.builder()
+                .id(reserva.id())
+                .nombreCliente(reserva.nombreCliente())
+                .emailCliente(reserva.emailCliente())
+                .telefonoCliente(reserva.telefonoCliente())
+                .mesaId(reserva.mesaId())
+                .mesaNumero(reserva.mesaNumero())
+                .mesaTipo(reserva.mesaTipo().name())
+                .fecha(reserva.fecha())
+                .hora(reserva.hora())
+                .horaFin(reserva.horaFin())
+                .duracionMinutos(reserva.duracionMinutos())
+                .numeroPersonas(reserva.numeroPersonas())
+                .estado(reserva.estado().name())
+                .observaciones(reserva.observaciones())
+                .codigoReserva(reserva.codigoReserva())
+                .combinacionId(reserva.combinacionId())
+                .fechaCreacion(DateUtils.formatearFechaHora(reserva.fechaCreacion()))
+                .fechaModificacion(reserva.fechaModificacion() != null ? 
+                        DateUtils.formatearFechaHora(reserva.fechaModificacion()) : null)
+                .build();
+    }
+    
+    /**
+     * Convertir Reserva a ReservaResponse (escrituras, que trabajan con la entidad)
+     */
+    ReservaResponse convertirAResponse(Reserva reserva) {
         return ReservaResponse.builder()
                 .id(reserva.getId())
                 .nombreCliente(reserva.getNombreCliente())
@@ -304,13 +569,51 @@ public class ReservaRestController {
                 .mesaTipo(reserva.getMesa().getTipo().name())
                 .fecha(reserva.getFecha())
                 .hora(reserva.getHora())
+                .horaFin(reserva.getHoraFin())
+                .duracionMinutos(reserva.getDuracionMinutos())
                 .numeroPersonas(reserva.getNumeroPersonas())
                 .estado(reserva.getEstado().name())
                 .observaciones(reserva.getObservaciones())
                 .codigoReserva(reserva.getCodigoReserva())
+                .combinacionId(reserva.getCombinacionId())
                 .fechaCreacion(DateUtils.formatearFechaHora(reserva.getFechaCreacion()))
                 .fechaModificacion(reserva.getFechaModificacion() != null ? 
                         DateUtils.formatearFechaHora(reserva.getFechaModificacion()) : null)
                 .build();
     }
+    
+    private PlanReubicacionResponse convertirAResponse(PlanReubicacion plan) {
+        return PlanReubicacionResponse.builder()
+                .fecha(plan.fecha())
+                .movimientos(plan.movimientos().stream()
+                        .map(movimiento -> MovimientoMesaResponse.builder()
+                                .reservaId(movimiento.reserva().id())
+                                .codigoReserva(movimiento.reserva().codigoReserva())
+                                .nombreCliente(movimiento.reserva().nombreCliente())
+                                .hora(movimiento.reserva().hora())
+                                .horaFin(movimiento.reserva().horaFin())
+                                .numeroPersonas(movimiento.reserva().numeroPersonas())
+                                .mesaOrigenId(movimiento.reserva().mesaId())
+                                .mesaOrigenNumero(movimiento.reserva().mesaNumero())
+                                .mesaDestinoId(movimiento.destino().getId())
+                                .mesaDestinoNumero(movimiento.destino().getNumero())
+                                .build())
+                        .toList())
+                .esperasSentables(plan.esperasSentables().stream()
+                        .map(sentable -> EsperaSentableResponse.builder()
+                                .esperaId(sentable.espera().getId())
+                                .nombreCliente(sentable.espera().getNombreCliente())
+                                .hora(sentable.espera().getHora())
+                                .numeroPersonas(sentable.espera().getNumeroPersonas())
+                                .mesaId(sentable.mesa().getId())
+                                .mesaNumero(sentable.mesa().getNumero())
+                                .build())
+                        .toList())
+                .personasEnEsperaSentables(plan.personasEnEsperaSentables())
+                .asientosSobrantesAntes(plan.asientosSobrantesAntes())
+                .asientosSobrantesDespues(plan.asientosSobrantesDespues())
+                .iteraciones(plan.iteraciones())
+                .milisegundos(plan.duracion().toMillis())
+                .build();
+    }
 }
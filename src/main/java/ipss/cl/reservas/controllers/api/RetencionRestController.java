@@ -0,0 +1,73 @@
+package ipss.cl.reservas.controllers.api;
+
+import ipss.cl.reservas.models.dto.request.RetencionRequest;
+import ipss.cl.reservas.models.dto.response.RetencionResponse;
+import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.services.retencion.Retencion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/retenciones")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class RetencionRestController {
+    
+    private final ReservaService reservaService;
+    
+    /**
+     * POST /api/retenciones
+     * Retener una mesa (elegida o asignada) mientras el cliente completa la reserva
+     */
+    @PostMapping
+    public ResponseEntity<RetencionResponse> retenerMesa(@Valid @RequestBody RetencionRequest request,
+                                                         HttpServletRequest httpRequest) {
+        // Sin cuentas de cliente, el límite de retenciones se cuenta por dirección de origen
+        Retencion retencion = reservaService.retenerMesa(request.getMesaId(), request.getFecha(), request.getHora(),
+                request.getNumeroPersonas(), request.getTipoPreferido(), request.getDuracionMinutos(),
+                httpRequest.getRemoteAddr());
+        return ResponseEntity.status(HttpStatus.CREATED).body(convertirAResponse(retencion));
+    }
+    
+    /**
+     * GET /api/retenciones/{token}
+     * Consultar una retención vigente
+     */
+    @GetMapping("/{token}")
+    public ResponseEntity<RetencionResponse> obtenerRetencion(@PathVariable String token) {
+        return reservaService.buscarRetencion(token)
+                .map(this::convertirAResponse)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * DELETE /api/retenciones/{token}
+     * Liberar una retención antes de que venza
+     */
+    @DeleteMapping("/{token}")
+    public ResponseEntity<Void> liberarRetencion(@PathVariable String token) {
+        return reservaService.liberarRetencion(token)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    private RetencionResponse convertirAResponse(Retencion retencion) {
+        return RetencionResponse.builder()
+                .token(retencion.token())
+                .mesaId(retencion.mesaId())
+                .fecha(retencion.fecha())
+                .hora(retencion.hora())
+                .horaFin(retencion.horaFin())
+                .vence(retencion.vence())
+                .segundosRestantes(Math.max(0, Math.ceilDiv(Duration.between(Instant.now(), retencion.vence()).toMillis(), 1000)))
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package ipss.cl.reservas.events;
+
+import ipss.cl.reservas.services.disponibilidad.Ocupacion;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Se publica cada vez que se crea, modifica, cambia de estado o elimina una reserva.
+ * ocupacion es null cuando la reserva ya no ocupa mesa.
+ * fechas son los días afectados (la fecha anterior y la nueva si la reserva se movió).
+ */
+public record ReservaCambiadaEvent(Long reservaId, Ocupacion ocupacion, Set<LocalDate> fechas) {
+}
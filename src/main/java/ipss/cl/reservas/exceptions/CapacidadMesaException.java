@@ -0,0 +1,15 @@
+package ipss.cl.reservas.exceptions;
+
+/**
+ * El número de personas no entra en la capacidad de la mesa (o mesas juntas) elegida
+ */
+public class CapacidadMesaException extends IllegalArgumentException {
+    
+    public CapacidadMesaException(int capacidadMinima, int capacidadMaxima) {
+        super(String.format("La mesa seleccionada tiene capacidad para %d-%d personas", capacidadMinima, capacidadMaxima));
+    }
+    
+    public CapacidadMesaException(String mensaje) {
+        super(mensaje);
+    }
+}
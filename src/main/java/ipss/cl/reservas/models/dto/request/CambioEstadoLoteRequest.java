@@ -0,0 +1,18 @@
+package ipss.cl.reservas.models.dto.request;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import lombok.Data;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+@Data
+public class CambioEstadoLoteRequest {
+    
+    @NotEmpty(message = "Debe indicar al menos una reserva")
+    @Size(max = 500, message = "Máximo 500 reservas por cambio")
+    private List<@NotNull(message = "ID de reserva requerido") Long> ids;
+    
+    // CONFIRMADA, CANCELADA, COMPLETADA o NO_ASISTIO
+    @NotNull(message = "El estado es requerido")
+    private EstadoReserva estado;
+}
@@ -0,0 +1,41 @@
+package ipss.cl.reservas.models.dto.request;
+
+import ipss.cl.reservas.models.enums.TipoMesa;
+import lombok.Data;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class EsperaRequest {
+    
+    // DATOS DEL CLIENTE
+    @NotBlank(message = "El nombre es obligatorio")
+    @Size(min = 2, max = 100, message = "El nombre debe tener entre 2 y 100 caracteres")
+    private String nombreCliente;
+    
+    @NotBlank(message = "El email es obligatorio")
+    @Email(message = "Email inválido")
+    private String emailCliente;
+    
+    @NotBlank(message = "El teléfono es obligatorio")
+    @Pattern(regexp = "^[+]?[0-9\\s\\-()]{9,20}$", message = "Teléfono inválido")
+    private String telefonoCliente;
+    
+    // HORARIO Y GRUPO
+    @NotNull(message = "La fecha es obligatoria")
+    @FutureOrPresent(message = "La fecha no puede ser del pasado")
+    private LocalDate fecha;
+    
+    // Uno de los horarios de reserva (GET /api/disponibilidad/horarios)
+    @NotNull(message = "La hora es obligatoria")
+    private LocalTime hora;
+    
+    @NotNull(message = "El número de personas es obligatorio")
+    @Min(value = 1, message = "Mínimo 1 persona")
+    @Max(value = 20, message = "Máximo 20 personas")
+    private Integer numeroPersonas;
+    
+    // Opcional: tipo de mesa preferido al asignar
+    private TipoMesa tipoPreferido;
+}
@@ -1,5 +1,6 @@
 package ipss.cl.reservas.models.dto.request;
 
+import ipss.cl.reservas.models.enums.TipoMesa;
 import lombok.Data;
 import jakarta.validation.constraints.*;
 import java.time.LocalDate;
@@ -25,6 +26,9 @@ public class ReservaCreateRequest {
     // mesaId es opcional - si es null, se asigna automáticamente
     private Long mesaId;
     
+    // Opcional: tipo de mesa preferido para la asignación automática
+    private TipoMesa tipoPreferido;
+    
     @NotNull(message = "La fecha es obligatoria")
     @FutureOrPresent(message = "La fecha no puede ser del pasado")
     private LocalDate fecha;
@@ -37,6 +41,14 @@ public class ReservaCreateRequest {
     @Max(value = 20, message = "Máximo 20 personas")
     private Integer numeroPersonas;
     
+    // Opcional: duración en minutos (por defecto, la del tipo de mesa)
+    @Min(value = 30, message = "Duración mínima 30 minutos")
+    @Max(value = 300, message = "Duración máxima 300 minutos")
+    private Integer duracionMinutos;
+    
     @Size(max = 500, message = "Observaciones máximo 500 caracteres")
     private String observaciones;
+    
+    // Opcional: token de la retención (POST /api/retenciones); sin mesaId se usa la mesa retenida
+    private String retencion;
 }
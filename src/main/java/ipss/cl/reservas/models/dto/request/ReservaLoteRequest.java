@@ -0,0 +1,14 @@
+package ipss.cl.reservas.models.dto.request;
+
+import lombok.Data;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+@Data
+public class ReservaLoteRequest {
+    
+    // Cada reserva se valida por separado: una inválida se rechaza sin afectar al resto del lote
+    @NotEmpty(message = "El lote debe tener al menos una reserva")
+    @Size(max = 500, message = "Máximo 500 reservas por lote")
+    private List<ReservaCreateRequest> reservas;
+}
@@ -30,6 +30,11 @@ public class ReservaUpdateRequest {
     @Max(value = 20, message = "Máximo 20 personas")
     private Integer numeroPersonas;
     
+    // Opcional: duración en minutos (por defecto, la del tipo de mesa)
+    @Min(value = 30, message = "Duración mínima 30 minutos")
+    @Max(value = 300, message = "Duración máxima 300 minutos")
+    private Integer duracionMinutos;
+    
     @Size(max = 500, message = "Observaciones máximo 500 caracteres")
     private String observaciones;
     
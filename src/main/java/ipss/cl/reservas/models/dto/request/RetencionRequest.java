@@ -0,0 +1,34 @@
+package ipss.cl.reservas.models.dto.request;
+
+import ipss.cl.reservas.models.enums.TipoMesa;
+import lombok.Data;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class RetencionRequest {
+    
+    // mesaId es opcional - si es null, se asigna automáticamente
+    private Long mesaId;
+    
+    // Opcional: tipo de mesa preferido para la asignación automática
+    private TipoMesa tipoPreferido;
+    
+    @NotNull(message = "La fecha es obligatoria")
+    @FutureOrPresent(message = "La fecha no puede ser del pasado")
+    private LocalDate fecha;
+    
+    @NotNull(message = "La hora es obligatoria")
+    private LocalTime hora;
+    
+    @NotNull(message = "El número de personas es obligatorio")
+    @Min(value = 1, message = "Mínimo 1 persona")
+    @Max(value = 20, message = "Máximo 20 personas")
+    private Integer numeroPersonas;
+    
+    // Opcional: duración en minutos (por defecto, la del tipo de mesa)
+    @Min(value = 30, message = "Duración mínima 30 minutos")
+    @Max(value = 300, message = "Duración máxima 300 minutos")
+    private Integer duracionMinutos;
+}
@@ -0,0 +1,34 @@
+package ipss.cl.reservas.models.dto.request;
+
+import lombok.Data;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class ReubicacionRequest {
+    
+    @NotNull(message = "La fecha es obligatoria")
+    @FutureOrPresent(message = "La fecha no puede ser del pasado")
+    private LocalDate fecha;
+    
+    // Se aplican todos o ninguno
+    @NotEmpty(message = "Debe indicar al menos un cambio de mesa")
+    @Size(max = 500, message = "Máximo 500 cambios de mesa")
+    private List<@Valid MovimientoMesaRequest> movimientos;
+    
+    @Data
+    public static class MovimientoMesaRequest {
+        
+        @NotNull(message = "ID de reserva requerido")
+        private Long reservaId;
+        
+        // La mesa que tenía la reserva al proponer el cambio
+        @NotNull(message = "La mesa de origen es requerida")
+        private Long mesaOrigenId;
+        
+        @NotNull(message = "La mesa de destino es requerida")
+        private Long mesaDestinoId;
+    }
+}
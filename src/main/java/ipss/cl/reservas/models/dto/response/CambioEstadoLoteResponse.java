@@ -0,0 +1,33 @@
+package ipss.cl.reservas.models.dto.response;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CambioEstadoLoteResponse {
+    
+    private EstadoReserva estado;
+    
+    // IDs que pasaron al estado pedido
+    private List<Long> cambiadas;
+    
+    private List<RechazoEstadoResponse> rechazadas;
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RechazoEstadoResponse {
+        
+        private Long id;
+        
+        private String motivo;
+    }
+}
@@ -0,0 +1,23 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CombinacionResponse {
+    
+    // Mesas que se juntan, por número
+    private List<MesaResponse> mesas;
+    
+    // Grupos que admite la combinación
+    private Integer capacidadMinima;
+    private Integer capacidadMaxima;
+    private Integer duracionMinutos;
+}
@@ -0,0 +1,22 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiaSemanaResponse {
+    
+    private String diaSemana;
+    
+    // Cantidad de ese día de la semana dentro del rango consultado
+    private Integer dias;
+    
+    private Long reservas;
+    private Long personas;
+    private Double promedioPersonas;
+}
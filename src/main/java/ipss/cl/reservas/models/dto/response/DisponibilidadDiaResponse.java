@@ -0,0 +1,24 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DisponibilidadDiaResponse {
+    
+    private LocalDate fecha;
+    private Integer personas;
+    
+    // Columnas de la grilla
+    private List<MesaDisponibilidadResponse> mesas;
+    
+    // Filas de la grilla: una por horario de reserva
+    private List<HorarioDisponibilidadResponse> horarios;
+}
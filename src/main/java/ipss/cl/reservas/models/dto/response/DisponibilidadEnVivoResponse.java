@@ -0,0 +1,36 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DisponibilidadEnVivoResponse {
+    
+    private LocalDate fecha;
+    
+    // Crece con cada cambio enviado; es también el id del evento SSE
+    private Long version;
+    
+    // Evento "estado": todos los horarios; evento "cambio": solo los que cambiaron
+    private List<HorarioMesasLibresResponse> horarios;
+    
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class HorarioMesasLibresResponse {
+        
+        private LocalTime hora;
+        
+        // IDs de las mesas libres (disponibles, sin reservas ni retenciones) para la duración de su tipo
+        private List<Long> mesasLibres;
+    }
+}
@@ -0,0 +1,37 @@
+package ipss.cl.reservas.models.dto.response;
+
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EsperaResponse {
+    
+    private Long id;
+    private String nombreCliente;
+    private String emailCliente;
+    private String telefonoCliente;
+    
+    private LocalDate fecha;
+    private LocalTime hora;
+    private Integer numeroPersonas;
+    private TipoMesa tipoPreferido;
+    
+    private EstadoEspera estado;
+    // Posición en la cola de su horario y tamaño de grupo (solo mientras espera)
+    private Integer posicion;
+    // Reserva creada al liberarse una mesa (estado ASIGNADA)
+    private Long reservaId;
+    
+    private LocalDateTime fechaCreacion;
+}
@@ -0,0 +1,18 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HorarioAnaliticaResponse {
+    
+    private LocalTime hora;
+    private Long reservas;
+    private Long personas;
+}
@@ -0,0 +1,25 @@
+package ipss.cl.reservas.models.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HorarioDisponibilidadResponse {
+    
+    private LocalTime hora;
+    
+    // Mesas libres y aptas para el número de personas consultado
+    private Long mesasDisponibles;
+    
+    // Una posición por mesa, en el mismo orden de DisponibilidadDiaResponse.mesas
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Boolean> libres;
+}
@@ -1,5 +1,22 @@
 package ipss.cl.reservas.models.dto.response;
 
-public class MesaDisponibilidadResponse {
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
 
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MesaDisponibilidadResponse {
+    
+    private Long id;
+    private Integer numero;
+    private String tipo;
+    private Integer capacidadMinima;
+    private Integer capacidadMaxima;
+    
+    // true si la mesa admite el número de personas consultado
+    private Boolean aptaParaPersonas;
 }
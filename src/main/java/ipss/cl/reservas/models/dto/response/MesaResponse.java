@@ -0,0 +1,32 @@
+package ipss.cl.reservas.models.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MesaResponse {
+    
+    private Long id;
+    private Integer numero;
+    private Integer capacidadMinima;
+    private Integer capacidadMaxima;
+    private String tipo;
+    private String estado;
+    private String descripcion;
+    private Boolean activa;
+    
+    // IDs de las mesas con las que se puede juntar
+    private List<Long> combinableCon;
+    
+    // Solo si se piden (?reservasDias=N): reservas activas de los próximos N días
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ReservaMesaResponse> proximasReservas;
+}
@@ -0,0 +1,23 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaResponse<T> {
+    
+    private List<T> items;
+    
+    // Cantidad de items en esta página
+    private Integer tamano;
+    
+    // Cursor para pedir la página siguiente (?cursor=...); null si no hay más
+    private String siguiente;
+}
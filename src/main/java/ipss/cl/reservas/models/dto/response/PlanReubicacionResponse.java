@@ -0,0 +1,66 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanReubicacionResponse {
+    
+    private LocalDate fecha;
+    
+    // Cambios de mesa propuestos, por hora; se aplican con POST /api/reservas/reubicaciones
+    private List<MovimientoMesaResponse> movimientos;
+    
+    // Grupos en lista de espera que caben una vez aplicados los cambios
+    private List<EsperaSentableResponse> esperasSentables;
+    private Integer personasEnEsperaSentables;
+    
+    // Capacidad máxima de las mesas menos personas, sumado sobre las reservas del día
+    private Integer asientosSobrantesAntes;
+    private Integer asientosSobrantesDespues;
+    
+    private Long iteraciones;
+    private Long milisegundos;
+    
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MovimientoMesaResponse {
+        
+        private Long reservaId;
+        private String codigoReserva;
+        private String nombreCliente;
+        private LocalTime hora;
+        private LocalTime horaFin;
+        private Integer numeroPersonas;
+        
+        private Long mesaOrigenId;
+        private Integer mesaOrigenNumero;
+        private Long mesaDestinoId;
+        private Integer mesaDestinoNumero;
+    }
+    
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class EsperaSentableResponse {
+        
+        private Long esperaId;
+        private String nombreCliente;
+        private LocalTime hora;
+        private Integer numeroPersonas;
+        private Long mesaId;
+        private Integer mesaNumero;
+    }
+}
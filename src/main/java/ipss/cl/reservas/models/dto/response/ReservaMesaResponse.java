@@ -0,0 +1,25 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Reserva dentro del detalle de una mesa: solo el horario que ocupa, sin datos del cliente
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservaMesaResponse {
+    
+    private Long id;
+    private LocalDate fecha;
+    private LocalTime hora;
+    private LocalTime horaFin;
+    private Integer numeroPersonas;
+    private String estado;
+}
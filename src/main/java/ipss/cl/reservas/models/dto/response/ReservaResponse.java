@@ -1,11 +1,13 @@
 package ipss.cl.reservas.models.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.Builder;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -28,11 +30,20 @@ public class ReservaResponse {
     // DATOS DE LA RESERVA
     private LocalDate fecha;
     private LocalTime hora;
+    private LocalTime horaFin;
+    private Integer duracionMinutos;
     private Integer numeroPersonas;
     private String estado;
     private String observaciones;
     private String codigoReserva;
     
+    // GRUPO EN VARIAS MESAS: ID de la primera reserva del grupo (null = una sola mesa)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long combinacionId;
+    // Números de las mesas del grupo (solo al crear la reserva)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Integer> mesasCombinadas;
+    
     // AUDITORÍA
     private String fechaCreacion;
     private String fechaModificacion;
@@ -0,0 +1,25 @@
+package ipss.cl.reservas.models.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoLoteResponse {
+    
+    // Posición de la reserva en el lote recibido
+    private Integer indice;
+    
+    // CREADA o RECHAZADA
+    private String resultado;
+    
+    private String motivo;
+    
+    private ReservaResponse reserva;
+}
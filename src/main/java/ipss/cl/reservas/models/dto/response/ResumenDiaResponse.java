@@ -0,0 +1,26 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumenDiaResponse {
+    
+    private LocalDate fecha;
+    
+    // DISPONIBLE, POCAS o COMPLETO
+    private String estado;
+    
+    // Mesas libres y aptas sumando todos los horarios del día
+    private Long mesasDisponibles;
+    
+    // Solo hora y mesasDisponibles (sin la grilla por mesa)
+    private List<HorarioDisponibilidadResponse> horarios;
+}
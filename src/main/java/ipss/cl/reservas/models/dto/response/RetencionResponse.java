@@ -0,0 +1,28 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RetencionResponse {
+    
+    // Se envía como "retencion" al crear la reserva (POST /api/reservas)
+    private String token;
+    
+    private Long mesaId;
+    private LocalDate fecha;
+    private LocalTime hora;
+    private LocalTime horaFin;
+    
+    private Instant vence;
+    private Long segundosRestantes;
+}
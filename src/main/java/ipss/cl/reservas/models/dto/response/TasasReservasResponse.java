@@ -0,0 +1,28 @@
+package ipss.cl.reservas.models.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TasasReservasResponse {
+    
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    
+    private Long totalReservas;
+    private Long canceladas;
+    private Long completadas;
+    private Long noAsistio;
+    
+    // % de canceladas sobre el total
+    private Double tasaCancelacion;
+    
+    // % de no asistencias sobre las reservas que llegaron a su hora (completadas + no asistió)
+    private Double tasaNoAsistencia;
+}
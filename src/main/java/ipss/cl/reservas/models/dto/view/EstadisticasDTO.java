@@ -28,7 +28,7 @@ public class EstadisticasDTO {
     private Long mesasOcupadas;
     private Long mesasReservadas;
     
-    // OCUPACIÓN
+    // OCUPACIÓN (% de asientos-horario reservados)
     private Double tasaOcupacionHoy;
     private Double tasaOcupacionSemana;
     
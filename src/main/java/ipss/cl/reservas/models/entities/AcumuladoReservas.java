@@ -0,0 +1,52 @@
+package ipss.cl.reservas.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Acumulado diario de reservas por fecha × horario × tipo de mesa × estado.
+ * Lo mantiene ActualizadorAcumulado; las consultas analíticas leen solo de aquí.
+ */
+@Entity
+@Table(name = "acumulado_reservas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_acumulado_reservas", columnNames = {"fecha", "hora", "tipo_mesa", "estado"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcumuladoReservas {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "acumulado_reservas_seq")
+    @SequenceGenerator(name = "acumulado_reservas_seq", sequenceName = "acumulado_reservas_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate fecha;
+    
+    @Column(nullable = false)
+    private LocalTime hora;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_mesa", nullable = false)
+    private TipoMesa tipoMesa;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoReserva estado;
+    
+    @Column(nullable = false)
+    private Long reservas;
+    
+    @Column(nullable = false)
+    private Long personas;
+}
@@ -0,0 +1,31 @@
+package ipss.cl.reservas.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Día con reservas modificadas pendiente de reprocesar en el acumulado.
+ * Se inserta en la misma transacción que el cambio (solo inserciones: no compite por filas)
+ * y se borra cuando el job recalcula el día.
+ */
+@Entity
+@Table(name = "cambios_reserva")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioReserva {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cambios_reserva_seq")
+    @SequenceGenerator(name = "cambios_reserva_seq", sequenceName = "cambios_reserva_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate fecha;
+}
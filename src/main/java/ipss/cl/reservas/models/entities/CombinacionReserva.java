@@ -0,0 +1,26 @@
+package ipss.cl.reservas.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Grupo en varias mesas: sus reservas (una por mesa) lo referencian en combinacionId.
+ * Se crea antes que ellas, para que todas se guarden ya con el id del grupo.
+ */
+@Entity
+@Table(name = "combinaciones_reserva")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CombinacionReserva {
+    
+    // Misma secuencia que las reservas: los grupos anteriores tienen el id de su primera reserva
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "combinaciones_reserva_id")
+    @SequenceGenerator(name = "combinaciones_reserva_id", sequenceName = "reservas_seq", allocationSize = 50)
+    private Long id;
+}
@@ -0,0 +1,78 @@
+package ipss.cl.reservas.models.entities;
+
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Grupo en lista de espera para un horario sin mesas disponibles.
+ * Al liberarse una mesa, ListaEsperaService le crea una reserva PENDIENTE (reservaId).
+ */
+@Entity
+@Table(name = "lista_espera")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntradaEspera {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lista_espera_seq")
+    @SequenceGenerator(name = "lista_espera_seq", sequenceName = "lista_espera_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String nombreCliente;
+    
+    @Column(nullable = false, length = 100)
+    private String emailCliente;
+    
+    @Column(nullable = false, length = 20)
+    private String telefonoCliente;
+    
+    @Column(nullable = false)
+    private LocalDate fecha;
+    
+    // Uno de los horarios de DateUtils.HORARIOS_RESERVA
+    @Column(nullable = false)
+    private LocalTime hora;
+    
+    @Column(nullable = false)
+    private Integer numeroPersonas;
+    
+    @Enumerated(EnumType.STRING)
+    private TipoMesa tipoPreferido;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoEspera estado;
+    
+    // Reserva creada al asignar una mesa
+    private Long reservaId;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+    
+    private LocalDateTime fechaModificacion;
+    
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+        if (estado == null) {
+            estado = EstadoEspera.ESPERANDO;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        fechaModificacion = LocalDateTime.now();
+    }
+}
@@ -1,15 +1,18 @@
 package ipss.cl.reservas.models.entities;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ipss.cl.reservas.models.enums.EstadoMesa;
 import ipss.cl.reservas.models.enums.TipoMesa;
 
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "mesas")
@@ -43,10 +46,21 @@ public class Mesa {
     @Column(length = 200)
     private String descripcion;
     
+    // Historial completo: no se serializa ni entra en toString/equals (las APIs usan MesaResponse)
     @OneToMany(mappedBy = "mesa", cascade = CascadeType.ALL)
-    @JsonManagedReference
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Reserva> reservas;
     
     @Column(nullable = false)
     private Boolean activa = true;
+    
+    // IDs de las mesas con las que se puede juntar (MesaService mantiene ambos sentidos)
+    @ElementCollection
+    @CollectionTable(name = "mesas_combinables", joinColumns = @JoinColumn(name = "mesa_id"))
+    @Column(name = "combinable_con_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Long> combinableCon;
 }
@@ -1,27 +1,35 @@
 package ipss.cl.reservas.models.entities;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.utils.DateUtils;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+        // Orden del listado paginado por cursor (keyset)
+        @Index(name = "idx_reservas_fecha_hora_id", columnList = "fecha, hora, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reserva {
     
+    // Secuencia con ids reservados de a 50 (optimizador pooled): permite inserts en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = 50)
     private Long id;
     
     // DATOS DEL CLIENTE (sin relación - campos simples)
@@ -37,7 +45,9 @@ public class Reserva {
     // RELACIÓN CON MESA
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mesa_id", nullable = false)
-    @JsonBackReference
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Mesa mesa;
     
     // DATOS DE LA RESERVA
@@ -47,6 +57,14 @@ public class Reserva {
     @Column(nullable = false)
     private LocalTime hora;
     
+    // Duración en minutos; si no se indica se usa la del tipo de mesa
+    @Column(nullable = false)
+    private Integer duracionMinutos;
+    
+    // Calculada desde hora + duracionMinutos (para las consultas de solapamiento)
+    @Column(nullable = false)
+    private LocalTime horaFin;
+    
     @Column(nullable = false)
     private Integer numeroPersonas;
     
@@ -61,6 +79,15 @@ public class Reserva {
     @Column(unique = true, length = 20)
     private String codigoReserva;
     
+    // CLAVE DE OCUPACIÓN: "mesa|fecha|hora" mientras la reserva está activa, null en otro caso.
+    // El índice único impide en la base de datos dos reservas activas en la misma mesa y hora de inicio;
+    // los cruces parciales los evita el lock de ReservaService, que vale dentro de una sola instancia.
+    @Column(unique = true, length = 60)
+    private String claveOcupacion;
+    
+    // GRUPO EN VARIAS MESAS: una reserva por mesa, todas con el id de su CombinacionReserva (null = una sola mesa)
+    private Long combinacionId;
+    
     // AUDITORÍA
     @Column(nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
@@ -73,10 +100,23 @@ public class Reserva {
         if (estado == null) {
             estado = EstadoReserva.PENDIENTE;
         }
+        if (duracionMinutos == null) {
+            duracionMinutos = mesa.getTipo().getDuracionMinutos();
+        }
+        horaFin = DateUtils.calcularHoraFin(hora, duracionMinutos);
+        actualizarClaveOcupacion();
     }
     
     @PreUpdate
     protected void onUpdate() {
         fechaModificacion = LocalDateTime.now();
+        horaFin = DateUtils.calcularHoraFin(hora, duracionMinutos);
+        actualizarClaveOcupacion();
+    }
+    
+    private void actualizarClaveOcupacion() {
+        claveOcupacion = estado.esActivo()
+                ? mesa.getId() + "|" + fecha + "|" + hora
+                : null;
     }
 }
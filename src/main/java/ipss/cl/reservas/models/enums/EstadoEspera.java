@@ -0,0 +1,8 @@
+package ipss.cl.reservas.models.enums;
+
+public enum EstadoEspera {
+    ESPERANDO,
+    ASIGNADA,
+    CANCELADA,
+    EXPIRADA
+}
@@ -1,9 +1,37 @@
 package ipss.cl.reservas.models.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum EstadoReserva {
     PENDIENTE,
     CONFIRMADA,
     CANCELADA,
     COMPLETADA,
-    NO_ASISTIO
+    NO_ASISTIO;
+    
+    // Estados que ocupan la mesa
+    public static final Set<EstadoReserva> ACTIVOS = EnumSet.of(PENDIENTE, CONFIRMADA);
+    
+    // Estados cuyas personas cuentan como atendidas o por atender (ni cancelada ni no asistió)
+    public static final Set<EstadoReserva> CON_PERSONAS = EnumSet.of(PENDIENTE, CONFIRMADA, COMPLETADA);
+    
+    public boolean esActivo() {
+        return ACTIVOS.contains(this);
+    }
+    
+    /**
+     * Estados desde los que se puede pasar a este (cancelada, completada y no asistió son finales)
+     */
+    public Set<EstadoReserva> estadosOrigen() {
+        return switch (this) {
+            case PENDIENTE -> Set.of();
+            case CONFIRMADA -> Set.of(PENDIENTE);
+            case CANCELADA, COMPLETADA, NO_ASISTIO -> ACTIVOS;
+        };
+    }
+    
+    public boolean puedeCambiarA(EstadoReserva destino) {
+        return destino.estadosOrigen().contains(this);
+    }
 }
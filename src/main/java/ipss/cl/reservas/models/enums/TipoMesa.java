@@ -1,9 +1,29 @@
 package ipss.cl.reservas.models.enums;
 
 public enum TipoMesa {
-    INTERIOR,
-    EXTERIOR,
-    TERRAZA,
-    VIP,
-    BARRA
+    INTERIOR(120),
+    EXTERIOR(120),
+    TERRAZA(120),
+    VIP(150),
+    BARRA(60);
+    
+    // Duración por defecto de una reserva en este tipo de mesa (minutos)
+    private final int duracionMinutos;
+    
+    TipoMesa(int duracionMinutos) {
+        this.duracionMinutos = duracionMinutos;
+    }
+    
+    public int getDuracionMinutos() {
+        return duracionMinutos;
+    }
+    
+    // Duración más larga entre todos los tipos
+    public static int duracionMaximaMinutos() {
+        int maxima = 0;
+        for (TipoMesa tipo : values()) {
+            maxima = Math.max(maxima, tipo.duracionMinutos);
+        }
+        return maxima;
+    }
 }
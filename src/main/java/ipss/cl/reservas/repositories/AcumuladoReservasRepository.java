@@ -0,0 +1,67 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.AcumuladoReservas;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.analitica.TotalPorEstado;
+import ipss.cl.reservas.services.analitica.TotalPorFecha;
+import ipss.cl.reservas.services.analitica.TotalPorHorario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas analíticas: leen solo del acumulado diario, nunca de la tabla de reservas.
+ * tipo null = todos los tipos de mesa.
+ */
+@Repository
+public interface AcumuladoReservasRepository extends JpaRepository<AcumuladoReservas, Long> {
+    
+    // Borrar los días que se van a recalcular
+    @Modifying
+    @Query("DELETE FROM AcumuladoReservas a WHERE a.fecha IN :fechas")
+    int deleteByFechaIn(@Param("fechas") Collection<LocalDate> fechas);
+    
+    // Totales por día en los estados indicados
+    @Query("SELECT new ipss.cl.reservas.services.analitica.TotalPorFecha(a.fecha, SUM(a.reservas), SUM(a.personas)) " +
+           "FROM AcumuladoReservas a " +
+           "WHERE a.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND a.estado IN :estados " +
+           "AND (:tipo IS NULL OR a.tipoMesa = :tipo) " +
+           "GROUP BY a.fecha")
+    List<TotalPorFecha> sumarPorFecha(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin,
+            @Param("estados") Collection<EstadoReserva> estados,
+            @Param("tipo") TipoMesa tipo);
+    
+    // Totales por estado
+    @Query("SELECT new ipss.cl.reservas.services.analitica.TotalPorEstado(a.estado, SUM(a.reservas), SUM(a.personas)) " +
+           "FROM AcumuladoReservas a " +
+           "WHERE a.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND (:tipo IS NULL OR a.tipoMesa = :tipo) " +
+           "GROUP BY a.estado")
+    List<TotalPorEstado> sumarPorEstado(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin,
+            @Param("tipo") TipoMesa tipo);
+    
+    // Totales por horario en los estados indicados
+    @Query("SELECT new ipss.cl.reservas.services.analitica.TotalPorHorario(a.hora, SUM(a.reservas), SUM(a.personas)) " +
+           "FROM AcumuladoReservas a " +
+           "WHERE a.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND a.estado IN :estados " +
+           "AND (:tipo IS NULL OR a.tipoMesa = :tipo) " +
+           "GROUP BY a.hora ORDER BY a.hora")
+    List<TotalPorHorario> sumarPorHorario(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin,
+            @Param("estados") Collection<EstadoReserva> estados,
+            @Param("tipo") TipoMesa tipo);
+}
@@ -0,0 +1,15 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.CambioReserva;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CambioReservaRepository extends JpaRepository<CambioReserva, Long> {
+    
+    // Cambios pendientes en orden de llegada
+    List<CambioReserva> findByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.CombinacionReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CombinacionReservaRepository extends JpaRepository<CombinacionReserva, Long> {
+}
@@ -0,0 +1,44 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EntradaEsperaRepository extends JpaRepository<EntradaEspera, Long> {
+    
+    // Esperas en un estado desde una fecha (carga de las colas en memoria al arrancar)
+    @Query("SELECT e FROM EntradaEspera e WHERE e.estado = :estado AND e.fecha >= :desde ORDER BY e.id")
+    List<EntradaEspera> findByEstadoDesde(@Param("estado") EstadoEspera estado, @Param("desde") LocalDate desde);
+    
+    // Esperas de un día en un estado, en orden de llegada
+    @Query("SELECT e FROM EntradaEspera e WHERE e.estado = :estado AND e.fecha = :fecha ORDER BY e.hora, e.id")
+    List<EntradaEspera> findByEstadoYFecha(@Param("estado") EstadoEspera estado, @Param("fecha") LocalDate fecha);
+    
+    // Cambiar el estado solo si sigue en el de origen (la asignación y la cancelación pueden cruzarse)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EntradaEspera e SET e.estado = :estado, e.reservaId = :reservaId, e.fechaModificacion = :ahora " +
+           "WHERE e.id = :id AND e.estado = :origen")
+    int actualizarEstado(@Param("id") Long id,
+                         @Param("origen") EstadoEspera origen,
+                         @Param("estado") EstadoEspera estado,
+                         @Param("reservaId") Long reservaId,
+                         @Param("ahora") LocalDateTime ahora);
+    
+    // Pasar a otro estado las esperas de días anteriores a la fecha (vencimiento diario)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EntradaEspera e SET e.estado = :estado, e.fechaModificacion = :ahora " +
+           "WHERE e.estado = :origen AND e.fecha < :fecha")
+    int actualizarEstadoAnterioresA(@Param("fecha") LocalDate fecha,
+                                    @Param("origen") EstadoEspera origen,
+                                    @Param("estado") EstadoEspera estado,
+                                    @Param("ahora") LocalDateTime ahora);
+}
@@ -3,13 +3,12 @@ package ipss.cl.reservas.repositories;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.models.enums.EstadoMesa;
 import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.combinacion.ParMesas;
+import ipss.cl.reservas.services.estadisticas.MesasPorEstado;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,19 +37,13 @@ public interface MesaRepository extends JpaRepository<Mesa, Long> {
     // Contar total de mesas activas
     Long countByActivaTrue();
     
-    // Buscar mesas disponibles para una fecha/hora específica
-    @Query("SELECT m FROM Mesa m WHERE m.activa = true " +
-           "AND m.estado = 'DISPONIBLE' " +
-           "AND m.capacidadMinima <= :personas " +
-           "AND m.capacidadMaxima >= :personas " +
-           "AND m.id NOT IN (" +
-           "  SELECT r.mesa.id FROM Reserva r " +
-           "  WHERE r.fecha = :fecha " +
-           "  AND r.hora = :hora " +
-           "  AND r.estado IN ('PENDIENTE', 'CONFIRMADA')" +
-           ")")
-    List<Mesa> findMesasDisponibles(
-            @Param("fecha") LocalDate fecha,
-            @Param("hora") LocalTime hora,
-            @Param("personas") Integer personas);
+    // Mesas activas y sus asientos agrupados por estado (dashboard)
+    @Query("SELECT new ipss.cl.reservas.services.estadisticas.MesasPorEstado(m.estado, COUNT(m), SUM(m.capacidadMaxima)) " +
+           "FROM Mesa m WHERE m.activa = true GROUP BY m.estado")
+    List<MesasPorEstado> resumirActivasPorEstado();
+    
+    // Pares de mesas combinables de las mesas activas (catálogo)
+    @Query("SELECT new ipss.cl.reservas.services.combinacion.ParMesas(m.id, c) " +
+           "FROM Mesa m JOIN m.combinableCon c WHERE m.activa = true")
+    List<ParMesas> findParesCombinables();
 }
@@ -2,19 +2,36 @@ package ipss.cl.reservas.repositories;
 
 import ipss.cl.reservas.models.entities.Reserva;
 import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.services.analitica.FilaAcumulado;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import ipss.cl.reservas.services.disponibilidad.Ocupacion;
+import ipss.cl.reservas.services.estadisticas.ReservasPorEstado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+public interface ReservaRepository extends JpaRepository<Reserva, Long>, ReservaRepositoryCustom {
+    
+    // Proyección de solo lectura: reserva + columnas de su mesa en un solo SELECT
+    String SELECT_VISTA = "SELECT new ipss.cl.reservas.services.consulta.ReservaVista(" +
+            "r.id, r.nombreCliente, r.emailCliente, r.telefonoCliente, m.id, m.numero, m.tipo, " +
+            "r.fecha, r.hora, r.horaFin, r.duracionMinutos, r.numeroPersonas, r.estado, r.observaciones, " +
+            "r.codigoReserva, r.fechaCreacion, r.fechaModificacion, r.combinacionId) " +
+            "FROM Reserva r JOIN r.mesa m ";
     
     // Buscar por código de reserva
     Optional<Reserva> findByCodigoReserva(String codigoReserva);
@@ -34,8 +51,10 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     // Buscar por estado
     List<Reserva> findByEstado(EstadoReserva estado);
     
-    // Buscar por mesa
-    List<Reserva> findByMesaId(Long mesaId);
+    // Buscar por mesa (r.mesa.id es la columna mesa_id: sin el LEFT JOIN a mesas del método derivado,
+    // que obligaba a recorrer toda la tabla de reservas)
+    @Query("SELECT r FROM Reserva r WHERE r.mesa.id = :mesaId")
+    List<Reserva> findByMesaId(@Param("mesaId") Long mesaId);
     
     // Buscar por mesa, fecha y hora (para verificar disponibilidad)
     @Query("SELECT r FROM Reserva r WHERE r.mesa.id = :mesaId " +
@@ -47,6 +66,120 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             @Param("fecha") LocalDate fecha,
             @Param("hora") LocalTime hora);
     
+    // Ocupaciones activas de una fecha (para el índice de disponibilidad)
+    @Query("SELECT new ipss.cl.reservas.services.disponibilidad.Ocupacion(r.id, r.mesa.id, r.fecha, r.hora, r.horaFin) " +
+           "FROM Reserva r WHERE r.fecha = :fecha " +
+           "AND r.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    List<Ocupacion> findOcupacionesPorFecha(@Param("fecha") LocalDate fecha);
+    
+    // Ocupaciones activas de un rango, ordenadas por fecha (leer dentro de una transacción y cerrar el Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ipss.cl.reservas.services.disponibilidad.Ocupacion(r.id, r.mesa.id, r.fecha, r.hora, r.horaFin) " +
+           "FROM Reserva r WHERE r.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND r.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "ORDER BY r.fecha")
+    Stream<Ocupacion> streamOcupacionesEntreFechas(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin);
+    
+    // Vistas de un rango, en orden estable (exportación: leer dentro de una transacción y cerrar el Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VISTA +
+           "WHERE r.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY r.fecha, r.hora, r.id")
+    Stream<ReservaVista> streamVistasEntreFechas(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin);
+    
+    // Reservas activas de una mesa que se cruzan con [horaInicio, horaFin)
+    @Query("SELECT r FROM Reserva r WHERE r.mesa.id = :mesaId " +
+           "AND r.fecha = :fecha " +
+           "AND r.hora < :horaFin " +
+           "AND r.horaFin > :horaInicio " +
+           "AND r.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    List<Reserva> findReservasSolapadas(
+            @Param("mesaId") Long mesaId,
+            @Param("fecha") LocalDate fecha,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("horaFin") LocalTime horaFin);
+    
+    // Vistas activas de varias mesas en un rango de fechas, en un solo SELECT (detalle de mesas)
+    @Query(SELECT_VISTA +
+           "WHERE m.id IN :mesaIds " +
+           "AND r.fecha BETWEEN :fechaDesde AND :fechaHasta " +
+           "AND r.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "ORDER BY m.id, r.fecha, r.hora")
+    List<ReservaVista> findVistasActivasPorMesas(
+            @Param("mesaIds") Collection<Long> mesaIds,
+            @Param("fechaDesde") LocalDate fechaDesde,
+            @Param("fechaHasta") LocalDate fechaHasta);
+    
+    // Vista por ID
+    @Query(SELECT_VISTA + "WHERE r.id = :id")
+    Optional<ReservaVista> findVistaById(@Param("id") Long id);
+    
+    // Vistas de varias reservas por ID
+    @Query(SELECT_VISTA + "WHERE r.id IN :ids")
+    List<ReservaVista> findVistasByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Reservas de un grupo en varias mesas, la primera al comienzo
+    @Query("SELECT r FROM Reserva r WHERE r.combinacionId = :combinacionId ORDER BY r.id")
+    List<Reserva> findByCombinacionId(@Param("combinacionId") Long combinacionId);
+    
+    // Vistas de todas las reservas de los grupos en varias mesas a los que pertenecen las reservas indicadas
+    @Query(SELECT_VISTA + "WHERE r.combinacionId IN " +
+           "(SELECT c.combinacionId FROM Reserva c WHERE c.id IN :ids AND c.combinacionId IS NOT NULL)")
+    List<ReservaVista> findVistasDeCombinaciones(@Param("ids") Collection<Long> ids);
+    
+    // Cambio de estado en lote; la condición sobre el estado actual descarta las que cambiaron entretanto
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Reserva r SET r.estado = :estado, r.fechaModificacion = :ahora " +
+           "WHERE r.id IN :ids AND r.estado IN :origenes")
+    int actualizarEstado(@Param("ids") Collection<Long> ids,
+                         @Param("origenes") Collection<EstadoReserva> origenes,
+                         @Param("estado") EstadoReserva estado,
+                         @Param("ahora") LocalDateTime ahora);
+    
+    // Igual que actualizarEstado, para estados que dejan libre la mesa (sin clave de ocupación)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Reserva r SET r.estado = :estado, r.claveOcupacion = NULL, r.fechaModificacion = :ahora " +
+           "WHERE r.id IN :ids AND r.estado IN :origenes")
+    int actualizarEstadoLiberandoMesa(@Param("ids") Collection<Long> ids,
+                                      @Param("origenes") Collection<EstadoReserva> origenes,
+                                      @Param("estado") EstadoReserva estado,
+                                      @Param("ahora") LocalDateTime ahora);
+    
+    // Quitar la clave de ocupación de reservas que cambian de mesa juntas, para que al guardarlas
+    // una no choque en el índice único con la clave anterior de otra (intercambios de mesa)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Reserva r SET r.claveOcupacion = NULL WHERE r.id IN :ids")
+    int liberarClavesOcupacion(@Param("ids") Collection<Long> ids);
+
+    // Vista por código de reserva
+    @Query(SELECT_VISTA + "WHERE r.codigoReserva = :codigo")
+    Optional<ReservaVista> findVistaByCodigoReserva(@Param("codigo") String codigo);
+    
+    // Vistas de reservas futuras por email
+    @Query(SELECT_VISTA +
+           "WHERE r.emailCliente = :email " +
+           "AND r.fecha >= :fechaActual " +
+           "AND r.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "ORDER BY r.fecha, r.hora")
+    List<ReservaVista> findVistasFuturasPorEmail(
+            @Param("email") String email,
+            @Param("fechaActual") LocalDate fechaActual);
+    
+    // Vistas de las reservas de un día
+    @Query(SELECT_VISTA + "WHERE r.fecha = :fecha ORDER BY r.hora")
+    List<ReservaVista> findVistasDelDia(@Param("fecha") LocalDate fecha);
+    
+    // Vistas de reservas pendientes de confirmar
+    @Query(SELECT_VISTA +
+           "WHERE r.estado = 'PENDIENTE' " +
+           "AND r.fecha >= :fechaActual " +
+           "ORDER BY r.fecha, r.hora")
+    List<ReservaVista> findVistasPendientes(@Param("fechaActual") LocalDate fechaActual);
+    
     // Contar reservas por estado
     Long countByEstado(EstadoReserva estado);
     
@@ -76,6 +209,35 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
            "ORDER BY r.fecha, r.hora")
     List<Reserva> findReservasPendientes(@Param("fechaActual") LocalDate fechaActual);
     
+    // Totales del dashboard agrupados por estado, con conteos condicionales por período (una sola pasada)
+    @Query("SELECT new ipss.cl.reservas.services.estadisticas.ReservasPorEstado(r.estado, COUNT(r), " +
+           "SUM(CASE WHEN r.fecha = :hoy THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.fecha BETWEEN :inicioSemana AND :finSemana THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.fecha BETWEEN :inicioMes AND :finMes THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.fecha = :hoy THEN r.numeroPersonas ELSE 0 END), " +
+           "SUM(CASE WHEN r.fecha BETWEEN :inicioSemana AND :finSemana THEN r.numeroPersonas ELSE 0 END), " +
+           "SUM(CASE WHEN r.fecha = :hoy THEN r.numeroPersonas * r.duracionMinutos ELSE 0 END), " +
+           "SUM(CASE WHEN r.fecha BETWEEN :inicioSemana AND :finSemana THEN r.numeroPersonas * r.duracionMinutos ELSE 0 END)) " +
+           "FROM Reserva r GROUP BY r.estado")
+    List<ReservasPorEstado> resumirPorEstado(
+            @Param("hoy") LocalDate hoy,
+            @Param("inicioSemana") LocalDate inicioSemana,
+            @Param("finSemana") LocalDate finSemana,
+            @Param("inicioMes") LocalDate inicioMes,
+            @Param("finMes") LocalDate finMes);
+    
+    // Reservas de los días indicados agrupadas por fecha × horario × tipo de mesa × estado (acumulado diario)
+    @Query("SELECT new ipss.cl.reservas.services.analitica.FilaAcumulado(" +
+           "r.fecha, r.hora, m.tipo, r.estado, COUNT(r), SUM(r.numeroPersonas)) " +
+           "FROM Reserva r JOIN r.mesa m " +
+           "WHERE r.fecha IN :fechas " +
+           "GROUP BY r.fecha, r.hora, m.tipo, r.estado")
+    List<FilaAcumulado> agruparPorHorarioYTipo(@Param("fechas") Collection<LocalDate> fechas);
+    
+    // Todas las fechas con reservas (carga inicial del acumulado)
+    @Query("SELECT DISTINCT r.fecha FROM Reserva r")
+    List<LocalDate> findFechasConReservas();
+    
     // Contar personas por fecha
     @Query("SELECT COALESCE(SUM(r.numeroPersonas), 0) FROM Reserva r " +
            "WHERE r.fecha = :fecha " +
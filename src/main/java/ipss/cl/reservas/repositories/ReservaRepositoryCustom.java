@@ -0,0 +1,13 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.services.consulta.CursorReserva;
+import ipss.cl.reservas.services.consulta.FiltroReservas;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+
+import java.util.List;
+
+public interface ReservaRepositoryCustom {
+    
+    // Página de reservas ordenadas por (fecha, hora, id) después del cursor (keyset), proyectada con su mesa
+    List<ReservaVista> buscarPagina(FiltroReservas filtro, CursorReserva despuesDe, int limite);
+}
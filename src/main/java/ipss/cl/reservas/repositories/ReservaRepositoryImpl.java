@@ -0,0 +1,83 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.services.consulta.CursorReserva;
+import ipss.cl.reservas.services.consulta.FiltroReservas;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consultas de reservas que dependen de filtros opcionales (Criteria API)
+ */
+class ReservaRepositoryImpl implements ReservaRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ReservaVista> buscarPagina(FiltroReservas filtro, CursorReserva despuesDe, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservaVista> query = cb.createQuery(ReservaVista.class);
+        Root<Reserva> reserva = query.from(Reserva.class);
+        // LEFT JOIN (mesa_id es NOT NULL, mismo resultado): así H2 no reordena el join y la página
+        // se lee de reservas en el orden de idx_reservas_fecha_hora_id, sin importar cuántas filas haya
+        Join<Reserva, Mesa> mesa = reserva.join("mesa", JoinType.LEFT);
+        
+        Path<LocalDate> fecha = reserva.get("fecha");
+        Path<LocalTime> hora = reserva.get("hora");
+        Path<Long> id = reserva.get("id");
+        
+        List<Predicate> condiciones = new ArrayList<>();
+        if (filtro.estado() != null) {
+            condiciones.add(cb.equal(reserva.get("estado"), filtro.estado()));
+        }
+        if (filtro.fechaDesde() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(fecha, filtro.fechaDesde()));
+        }
+        if (filtro.fechaHasta() != null) {
+            condiciones.add(cb.lessThanOrEqualTo(fecha, filtro.fechaHasta()));
+        }
+        if (filtro.mesaId() != null) {
+            condiciones.add(cb.equal(mesa.get("id"), filtro.mesaId()));
+        }
+        if (filtro.emailCliente() != null) {
+            condiciones.add(cb.equal(reserva.get("emailCliente"), filtro.emailCliente()));
+        }
+        if (despuesDe != null) {
+            // (fecha, hora, id) > (c.fecha, c.hora, c.id)
+            condiciones.add(cb.or(
+                    cb.greaterThan(fecha, despuesDe.fecha()),
+                    cb.and(cb.equal(fecha, despuesDe.fecha()), cb.greaterThan(hora, despuesDe.hora())),
+                    cb.and(cb.equal(fecha, despuesDe.fecha()), cb.equal(hora, despuesDe.hora()),
+                            cb.greaterThan(id, despuesDe.id()))));
+        }
+        
+        query.select(cb.construct(ReservaVista.class,
+                        id, reserva.get("nombreCliente"), reserva.get("emailCliente"), reserva.get("telefonoCliente"),
+                        mesa.get("id"), mesa.get("numero"), mesa.get("tipo"),
+                        fecha, hora, reserva.get("horaFin"), reserva.get("duracionMinutos"),
+                        reserva.get("numeroPersonas"), reserva.get("estado"), reserva.get("observaciones"),
+                        reserva.get("codigoReserva"), reserva.get("fechaCreacion"), reserva.get("fechaModificacion"),
+                        reserva.get("combinacionId")))
+                .where(condiciones.toArray(Predicate[]::new))
+                .orderBy(cb.asc(fecha), cb.asc(hora), cb.asc(id));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
@@ -0,0 +1,124 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.models.dto.response.DiaSemanaResponse;
+import ipss.cl.reservas.models.dto.response.HorarioAnaliticaResponse;
+import ipss.cl.reservas.models.dto.response.TasasReservasResponse;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.AcumuladoReservasRepository;
+import ipss.cl.reservas.services.analitica.TotalPorEstado;
+import ipss.cl.reservas.services.analitica.TotalPorFecha;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Analítica histórica de reservas. Lee solo el acumulado diario (AcumuladoReservas),
+ * así no compite con las reservas en curso; refleja los cambios con el retraso del job que lo mantiene.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(value = "reservas.servicio", histogram = true)
+public class AnaliticaService {
+    
+    private static final Locale ES = new Locale("es", "ES");
+    
+    private final AcumuladoReservasRepository acumuladoRepository;
+    
+    /**
+     * Reservas y personas por día de la semana (personas de reservas no canceladas ni ausentes)
+     */
+    public List<DiaSemanaResponse> porDiaSemana(LocalDate fechaInicio, LocalDate fechaFin, TipoMesa tipo) {
+        validarRango(fechaInicio, fechaFin);
+        Map<DayOfWeek, long[]> totales = new EnumMap<>(DayOfWeek.class);
+        for (TotalPorFecha total : acumuladoRepository.sumarPorFecha(
+                fechaInicio, fechaFin, EstadoReserva.CON_PERSONAS, tipo)) {
+            long[] suma = totales.computeIfAbsent(total.fecha().getDayOfWeek(), d -> new long[2]);
+            suma[0] += total.reservas();
+            suma[1] += total.personas();
+        }
+        
+        Map<DayOfWeek, Integer> dias = new EnumMap<>(DayOfWeek.class);
+        fechaInicio.datesUntil(fechaFin.plusDays(1))
+                .forEach(fecha -> dias.merge(fecha.getDayOfWeek(), 1, Integer::sum));
+        
+        List<DiaSemanaResponse> respuesta = new ArrayList<>();
+        dias.forEach((dia, cantidad) -> {
+            long[] suma = totales.getOrDefault(dia, new long[2]);
+            respuesta.add(DiaSemanaResponse.builder()
+                    .diaSemana(dia.getDisplayName(TextStyle.FULL, ES))
+                    .dias(cantidad)
+                    .reservas(suma[0])
+                    .personas(suma[1])
+                    .promedioPersonas(redondear((double) suma[1] / cantidad))
+                    .build());
+        });
+        return respuesta;
+    }
+    
+    /**
+     * Tasas de cancelación y de no asistencia del rango
+     */
+    public TasasReservasResponse tasas(LocalDate fechaInicio, LocalDate fechaFin, TipoMesa tipo) {
+        validarRango(fechaInicio, fechaFin);
+        Map<EstadoReserva, Long> porEstado = new EnumMap<>(EstadoReserva.class);
+        for (TotalPorEstado total : acumuladoRepository.sumarPorEstado(fechaInicio, fechaFin, tipo)) {
+            porEstado.put(total.estado(), total.reservas());
+        }
+        
+        long totalReservas = porEstado.values().stream().mapToLong(Long::longValue).sum();
+        long canceladas = porEstado.getOrDefault(EstadoReserva.CANCELADA, 0L);
+        long completadas = porEstado.getOrDefault(EstadoReserva.COMPLETADA, 0L);
+        long noAsistio = porEstado.getOrDefault(EstadoReserva.NO_ASISTIO, 0L);
+        
+        return TasasReservasResponse.builder()
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .totalReservas(totalReservas)
+                .canceladas(canceladas)
+                .completadas(completadas)
+                .noAsistio(noAsistio)
+                .tasaCancelacion(porcentaje(canceladas, totalReservas))
+                .tasaNoAsistencia(porcentaje(noAsistio, completadas + noAsistio))
+                .build();
+    }
+    
+    /**
+     * Reservas y personas por horario de inicio (reservas no canceladas ni ausentes)
+     */
+    public List<HorarioAnaliticaResponse> porHorario(LocalDate fechaInicio, LocalDate fechaFin, TipoMesa tipo) {
+        validarRango(fechaInicio, fechaFin);
+        return acumuladoRepository.sumarPorHorario(fechaInicio, fechaFin, EstadoReserva.CON_PERSONAS, tipo).stream()
+                .map(total -> HorarioAnaliticaResponse.builder()
+                        .hora(total.hora())
+                        .reservas(total.reservas())
+                        .personas(total.personas())
+                        .build())
+                .toList();
+    }
+    
+    private static void validarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("fechaFin no puede ser anterior a fechaInicio");
+        }
+    }
+    
+    private static Double porcentaje(long parte, long total) {
+        return total == 0 ? 0.0 : redondear(100.0 * parte / total);
+    }
+    
+    private static Double redondear(double valor) {
+        return Math.round(valor * 10) / 10.0;
+    }
+}
@@ -1,67 +1,230 @@
 package ipss.cl.reservas.services;
 
+import ipss.cl.reservas.models.dto.response.DisponibilidadDiaResponse;
+import ipss.cl.reservas.models.dto.response.HorarioDisponibilidadResponse;
+import ipss.cl.reservas.models.dto.response.MesaDisponibilidadResponse;
+import ipss.cl.reservas.models.dto.response.ResumenDiaResponse;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoMesa;
 import ipss.cl.reservas.repositories.MesaRepository;
 import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.combinacion.CombinacionMesas;
+import ipss.cl.reservas.services.combinacion.CombinacionesMesas;
+import ipss.cl.reservas.services.disponibilidad.IndiceDisponibilidad;
+import ipss.cl.reservas.services.disponibilidad.Ocupacion;
+import ipss.cl.reservas.services.disponibilidad.OcupacionDia;
+import ipss.cl.reservas.services.retencion.Retencion;
+import ipss.cl.reservas.services.retencion.RetencionesMesas;
+import ipss.cl.reservas.utils.DateUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Timed(value = "reservas.servicio", histogram = true)
 public class DisponibilidadService {
     
     private final MesaRepository mesaRepository;
+    private final CatalogoMesas catalogoMesas;
     private final ReservaRepository reservaRepository;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final RetencionesMesas retenciones;
+    private final CombinacionesMesas combinacionesMesas;
+    
+    // Bajo esta fracción de mesas libres el día se muestra como "POCAS"
+    @Value("${reservas.calendario.umbral-pocas:0.25}")
+    private double umbralPocas;
     
     /**
      * Obtener mesas disponibles para una fecha, hora y número de personas
+     * (cada mesa con la duración por defecto de su tipo)
      */
     public List<Mesa> obtenerMesasDisponibles(LocalDate fecha, LocalTime hora, Integer numeroPersonas) {
+        return obtenerMesasDisponibles(fecha, hora, numeroPersonas, null);
+    }
+    
+    /**
+     * Obtener mesas libres durante toda la reserva: desde hora y por duracionMinutos
+     * (null = duración por defecto del tipo de cada mesa)
+     */
+    public List<Mesa> obtenerMesasDisponibles(LocalDate fecha, LocalTime hora, Integer numeroPersonas,
+                                              Integer duracionMinutos) {
         log.info("Buscando mesas disponibles para {} a las {} para {} personas", fecha, hora, numeroPersonas);
-        return mesaRepository.findMesasDisponibles(fecha, hora, numeroPersonas);
+        
+        OcupacionDia ocupacion = indiceDisponibilidad.ocupacion(fecha);
+        List<Retencion> retenidas = retenciones.delDia(fecha);
+        return catalogoMesas.porCapacidad(numeroPersonas).stream()
+                .filter(mesa -> mesa.getEstado() == EstadoMesa.DISPONIBLE)
+                .filter(mesa -> estaLibre(ocupacion, retenidas, mesa.getId(), hora, horaFin(mesa, hora, duracionMinutos)))
+                .toList();
     }
     
     /**
-     * Verificar si una mesa está disponible
+     * Obtener combinaciones de mesas libres durante toda la reserva para un grupo (las mejores primero:
+     * menos mesas y menos asientos de sobra), con la duración indicada o la de cada combinación
+     */
+    public List<CombinacionMesas> obtenerCombinacionesDisponibles(LocalDate fecha, LocalTime hora,
+                                                                  Integer numeroPersonas, Integer duracionMinutos) {
+        List<CombinacionMesas> candidatas = combinacionesMesas.paraPersonas(numeroPersonas);
+        if (candidatas.isEmpty()) {
+            return List.of();
+        }
+        OcupacionDia ocupacion = indiceDisponibilidad.ocupacion(fecha);
+        return combinacionesLibres(candidatas, ocupacion, ocupacion.ocupadasPorHorario(), retenciones.delDia(fecha),
+                hora, duracionMinutos, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Verificar si una mesa está disponible (con la duración por defecto de su tipo)
      */
     public boolean esMesaDisponible(Long mesaId, LocalDate fecha, LocalTime hora) {
-        List<Reserva> conflictos = reservaRepository.findReservasConflicto(mesaId, fecha, hora);
+        Mesa mesa = catalogoMesas.porId(mesaId)
+                .or(() -> mesaRepository.findById(mesaId))
+                .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + mesaId));
+        return esMesaDisponible(mesaId, fecha, hora, horaFin(mesa, hora, null));
+    }
+    
+    /**
+     * Verificar si una mesa está libre (sin reservas ni retenciones) en el intervalo [hora, horaFin)
+     */
+    public boolean esMesaDisponible(Long mesaId, LocalDate fecha, LocalTime hora, LocalTime horaFin) {
+        return esMesaDisponible(mesaId, fecha, hora, horaFin, null);
+    }
+    
+    /**
+     * Igual que esMesaDisponible, sin contar la retención del token indicado (la del propio cliente)
+     */
+    public boolean esMesaDisponible(Long mesaId, LocalDate fecha, LocalTime hora, LocalTime horaFin,
+                                    String retencionPropia) {
+        if (retenciones.estaRetenida(mesaId, fecha, hora, horaFin, retencionPropia)) {
+            return false;
+        }
+        if (indiceDisponibilidad.isHabilitado()) {
+            return indiceDisponibilidad.estaLibre(mesaId, fecha, hora, horaFin);
+        }
+        List<Reserva> conflictos = reservaRepository.findReservasSolapadas(mesaId, fecha, hora, horaFin);
         return conflictos.isEmpty();
     }
     
+    /**
+     * Calcular la grilla horario × mesa de un día en una sola pasada:
+     * el catálogo de mesas activas y la ocupación del día.
+     * Una celda está libre si una reserva de la duración por defecto de la mesa cabe desde ese horario.
+     */
+    public DisponibilidadDiaResponse obtenerDisponibilidadDia(LocalDate fecha, Integer numeroPersonas) {
+        List<Mesa> mesas = catalogoMesas.activas();
+        OcupacionDia ocupacion = indiceDisponibilidad.ocupacion(fecha);
+        List<Retencion> retenidas = retenciones.delDia(fecha);
+        
+        // Mesas que podrían recibir al grupo si están libres
+        boolean[] aptas = new boolean[mesas.size()];
+        List<MesaDisponibilidadResponse> columnas = new ArrayList<>(mesas.size());
+        for (int i = 0; i < mesas.size(); i++) {
+            Mesa mesa = mesas.get(i);
+            aptas[i] = mesa.getEstado() == EstadoMesa.DISPONIBLE &&
+                       mesa.getCapacidadMinima() <= numeroPersonas &&
+                       mesa.getCapacidadMaxima() >= numeroPersonas;
+            columnas.add(MesaDisponibilidadResponse.builder()
+                    .id(mesa.getId())
+                    .numero(mesa.getNumero())
+                    .tipo(mesa.getTipo().name())
+                    .capacidadMinima(mesa.getCapacidadMinima())
+                    .capacidadMaxima(mesa.getCapacidadMaxima())
+                    .aptaParaPersonas(aptas[i])
+                    .build());
+        }
+        
+        List<HorarioDisponibilidadResponse> filas = new ArrayList<>(DateUtils.HORARIOS_RESERVA.size());
+        for (LocalTime hora : DateUtils.HORARIOS_RESERVA) {
+            List<Boolean> libres = new ArrayList<>(mesas.size());
+            long disponibles = 0;
+            for (int i = 0; i < mesas.size(); i++) {
+                Mesa mesa = mesas.get(i);
+                boolean libre = mesa.getEstado() == EstadoMesa.DISPONIBLE &&
+                                estaLibre(ocupacion, retenidas, mesa.getId(), hora, horaFin(mesa, hora, null));
+                libres.add(libre);
+                if (libre && aptas[i]) {
+                    disponibles++;
+                }
+            }
+            filas.add(HorarioDisponibilidadResponse.builder()
+                    .hora(hora)
+                    .mesasDisponibles(disponibles)
+                    .libres(libres)
+                    .build());
+        }
+        
+        return DisponibilidadDiaResponse.builder()
+                .fecha(fecha)
+                .personas(numeroPersonas)
+                .mesas(columnas)
+                .horarios(filas)
+                .build();
+    }
+    
+    /**
+     * IDs de las mesas libres en cada horario de la grilla (en el orden de HORARIOS_RESERVA),
+     * sin filtrar por número de personas: es lo que se envía a la página pública en vivo.
+     */
+    public Map<LocalTime, List<Long>> obtenerMesasLibresPorHorario(LocalDate fecha) {
+        List<Mesa> disponibles = catalogoMesas.activas().stream()
+                .filter(mesa -> mesa.getEstado() == EstadoMesa.DISPONIBLE)
+                .toList();
+        OcupacionDia ocupacion = indiceDisponibilidad.ocupacion(fecha);
+        List<Retencion> retenidas = retenciones.delDia(fecha);
+        
+        Map<LocalTime, List<Long>> libres = new LinkedHashMap<>();
+        for (LocalTime hora : DateUtils.HORARIOS_RESERVA) {
+            libres.put(hora, disponibles.stream()
+                    .filter(mesa -> estaLibre(ocupacion, retenidas, mesa.getId(), hora, horaFin(mesa, hora, null)))
+                    .map(Mesa::getId)
+                    .toList());
+        }
+        return libres;
+    }
+    
     /**
      * Obtener horarios disponibles para una fecha y número de personas
+     * (con una mesa o, si no hay, con una combinación de mesas libre)
      */
     public List<LocalTime> obtenerHorariosDisponibles(LocalDate fecha, Integer numeroPersonas) {
-        // Horarios de apertura del restaurante (ejemplo: 12:00 a 23:00)
-        List<LocalTime> horariosDisponibles = List.of(
-                LocalTime.of(12, 0),
-                LocalTime.of(12, 30),
-                LocalTime.of(13, 0),
-                LocalTime.of(13, 30),
-                LocalTime.of(14, 0),
-                LocalTime.of(14, 30),
-                LocalTime.of(19, 0),
-                LocalTime.of(19, 30),
-                LocalTime.of(20, 0),
-                LocalTime.of(20, 30),
-                LocalTime.of(21, 0),
-                LocalTime.of(21, 30),
-                LocalTime.of(22, 0)
-        );
+        List<HorarioDisponibilidadResponse> horarios = obtenerDisponibilidadDia(fecha, numeroPersonas).getHorarios();
+        List<CombinacionMesas> combinaciones = combinacionesMesas.paraPersonas(numeroPersonas);
+        if (combinaciones.isEmpty()) {
+            // Filtrar solo horarios con mesas disponibles
+            return horarios.stream()
+                    .filter(horario -> horario.getMesasDisponibles() > 0)
+                    .map(HorarioDisponibilidadResponse::getHora)
+                    .toList();
+        }
         
-        // Filtrar solo horarios con mesas disponibles
-        return horariosDisponibles.stream()
-                .filter(hora -> !obtenerMesasDisponibles(fecha, hora, numeroPersonas).isEmpty())
+        OcupacionDia ocupacion = indiceDisponibilidad.ocupacion(fecha);
+        BitSet[] porHorario = ocupacion.ocupadasPorHorario();
+        List<Retencion> retenidas = retenciones.delDia(fecha);
+        return horarios.stream()
+                .filter(horario -> horario.getMesasDisponibles() > 0 || !combinacionesLibres(
+                        combinaciones, ocupacion, porHorario, retenidas, horario.getHora(), null, 1).isEmpty())
+                .map(HorarioDisponibilidadResponse::getHora)
                 .toList();
     }
     
@@ -69,6 +232,134 @@ public class DisponibilidadService {
      * Contar mesas disponibles en un horario
      */
     public long contarMesasDisponibles(LocalDate fecha, LocalTime hora, Integer numeroPersonas) {
-        return obtenerMesasDisponibles(fecha, hora, numeroPersonas).size();
+        int horario = DateUtils.indiceHorario(hora);
+        if (horario < 0) {
+            return obtenerMesasDisponibles(fecha, hora, numeroPersonas).size();
+        }
+        return obtenerDisponibilidadDia(fecha, numeroPersonas).getHorarios().get(horario).getMesasDisponibles();
+    }
+    
+    /**
+     * Recorrer un rango de fechas entregando el resumen de cada día apenas se calcula.
+     * Lee las reservas del rango en un solo Stream ordenado por fecha y solo mantiene
+     * en memoria la ocupación del día en curso.
+     */
+    public void recorrerCalendario(LocalDate fechaInicio, LocalDate fechaFin, Integer numeroPersonas,
+                                   Consumer<ResumenDiaResponse> consumidor) {
+        List<Mesa> aptas = catalogoMesas.porCapacidad(numeroPersonas).stream()
+                .filter(mesa -> mesa.getEstado() == EstadoMesa.DISPONIBLE)
+                .toList();
+        
+        LocalDate dia = fechaInicio;
+        OcupacionDia ocupacion = new OcupacionDia(indiceDisponibilidad::posicion);
+        try (Stream<Ocupacion> ocupaciones = reservaRepository.streamOcupacionesEntreFechas(fechaInicio, fechaFin)) {
+            Iterator<Ocupacion> iterador = ocupaciones.iterator();
+            while (iterador.hasNext()) {
+                Ocupacion actual = iterador.next();
+                while (dia.isBefore(actual.fecha())) {
+                    consumidor.accept(resumirDia(dia, ocupacion, aptas));
+                    ocupacion = new OcupacionDia(indiceDisponibilidad::posicion);
+                    dia = dia.plusDays(1);
+                }
+                ocupacion.agregar(actual);
+            }
+        }
+        while (!dia.isAfter(fechaFin)) {
+            consumidor.accept(resumirDia(dia, ocupacion, aptas));
+            ocupacion = new OcupacionDia(indiceDisponibilidad::posicion);
+            dia = dia.plusDays(1);
+        }
+    }
+    
+    /**
+     * Resumir la ocupación de un día para las mesas aptas
+     */
+    private ResumenDiaResponse resumirDia(LocalDate fecha, OcupacionDia ocupacion, List<Mesa> aptas) {
+        List<Retencion> retenidas = retenciones.delDia(fecha);
+        List<HorarioDisponibilidadResponse> horarios = new ArrayList<>(DateUtils.HORARIOS_RESERVA.size());
+        long disponibles = 0;
+        for (LocalTime hora : DateUtils.HORARIOS_RESERVA) {
+            long libres = aptas.stream()
+                    .filter(mesa -> estaLibre(ocupacion, retenidas, mesa.getId(), hora, horaFin(mesa, hora, null)))
+                    .count();
+            disponibles += libres;
+            horarios.add(HorarioDisponibilidadResponse.builder()
+                    .hora(hora)
+                    .mesasDisponibles(libres)
+                    .build());
+        }
+        
+        long capacidad = (long) aptas.size() * horarios.size();
+        String estado;
+        if (disponibles == 0) {
+            estado = "COMPLETO";
+        } else if (disponibles <= capacidad * umbralPocas) {
+            estado = "POCAS";
+        } else {
+            estado = "DISPONIBLE";
+        }
+        
+        return ResumenDiaResponse.builder()
+                .fecha(fecha)
+                .estado(estado)
+                .mesasDisponibles(disponibles)
+                .horarios(horarios)
+                .build();
+    }
+    
+    /**
+     * Hasta limite combinaciones libres en [hora, hora + duración). Los bits de ocupación por horario
+     * descartan la mayoría con una intersección de BitSet; como solo miran los horarios de la grilla,
+     * las que pasan se confirman con los intervalos exactos y las retenciones.
+     */
+    private static List<CombinacionMesas> combinacionesLibres(List<CombinacionMesas> candidatas, OcupacionDia ocupacion,
+                                                              BitSet[] porHorario, List<Retencion> retenidas,
+                                                              LocalTime hora, Integer duracionMinutos, int limite) {
+        Map<Integer, BitSet> ocupadasPorDuracion = new HashMap<>();
+        List<CombinacionMesas> libres = new ArrayList<>();
+        for (CombinacionMesas combinacion : candidatas) {
+            int duracion = duracionMinutos != null ? duracionMinutos : combinacion.duracionMinutos();
+            LocalTime fin = DateUtils.calcularHoraFin(hora, duracion);
+            BitSet ocupadas = ocupadasPorDuracion.computeIfAbsent(duracion, d -> ocupadasEntre(porHorario, hora, fin));
+            if (!combinacion.posiciones().intersects(ocupadas) && combinacion.mesas().stream()
+                    .allMatch(mesa -> estaLibre(ocupacion, retenidas, mesa.getId(), hora, fin))) {
+                libres.add(combinacion);
+                if (libres.size() >= limite) {
+                    break;
+                }
+            }
+        }
+        return libres;
+    }
+    
+    /**
+     * Mesas ocupadas en algún horario de la grilla dentro de [inicio, fin)
+     */
+    private static BitSet ocupadasEntre(BitSet[] porHorario, LocalTime inicio, LocalTime fin) {
+        BitSet ocupadas = new BitSet();
+        List<LocalTime> horarios = DateUtils.HORARIOS_RESERVA;
+        for (int h = 0; h < horarios.size(); h++) {
+            if (!horarios.get(h).isBefore(inicio) && horarios.get(h).isBefore(fin)) {
+                ocupadas.or(porHorario[h]);
+            }
+        }
+        return ocupadas;
+    }
+    
+    /**
+     * Mesa sin reservas ni retenciones vigentes en [inicio, fin)
+     */
+    private static boolean estaLibre(OcupacionDia ocupacion, List<Retencion> retenidas, Long mesaId,
+                                     LocalTime inicio, LocalTime fin) {
+        return ocupacion.estaLibre(mesaId, inicio, fin)
+                && retenidas.stream().noneMatch(retencion -> retencion.bloquea(mesaId, inicio, fin));
+    }
+    
+    /**
+     * Hora de término de una reserva en la mesa (duración indicada o la del tipo de mesa)
+     */
+    private LocalTime horaFin(Mesa mesa, LocalTime hora, Integer duracionMinutos) {
+        int duracion = duracionMinutos != null ? duracionMinutos : mesa.getTipo().getDuracionMinutos();
+        return DateUtils.calcularHoraFin(hora, duracion);
     }
 }
@@ -0,0 +1,145 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.models.dto.view.EstadisticasDTO;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.estadisticas.MesasPorEstado;
+import ipss.cl.reservas.services.estadisticas.ReservasPorEstado;
+import ipss.cl.reservas.utils.DateUtils;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Estadísticas del dashboard: una query agregada sobre reservas y otra sobre mesas.
+ * El resultado queda unos segundos en cache (por día) para que varias pestañas abiertas no multipliquen la carga.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "reservas.servicio", histogram = true)
+public class EstadisticasService {
+    
+    public static final String CACHE = "estadisticas";
+    
+    // Cada horario de reserva es un bloque de 30 minutos: un asiento-horario son 30 minutos-persona
+    private static final int MINUTOS_POR_HORARIO = 30;
+    private static final long MINUTOS_SERVICIO_DIA = (long) DateUtils.HORARIOS_RESERVA.size() * MINUTOS_POR_HORARIO;
+    
+    private final ReservaRepository reservaRepository;
+    private final MesaRepository mesaRepository;
+    private final Cache cache;
+    // Como en CatalogoMesas: el cálculo no corre dentro del synchronized de Caffeine
+    private final ReentrantLock calculo = new ReentrantLock();
+    
+    public EstadisticasService(ReservaRepository reservaRepository, MesaRepository mesaRepository,
+                               CacheManager cacheManager) {
+        this.reservaRepository = reservaRepository;
+        this.mesaRepository = mesaRepository;
+        this.cache = cacheManager.getCache(CACHE);
+    }
+    
+    /**
+     * Estadísticas del día actual (desde cache si se calcularon hace poco)
+     */
+    public EstadisticasDTO obtenerEstadisticas() {
+        LocalDate hoy = LocalDate.now();
+        EstadisticasDTO estadisticas = cache.get(hoy, EstadisticasDTO.class);
+        if (estadisticas != null) {
+            return estadisticas;
+        }
+        calculo.lock();
+        try {
+            estadisticas = cache.get(hoy, EstadisticasDTO.class);
+            if (estadisticas == null) {
+                estadisticas = calcular(hoy);
+                cache.put(hoy, estadisticas);
+            }
+            return estadisticas;
+        } finally {
+            calculo.unlock();
+        }
+    }
+    
+    private EstadisticasDTO calcular(LocalDate hoy) {
+        LocalDate inicioSemana = DateUtils.inicioSemanaActual();
+        LocalDate finSemana = DateUtils.finSemanaActual();
+        
+        Map<EstadoReserva, ReservasPorEstado> reservas = new EnumMap<>(EstadoReserva.class);
+        reservaRepository.resumirPorEstado(hoy, inicioSemana, finSemana,
+                        DateUtils.inicioMesActual(), DateUtils.finMesActual())
+                .forEach(fila -> reservas.put(fila.estado(), fila));
+        Map<EstadoMesa, MesasPorEstado> mesas = new EnumMap<>(EstadoMesa.class);
+        mesaRepository.resumirActivasPorEstado()
+                .forEach(fila -> mesas.put(fila.estado(), fila));
+        
+        List<ReservasPorEstado> filas = List.copyOf(reservas.values());
+        List<ReservasPorEstado> ocupan = filas.stream().filter(fila -> EstadoReserva.CON_PERSONAS.contains(fila.estado())).toList();
+        long asientos = mesas.values().stream().mapToLong(MesasPorEstado::asientos).sum();
+        long diasSemana = DateUtils.diasEntre(inicioSemana, finSemana) + 1;
+        
+        return EstadisticasDTO.builder()
+                // Reservas
+                .totalReservasHoy(sumar(filas, ReservasPorEstado::hoy))
+                .totalReservasSemana(sumar(filas, ReservasPorEstado::semana))
+                .totalReservasMes(sumar(filas, ReservasPorEstado::mes))
+                
+                // Estados
+                .reservasPendientes(total(reservas, EstadoReserva.PENDIENTE))
+                .reservasConfirmadas(total(reservas, EstadoReserva.CONFIRMADA))
+                .reservasCanceladas(total(reservas, EstadoReserva.CANCELADA))
+                .reservasCompletadas(total(reservas, EstadoReserva.COMPLETADA))
+                
+                // Mesas
+                .totalMesas(mesas.values().stream().mapToLong(MesasPorEstado::mesas).sum())
+                .mesasDisponibles(mesas(mesas, EstadoMesa.DISPONIBLE))
+                .mesasOcupadas(mesas(mesas, EstadoMesa.OCUPADA))
+                .mesasReservadas(mesas(mesas, EstadoMesa.RESERVADA))
+                
+                // Ocupación: asientos-horario reservados ÷ asientos-horario del período
+                .tasaOcupacionHoy(tasa(sumar(ocupan, ReservasPorEstado::minutosPersonaHoy), asientos, 1))
+                .tasaOcupacionSemana(tasa(sumar(ocupan, ReservasPorEstado::minutosPersonaSemana), asientos, diasSemana))
+                
+                // Personas
+                .personasHoy(Math.toIntExact(sumar(ocupan, ReservasPorEstado::personasHoy)))
+                .personasSemana(Math.toIntExact(sumar(ocupan, ReservasPorEstado::personasSemana)))
+                
+                .build();
+    }
+    
+    private static long sumar(List<ReservasPorEstado> filas, ToLongFunction<ReservasPorEstado> valor) {
+        return filas.stream().mapToLong(valor).sum();
+    }
+    
+    private static Long total(Map<EstadoReserva, ReservasPorEstado> reservas, EstadoReserva estado) {
+        ReservasPorEstado fila = reservas.get(estado);
+        return fila != null ? fila.total() : 0L;
+    }
+    
+    private static Long mesas(Map<EstadoMesa, MesasPorEstado> mesas, EstadoMesa estado) {
+        MesasPorEstado fila = mesas.get(estado);
+        return fila != null ? fila.mesas() : 0L;
+    }
+    
+    /**
+     * Porcentaje (0-100, un decimal) de minutos-persona reservados sobre los disponibles en el período
+     */
+    private static Double tasa(long minutosPersona, long asientos, long dias) {
+        long disponibles = asientos * MINUTOS_SERVICIO_DIA * dias;
+        if (disponibles == 0) {
+            return 0.0;
+        }
+        double porcentaje = Math.min(100.0, 100.0 * minutosPersona / disponibles);
+        return Math.round(porcentaje * 10) / 10.0;
+    }
+}
@@ -0,0 +1,253 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.exceptions.MesaNoDisponibleException;
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import ipss.cl.reservas.repositories.EntradaEsperaRepository;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.espera.ColasEspera;
+import ipss.cl.reservas.services.espera.EnEspera;
+import ipss.cl.reservas.utils.DateUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lista de espera para horarios sin mesas: cuando una reserva libera una mesa,
+ * se le crea una reserva PENDIENTE al primer grupo en espera que quepa.
+ * Las colas viven en memoria (ColasEspera): la tabla solo se lee al arrancar.
+ * Las asignaciones corren en un único hilo, fuera de la transacción (y los locks) de quien liberó la mesa.
+ */
+@Service
+@Slf4j
+public class ListaEsperaService {
+    
+    private static final String OBSERVACION_ASIGNADA = "Asignada desde la lista de espera";
+    
+    private final EntradaEsperaRepository esperaRepository;
+    private final ReservaService reservaService;
+    private final CatalogoMesas catalogoMesas;
+    private final ColasEspera colas;
+    private final TransactionTemplate transaccion;
+    
+    private final ExecutorService atencion = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("lista-espera").daemon().factory());
+    // Fechas ya encoladas para atender: varias liberaciones seguidas del mismo día se atienden juntas
+    private final Set<LocalDate> porAtender = ConcurrentHashMap.newKeySet();
+    
+    public ListaEsperaService(EntradaEsperaRepository esperaRepository, ReservaService reservaService,
+                              CatalogoMesas catalogoMesas, ColasEspera colas,
+                              PlatformTransactionManager transactionManager) {
+        this.esperaRepository = esperaRepository;
+        this.reservaService = reservaService;
+        this.catalogoMesas = catalogoMesas;
+        this.colas = colas;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Cargar las esperas vigentes y atender las mesas que se hayan liberado mientras la aplicación no corría
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        List<EntradaEspera> vigentes = esperaRepository.findByEstadoDesde(EstadoEspera.ESPERANDO, LocalDate.now());
+        colas.agregarTodas(vigentes.stream().map(EnEspera::de).toList());
+        log.info("Lista de espera cargada: {} grupos esperando", vigentes.size());
+        colas.fechas().forEach(this::programarAtencion);
+    }
+    
+    @PreDestroy
+    public void detener() {
+        atencion.shutdownNow();
+    }
+    
+    /**
+     * Anotar un grupo en la lista de espera. Solo se acepta si el horario no tiene mesa para el grupo.
+     */
+    public EntradaEspera registrar(EntradaEspera entrada) {
+        if (DateUtils.indiceHorario(entrada.getHora()) < 0) {
+            throw new IllegalArgumentException("La hora debe ser uno de los horarios de reserva");
+        }
+        if (catalogoMesas.porCapacidad(entrada.getNumeroPersonas()).isEmpty()) {
+            throw new IllegalArgumentException(
+                    "No hay mesas con capacidad para " + entrada.getNumeroPersonas() + " personas");
+        }
+        if (reservaService.buscarMesaDisponible(entrada.getFecha(), entrada.getHora(),
+                entrada.getNumeroPersonas(), entrada.getTipoPreferido()).isPresent()) {
+            throw new IllegalStateException("Hay mesas disponibles para ese horario: haga la reserva directamente");
+        }
+        
+        entrada.setId(null);
+        entrada.setEstado(EstadoEspera.ESPERANDO);
+        entrada.setReservaId(null);
+        EntradaEspera guardada = esperaRepository.save(entrada);
+        colas.agregar(EnEspera.de(guardada));
+        log.info("Grupo de {} en espera para el {} a las {} (ID {})",
+                guardada.getNumeroPersonas(), guardada.getFecha(), guardada.getHora(), guardada.getId());
+        // Una mesa pudo liberarse entre la verificación y el alta
+        programarAtencion(guardada.getFecha());
+        return guardada;
+    }
+    
+    /**
+     * Buscar una espera por ID
+     */
+    public Optional<EntradaEspera> buscarPorId(Long id) {
+        return esperaRepository.findById(id);
+    }
+    
+    /**
+     * Grupos que siguen esperando en una fecha, por horario y orden de llegada
+     */
+    public List<EntradaEspera> listarEsperando(LocalDate fecha) {
+        return esperaRepository.findByEstadoYFecha(EstadoEspera.ESPERANDO, fecha);
+    }
+    
+    /**
+     * Posición (desde 1) del grupo en la cola de su horario y tamaño; 0 si ya no espera
+     */
+    public int posicion(Long id) {
+        return colas.posicion(id);
+    }
+    
+    /**
+     * Retirar un grupo de la lista. Devuelve false si no existe; si ya se le asignó mesa, se rechaza.
+     */
+    public boolean cancelar(Long id) {
+        EntradaEspera entrada = esperaRepository.findById(id).orElse(null);
+        if (entrada == null) {
+            return false;
+        }
+        Integer actualizadas = transaccion.execute(status -> esperaRepository.actualizarEstado(
+                id, EstadoEspera.ESPERANDO, EstadoEspera.CANCELADA, null, LocalDateTime.now()));
+        colas.quitar(id);
+        if (actualizadas == null || actualizadas == 0) {
+            throw new IllegalStateException("La espera ya no está vigente (asignada, cancelada o vencida)");
+        }
+        log.info("Espera ID {} cancelada", id);
+        return true;
+    }
+    
+    /**
+     * Una reserva cambió: si alguien espera en esas fechas, buscarle mesa.
+     * Corre tras confirmarse la transacción y después de actualizar el índice de disponibilidad.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        event.fechas().forEach(this::programarAtencion);
+    }
+    
+    /**
+     * Vencer las esperas de días pasados
+     */
+    @Scheduled(cron = "${reservas.espera.cron-expiracion:0 5 0 * * *}")
+    public int expirarVencidas() {
+        LocalDate hoy = LocalDate.now();
+        Integer vencidas = transaccion.execute(status -> esperaRepository.actualizarEstadoAnterioresA(
+                hoy, EstadoEspera.ESPERANDO, EstadoEspera.EXPIRADA, LocalDateTime.now()));
+        colas.descartarAnterioresA(hoy);
+        if (vencidas != null && vencidas > 0) {
+            log.info("{} esperas vencidas", vencidas);
+        }
+        return vencidas != null ? vencidas : 0;
+    }
+    
+    private void programarAtencion(LocalDate fecha) {
+        if (!fecha.isBefore(LocalDate.now()) && colas.hayEspera(fecha) && porAtender.add(fecha)) {
+            atencion.execute(() -> {
+                porAtender.remove(fecha);
+                try {
+                    atender(fecha);
+                } catch (RuntimeException e) {
+                    log.error("Error atendiendo la lista de espera del {}", fecha, e);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Asignar mesa a los primeros de cada cola del día mientras alguno quepa.
+     * Cada vuelta mira solo las cabezas de las colas (una por horario y tamaño de grupo).
+     */
+    void atender(LocalDate fecha) {
+        boolean cambio = true;
+        while (cambio) {
+            cambio = false;
+            for (EnEspera espera : colas.primeros(fecha)) {
+                if (asignar(espera)) {
+                    cambio = true;
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Crear la reserva del grupo y marcar la espera como asignada en la misma transacción.
+     * Devuelve true si la espera salió de su cola.
+     */
+    private boolean asignar(EnEspera espera) {
+        Optional<Mesa> mesa = reservaService.buscarMesaDisponible(
+                espera.fecha(), espera.hora(), espera.numeroPersonas(), espera.tipoPreferido());
+        if (mesa.isEmpty()) {
+            return false;
+        }
+        
+        Reserva reserva;
+        try {
+            reserva = transaccion.execute(status -> {
+                EntradaEspera entrada = esperaRepository.findById(espera.id()).orElse(null);
+                if (entrada == null || entrada.getEstado() != EstadoEspera.ESPERANDO) {
+                    return null;
+                }
+                Reserva creada = reservaService.crearReserva(Reserva.builder()
+                        .mesa(mesa.get())
+                        .nombreCliente(entrada.getNombreCliente())
+                        .emailCliente(entrada.getEmailCliente())
+                        .telefonoCliente(entrada.getTelefonoCliente())
+                        .fecha(entrada.getFecha())
+                        .hora(entrada.getHora())
+                        .numeroPersonas(entrada.getNumeroPersonas())
+                        .observaciones(OBSERVACION_ASIGNADA)
+                        .build());
+                if (esperaRepository.actualizarEstado(espera.id(), EstadoEspera.ESPERANDO, EstadoEspera.ASIGNADA,
+                        creada.getId(), LocalDateTime.now()) != 1) {
+                    // Se canceló mientras tanto: se deshace la reserva
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return creada;
+            });
+        } catch (IllegalStateException | IllegalArgumentException | MesaNoDisponibleException e) {
+            // Otra operación tomó la mesa entretanto: el grupo sigue esperando
+            log.info("No se pudo asignar la mesa {} a la espera ID {}: {}",
+                    mesa.get().getNumero(), espera.id(), e.getMessage());
+            return false;
+        }
+        
+        colas.quitar(espera.id());
+        if (reserva != null) {
+            log.info("Espera ID {} asignada: reserva {} en mesa {} el {} a las {}", espera.id(),
+                    reserva.getCodigoReserva(), mesa.get().getNumero(), espera.fecha(), espera.hora());
+        }
+        return true;
+    }
+}
@@ -1,30 +1,50 @@
 package ipss.cl.reservas.services;
 
+import ipss.cl.reservas.models.dto.response.MesaResponse;
+import ipss.cl.reservas.models.dto.response.ReservaMesaResponse;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.models.enums.EstadoMesa;
 import ipss.cl.reservas.models.enums.TipoMesa;
 import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Timed(value = "reservas.servicio", histogram = true)
 public class MesaService {
     
     private final MesaRepository mesaRepository;
+    private final ReservaRepository reservaRepository;
+    private final CatalogoMesas catalogoMesas;
+    
+    // Ventana máxima (en días) de próximas reservas que se puede pedir junto a las mesas
+    @Value("${reservas.mesas.reservas-dias-maximo:30}")
+    private int reservasDiasMaximo;
     
     /**
      * Listar todas las mesas activas
      */
     public List<Mesa> listarMesas() {
-        return mesaRepository.findByActivaTrue();
+        return catalogoMesas.activas();
     }
     
     /**
@@ -45,22 +65,21 @@ public class MesaService {
      * Listar mesas por estado
      */
     public List<Mesa> listarMesasPorEstado(EstadoMesa estado) {
-        return mesaRepository.findByEstadoAndActivaTrue(estado);
+        return catalogoMesas.porEstado(estado);
     }
     
     /**
      * Listar mesas por tipo
      */
     public List<Mesa> listarMesasPorTipo(TipoMesa tipo) {
-        return mesaRepository.findByTipoAndActivaTrue(tipo);
+        return catalogoMesas.porTipo(tipo);
     }
     
     /**
      * Listar mesas por capacidad
      */
     public List<Mesa> listarMesasPorCapacidad(Integer personas) {
-        return mesaRepository.findByCapacidadMinimaLessThanEqualAndCapacidadMaximaGreaterThanEqualAndActivaTrue(
-                personas, personas);
+        return catalogoMesas.porCapacidad(personas);
     }
     
     /**
@@ -82,8 +101,15 @@ public class MesaService {
         if (mesa.getActiva() == null) {
             mesa.setActiva(true);
         }
+        Set<Long> combinables = mesa.getCombinableCon();
+        mesa.setCombinableCon(new HashSet<>());
         
-        return mesaRepository.save(mesa);
+        catalogoMesas.invalidar();
+        Mesa guardada = mesaRepository.save(mesa);
+        if (combinables != null) {
+            actualizarCombinables(guardada, combinables);
+        }
+        return guardada;
     }
     
     /**
@@ -123,10 +149,43 @@ public class MesaService {
         if (mesaActualizada.getDescripcion() != null) {
             mesa.setDescripcion(mesaActualizada.getDescripcion());
         }
+        if (mesaActualizada.getCombinableCon() != null) {
+            actualizarCombinables(mesa, mesaActualizada.getCombinableCon());
+        }
         
+        catalogoMesas.invalidar();
         return mesaRepository.save(mesa);
     }
     
+    /**
+     * Reemplazar las mesas con las que se puede juntar, manteniendo la relación en ambos sentidos
+     */
+    private void actualizarCombinables(Mesa mesa, Set<Long> combinables) {
+        Set<Long> nuevas = new HashSet<>(combinables);
+        if (nuevas.contains(mesa.getId())) {
+            throw new IllegalArgumentException("Una mesa no se puede combinar consigo misma");
+        }
+        Set<Long> afectadas = new HashSet<>(nuevas);
+        afectadas.addAll(mesa.getCombinableCon());
+        Map<Long, Mesa> porId = mesaRepository.findAllById(afectadas).stream()
+                .collect(Collectors.toMap(Mesa::getId, Function.identity()));
+        for (Long id : nuevas) {
+            if (!porId.containsKey(id)) {
+                throw new IllegalArgumentException("Mesa combinable no encontrada con ID: " + id);
+            }
+        }
+        
+        for (Mesa otra : porId.values()) {
+            if (nuevas.contains(otra.getId())) {
+                otra.getCombinableCon().add(mesa.getId());
+            } else {
+                otra.getCombinableCon().remove(mesa.getId());
+            }
+        }
+        mesa.getCombinableCon().clear();
+        mesa.getCombinableCon().addAll(nuevas);
+    }
+    
     /**
      * Cambiar estado de mesa
      */
@@ -138,6 +197,7 @@ public class MesaService {
                 .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + id));
         
         mesa.setEstado(nuevoEstado);
+        catalogoMesas.invalidar();
         return mesaRepository.save(mesa);
     }
     
@@ -152,20 +212,80 @@ public class MesaService {
                 .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + id));
         
         mesa.setActiva(false);
+        catalogoMesas.invalidar();
         mesaRepository.save(mesa);
     }
     
+    /**
+     * Convertir mesas a MesaResponse. Si se piden reservasDias, se agregan las reservas activas
+     * de hoy a hoy + reservasDias (acotado al máximo) de todas las mesas con una sola query
+     */
+    public List<MesaResponse> convertirAResponse(List<Mesa> mesas, Integer reservasDias) {
+        if (reservasDias == null) {
+            return mesas.stream()
+                    .map(mesa -> construirResponse(mesa, null))
+                    .toList();
+        }
+        if (reservasDias < 0) {
+            throw new IllegalArgumentException("reservasDias no puede ser negativo");
+        }
+        LocalDate hoy = LocalDate.now();
+        LocalDate hasta = hoy.plusDays(Math.min(reservasDias, reservasDiasMaximo));
+        List<Long> mesaIds = mesas.stream().map(Mesa::getId).toList();
+        Map<Long, List<ReservaMesaResponse>> porMesa = mesaIds.isEmpty() ? Map.of() :
+                reservaRepository.findVistasActivasPorMesas(mesaIds, hoy, hasta).stream()
+                        .collect(Collectors.groupingBy(ReservaVista::mesaId,
+                                Collectors.mapping(MesaService::construirResponse, Collectors.toList())));
+        return mesas.stream()
+                .map(mesa -> construirResponse(mesa, porMesa.getOrDefault(mesa.getId(), List.of())))
+                .toList();
+    }
+    
+    /**
+     * Convertir una mesa a MesaResponse
+     */
+    public MesaResponse convertirAResponse(Mesa mesa, Integer reservasDias) {
+        return convertirAResponse(List.of(mesa), reservasDias).get(0);
+    }
+    
+    private static MesaResponse construirResponse(Mesa mesa, List<ReservaMesaResponse> proximasReservas) {
+        return MesaResponse.builder()
+                .id(mesa.getId())
+                .numero(mesa.getNumero())
+                .capacidadMinima(mesa.getCapacidadMinima())
+                .capacidadMaxima(mesa.getCapacidadMaxima())
+                .tipo(mesa.getTipo().name())
+                .estado(mesa.getEstado().name())
+                .descripcion(mesa.getDescripcion())
+                .activa(mesa.getActiva())
+                .combinableCon(mesa.getCombinableCon() == null ? List.of() :
+                        mesa.getCombinableCon().stream().sorted().toList())
+                .proximasReservas(proximasReservas)
+                .build();
+    }
+    
+    private static ReservaMesaResponse construirResponse(ReservaVista reserva) {
+        return ReservaMesaResponse.builder()
+                .id(reserva.id())
+                .fecha(reserva.fecha())
+                .hora(reserva.hora())
+                .horaFin(reserva.horaFin())
+                .numeroPersonas(reserva.numeroPersonas())
+                .estado(reserva.estado().name())
+                .build();
+    }
+    
     /**
      * Contar mesas por estado
      */
     public Long contarMesasPorEstado(EstadoMesa estado) {
-        return mesaRepository.countByEstadoAndActivaTrue(estado);
+        return (long) catalogoMesas.porEstado(estado).size();
     }
     
     /**
      * Contar total de mesas activas
      */
     public Long contarMesasActivas() {
-        return mesaRepository.countByActivaTrue();
+        return (long) catalogoMesas.activas().size();
     }
 }
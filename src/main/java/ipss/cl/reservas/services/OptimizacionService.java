@@ -0,0 +1,147 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import ipss.cl.reservas.services.optimizacion.EsperaSentable;
+import ipss.cl.reservas.services.optimizacion.MovimientoPropuesto;
+import ipss.cl.reservas.services.optimizacion.OptimizadorMesas;
+import ipss.cl.reservas.services.optimizacion.PlanReubicacion;
+import ipss.cl.reservas.services.optimizacion.Reubicacion;
+import ipss.cl.reservas.services.retencion.Retencion;
+import ipss.cl.reservas.services.retencion.RetencionesMesas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reorganización de las mesas de un día: la asignación al reservar elige mesa una reserva a la vez,
+ * y a lo largo del día quedan grupos chicos en mesas grandes y grupos en espera sin lugar.
+ * El optimizador propone cambios de mesa (sin tocar horarios) que el encargado aplica de una vez.
+ */
+@Service
+@Slf4j
+public class OptimizacionService {
+    
+    private static final long PRESUPUESTO_MAXIMO_MS = 10_000;
+    
+    private final ReservaRepository reservaRepository;
+    private final ReservaService reservaService;
+    private final ListaEsperaService listaEsperaService;
+    private final CatalogoMesas catalogoMesas;
+    private final RetencionesMesas retenciones;
+    // Solo para leer el día: la búsqueda corre después, sin una transacción abierta
+    private final TransactionTemplate lectura;
+    
+    @Value("${reservas.optimizacion.presupuesto-ms:300}")
+    private long presupuestoPorDefectoMs;
+    
+    @Value("${reservas.optimizacion.mantener-tipo:true}")
+    private boolean mantenerTipo;
+    
+    public OptimizacionService(ReservaRepository reservaRepository, ReservaService reservaService,
+                               ListaEsperaService listaEsperaService, CatalogoMesas catalogoMesas,
+                               RetencionesMesas retenciones, PlatformTransactionManager transactionManager) {
+        this.reservaRepository = reservaRepository;
+        this.reservaService = reservaService;
+        this.listaEsperaService = listaEsperaService;
+        this.catalogoMesas = catalogoMesas;
+        this.retenciones = retenciones;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+    
+    /**
+     * Proponer cambios de mesa para las reservas activas de un día (null = presupuesto por defecto).
+     * No se mueven las reservas de varias mesas, las que ya empezaron ni las de mesas fuera de servicio;
+     * las retenciones vigentes ocupan su mesa. No modifica nada.
+     * Las reservas y la lista de espera se leen en una transacción corta; la búsqueda (hasta el presupuesto)
+     * corre fuera de ella.
+     */
+    public PlanReubicacion proponer(LocalDate fecha, Long presupuestoMs) {
+        long presupuesto = presupuestoMs != null ? presupuestoMs : presupuestoPorDefectoMs;
+        if (presupuesto < 1 || presupuesto > PRESUPUESTO_MAXIMO_MS) {
+            throw new IllegalArgumentException(
+                    "El presupuesto debe estar entre 1 y " + PRESUPUESTO_MAXIMO_MS + " ms");
+        }
+        LocalDate hoy = LocalDate.now();
+        if (fecha.isBefore(hoy)) {
+            throw new IllegalArgumentException("Solo se pueden reorganizar las reservas de hoy en adelante");
+        }
+        LocalTime ahora = fecha.equals(hoy) ? LocalTime.now() : LocalTime.MIN;
+        
+        DatosDelDia datos = lectura.execute(status -> new DatosDelDia(
+                reservaRepository.findVistasDelDia(fecha).stream()
+                        .filter(reserva -> reserva.estado().esActivo())
+                        .collect(Collectors.toMap(ReservaVista::id, Function.identity())),
+                listaEsperaService.listarEsperando(fecha).stream()
+                        .collect(Collectors.toMap(EntradaEspera::getId, Function.identity()))));
+        Map<Long, ReservaVista> reservas = datos.reservas();
+        Map<Long, EntradaEspera> esperas = datos.esperas();
+        
+        Map<Long, Mesa> disponibles = catalogoMesas.activas().stream()
+                .filter(mesa -> mesa.getEstado() == EstadoMesa.DISPONIBLE)
+                .collect(Collectors.toMap(Mesa::getId, Function.identity()));
+        OptimizadorMesas optimizador = new OptimizadorMesas(new ArrayList<>(disponibles.values()), mantenerTipo);
+        for (ReservaVista reserva : reservas.values()) {
+            boolean fija = reserva.combinacionId() != null
+                    || !disponibles.containsKey(reserva.mesaId())
+                    || !reserva.hora().isAfter(ahora);
+            if (fija) {
+                optimizador.agregarFija(reserva.mesaId(), reserva.hora(), reserva.horaFin());
+            } else {
+                optimizador.agregarReserva(reserva.id(), reserva.mesaId(), reserva.numeroPersonas(),
+                        reserva.hora(), reserva.horaFin());
+            }
+        }
+        for (Retencion retencion : retenciones.delDia(fecha)) {
+            optimizador.agregarFija(retencion.mesaId(), retencion.hora(), retencion.horaFin());
+        }
+        esperas.values().stream()
+                .sorted(Comparator.comparing(EntradaEspera::getId))
+                .forEach(espera -> optimizador.agregarEspera(espera.getId(), espera.getNumeroPersonas(), espera.getHora()));
+        
+        OptimizadorMesas.Resultado resultado = optimizador.optimizar(Duration.ofMillis(presupuesto), fecha.toEpochDay());
+        List<MovimientoPropuesto> movimientos = resultado.reservasMovidas().entrySet().stream()
+                .map(movida -> new MovimientoPropuesto(reservas.get(movida.getKey()), disponibles.get(movida.getValue())))
+                .sorted(Comparator.comparing((MovimientoPropuesto m) -> m.reserva().hora()))
+                .toList();
+        List<EsperaSentable> sentables = resultado.esperasSentadas().entrySet().stream()
+                .map(sentada -> new EsperaSentable(esperas.get(sentada.getKey()), disponibles.get(sentada.getValue())))
+                .toList();
+        log.info("Reorganización del {}: {} cambios de mesa, asientos sobrantes {} -> {}, {} grupos en espera con mesa ({} iteraciones en {} ms)",
+                fecha, movimientos.size(), resultado.asientosSobrantesAntes(), resultado.asientosSobrantesDespues(),
+                sentables.size(), resultado.iteraciones(), resultado.duracion().toMillis());
+        return new PlanReubicacion(fecha, movimientos, sentables, resultado.asientosSobrantesAntes(),
+                resultado.asientosSobrantesDespues(), resultado.iteraciones(), resultado.duracion());
+    }
+    
+    /**
+     * Aplicar los cambios de mesa de un día, todos o ninguno. Los grupos en espera que ahora caben
+     * los asigna la lista de espera al recibir los cambios.
+     */
+    @Transactional
+    public List<Reserva> aplicar(LocalDate fecha, List<Reubicacion> reubicaciones) {
+        return reservaService.reubicarReservas(fecha, reubicaciones);
+    }
+    
+    private record DatosDelDia(Map<Long, ReservaVista> reservas, Map<Long, EntradaEspera> esperas) {
+    }
+}
@@ -1,30 +1,97 @@
 package ipss.cl.reservas.services;
 
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.exceptions.CapacidadMesaException;
+import ipss.cl.reservas.exceptions.MesaNoDisponibleException;
+import ipss.cl.reservas.models.entities.CombinacionReserva;
 import ipss.cl.reservas.models.entities.Mesa;
 import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoMesa;
 import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.CombinacionReservaRepository;
 import ipss.cl.reservas.repositories.MesaRepository;
 import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.asignacion.AsignadorMesas;
+import ipss.cl.reservas.services.asignacion.ContextoAsignacion;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.combinacion.CombinacionMesas;
+import ipss.cl.reservas.services.consulta.CursorReserva;
+import ipss.cl.reservas.services.consulta.FiltroReservas;
+import ipss.cl.reservas.services.consulta.PaginaReservas;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import ipss.cl.reservas.services.disponibilidad.IndiceDisponibilidad;
+import ipss.cl.reservas.services.disponibilidad.Ocupacion;
+import ipss.cl.reservas.services.disponibilidad.OcupacionDia;
+import ipss.cl.reservas.services.lote.ResultadoCambioEstado;
+import ipss.cl.reservas.services.lote.ResultadoCambioEstado.Rechazo;
+import ipss.cl.reservas.services.lote.ResultadoLote;
+import ipss.cl.reservas.services.lote.SolicitudLote;
+import ipss.cl.reservas.services.metricas.MetricasReservas;
+import ipss.cl.reservas.services.optimizacion.Reubicacion;
+import ipss.cl.reservas.services.retencion.Retencion;
+import ipss.cl.reservas.services.retencion.RetencionesMesas;
+import ipss.cl.reservas.services.metricas.MetricasReservas.Resultado;
+import ipss.cl.reservas.utils.BloqueosEstriados;
+import ipss.cl.reservas.utils.DateUtils;
 import ipss.cl.reservas.utils.ReservaCodeGenerator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Timed(value = "reservas.servicio", histogram = true)
 public class ReservaService {
     
+    // Veces que se vuelve a elegir mesa si otra reserva concurrente ocupó la elegida
+    static final int INTENTOS_ASIGNACION = 5;
+    
     private final ReservaRepository reservaRepository;
     private final MesaRepository mesaRepository;
     private final DisponibilidadService disponibilidadService;
+    private final AsignadorMesas asignadorMesas;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasReservas metricas;
+    private final CatalogoMesas catalogoMesas;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final RetencionesMesas retenciones;
+    private final CombinacionReservaRepository combinacionRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    // Serializa solo las reservas que compiten por la misma mesa y fecha (los intervalos pueden solaparse).
+    // Es por proceso: con varias instancias la base solo impide dos reservas activas con la misma hora de inicio
+    private final BloqueosEstriados bloqueos = new BloqueosEstriados(1024);
     
     /**
      * Listar todas las reservas
@@ -33,6 +100,29 @@ public class ReservaService {
         return reservaRepository.findAll();
     }
     
+    /**
+     * Listar reservas paginadas por cursor, ordenadas por (fecha, hora, id).
+     * Se pide una fila más que el tamaño de página para saber si hay página siguiente.
+     */
+    public PaginaReservas buscarReservas(FiltroReservas filtro, CursorReserva despuesDe, int tamano) {
+        List<ReservaVista> filas = reservaRepository.buscarPagina(filtro, despuesDe, tamano + 1);
+        if (filas.size() <= tamano) {
+            return new PaginaReservas(filas, null);
+        }
+        List<ReservaVista> pagina = filas.subList(0, tamano);
+        return new PaginaReservas(pagina, CursorReserva.de(pagina.get(tamano - 1)));
+    }
+    
+    /**
+     * Recorrer las reservas de un rango de fechas una a una, sin acumularlas: se leen de un Stream
+     * con fetch size y como son vistas (no entidades) el contexto de persistencia no crece con el rango
+     */
+    public void recorrerReservas(LocalDate fechaInicio, LocalDate fechaFin, Consumer<ReservaVista> consumidor) {
+        try (Stream<ReservaVista> reservas = reservaRepository.streamVistasEntreFechas(fechaInicio, fechaFin)) {
+            reservas.forEach(consumidor);
+        }
+    }
+    
     /**
      * Obtener reserva por ID
      */
@@ -47,6 +137,41 @@ public class ReservaService {
         return reservaRepository.findByCodigoReserva(codigo);
     }
     
+    /**
+     * Obtener la vista de solo lectura de una reserva por ID
+     */
+    public Optional<ReservaVista> obtenerVistaPorId(Long id) {
+        return reservaRepository.findVistaById(id);
+    }
+    
+    /**
+     * Buscar la vista de solo lectura por código de reserva
+     */
+    public Optional<ReservaVista> buscarVistaPorCodigo(String codigo) {
+        return reservaRepository.findVistaByCodigoReserva(codigo);
+    }
+    
+    /**
+     * Listar vistas de reservas futuras por email
+     */
+    public List<ReservaVista> listarVistasFuturasPorEmail(String email) {
+        return reservaRepository.findVistasFuturasPorEmail(email, LocalDate.now());
+    }
+    
+    /**
+     * Listar vistas de las reservas de hoy
+     */
+    public List<ReservaVista> listarVistasDeHoy() {
+        return reservaRepository.findVistasDelDia(LocalDate.now());
+    }
+    
+    /**
+     * Listar vistas de reservas pendientes
+     */
+    public List<ReservaVista> listarVistasPendientes() {
+        return reservaRepository.findVistasPendientes(LocalDate.now());
+    }
+    
     /**
      * Listar reservas por email
      */
@@ -94,24 +219,132 @@ public class ReservaService {
      */
     @Transactional
     public Reserva crearReserva(Reserva reserva) {
+        return crearReserva(reserva, null);
+    }
+    
+    /**
+     * Crear nueva reserva usando la retención del cliente (token de retenerMesa), si sigue vigente:
+     * la retención no cuenta como ocupación para esta reserva y se libera al confirmar la transacción.
+     * Con la retención vencida se intenta igual, como una reserva sin retención.
+     */
+    @Transactional
+    public Reserva crearReserva(Reserva reserva, String tokenRetencion) {
         log.info("Creando nueva reserva para {} el {} a las {}", 
                 reserva.getNombreCliente(), reserva.getFecha(), reserva.getHora());
         
+        try {
+            Reserva guardada = insertar(reserva, tokenRetencion);
+            metricas.registrar(Resultado.CREADA, guardada.getMesa().getTipo());
+            return guardada;
+        } catch (RuntimeException e) {
+            registrarRechazo(e, reserva.getMesa() != null ? reserva.getMesa().getTipo() : null);
+            throw e;
+        }
+    }
+    
+    /**
+     * Crear la reserva en la mesa (o mesas juntas) que elija la estrategia de asignación.
+     * La mesa se elige antes de tomar su lock: si una reserva concurrente la ocupó entretanto, se vuelve
+     * a elegir en una transacción nueva, que ya la ve ocupada. Cada intento corre en su propia transacción
+     * y en las métricas cuenta solo el resultado final. Devuelve la reserva, o las del grupo si se juntaron mesas.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Reserva> crearReservaConMesaAutomatica(Reserva datos, TipoMesa tipoPreferido, String tokenRetencion) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        TipoMesa tipo = tipoPreferido;
+        for (int intento = 1; ; intento++) {
+            Optional<Mesa> libre = buscarMesaDisponible(datos.getFecha(), datos.getHora(), datos.getNumeroPersonas(),
+                    tipoPreferido, datos.getDuracionMinutos());
+            // Ninguna mesa sola está libre para el grupo: intentar con mesas juntas
+            Optional<CombinacionMesas> combinacion = libre.isPresent() ? Optional.empty()
+                    : buscarCombinacionDisponible(datos.getFecha(), datos.getHora(), datos.getNumeroPersonas(),
+                            tipoPreferido, datos.getDuracionMinutos());
+            if (libre.isEmpty() && combinacion.isEmpty()) {
+                metricas.registrar(Resultado.SIN_DISPONIBILIDAD, tipo);
+                throw new IllegalStateException(
+                        "No hay mesas disponibles para la fecha, hora y número de personas especificados");
+            }
+            tipo = libre.map(Mesa::getTipo).orElseGet(() -> combinacion.get().mesas().get(0).getTipo());
+            
+            try {
+                List<Reserva> creadas = transaccion.execute(status -> libre.isPresent()
+                        ? List.of(insertar(copiaPara(datos, libre.get()), tokenRetencion))
+                        : insertarCombinada(datos, combinacion.get()));
+                metricas.registrar(Resultado.CREADA, tipo);
+                return creadas;
+            } catch (IllegalStateException | MesaNoDisponibleException e) {
+                if (intento >= INTENTOS_ASIGNACION) {
+                    registrarRechazo(e, tipo);
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                registrarRechazo(e, tipo);
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Contar una solicitud rechazada según el motivo (las solicitudes inválidas no cuentan)
+     */
+    private void registrarRechazo(RuntimeException e, TipoMesa tipo) {
+        if (e instanceof CapacidadMesaException) {
+            metricas.registrar(Resultado.CAPACIDAD, tipo);
+        } else if (e instanceof IllegalStateException || e instanceof MesaNoDisponibleException) {
+            metricas.registrar(Resultado.SIN_DISPONIBILIDAD, tipo);
+        }
+    }
+    
+    /**
+     * Reserva nueva con los datos de la solicitud en la mesa indicada (cada intento guarda una entidad nueva)
+     */
+    private static Reserva copiaPara(Reserva datos, Mesa mesa) {
+        return Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente(datos.getNombreCliente())
+                .emailCliente(datos.getEmailCliente())
+                .telefonoCliente(datos.getTelefonoCliente())
+                .fecha(datos.getFecha())
+                .hora(datos.getHora())
+                .duracionMinutos(datos.getDuracionMinutos())
+                .numeroPersonas(datos.getNumeroPersonas())
+                .observaciones(datos.getObservaciones())
+                .build();
+    }
+    
+    /**
+     * Validar y guardar una reserva nueva bajo el lock de su (mesa, fecha), sin contarla en las métricas
+     */
+    private Reserva insertar(Reserva reserva, String tokenRetencion) {
         // Validar que la mesa existe
         Mesa mesa = mesaRepository.findById(reserva.getMesa().getId())
                 .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
         
-        // Validar disponibilidad
-        if (!disponibilidadService.esMesaDisponible(mesa.getId(), reserva.getFecha(), reserva.getHora())) {
+        // La mesa puede venir del catálogo en cache: asociar la entidad de esta sesión
+        reserva.setMesa(mesa);
+        bloquearHastaFinDeTransaccion(mesa.getId(), reserva.getFecha());
+        
+        // Duración por defecto según el tipo de mesa
+        if (reserva.getDuracionMinutos() == null) {
+            reserva.setDuracionMinutos(mesa.getTipo().getDuracionMinutos());
+        }
+        LocalTime horaFin = DateUtils.calcularHoraFin(reserva.getHora(), reserva.getDuracionMinutos());
+        
+        Retencion retencion = tokenRetencion != null ? retenciones.vigente(tokenRetencion).orElse(null) : null;
+        if (retencion != null && !retencion.cubre(mesa.getId(), reserva.getFecha(), reserva.getHora(), horaFin)) {
+            throw new IllegalArgumentException("La retención corresponde a otra mesa, fecha u horario");
+        }
+        
+        // Validar disponibilidad durante toda la reserva (reservas y retenciones de otros clientes)
+        if (!disponibilidadService.esMesaDisponible(
+                mesa.getId(), reserva.getFecha(), reserva.getHora(), horaFin, tokenRetencion)) {
             throw new IllegalStateException("La mesa no está disponible para la fecha y hora seleccionadas");
         }
         
         // Validar capacidad
         if (reserva.getNumeroPersonas() < mesa.getCapacidadMinima() || 
             reserva.getNumeroPersonas() > mesa.getCapacidadMaxima()) {
-            throw new IllegalArgumentException(String.format(
-                    "La mesa seleccionada tiene capacidad para %d-%d personas", 
-                    mesa.getCapacidadMinima(), mesa.getCapacidadMaxima()));
+            throw new CapacidadMesaException(mesa.getCapacidadMinima(), mesa.getCapacidadMaxima());
         }
         
         // Generar código único
@@ -122,11 +355,219 @@ public class ReservaService {
             reserva.setEstado(EstadoReserva.PENDIENTE);
         }
         
-        return reservaRepository.save(reserva);
+        Reserva guardada = guardar(reserva);
+        if (retencion != null) {
+            liberarAlConfirmar(retencion.token());
+        }
+        return publicarCambio(guardada);
+    }
+    
+    /**
+     * Crear la reserva de un grupo en varias mesas juntas: una reserva por mesa, con el grupo repartido
+     * según la capacidad de cada una y todas con un mismo combinacionId, asignado antes de guardar la primera.
+     * Se toman de una vez (en orden) los locks de todas las mesas; si una falla no se crea ninguna.
+     * En las métricas cuenta como una sola reserva creada.
+     */
+    @Transactional
+    public List<Reserva> crearReservaCombinada(Reserva datos, CombinacionMesas combinacion) {
+        TipoMesa tipo = combinacion.mesas().get(0).getTipo();
+        try {
+            List<Reserva> creadas = insertarCombinada(datos, combinacion);
+            metricas.registrar(Resultado.CREADA, tipo);
+            return creadas;
+        } catch (RuntimeException e) {
+            registrarRechazo(e, tipo);
+            throw e;
+        }
+    }
+    
+    private List<Reserva> insertarCombinada(Reserva datos, CombinacionMesas combinacion) {
+        if (!combinacion.admite(datos.getNumeroPersonas())) {
+            throw new CapacidadMesaException(String.format(
+                    "La combinación de mesas tiene capacidad para %d-%d personas",
+                    combinacion.capacidadMinima(), combinacion.capacidadMaxima()));
+        }
+        List<Mesa> mesas = combinacion.mesas();
+        log.info("Creando reserva combinada para {} en {} mesas el {} a las {}",
+                datos.getNombreCliente(), mesas.size(), datos.getFecha(), datos.getHora());
+        bloquearHastaFinDeTransaccion(bloqueos.paraTodas(mesas.stream()
+                .map(mesa -> List.of(mesa.getId(), datos.getFecha()))
+                .toList()));
+        
+        int[] personas = combinacion.repartir(datos.getNumeroPersonas());
+        int duracion = datos.getDuracionMinutos() != null ? datos.getDuracionMinutos() : combinacion.duracionMinutos();
+        Long combinacionId = combinacionRepository.saveAndFlush(new CombinacionReserva()).getId();
+        List<Reserva> creadas = new ArrayList<>(mesas.size());
+        for (int i = 0; i < mesas.size(); i++) {
+            creadas.add(insertar(Reserva.builder()
+                    .mesa(mesas.get(i))
+                    .nombreCliente(datos.getNombreCliente())
+                    .emailCliente(datos.getEmailCliente())
+                    .telefonoCliente(datos.getTelefonoCliente())
+                    .fecha(datos.getFecha())
+                    .hora(datos.getHora())
+                    .duracionMinutos(duracion)
+                    .numeroPersonas(personas[i])
+                    .observaciones(datos.getObservaciones())
+                    .combinacionId(combinacionId)
+                    .build(), null));
+        }
+        return creadas;
+    }
+    
+    /**
+     * Retener una mesa mientras el cliente completa la reserva (sin mesa, se asigna una como al reservar).
+     * Se valida como una reserva nueva, bajo el mismo lock de (mesa, fecha) (que se libera al terminar la transacción).
+     * cliente identifica a quien retiene, para el máximo de retenciones por cliente.
+     */
+    public Retencion retenerMesa(Long mesaId, LocalDate fecha, LocalTime hora, Integer numeroPersonas,
+                                 TipoMesa tipoPreferido, Integer duracionMinutos, String cliente) {
+        Mesa mesa;
+        if (mesaId == null) {
+            mesa = buscarMesaDisponible(fecha, hora, numeroPersonas, tipoPreferido, duracionMinutos)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "No hay mesas disponibles para la fecha, hora y número de personas especificados"));
+        } else {
+            mesa = catalogoMesas.porId(mesaId)
+                    .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
+            // Como en la asignación automática: solo mesas disponibles (no ocupadas, reservadas ni en mantenimiento)
+            if (mesa.getEstado() != EstadoMesa.DISPONIBLE) {
+                throw new IllegalStateException("La mesa no está disponible para retener");
+            }
+            if (numeroPersonas < mesa.getCapacidadMinima() || numeroPersonas > mesa.getCapacidadMaxima()) {
+                throw new IllegalArgumentException(String.format(
+                        "La mesa seleccionada tiene capacidad para %d-%d personas",
+                        mesa.getCapacidadMinima(), mesa.getCapacidadMaxima()));
+            }
+        }
+        
+        bloquearHastaFinDeTransaccion(mesa.getId(), fecha);
+        int duracion = duracionMinutos != null ? duracionMinutos : mesa.getTipo().getDuracionMinutos();
+        LocalTime horaFin = DateUtils.calcularHoraFin(hora, duracion);
+        if (!disponibilidadService.esMesaDisponible(mesa.getId(), fecha, hora, horaFin)) {
+            throw new IllegalStateException("La mesa no está disponible para la fecha y hora seleccionadas");
+        }
+        Retencion retencion = retenciones.retener(mesa.getId(), fecha, hora, horaFin, cliente);
+        log.info("Mesa {} retenida el {} a las {} hasta {}", mesa.getNumero(), fecha, hora, retencion.vence());
+        return retencion;
+    }
+    
+    /**
+     * Retención vigente por token
+     */
+    public Optional<Retencion> buscarRetencion(String token) {
+        return retenciones.vigente(token);
+    }
+    
+    /**
+     * Liberar una retención antes de que venza
+     */
+    public boolean liberarRetencion(String token) {
+        return retenciones.liberar(token);
+    }
+    
+    /**
+     * Liberar la retención usada una vez confirmada la reserva (después de actualizar el índice,
+     * para que el horario nunca se vea libre); si la transacción falla, la retención se mantiene
+     */
+    private void liberarAlConfirmar(String token) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            retenciones.liberar(token);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                retenciones.liberar(token);
+            }
+        });
     }
     
     /**
-     * Actualizar reserva
+     * Crear un lote de reservas: la disponibilidad de todo el lote se valida en memoria
+     * (contando las reservas ya aceptadas del mismo lote) y las aceptadas se insertan con
+     * sentencias en batch. Devuelve un resultado por solicitud, en el mismo orden.
+     */
+    @Transactional
+    public List<ResultadoLote> crearReservasEnLote(List<SolicitudLote> solicitudes) {
+        log.info("Creando lote de {} reservas", solicitudes.size());
+        bloquearHastaFinDeTransaccion(bloqueos.paraTodas(clavesDelLote(solicitudes)));
+        
+        Map<LocalDate, OcupacionDia> dias = new HashMap<>();
+        List<ResultadoLote> resultados = new ArrayList<>(solicitudes.size());
+        // Los rechazos se cuentan recién cuando el lote se guardó (si falla, la solicitud entera se rechaza)
+        List<SolicitudRechazada> rechazos = new ArrayList<>();
+        List<Reserva> aceptadas = new ArrayList<>();
+        // Las aceptadas aún no tienen id: se marcan en la ocupación del día con ids negativos
+        long idTemporal = -1;
+        
+        for (SolicitudLote solicitud : solicitudes) {
+            Reserva reserva = solicitud.reserva();
+            OcupacionDia dia = dias.computeIfAbsent(reserva.getFecha(), this::cargarOcupacionDia);
+            
+            Mesa mesa;
+            if (reserva.getMesa() != null) {
+                mesa = catalogoMesas.porId(reserva.getMesa().getId()).orElse(null);
+                if (mesa == null) {
+                    resultados.add(ResultadoLote.rechazada("Mesa no encontrada"));
+                    continue;
+                }
+                if (reserva.getNumeroPersonas() < mesa.getCapacidadMinima() ||
+                    reserva.getNumeroPersonas() > mesa.getCapacidadMaxima()) {
+                    rechazos.add(new SolicitudRechazada(Resultado.CAPACIDAD, mesa.getTipo()));
+                    resultados.add(ResultadoLote.rechazada(String.format(
+                            "La mesa seleccionada tiene capacidad para %d-%d personas",
+                            mesa.getCapacidadMinima(), mesa.getCapacidadMaxima())));
+                    continue;
+                }
+                if (!libreEnLote(dia, mesa, reserva)) {
+                    rechazos.add(new SolicitudRechazada(Resultado.SIN_DISPONIBILIDAD, mesa.getTipo()));
+                    resultados.add(ResultadoLote.rechazada(
+                            "La mesa no está disponible para la fecha y hora seleccionadas"));
+                    continue;
+                }
+            } else {
+                List<Mesa> candidatas = catalogoMesas.porCapacidad(reserva.getNumeroPersonas()).stream()
+                        .filter(m -> m.getEstado() == EstadoMesa.DISPONIBLE)
+                        .filter(m -> libreEnLote(dia, m, reserva))
+                        .toList();
+                ContextoAsignacion contexto = new ContextoAsignacion(
+                        reserva.getFecha(), reserva.getHora(), reserva.getNumeroPersonas(),
+                        solicitud.tipoPreferido(), dia::ocupadasPorHorario, indiceDisponibilidad::posicion);
+                mesa = asignadorMesas.elegir(candidatas, contexto).orElse(null);
+                if (mesa == null) {
+                    rechazos.add(new SolicitudRechazada(Resultado.SIN_DISPONIBILIDAD, solicitud.tipoPreferido()));
+                    resultados.add(ResultadoLote.rechazada(
+                            "No hay mesas disponibles para la fecha, hora y número de personas especificados"));
+                    continue;
+                }
+            }
+            
+            if (reserva.getDuracionMinutos() == null) {
+                reserva.setDuracionMinutos(mesa.getTipo().getDuracionMinutos());
+            }
+            reserva.setMesa(mesa);
+            reserva.setCodigoReserva(ReservaCodeGenerator.generarCodigo());
+            if (reserva.getEstado() == null) {
+                reserva.setEstado(EstadoReserva.PENDIENTE);
+            }
+            dia.agregar(new Ocupacion(idTemporal--, mesa.getId(), reserva.getFecha(),
+                    reserva.getHora(), horaFin(reserva, mesa)));
+            aceptadas.add(reserva);
+            resultados.add(ResultadoLote.creada(reserva));
+        }
+        
+        if (!aceptadas.isEmpty()) {
+            insertarEnBatch(aceptadas);
+        }
+        rechazos.forEach(rechazo -> metricas.registrar(rechazo.resultado(), rechazo.tipo()));
+        return resultados;
+    }
+    
+    /**
+     * Actualizar reserva con los campos no nulos de reservaActualizada (una copia sin persistir, no la entidad
+     * de la sesión). Un cambio de mesa, fecha, hora o duración se valida como una reserva nueva, bajo el lock
+     * de la (mesa, fecha) de destino; un cambio de estado pasa por cambiarEstado.
      */
     @Transactional
     public Reserva actualizarReserva(Long id, Reserva reservaActualizada) {
@@ -134,44 +575,47 @@ public class ReservaService {
         
         Reserva reserva = reservaRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Reserva no encontrada con ID: " + id));
-        
-        // Si se cambia la mesa, fecha u hora, validar disponibilidad
-        boolean cambioRelevante = false;
-        
-        if (reservaActualizada.getMesa() != null && 
-            !reservaActualizada.getMesa().getId().equals(reserva.getMesa().getId())) {
-            cambioRelevante = true;
-            reserva.setMesa(reservaActualizada.getMesa());
+        if (reserva.getCombinacionId() != null) {
+            throw new IllegalStateException(
+                    "Una reserva en varias mesas no se puede modificar: cancélela y vuelva a reservar");
         }
+        LocalDate fechaAnterior = reserva.getFecha();
         
-        if (reservaActualizada.getFecha() != null && 
-            !reservaActualizada.getFecha().equals(reserva.getFecha())) {
-            cambioRelevante = true;
-            reserva.setFecha(reservaActualizada.getFecha());
+        // Valores de destino: se validan antes de tocar la entidad (una consulta haría flush del cambio)
+        Mesa mesa = reserva.getMesa();
+        if (reservaActualizada.getMesa() != null && !reservaActualizada.getMesa().getId().equals(mesa.getId())) {
+            mesa = mesaRepository.findById(reservaActualizada.getMesa().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
         }
+        LocalDate fecha = reservaActualizada.getFecha() != null ? reservaActualizada.getFecha() : reserva.getFecha();
+        LocalTime hora = reservaActualizada.getHora() != null ? reservaActualizada.getHora() : reserva.getHora();
+        int duracion = reservaActualizada.getDuracionMinutos() != null
+                ? reservaActualizada.getDuracionMinutos() : reserva.getDuracionMinutos();
+        int personas = reservaActualizada.getNumeroPersonas() != null
+                ? reservaActualizada.getNumeroPersonas() : reserva.getNumeroPersonas();
+        boolean cambioRelevante = !mesa.getId().equals(reserva.getMesa().getId())
+                || !fecha.equals(reserva.getFecha())
+                || !hora.equals(reserva.getHora())
+                || duracion != reserva.getDuracionMinutos();
         
-        if (reservaActualizada.getHora() != null && 
-            !reservaActualizada.getHora().equals(reserva.getHora())) {
-            cambioRelevante = true;
-            reserva.setHora(reservaActualizada.getHora());
+        if (personas < mesa.getCapacidadMinima() || personas > mesa.getCapacidadMaxima()) {
+            throw new IllegalArgumentException(String.format(
+                    "La mesa seleccionada tiene capacidad para %d-%d personas",
+                    mesa.getCapacidadMinima(), mesa.getCapacidadMaxima()));
         }
         
-        // Validar disponibilidad si hubo cambios
-        if (cambioRelevante) {
-            List<Reserva> conflictos = reservaRepository.findReservasConflicto(
-                    reserva.getMesa().getId(), 
-                    reserva.getFecha(), 
-                    reserva.getHora());
-            
-            // Ignorar la reserva actual en los conflictos
-            conflictos = conflictos.stream()
-                    .filter(r -> !r.getId().equals(id))
-                    .toList();
-            
-            if (!conflictos.isEmpty()) {
+        // Validar disponibilidad si hubo cambios (una reserva inactiva no ocupa mesa)
+        if (cambioRelevante && reserva.getEstado().esActivo()) {
+            bloquearHastaFinDeTransaccion(mesa.getId(), fecha);
+            if (haySolapamiento(reserva, mesa.getId(), fecha, hora, DateUtils.calcularHoraFin(hora, duracion))) {
                 throw new IllegalStateException("La mesa no está disponible para la nueva fecha/hora");
             }
         }
+        reserva.setMesa(mesa);
+        reserva.setFecha(fecha);
+        reserva.setHora(hora);
+        reserva.setDuracionMinutos(duracion);
+        reserva.setNumeroPersonas(personas);
         
         // Actualizar otros campos
         if (reservaActualizada.getNombreCliente() != null) {
@@ -183,14 +627,15 @@ public class ReservaService {
         if (reservaActualizada.getTelefonoCliente() != null) {
             reserva.setTelefonoCliente(reservaActualizada.getTelefonoCliente());
         }
-        if (reservaActualizada.getNumeroPersonas() != null) {
-            reserva.setNumeroPersonas(reservaActualizada.getNumeroPersonas());
-        }
         if (reservaActualizada.getObservaciones() != null) {
             reserva.setObservaciones(reservaActualizada.getObservaciones());
         }
         
-        return reservaRepository.save(reserva);
+        publicarCambio(guardar(reserva), fechaAnterior);
+        if (reservaActualizada.getEstado() != null && reservaActualizada.getEstado() != reserva.getEstado()) {
+            return cambiarEstado(id, reservaActualizada.getEstado());
+        }
+        return reserva;
     }
     
     /**
@@ -202,9 +647,169 @@ public class ReservaService {
         
         Reserva reserva = reservaRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Reserva no encontrada con ID: " + id));
+        if (!reserva.getEstado().puedeCambiarA(nuevoEstado)) {
+            throw new IllegalStateException(String.format(
+                    "Una reserva %s no puede pasar a %s", reserva.getEstado(), nuevoEstado));
+        }
+        
+        // Un grupo en varias mesas cambia de estado completo (los miembros que ya no pueden, se quedan igual)
+        List<Reserva> grupo = reserva.getCombinacionId() != null
+                ? reservaRepository.findByCombinacionId(reserva.getCombinacionId()).stream()
+                        .filter(miembro -> miembro.getEstado().puedeCambiarA(nuevoEstado))
+                        .toList()
+                : List.of(reserva);
+        
+        // Sin lock de las mesas: a un estado activo solo se llega desde otro activo (EstadoReserva.estadosOrigen),
+        // así que el cambio nunca ocupa una mesa que no estuviera ocupada ya por esta reserva
+        for (Reserva miembro : grupo) {
+            miembro.setEstado(nuevoEstado);
+            publicarCambio(guardar(miembro));
+        }
+        return reserva;
+    }
+    
+    /**
+     * Cambiar el estado de varias reservas con un solo UPDATE. Las que no existen o no pueden
+     * pasar al estado pedido desde el actual se rechazan sin afectar al resto.
+     * Los estados de destino solo se alcanzan desde estados activos: nunca se ocupa una mesa nueva.
+     */
+    @Transactional
+    public ResultadoCambioEstado cambiarEstadoEnLote(Collection<Long> ids, EstadoReserva nuevoEstado) {
+        log.info("Cambiando estado de {} reservas a {}", ids.size(), nuevoEstado);
+        
+        Map<Long, ReservaVista> actuales = reservaRepository.findVistasByIdIn(ids).stream()
+                .collect(Collectors.toMap(ReservaVista::id, Function.identity()));
+        List<ReservaVista> aceptadas = new ArrayList<>();
+        List<Rechazo> rechazadas = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            ReservaVista actual = actuales.get(id);
+            if (actual == null) {
+                rechazadas.add(new Rechazo(id, "Reserva no encontrada"));
+            } else if (!actual.estado().puedeCambiarA(nuevoEstado)) {
+                rechazadas.add(new Rechazo(id, String.format(
+                        "Una reserva %s no puede pasar a %s", actual.estado(), nuevoEstado)));
+            } else {
+                aceptadas.add(actual);
+            }
+        }
+        
+        // Las demás mesas de los grupos combinados cambian junto con la reserva pedida
+        if (!aceptadas.isEmpty()) {
+            Set<Long> incluidas = aceptadas.stream().map(ReservaVista::id).collect(Collectors.toSet());
+            for (ReservaVista miembro : reservaRepository.findVistasDeCombinaciones(incluidas)) {
+                if (incluidas.add(miembro.id()) && miembro.estado().puedeCambiarA(nuevoEstado)) {
+                    aceptadas.add(miembro);
+                }
+            }
+        }
+        
+        List<Long> cambiadas = aceptadas.stream().map(ReservaVista::id).toList();
+        if (cambiadas.isEmpty()) {
+            return new ResultadoCambioEstado(nuevoEstado, cambiadas, rechazadas);
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        int actualizadas = nuevoEstado.esActivo()
+                ? reservaRepository.actualizarEstado(cambiadas, nuevoEstado.estadosOrigen(), nuevoEstado, ahora)
+                : reservaRepository.actualizarEstadoLiberandoMesa(cambiadas, nuevoEstado.estadosOrigen(), nuevoEstado, ahora);
+        if (actualizadas != cambiadas.size()) {
+            throw new IllegalStateException(
+                    "Otra operación cambió alguna de las reservas mientras tanto; vuelva a intentarlo");
+        }
+        
+        for (ReservaVista reserva : aceptadas) {
+            Ocupacion ocupacion = nuevoEstado.esActivo()
+                    ? new Ocupacion(reserva.id(), reserva.mesaId(), reserva.fecha(), reserva.hora(), reserva.horaFin())
+                    : null;
+            eventPublisher.publishEvent(new ReservaCambiadaEvent(reserva.id(), ocupacion, Set.of(reserva.fecha())));
+        }
+        return new ResultadoCambioEstado(nuevoEstado, cambiadas, rechazadas);
+    }
+    
+    /**
+     * Cambiar de mesa varias reservas de un día de una vez (los cambios propuestos por OptimizacionService
+     * o armados a mano). Con los locks de todas las mesas de origen y destino tomados, el conjunto se valida
+     * contra la ocupación del día ya sin las reservas que se mueven (así una puede tomar la mesa que deja otra):
+     * si una reserva ya no está en su mesa de origen, o una mesa no la admite o no está libre, no se aplica ninguno.
+     */
+    @Transactional
+    public List<Reserva> reubicarReservas(LocalDate fecha, List<Reubicacion> reubicaciones) {
+        log.info("Cambiando de mesa {} reservas del {}", reubicaciones.size(), fecha);
+        Map<Long, Reubicacion> porReserva = new LinkedHashMap<>();
+        for (Reubicacion reubicacion : reubicaciones) {
+            if (porReserva.put(reubicacion.reservaId(), reubicacion) != null) {
+                throw new IllegalArgumentException("La reserva " + reubicacion.reservaId() + " aparece más de una vez");
+            }
+            if (reubicacion.mesaOrigenId().equals(reubicacion.mesaDestinoId())) {
+                throw new IllegalArgumentException("La reserva " + reubicacion.reservaId() + " ya está en esa mesa");
+            }
+        }
+        bloquearHastaFinDeTransaccion(bloqueos.paraTodas(reubicaciones.stream()
+                .flatMap(reubicacion -> Stream.of(reubicacion.mesaOrigenId(), reubicacion.mesaDestinoId()))
+                .map(mesaId -> List.of(mesaId, fecha))
+                .collect(Collectors.toSet())));
+        
+        Map<Long, ReservaVista> actuales = reservaRepository.findVistasByIdIn(porReserva.keySet()).stream()
+                .collect(Collectors.toMap(ReservaVista::id, Function.identity()));
+        OcupacionDia dia = new OcupacionDia(indiceDisponibilidad::posicion);
+        reservaRepository.findOcupacionesPorFecha(fecha).stream()
+                .filter(ocupacion -> !porReserva.containsKey(ocupacion.reservaId()))
+                .forEach(dia::agregar);
+        
+        for (Reubicacion reubicacion : porReserva.values()) {
+            ReservaVista reserva = actuales.get(reubicacion.reservaId());
+            if (reserva == null || !reserva.fecha().equals(fecha) || !reserva.estado().esActivo()) {
+                throw new IllegalStateException(
+                        "La reserva " + reubicacion.reservaId() + " ya no está activa en la fecha indicada");
+            }
+            if (!reserva.mesaId().equals(reubicacion.mesaOrigenId())) {
+                throw new IllegalStateException("La reserva " + reserva.id()
+                        + " ya no está en la mesa indicada; vuelva a calcular los cambios");
+            }
+            if (reserva.combinacionId() != null) {
+                throw new IllegalStateException("Una reserva en varias mesas no se puede cambiar de mesa");
+            }
+            Mesa mesa = catalogoMesas.porId(reubicacion.mesaDestinoId())
+                    .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada"));
+            if (mesa.getEstado() != EstadoMesa.DISPONIBLE) {
+                throw new IllegalStateException("La mesa " + mesa.getNumero() + " no está disponible");
+            }
+            if (reserva.numeroPersonas() < mesa.getCapacidadMinima() ||
+                reserva.numeroPersonas() > mesa.getCapacidadMaxima()) {
+                throw new IllegalArgumentException(String.format("La mesa %d tiene capacidad para %d-%d personas",
+                        mesa.getNumero(), mesa.getCapacidadMinima(), mesa.getCapacidadMaxima()));
+            }
+            if (!dia.estaLibre(mesa.getId(), reserva.hora(), reserva.horaFin())
+                    || retenciones.estaRetenida(mesa.getId(), fecha, reserva.hora(), reserva.horaFin(), null)) {
+                throw new IllegalStateException(String.format("La mesa %d no está libre para la reserva %s de las %s",
+                        mesa.getNumero(), reserva.codigoReserva(), reserva.hora()));
+            }
+            dia.agregar(new Ocupacion(reserva.id(), mesa.getId(), fecha, reserva.hora(), reserva.horaFin()));
+        }
         
-        reserva.setEstado(nuevoEstado);
-        return reservaRepository.save(reserva);
+        // Sin las claves anteriores, cada UPDATE solo puede chocar con una reserva que no se mueve
+        reservaRepository.liberarClavesOcupacion(porReserva.keySet());
+        Map<Long, Mesa> mesas = mesaRepository.findAllById(porReserva.values().stream()
+                        .map(Reubicacion::mesaDestinoId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Mesa::getId, Function.identity()));
+        Map<Long, Reserva> reservas = reservaRepository.findAllById(porReserva.keySet()).stream()
+                .collect(Collectors.toMap(Reserva::getId, Function.identity()));
+        List<Reserva> movidas = new ArrayList<>(porReserva.size());
+        for (Reubicacion reubicacion : porReserva.values()) {
+            Reserva reserva = reservas.get(reubicacion.reservaId());
+            reserva.setMesa(mesas.get(reubicacion.mesaDestinoId()));
+            movidas.add(reserva);
+        }
+        try {
+            reservaRepository.saveAll(movidas);
+            reservaRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new MesaNoDisponibleException(
+                    "Un cambio de mesa choca con otra reserva activa; no se aplicó ninguno", e);
+        }
+        movidas.forEach(this::publicarCambio);
+        return movidas;
     }
     
     /**
@@ -237,31 +842,199 @@ public class ReservaService {
     @Transactional
     public void eliminarReserva(Long id) {
         log.info("Eliminando reserva ID: {}", id);
-        reservaRepository.deleteById(id);
+        reservaRepository.findById(id).ifPresent(reserva -> {
+            // Un grupo en varias mesas se elimina completo, la primera reserva al final (clave foránea)
+            List<Reserva> grupo = reserva.getCombinacionId() != null
+                    ? reservaRepository.findByCombinacionId(reserva.getCombinacionId()).reversed()
+                    : List.of(reserva);
+            for (Reserva miembro : grupo) {
+                reservaRepository.delete(miembro);
+                eventPublisher.publishEvent(
+                        new ReservaCambiadaEvent(miembro.getId(), null, Set.of(miembro.getFecha())));
+            }
+        });
     }
     
     /**
      * Buscar mesa disponible automáticamente
      */
     public Optional<Mesa> buscarMesaDisponible(LocalDate fecha, LocalTime hora, Integer numeroPersonas) {
+        return buscarMesaDisponible(fecha, hora, numeroPersonas, null);
+    }
+    
+    /**
+     * Buscar mesa disponible automáticamente, considerando el tipo de mesa preferido
+     */
+    public Optional<Mesa> buscarMesaDisponible(LocalDate fecha, LocalTime hora, Integer numeroPersonas,
+                                               TipoMesa tipoPreferido) {
+        return buscarMesaDisponible(fecha, hora, numeroPersonas, tipoPreferido, null);
+    }
+    
+    /**
+     * Buscar mesa disponible automáticamente para una duración dada
+     * (null = duración por defecto del tipo de cada mesa)
+     */
+    public Optional<Mesa> buscarMesaDisponible(LocalDate fecha, LocalTime hora, Integer numeroPersonas,
+                                               TipoMesa tipoPreferido, Integer duracionMinutos) {
         log.info("Buscando mesa disponible para {} personas el {} a las {}", numeroPersonas, fecha, hora);
         
-        // Obtener todas las mesas activas que cumplan con la capacidad
-        List<Mesa> mesasCandidatas = mesaRepository.findByActivaTrue().stream()
-                .filter(mesa -> numeroPersonas >= mesa.getCapacidadMinima() && 
-                                numeroPersonas <= mesa.getCapacidadMaxima())
-                .toList();
-        
-        // Buscar la primera mesa disponible
-        for (Mesa mesa : mesasCandidatas) {
-            if (disponibilidadService.esMesaDisponible(mesa.getId(), fecha, hora)) {
-                log.info("Mesa {} asignada automáticamente", mesa.getNumero());
-                return Optional.of(mesa);
+        Optional<Mesa> mesa = asignadorMesas.asignar(fecha, hora, numeroPersonas, tipoPreferido, duracionMinutos);
+        if (mesa.isPresent()) {
+            log.info("Mesa {} asignada automáticamente", mesa.get().getNumero());
+        } else {
+            log.warn("No se encontró mesa disponible");
+        }
+        return mesa;
+    }
+    
+    /**
+     * Buscar una combinación de mesas libre para un grupo (para cuando ninguna mesa sola está libre):
+     * primero las que son todas del tipo preferido, si se indica
+     */
+    public Optional<CombinacionMesas> buscarCombinacionDisponible(LocalDate fecha, LocalTime hora,
+                                                                  Integer numeroPersonas, TipoMesa tipoPreferido,
+                                                                  Integer duracionMinutos) {
+        List<CombinacionMesas> libres = disponibilidadService.obtenerCombinacionesDisponibles(
+                fecha, hora, numeroPersonas, duracionMinutos);
+        Optional<CombinacionMesas> combinacion = libres.stream()
+                .filter(c -> tipoPreferido != null && c.mesas().stream().allMatch(m -> m.getTipo() == tipoPreferido))
+                .findFirst()
+                .or(() -> libres.stream().findFirst());
+        combinacion.ifPresent(c -> log.info("Combinación de mesas {} asignada automáticamente",
+                c.mesas().stream().map(Mesa::getNumero).toList()));
+        return combinacion;
+    }
+    
+    /**
+     * Claves (mesa, fecha) que puede tocar el lote: la mesa pedida o, si se asigna
+     * automáticamente, todas las mesas con capacidad para el grupo
+     */
+    private Set<List<Object>> clavesDelLote(List<SolicitudLote> solicitudes) {
+        Set<List<Object>> claves = new HashSet<>();
+        for (SolicitudLote solicitud : solicitudes) {
+            Reserva reserva = solicitud.reserva();
+            if (reserva.getMesa() != null) {
+                claves.add(List.of(reserva.getMesa().getId(), reserva.getFecha()));
+            } else {
+                for (Mesa mesa : catalogoMesas.porCapacidad(reserva.getNumeroPersonas())) {
+                    claves.add(List.of(mesa.getId(), reserva.getFecha()));
+                }
             }
         }
+        return claves;
+    }
+    
+    /**
+     * Ocupación de un día leída de la base de datos (bajo los locks del lote),
+     * como copia de trabajo que no afecta al índice compartido
+     */
+    private OcupacionDia cargarOcupacionDia(LocalDate fecha) {
+        OcupacionDia dia = new OcupacionDia(indiceDisponibilidad::posicion);
+        reservaRepository.findOcupacionesPorFecha(fecha).forEach(dia::agregar);
+        return dia;
+    }
+    
+    /**
+     * Mesa libre para la reserva según la copia de trabajo del lote y sin retenciones vigentes
+     */
+    private boolean libreEnLote(OcupacionDia dia, Mesa mesa, Reserva reserva) {
+        LocalTime fin = horaFin(reserva, mesa);
+        return dia.estaLibre(mesa.getId(), reserva.getHora(), fin)
+                && !retenciones.estaRetenida(mesa.getId(), reserva.getFecha(), reserva.getHora(), fin, null);
+    }
+    
+    private LocalTime horaFin(Reserva reserva, Mesa mesa) {
+        int duracion = reserva.getDuracionMinutos() != null
+                ? reserva.getDuracionMinutos()
+                : mesa.getTipo().getDuracionMinutos();
+        return DateUtils.calcularHoraFin(reserva.getHora(), duracion);
+    }
+    
+    /**
+     * Insertar las reservas aceptadas del lote: ids de la secuencia en bloques (pooled)
+     * y sentencias agrupadas según hibernate.jdbc.batch_size
+     */
+    private void insertarEnBatch(List<Reserva> reservas) {
+        // Entidades de esta sesión para las mesas del lote (las del catálogo son copias)
+        Map<Long, Mesa> mesas = mesaRepository.findAllById(
+                        reservas.stream().map(r -> r.getMesa().getId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Mesa::getId, Function.identity()));
+        reservas.forEach(reserva -> reserva.setMesa(mesas.get(reserva.getMesa().getId())));
         
-        log.warn("No se encontró mesa disponible");
-        return Optional.empty();
+        try {
+            reservaRepository.saveAll(reservas);
+            reservaRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new MesaNoDisponibleException(
+                    "Una reserva del lote choca con otra reserva activa; el lote no se guardó", e);
+        }
+        for (Reserva reserva : reservas) {
+            metricas.registrar(Resultado.CREADA, reserva.getMesa().getTipo());
+            publicarCambio(reserva);
+        }
+    }
+    
+    /**
+     * Otra reserva activa o una retención vigente ocupa la mesa en [hora, horaFin) (se llama con el lock tomado)
+     */
+    private boolean haySolapamiento(Reserva reserva, Long mesaId, LocalDate fecha, LocalTime hora, LocalTime horaFin) {
+        return reservaRepository.findReservasSolapadas(mesaId, fecha, hora, horaFin).stream()
+                .anyMatch(otra -> !otra.getId().equals(reserva.getId()))
+                || retenciones.estaRetenida(mesaId, fecha, hora, horaFin, null);
+    }
+    
+    /**
+     * Guardar y forzar el flush para que un choque con otra reserva activa
+     * (índice único de claveOcupacion) se detecte aquí y no al hacer commit
+     */
+    private Reserva guardar(Reserva reserva) {
+        try {
+            return reservaRepository.saveAndFlush(reserva);
+        } catch (DataIntegrityViolationException e) {
+            throw new MesaNoDisponibleException(
+                    "La mesa ya tiene una reserva activa para la fecha y hora seleccionadas", e);
+        }
+    }
+    
+    /**
+     * Tomar el lock de (mesa, fecha) y mantenerlo hasta que termine la transacción,
+     * de modo que la siguiente reserva que pueda solaparse vea esta ya confirmada
+     * (la liberación queda después de la actualización del índice de disponibilidad)
+     */
+    private void bloquearHastaFinDeTransaccion(Long mesaId, LocalDate fecha) {
+        bloquearHastaFinDeTransaccion(List.of(bloqueos.para(List.of(mesaId, fecha))));
+    }
+    
+    /**
+     * Tomar varios locks (en el orden recibido) hasta que termine la transacción
+     */
+    private void bloquearHastaFinDeTransaccion(List<ReentrantLock> locks) {
+        locks.forEach(ReentrantLock::lock);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locks.forEach(ReentrantLock::unlock);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+    
+    /**
+     * Avisar del cambio (el índice de disponibilidad se actualiza al confirmar la transacción)
+     */
+    private Reserva publicarCambio(Reserva reserva) {
+        return publicarCambio(reserva, reserva.getFecha());
+    }
+    
+    private Reserva publicarCambio(Reserva reserva, LocalDate fechaAnterior) {
+        Set<LocalDate> fechas = fechaAnterior.equals(reserva.getFecha())
+                ? Set.of(fechaAnterior) : Set.of(fechaAnterior, reserva.getFecha());
+        eventPublisher.publishEvent(new ReservaCambiadaEvent(reserva.getId(), Ocupacion.de(reserva), fechas));
+        return reserva;
     }
     
     /**
@@ -278,4 +1051,7 @@ public class ReservaService {
     public Integer contarPersonasDeHoy() {
         return reservaRepository.countPersonasPorFecha(LocalDate.now());
     }
+    
+    private record SolicitudRechazada(Resultado resultado, TipoMesa tipo) {
+    }
 }
@@ -0,0 +1,102 @@
+package ipss.cl.reservas.services.analitica;
+
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.models.entities.AcumuladoReservas;
+import ipss.cl.reservas.models.entities.CambioReserva;
+import ipss.cl.reservas.repositories.AcumuladoReservasRepository;
+import ipss.cl.reservas.repositories.CambioReservaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene el acumulado diario de reservas (AcumuladoReservas).
+ * Cada cambio de reserva deja anotado su día en cambios_reserva dentro de la misma transacción;
+ * el job periódico recalcula solo esos días y borra las anotaciones procesadas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActualizadorAcumulado {
+    
+    // Días por query al recalcular (tamaño de la lista IN)
+    private static final int DIAS_POR_BLOQUE = 100;
+    
+    private final ReservaRepository reservaRepository;
+    private final AcumuladoReservasRepository acumuladoRepository;
+    private final CambioReservaRepository cambioRepository;
+    
+    @Value("${reservas.acumulado.cambios-por-ejecucion:5000}")
+    private int cambiosPorEjecucion;
+    
+    // La primera ejecución carga todo si el acumulado está vacío (datos previos a esta tabla)
+    private volatile boolean inicializado;
+    
+    /**
+     * Anotar los días afectados antes de confirmar la transacción del cambio:
+     * si el cambio se revierte, la anotación también
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        event.fechas().forEach(fecha -> cambioRepository.save(CambioReserva.builder().fecha(fecha).build()));
+    }
+    
+    /**
+     * Recalcular los días con cambios pendientes. Devuelve cuántos días se reprocesaron.
+     */
+    @Scheduled(fixedDelayString = "${reservas.acumulado.intervalo-ms:60000}",
+               initialDelayString = "${reservas.acumulado.retraso-inicial-ms:10000}")
+    @Transactional
+    public int procesarCambios() {
+        List<CambioReserva> cambios = cambioRepository.findByOrderByIdAsc(PageRequest.of(0, cambiosPorEjecucion));
+        Set<LocalDate> fechas = cambios.stream()
+                .map(CambioReserva::getFecha)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!inicializado) {
+            if (acumuladoRepository.count() == 0) {
+                fechas.addAll(reservaRepository.findFechasConReservas());
+            }
+            inicializado = true;
+        }
+        if (fechas.isEmpty()) {
+            return 0;
+        }
+        
+        List<LocalDate> pendientes = new ArrayList<>(fechas);
+        for (int i = 0; i < pendientes.size(); i += DIAS_POR_BLOQUE) {
+            recalcular(pendientes.subList(i, Math.min(i + DIAS_POR_BLOQUE, pendientes.size())));
+        }
+        cambioRepository.deleteAllInBatch(cambios);
+        log.debug("Acumulado de reservas recalculado para {} días", fechas.size());
+        return fechas.size();
+    }
+    
+    private void recalcular(List<LocalDate> fechas) {
+        acumuladoRepository.deleteByFechaIn(fechas);
+        List<AcumuladoReservas> filas = reservaRepository.agruparPorHorarioYTipo(fechas).stream()
+                .map(fila -> AcumuladoReservas.builder()
+                        .fecha(fila.fecha())
+                        .hora(fila.hora())
+                        .tipoMesa(fila.tipoMesa())
+                        .estado(fila.estado())
+                        .reservas(fila.reservas())
+                        .personas(fila.personas())
+                        .build())
+                .toList();
+        acumuladoRepository.saveAll(filas);
+    }
+}
@@ -0,0 +1,19 @@
+package ipss.cl.reservas.services.analitica;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Reservas agrupadas por fecha × horario × tipo de mesa × estado (recalculo del acumulado)
+ */
+public record FilaAcumulado(
+        LocalDate fecha,
+        LocalTime hora,
+        TipoMesa tipoMesa,
+        EstadoReserva estado,
+        Long reservas,
+        Long personas) {
+}
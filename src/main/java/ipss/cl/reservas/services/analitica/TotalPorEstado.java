@@ -0,0 +1,9 @@
+package ipss.cl.reservas.services.analitica;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+
+/**
+ * Reservas y personas en un estado, sumadas desde el acumulado
+ */
+public record TotalPorEstado(EstadoReserva estado, Long reservas, Long personas) {
+}
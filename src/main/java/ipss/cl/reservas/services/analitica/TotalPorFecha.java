@@ -0,0 +1,9 @@
+package ipss.cl.reservas.services.analitica;
+
+import java.time.LocalDate;
+
+/**
+ * Reservas y personas de un día, sumadas desde el acumulado
+ */
+public record TotalPorFecha(LocalDate fecha, Long reservas, Long personas) {
+}
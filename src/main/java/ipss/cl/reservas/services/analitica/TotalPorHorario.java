@@ -0,0 +1,9 @@
+package ipss.cl.reservas.services.analitica;
+
+import java.time.LocalTime;
+
+/**
+ * Reservas y personas de un horario, sumadas desde el acumulado
+ */
+public record TotalPorHorario(LocalTime hora, Long reservas, Long personas) {
+}
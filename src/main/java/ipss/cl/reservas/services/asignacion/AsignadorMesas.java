@@ -0,0 +1,72 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.DisponibilidadService;
+import ipss.cl.reservas.services.disponibilidad.IndiceDisponibilidad;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Asignación automática de mesa: obtiene todas las candidatas libres de una vez
+ * (índice en memoria o una sola query) y deja la elección a la estrategia configurada.
+ */
+@Component
+@Slf4j
+public class AsignadorMesas {
+    
+    private final DisponibilidadService disponibilidadService;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final EstrategiaAsignacion estrategia;
+    
+    public AsignadorMesas(DisponibilidadService disponibilidadService,
+                          IndiceDisponibilidad indiceDisponibilidad,
+                          Map<String, EstrategiaAsignacion> estrategias,
+                          @Value("${reservas.asignacion.estrategia:tipo-preferido}") String nombreEstrategia) {
+        this.disponibilidadService = disponibilidadService;
+        this.indiceDisponibilidad = indiceDisponibilidad;
+        this.estrategia = estrategias.get(nombreEstrategia);
+        if (this.estrategia == null) {
+            throw new IllegalStateException("Estrategia de asignación desconocida: " + nombreEstrategia +
+                    ". Disponibles: " + estrategias.keySet());
+        }
+        log.info("Estrategia de asignación de mesas: {}", nombreEstrategia);
+    }
+    
+    /**
+     * Elegir una mesa libre para la fecha, hora, número de personas y duración
+     * (null = duración por defecto del tipo de cada mesa)
+     */
+    public Optional<Mesa> asignar(LocalDate fecha, LocalTime hora, Integer numeroPersonas, TipoMesa tipoPreferido,
+                                  Integer duracionMinutos) {
+        List<Mesa> candidatas = disponibilidadService.obtenerMesasDisponibles(
+                fecha, hora, numeroPersonas, duracionMinutos);
+        if (candidatas.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        ContextoAsignacion contexto = new ContextoAsignacion(
+                fecha, hora, numeroPersonas, tipoPreferido,
+                () -> indiceDisponibilidad.ocupacionPorHorario(fecha),
+                indiceDisponibilidad::posicion);
+        return elegir(candidatas, contexto);
+    }
+    
+    /**
+     * Elegir entre candidatas ya filtradas con la estrategia configurada
+     * (p. ej. contra una ocupación que todavía no está en el índice, como la de un lote)
+     */
+    public Optional<Mesa> elegir(List<Mesa> candidatas, ContextoAsignacion contexto) {
+        if (candidatas.isEmpty()) {
+            return Optional.empty();
+        }
+        return estrategia.elegir(candidatas, contexto);
+    }
+}
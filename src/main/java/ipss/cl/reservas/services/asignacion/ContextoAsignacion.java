@@ -0,0 +1,26 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Datos de la solicitud que pueden usar las estrategias de asignación.
+ * La ocupación del día se obtiene solo si la estrategia la pide.
+ *
+ * @param tipoPreferido tipo de mesa pedido por el cliente (puede ser null)
+ * @param ocupacionDia  mesas ocupadas por horario (posición i = DateUtils.HORARIOS_RESERVA.get(i))
+ * @param posicionMesa  posición de cada mesa dentro de los BitSet de ocupacionDia
+ */
+public record ContextoAsignacion(
+        LocalDate fecha,
+        LocalTime hora,
+        Integer numeroPersonas,
+        TipoMesa tipoPreferido,
+        Supplier<BitSet[]> ocupacionDia,
+        ToIntFunction<Long> posicionMesa) {
+}
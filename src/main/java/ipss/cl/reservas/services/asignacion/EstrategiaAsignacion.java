@@ -0,0 +1,15 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Criterio para elegir una mesa entre las candidatas libres y con capacidad suficiente.
+ * Cada implementación es un bean cuyo nombre se configura en reservas.asignacion.estrategia.
+ */
+public interface EstrategiaAsignacion {
+    
+    Optional<Mesa> elegir(List<Mesa> candidatas, ContextoAsignacion contexto);
+}
@@ -0,0 +1,25 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * La mesa más chica que recibe al grupo (menos asientos vacíos)
+ */
+@Component("menor-capacidad")
+public class MenorCapacidadEstrategia implements EstrategiaAsignacion {
+    
+    static final Comparator<Mesa> MENOR_CAPACIDAD = Comparator
+            .comparing(Mesa::getCapacidadMaxima)
+            .thenComparing(Mesa::getCapacidadMinima, Comparator.reverseOrder())
+            .thenComparing(Mesa::getNumero);
+    
+    @Override
+    public Optional<Mesa> elegir(List<Mesa> candidatas, ContextoAsignacion contexto) {
+        return candidatas.stream().min(MENOR_CAPACIDAD);
+    }
+}
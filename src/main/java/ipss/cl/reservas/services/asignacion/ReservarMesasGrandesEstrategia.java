@@ -0,0 +1,47 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.utils.DateUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Menor capacidad y, a igual capacidad, la mesa con menos horarios libres después de la hora pedida:
+ * se ocupan primero las mesas ya fragmentadas y las que siguen libres quedan para más tarde
+ */
+@Component("reservar-grandes")
+public class ReservarMesasGrandesEstrategia implements EstrategiaAsignacion {
+    
+    @Override
+    public Optional<Mesa> elegir(List<Mesa> candidatas, ContextoAsignacion contexto) {
+        if (candidatas.size() <= 1) {
+            return candidatas.stream().findFirst();
+        }
+        
+        BitSet[] ocupacion = contexto.ocupacionDia().get();
+        // Primer horario posterior a la hora pedida
+        int desde = (int) DateUtils.HORARIOS_RESERVA.stream()
+                .filter(h -> !h.isAfter(contexto.hora()))
+                .count();
+        
+        Comparator<Mesa> criterio = Comparator
+                .comparing(Mesa::getCapacidadMaxima)
+                .thenComparingInt(mesa -> horariosLibres(ocupacion, desde, contexto.posicionMesa().applyAsInt(mesa.getId())))
+                .thenComparing(Mesa::getNumero);
+        return candidatas.stream().min(criterio);
+    }
+    
+    private int horariosLibres(BitSet[] ocupacion, int desde, int posicion) {
+        int libres = 0;
+        for (int h = desde; h < ocupacion.length; h++) {
+            if (!ocupacion[h].get(posicion)) {
+                libres++;
+            }
+        }
+        return libres;
+    }
+}
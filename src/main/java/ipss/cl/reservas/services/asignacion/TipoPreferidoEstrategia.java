@@ -0,0 +1,23 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Primero las mesas del tipo pedido por el cliente; dentro de ellas, la de menor capacidad
+ */
+@Component("tipo-preferido")
+public class TipoPreferidoEstrategia implements EstrategiaAsignacion {
+    
+    @Override
+    public Optional<Mesa> elegir(List<Mesa> candidatas, ContextoAsignacion contexto) {
+        Comparator<Mesa> criterio = Comparator
+                .comparing((Mesa mesa) -> mesa.getTipo() != contexto.tipoPreferido())
+                .thenComparing(MenorCapacidadEstrategia.MENOR_CAPACIDAD);
+        return candidatas.stream().min(criterio);
+    }
+}
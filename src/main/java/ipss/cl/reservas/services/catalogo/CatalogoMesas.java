@@ -0,0 +1,196 @@
+package ipss.cl.reservas.services.catalogo;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.services.combinacion.ParMesas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de mesas activas en cache (read-through) con sus vistas por estado, tipo y capacidad.
+ * Las mesas del catálogo son copias sin sesión ni reservas: solo para lectura.
+ * MesaService lo invalida en cada cambio de mesa.
+ */
+@Component
+@Slf4j
+public class CatalogoMesas {
+    
+    public static final String CACHE = "catalogoMesas";
+    private static final String ACTIVAS = "activas";
+    
+    private final MesaRepository mesaRepository;
+    private final Cache cache;
+    // Una sola carga a la vez; no se usa cache.get(clave, cargador) porque Caffeine ejecuta la carga
+    // (una query) dentro de un bloque synchronized, que fija el hilo virtual a su carrier
+    private final ReentrantLock carga = new ReentrantLock();
+    
+    public CatalogoMesas(MesaRepository mesaRepository, CacheManager cacheManager) {
+        this.mesaRepository = mesaRepository;
+        this.cache = cacheManager.getCache(CACHE);
+    }
+    
+    /**
+     * Mesas activas ordenadas por número
+     */
+    public List<Mesa> activas() {
+        return catalogo().activas();
+    }
+    
+    /**
+     * Mesa activa por ID
+     */
+    public Optional<Mesa> porId(Long id) {
+        return Optional.ofNullable(catalogo().porId().get(id));
+    }
+    
+    /**
+     * Mesas activas en un estado
+     */
+    public List<Mesa> porEstado(EstadoMesa estado) {
+        return catalogo().porEstado().getOrDefault(estado, List.of());
+    }
+    
+    /**
+     * Mesas activas de un tipo
+     */
+    public List<Mesa> porTipo(TipoMesa tipo) {
+        return catalogo().porTipo().getOrDefault(tipo, List.of());
+    }
+    
+    /**
+     * Mesas activas que admiten el número de personas
+     */
+    public List<Mesa> porCapacidad(int personas) {
+        List<List<Mesa>> porPersonas = catalogo().porPersonas();
+        return personas >= 0 && personas < porPersonas.size() ? porPersonas.get(personas) : List.of();
+    }
+    
+    /**
+     * Descartar el catálogo ahora y, si hay transacción, otra vez al confirmarla
+     * para que una lectura concurrente no deje en cache el estado anterior
+     */
+    public void invalidar() {
+        descartar();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Descartar esperando la carga en curso, para que no quede en cache un catálogo leído antes del cambio
+     */
+    private void descartar() {
+        carga.lock();
+        try {
+            cache.evict(ACTIVAS);
+        } finally {
+            carga.unlock();
+        }
+    }
+    
+    private Catalogo catalogo() {
+        Catalogo catalogo = cache.get(ACTIVAS, Catalogo.class);
+        if (catalogo != null) {
+            return catalogo;
+        }
+        carga.lock();
+        try {
+            catalogo = cache.get(ACTIVAS, Catalogo.class);
+            if (catalogo == null) {
+                catalogo = cargar();
+                cache.put(ACTIVAS, catalogo);
+            }
+            return catalogo;
+        } finally {
+            carga.unlock();
+        }
+    }
+    
+    private Catalogo cargar() {
+        // Combinables de todas las mesas en una sola query
+        Map<Long, Set<Long>> combinables = mesaRepository.findParesCombinables().stream()
+                .collect(Collectors.groupingBy(ParMesas::mesaId,
+                        Collectors.mapping(ParMesas::combinableConId, Collectors.toUnmodifiableSet())));
+        List<Mesa> activas = mesaRepository.findByActivaTrue().stream()
+                .map(mesa -> copiar(mesa, combinables.getOrDefault(mesa.getId(), Set.of())))
+                .sorted(Comparator.comparing(Mesa::getNumero))
+                .toList();
+        log.debug("Catálogo de mesas cargado: {} mesas activas", activas.size());
+        
+        Map<EstadoMesa, List<Mesa>> porEstado = new EnumMap<>(EstadoMesa.class);
+        Map<TipoMesa, List<Mesa>> porTipo = new EnumMap<>(TipoMesa.class);
+        int maxPersonas = 0;
+        for (Mesa mesa : activas) {
+            porEstado.computeIfAbsent(mesa.getEstado(), e -> new ArrayList<>()).add(mesa);
+            porTipo.computeIfAbsent(mesa.getTipo(), t -> new ArrayList<>()).add(mesa);
+            maxPersonas = Math.max(maxPersonas, mesa.getCapacidadMaxima());
+        }
+        
+        List<List<Mesa>> porPersonas = new ArrayList<>(maxPersonas + 1);
+        for (int personas = 0; personas <= maxPersonas; personas++) {
+            int n = personas;
+            porPersonas.add(activas.stream()
+                    .filter(mesa -> mesa.getCapacidadMinima() <= n && mesa.getCapacidadMaxima() >= n)
+                    .toList());
+        }
+        
+        return new Catalogo(
+                activas,
+                activas.stream().collect(Collectors.toUnmodifiableMap(Mesa::getId, Function.identity())),
+                inmutable(porEstado),
+                inmutable(porTipo),
+                List.copyOf(porPersonas));
+    }
+    
+    private static <K extends Enum<K>> Map<K, List<Mesa>> inmutable(Map<K, List<Mesa>> vista) {
+        vista.replaceAll((clave, mesas) -> List.copyOf(mesas));
+        return Collections.unmodifiableMap(vista);
+    }
+    
+    /**
+     * Copia sin colecciones lazy, para que no quede ligada a la sesión que la cargó
+     */
+    private static Mesa copiar(Mesa mesa, Set<Long> combinableCon) {
+        return Mesa.builder()
+                .id(mesa.getId())
+                .numero(mesa.getNumero())
+                .capacidadMinima(mesa.getCapacidadMinima())
+                .capacidadMaxima(mesa.getCapacidadMaxima())
+                .tipo(mesa.getTipo())
+                .estado(mesa.getEstado())
+                .descripcion(mesa.getDescripcion())
+                .activa(mesa.getActiva())
+                .combinableCon(combinableCon)
+                .build();
+    }
+    
+    private record Catalogo(List<Mesa> activas,
+                            Map<Long, Mesa> porId,
+                            Map<EstadoMesa, List<Mesa>> porEstado,
+                            Map<TipoMesa, List<Mesa>> porTipo,
+                            List<List<Mesa>> porPersonas) {
+    }
+}
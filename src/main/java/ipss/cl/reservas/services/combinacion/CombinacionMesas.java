@@ -0,0 +1,68 @@
+package ipss.cl.reservas.services.combinacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Mesas que se juntan para un grupo. Admite de capacidadMinima a capacidadMaxima personas:
+ * al menos la suma de los mínimos y más de las que caben sin su mesa más chica (ninguna mesa sobra).
+ *
+ * @param mesas           mesas ordenadas por número
+ * @param posiciones      bits de las mesas en los BitSet de ocupación de IndiceDisponibilidad (no modificar)
+ * @param duracionMinutos duración por defecto: la mayor entre los tipos de las mesas
+ */
+public record CombinacionMesas(
+        List<Mesa> mesas,
+        BitSet posiciones,
+        int capacidadMinima,
+        int capacidadMaxima,
+        int duracionMinutos) {
+    
+    public static CombinacionMesas de(List<Mesa> mesas, ToIntFunction<Long> posicionMesa) {
+        BitSet posiciones = new BitSet();
+        int sumaMinimas = 0;
+        int sumaMaximas = 0;
+        int menorMaxima = Integer.MAX_VALUE;
+        int duracion = 0;
+        for (Mesa mesa : mesas) {
+            posiciones.set(posicionMesa.applyAsInt(mesa.getId()));
+            sumaMinimas += mesa.getCapacidadMinima();
+            sumaMaximas += mesa.getCapacidadMaxima();
+            menorMaxima = Math.min(menorMaxima, mesa.getCapacidadMaxima());
+            duracion = Math.max(duracion, mesa.getTipo().getDuracionMinutos());
+        }
+        return new CombinacionMesas(List.copyOf(mesas), posiciones,
+                Math.max(sumaMinimas, sumaMaximas - menorMaxima + 1), sumaMaximas, duracion);
+    }
+    
+    public boolean admite(int personas) {
+        return personas >= capacidadMinima && personas <= capacidadMaxima;
+    }
+    
+    /**
+     * Personas por mesa (en el orden de mesas): cada una con su mínimo y el resto
+     * repartido llenando primero las mesas más grandes
+     */
+    public int[] repartir(int personas) {
+        int[] reparto = new int[mesas.size()];
+        int resto = personas;
+        for (int i = 0; i < reparto.length; i++) {
+            reparto[i] = mesas.get(i).getCapacidadMinima();
+            resto -= reparto[i];
+        }
+        List<Integer> porCapacidad = IntStream.range(0, reparto.length).boxed()
+                .sorted(Comparator.comparing((Integer i) -> mesas.get(i).getCapacidadMaxima()).reversed())
+                .toList();
+        for (int i : porCapacidad) {
+            int extra = Math.min(resto, mesas.get(i).getCapacidadMaxima() - reparto[i]);
+            reparto[i] += extra;
+            resto -= extra;
+        }
+        return reparto;
+    }
+}
@@ -0,0 +1,124 @@
+package ipss.cl.reservas.services.combinacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.disponibilidad.IndiceDisponibilidad;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Combinaciones de mesas precalculadas por número de personas, a partir del catálogo:
+ * grupos de hasta reservas.combinaciones.max-mesas mesas disponibles unidas por "combinableCon".
+ * Se recalculan solo cuando cambia el catálogo (MesaService lo invalida en cada cambio de mesa).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CombinacionesMesas {
+    
+    // Primero las de menos mesas y menos asientos de sobra
+    private static final Comparator<CombinacionMesas> ORDEN = Comparator
+            .comparingInt((CombinacionMesas c) -> c.mesas().size())
+            .thenComparingInt(CombinacionMesas::capacidadMaxima)
+            .thenComparing(c -> c.mesas().get(0).getNumero());
+    
+    private final CatalogoMesas catalogoMesas;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    
+    @Value("${reservas.combinaciones.max-mesas:3}")
+    private int maxMesas;
+    
+    private final ReentrantLock calculo = new ReentrantLock();
+    private volatile Precalculadas precalculadas;
+    
+    /**
+     * Combinaciones que admiten el número de personas, las mejores primero
+     */
+    public List<CombinacionMesas> paraPersonas(int personas) {
+        List<List<CombinacionMesas>> porPersonas = precalculadas().porPersonas();
+        return personas >= 0 && personas < porPersonas.size() ? porPersonas.get(personas) : List.of();
+    }
+    
+    private Precalculadas precalculadas() {
+        List<Mesa> activas = catalogoMesas.activas();
+        Precalculadas actuales = precalculadas;
+        if (actuales != null && actuales.activas() == activas) {
+            return actuales;
+        }
+        calculo.lock();
+        try {
+            actuales = precalculadas;
+            if (actuales == null || actuales.activas() != activas) {
+                actuales = calcular(activas);
+                precalculadas = actuales;
+            }
+            return actuales;
+        } finally {
+            calculo.unlock();
+        }
+    }
+    
+    private Precalculadas calcular(List<Mesa> activas) {
+        Map<Long, Mesa> disponibles = activas.stream()
+                .filter(mesa -> mesa.getEstado() == EstadoMesa.DISPONIBLE)
+                .collect(Collectors.toMap(Mesa::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        
+        // Conjuntos conexos: cada tamaño se arma sumando un vecino a los del tamaño anterior
+        List<CombinacionMesas> combinaciones = new ArrayList<>();
+        Set<Set<Long>> vistos = new HashSet<>();
+        List<List<Mesa>> anteriores = disponibles.values().stream().map(List::of).toList();
+        for (int tamano = 2; tamano <= maxMesas && !anteriores.isEmpty(); tamano++) {
+            List<List<Mesa>> actuales = new ArrayList<>();
+            for (List<Mesa> conjunto : anteriores) {
+                Set<Long> ids = conjunto.stream().map(Mesa::getId).collect(Collectors.toSet());
+                for (Mesa miembro : conjunto) {
+                    for (Long vecinoId : miembro.getCombinableCon()) {
+                        Mesa vecino = disponibles.get(vecinoId);
+                        if (vecino == null || ids.contains(vecinoId)) {
+                            continue;
+                        }
+                        Set<Long> ampliados = new HashSet<>(ids);
+                        ampliados.add(vecinoId);
+                        if (vistos.add(ampliados)) {
+                            List<Mesa> ampliado = new ArrayList<>(conjunto);
+                            ampliado.add(vecino);
+                            ampliado.sort(Comparator.comparing(Mesa::getNumero));
+                            actuales.add(ampliado);
+                        }
+                    }
+                }
+            }
+            actuales.forEach(mesas -> combinaciones.add(CombinacionMesas.de(mesas, indiceDisponibilidad::posicion)));
+            anteriores = actuales;
+        }
+        
+        int maxPersonas = combinaciones.stream().mapToInt(CombinacionMesas::capacidadMaxima).max().orElse(0);
+        List<List<CombinacionMesas>> porPersonas = new ArrayList<>(maxPersonas + 1);
+        for (int personas = 0; personas <= maxPersonas; personas++) {
+            int n = personas;
+            porPersonas.add(combinaciones.stream()
+                    .filter(combinacion -> combinacion.admite(n))
+                    .sorted(ORDEN)
+                    .toList());
+        }
+        log.debug("Combinaciones de mesas precalculadas: {}", combinaciones.size());
+        return new Precalculadas(activas, List.copyOf(porPersonas));
+    }
+    
+    private record Precalculadas(List<Mesa> activas, List<List<CombinacionMesas>> porPersonas) {
+    }
+}
@@ -0,0 +1,7 @@
+package ipss.cl.reservas.services.combinacion;
+
+/**
+ * Par de mesas que se pueden juntar (una fila de mesas_combinables)
+ */
+public record ParMesas(Long mesaId, Long combinableConId) {
+}
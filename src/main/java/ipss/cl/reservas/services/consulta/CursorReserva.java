@@ -0,0 +1,38 @@
+package ipss.cl.reservas.services.consulta;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición en el listado de reservas ordenado por (fecha, hora, id): la página siguiente
+ * empieza después de esta clave. Viaja al cliente como texto opaco (Base64 URL-safe).
+ */
+public record CursorReserva(LocalDate fecha, LocalTime hora, Long id) {
+    
+    public static CursorReserva de(ReservaVista reserva) {
+        return new CursorReserva(reserva.fecha(), reserva.hora(), reserva.id());
+    }
+    
+    public String codificar() {
+        String clave = fecha + "|" + hora + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @throws IllegalArgumentException si el cursor no fue generado por codificar()
+     */
+    public static CursorReserva decodificar(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorReserva(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Long.parseLong(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ipss.cl.reservas.services.consulta;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionales para listar reservas (null = sin filtro)
+ *
+ * @param fechaDesde primera fecha incluida
+ * @param fechaHasta última fecha incluida
+ */
+public record FiltroReservas(
+        EstadoReserva estado,
+        LocalDate fechaDesde,
+        LocalDate fechaHasta,
+        Long mesaId,
+        String emailCliente) {
+    
+    public static FiltroReservas ninguno() {
+        return new FiltroReservas(null, null, null, null, null);
+    }
+}
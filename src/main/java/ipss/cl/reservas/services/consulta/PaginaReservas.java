@@ -0,0 +1,11 @@
+package ipss.cl.reservas.services.consulta;
+
+import java.util.List;
+
+/**
+ * Una página del listado de reservas
+ *
+ * @param siguiente cursor de la página siguiente (null si esta es la última)
+ */
+public record PaginaReservas(List<ReservaVista> reservas, CursorReserva siguiente) {
+}
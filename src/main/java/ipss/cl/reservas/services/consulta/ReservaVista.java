@@ -0,0 +1,34 @@
+package ipss.cl.reservas.services.consulta;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Reserva de solo lectura con los datos de su mesa, proyectada directamente desde la query
+ * (un solo SELECT con join a mesas, sin entidades ni contexto de persistencia).
+ * Para modificar una reserva se usa la entidad.
+ */
+public record ReservaVista(
+        Long id,
+        String nombreCliente,
+        String emailCliente,
+        String telefonoCliente,
+        Long mesaId,
+        Integer mesaNumero,
+        TipoMesa mesaTipo,
+        LocalDate fecha,
+        LocalTime hora,
+        LocalTime horaFin,
+        Integer duracionMinutos,
+        Integer numeroPersonas,
+        EstadoReserva estado,
+        String observaciones,
+        String codigoReserva,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaModificacion,
+        Long combinacionId) {
+}
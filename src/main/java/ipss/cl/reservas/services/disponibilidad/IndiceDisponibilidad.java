@@ -0,0 +1,168 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice en memoria de ocupación de mesas por fecha: intervalos por mesa y BitSet por horario.
+ * Cada día se carga desde la base de datos la primera vez que se consulta
+ * y luego se mantiene con los eventos que publica ReservaService.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceDisponibilidad {
+    
+    private final ReservaRepository reservaRepository;
+    
+    @Value("${reservas.indice.habilitado:true}")
+    private boolean habilitado;
+    
+    private final Map<LocalDate, OcupacionDia> dias = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> posiciones = new ConcurrentHashMap<>();
+    private final AtomicInteger siguientePosicion = new AtomicInteger();
+    // Aumenta con cada cambio; permite descartar cargas que se cruzaron con un cambio
+    private final AtomicLong version = new AtomicLong();
+    
+    /**
+     * Indica si el índice está activo (si no, usar las queries)
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+    
+    /**
+     * Verificar si la mesa no tiene reservas activas que se crucen con [inicio, fin) en la fecha
+     */
+    public boolean estaLibre(Long mesaId, LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        return dia(fecha).estaLibre(mesaId, inicio, fin);
+    }
+    
+    /**
+     * Ocupación completa de una fecha.
+     * Con el índice deshabilitado se arma desde una sola query, sin guardarla.
+     */
+    public OcupacionDia ocupacion(LocalDate fecha) {
+        return habilitado ? dia(fecha) : cargar(fecha);
+    }
+    
+    /**
+     * Mesas ocupadas en cada horario del día (posición i = DateUtils.HORARIOS_RESERVA.get(i))
+     */
+    public BitSet[] ocupacionPorHorario(LocalDate fecha) {
+        return ocupacion(fecha).ocupadasPorHorario();
+    }
+    
+    /**
+     * Posición fija de la mesa dentro de los BitSet del índice
+     */
+    public int posicion(Long mesaId) {
+        return posiciones.computeIfAbsent(mesaId, id -> siguientePosicion.getAndIncrement());
+    }
+    
+    /**
+     * Actualizar el índice una vez confirmada la transacción que cambió la reserva.
+     * Corre antes que las demás sincronizaciones (por ejemplo, la liberación del lock en ReservaService).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        version.incrementAndGet();
+        dias.values().forEach(dia -> dia.quitar(event.reservaId()));
+        Ocupacion ocupacion = event.ocupacion();
+        if (ocupacion != null) {
+            OcupacionDia dia = dias.get(ocupacion.fecha());
+            if (dia != null) {
+                dia.agregar(ocupacion);
+            }
+        }
+    }
+    
+    /**
+     * Comparar el índice de una fecha con la base de datos.
+     * Si hay diferencias se reconstruye el día y se devuelven las diferencias encontradas.
+     */
+    public List<String> verificarConsistencia(LocalDate fecha) {
+        OcupacionDia actual = dias.get(fecha);
+        if (actual == null) {
+            return List.of();
+        }
+        
+        Map<Long, Ocupacion> enIndice = actual.ocupaciones();
+        Map<Long, Ocupacion> enBaseDatos = new HashMap<>();
+        reservaRepository.findOcupacionesPorFecha(fecha)
+                .forEach(o -> enBaseDatos.put(o.reservaId(), o));
+        
+        List<String> diferencias = new ArrayList<>();
+        enBaseDatos.forEach((id, ocupacion) -> {
+            if (!Objects.equals(ocupacion, enIndice.get(id))) {
+                diferencias.add("Reserva " + id + ": índice=" + enIndice.get(id) + ", BD=" + ocupacion);
+            }
+        });
+        enIndice.keySet().stream()
+                .filter(id -> !enBaseDatos.containsKey(id))
+                .forEach(id -> diferencias.add("Reserva " + id + " en índice pero no activa en BD"));
+        
+        if (!diferencias.isEmpty()) {
+            log.warn("Índice de disponibilidad inconsistente para {}: {}", fecha, diferencias);
+            dias.remove(fecha, actual);
+        }
+        return diferencias;
+    }
+    
+    /**
+     * Verificación periódica de los días cargados y descarte de días pasados
+     */
+    @Scheduled(fixedDelayString = "${reservas.indice.verificacion-ms:300000}")
+    public void verificarDiasCargados() {
+        LocalDate hoy = LocalDate.now();
+        dias.keySet().removeIf(fecha -> fecha.isBefore(hoy));
+        dias.keySet().forEach(this::verificarConsistencia);
+    }
+    
+    private OcupacionDia dia(LocalDate fecha) {
+        OcupacionDia dia = dias.get(fecha);
+        if (dia != null) {
+            return dia;
+        }
+        
+        long versionInicial = version.get();
+        OcupacionDia cargado = cargar(fecha);
+        OcupacionDia existente = dias.putIfAbsent(fecha, cargado);
+        if (existente != null) {
+            return existente;
+        }
+        // Un cambio confirmado durante la carga pudo quedar fuera: no se conserva
+        if (version.get() != versionInicial) {
+            dias.remove(fecha, cargado);
+        }
+        return cargado;
+    }
+    
+    private OcupacionDia cargar(LocalDate fecha) {
+        log.debug("Cargando índice de disponibilidad para {}", fecha);
+        OcupacionDia dia = new OcupacionDia(this::posicion);
+        reservaRepository.findOcupacionesPorFecha(fecha).forEach(dia::agregar);
+        return dia;
+    }
+}
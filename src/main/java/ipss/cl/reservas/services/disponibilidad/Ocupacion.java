@@ -0,0 +1,30 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import ipss.cl.reservas.models.entities.Reserva;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Mesa, fecha e intervalo [hora, horaFin) que ocupa una reserva activa
+ */
+public record Ocupacion(Long reservaId, Long mesaId, LocalDate fecha, LocalTime hora, LocalTime horaFin) {
+    
+    /**
+     * Ocupación de una reserva, o null si la reserva no ocupa mesa (cancelada, completada...)
+     */
+    public static Ocupacion de(Reserva reserva) {
+        if (reserva.getEstado() == null || !reserva.getEstado().esActivo()) {
+            return null;
+        }
+        return new Ocupacion(reserva.getId(), reserva.getMesa().getId(),
+                reserva.getFecha(), reserva.getHora(), reserva.getHoraFin());
+    }
+    
+    /**
+     * Verificar si el intervalo se cruza con [inicio, fin)
+     */
+    public boolean seSolapaCon(LocalTime inicio, LocalTime fin) {
+        return hora.isBefore(fin) && horaFin.isAfter(inicio);
+    }
+}
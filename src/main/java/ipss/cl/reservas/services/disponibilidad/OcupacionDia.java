@@ -0,0 +1,150 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import ipss.cl.reservas.utils.DateUtils;
+
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ocupación de un día.
+ * - Por mesa, los intervalos de sus reservas ordenados por hora de inicio: "¿está libre de 19:30 a 21:30?"
+ *   se responde con una búsqueda en el árbol (O(log n)).
+ * - Por horario, un BitSet con un bit por mesa ocupada en ese instante (posición según IndiceDisponibilidad).
+ */
+public class OcupacionDia {
+    
+    private static final Comparator<Ocupacion> POR_INICIO = Comparator
+            .comparing(Ocupacion::hora)
+            .thenComparing(Ocupacion::reservaId);
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet[] porHorario = new BitSet[DateUtils.HORARIOS_RESERVA.size()];
+    private final Map<Long, Ocupacion> porReserva = new HashMap<>();
+    private final Map<Long, NavigableSet<Ocupacion>> porMesa = new HashMap<>();
+    private final ToIntFunction<Long> posicionMesa;
+    
+    public OcupacionDia(ToIntFunction<Long> posicionMesa) {
+        this.posicionMesa = posicionMesa;
+        for (int i = 0; i < porHorario.length; i++) {
+            porHorario[i] = new BitSet();
+        }
+    }
+    
+    /**
+     * Registrar (o reemplazar) la ocupación de una reserva
+     */
+    public void agregar(Ocupacion ocupacion) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(ocupacion.reservaId());
+            porReserva.put(ocupacion.reservaId(), ocupacion);
+            porMesa.computeIfAbsent(ocupacion.mesaId(), id -> new TreeSet<>(POR_INICIO)).add(ocupacion);
+            marcarHorarios(ocupacion.mesaId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Liberar la ocupación de una reserva, si estaba registrada en este día
+     */
+    void quitar(Long reservaId) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(reservaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void quitarSinBloqueo(Long reservaId) {
+        Ocupacion anterior = porReserva.remove(reservaId);
+        if (anterior == null) {
+            return;
+        }
+        NavigableSet<Ocupacion> intervalos = porMesa.get(anterior.mesaId());
+        intervalos.remove(anterior);
+        if (intervalos.isEmpty()) {
+            porMesa.remove(anterior.mesaId());
+        }
+        marcarHorarios(anterior.mesaId());
+    }
+    
+    /**
+     * Recalcular los bits de una mesa a partir de sus intervalos
+     */
+    private void marcarHorarios(Long mesaId) {
+        int posicion = posicionMesa.applyAsInt(mesaId);
+        NavigableSet<Ocupacion> intervalos = porMesa.get(mesaId);
+        List<LocalTime> horarios = DateUtils.HORARIOS_RESERVA;
+        for (int h = 0; h < horarios.size(); h++) {
+            LocalTime instante = horarios.get(h);
+            porHorario[h].set(posicion, intervalos != null && cubre(intervalos, instante));
+        }
+    }
+    
+    private boolean cubre(NavigableSet<Ocupacion> intervalos, LocalTime instante) {
+        return intervalos.stream().anyMatch(o -> !o.hora().isAfter(instante) && o.horaFin().isAfter(instante));
+    }
+    
+    /**
+     * Verificar si la mesa no tiene reservas que se crucen con [inicio, fin).
+     * Revisa todos los intervalos que empiezan antes de fin (pocos por mesa y día), del más tardío al más temprano:
+     * no supone que los de una mesa no se solapen entre sí, porque el lock de ReservaService es por proceso
+     * y dos instancias (o un cambio directo en la base) pueden guardar reservas solapadas.
+     */
+    public boolean estaLibre(Long mesaId, LocalTime inicio, LocalTime fin) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Ocupacion> intervalos = porMesa.get(mesaId);
+            if (intervalos == null) {
+                return true;
+            }
+            Ocupacion limite = new Ocupacion(Long.MIN_VALUE, mesaId, null, fin, fin);
+            for (Ocupacion anterior : intervalos.headSet(limite, false).descendingSet()) {
+                if (anterior.horaFin().isAfter(inicio)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Copia de los BitSet de todos los horarios (mesa ocupada en ese instante), tomada bajo un solo bloqueo
+     */
+    public BitSet[] ocupadasPorHorario() {
+        lock.readLock().lock();
+        try {
+            BitSet[] copia = new BitSet[porHorario.length];
+            for (int i = 0; i < porHorario.length; i++) {
+                copia[i] = (BitSet) porHorario[i].clone();
+            }
+            return copia;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Copia de las ocupaciones registradas, por ID de reserva
+     */
+    Map<Long, Ocupacion> ocupaciones() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(porReserva);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
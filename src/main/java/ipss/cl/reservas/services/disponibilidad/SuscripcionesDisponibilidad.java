@@ -0,0 +1,334 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.models.dto.response.DisponibilidadEnVivoResponse;
+import ipss.cl.reservas.services.DisponibilidadService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Disponibilidad en vivo para la página pública (Server-Sent Events), un canal por fecha.
+ * Al conectarse, el cliente recibe el estado completo ("estado") y luego solo los horarios que cambian ("cambio").
+ * Cada cambio se calcula y se serializa una sola vez por fecha, en un único hilo, sin importar cuántos
+ * clientes miren ese día; el envío a cada cliente corre en hilos virtuales, en orden por cliente.
+ */
+@Component
+@Slf4j
+public class SuscripcionesDisponibilidad {
+    
+    // Eventos sin enviar que se aceptan por cliente antes de cerrarle la conexión (el navegador reconecta)
+    private static final int MAXIMO_PENDIENTES = 32;
+    
+    private final DisponibilidadService disponibilidadService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int maximoConexiones;
+    
+    private final Map<LocalDate, Canal> canales = new ConcurrentHashMap<>();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final ExecutorService calculo = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("disponibilidad-en-vivo").daemon().factory());
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("disponibilidad-envio-", 0).factory());
+    // Fechas ya encoladas para recalcular: varios cambios seguidos del mismo día salen en un solo evento
+    private final Set<LocalDate> porEnviar = ConcurrentHashMap.newKeySet();
+    
+    public SuscripcionesDisponibilidad(DisponibilidadService disponibilidadService, ObjectMapper objectMapper,
+                                       MeterRegistry registry,
+                                       @Value("${reservas.disponibilidad.en-vivo.timeout-ms:1800000}") long timeoutMs,
+                                       @Value("${reservas.disponibilidad.en-vivo.maximo-conexiones:5000}") int maximoConexiones) {
+        this.disponibilidadService = disponibilidadService;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.maximoConexiones = maximoConexiones;
+        Gauge.builder("reservas.disponibilidad.suscripciones", abiertas, AtomicInteger::get)
+                .description("Conexiones abiertas a la disponibilidad en vivo")
+                .register(registry);
+    }
+    
+    @PreDestroy
+    public void detener() {
+        calculo.shutdownNow();
+        envios.shutdownNow();
+        canales.values().forEach(canal -> canal.suscriptores.forEach(suscriptor -> suscriptor.emitter.complete()));
+    }
+    
+    /**
+     * Abrir una conexión para la disponibilidad de una fecha (de hoy en adelante)
+     */
+    public SseEmitter suscribir(LocalDate fecha) {
+        if (fecha.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("La fecha no puede ser del pasado");
+        }
+        if (abiertas.incrementAndGet() > maximoConexiones) {
+            abiertas.decrementAndGet();
+            throw new IllegalStateException("Se alcanzó el máximo de conexiones a la disponibilidad en vivo");
+        }
+        
+        SseEmitter emitter = nuevoEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(fecha, emitter);
+        emitter.onCompletion(() -> cerrar(suscriptor));
+        // Al vencer se cierra normalmente: el navegador reconecta y recibe el estado completo
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> cerrar(suscriptor));
+        // En el hilo de cálculo: el estado inicial queda antes de cualquier cambio posterior
+        calculo.execute(() -> registrar(suscriptor));
+        return emitter;
+    }
+    
+    SseEmitter nuevoEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+    
+    /**
+     * Conexiones abiertas en todas las fechas
+     */
+    public int abiertas() {
+        return abiertas.get();
+    }
+    
+    /**
+     * Una reserva cambió: recalcular las fechas que alguien está mirando.
+     * Corre tras confirmarse la transacción y después de actualizar el índice de disponibilidad.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        event.fechas().forEach(this::programarEnvio);
+    }
+    
+    /**
+     * Recalcular todos los canales (retenciones que vencen, mesas que cambian de estado)
+     * y mantener viva la conexión de los clientes sin cambios
+     */
+    @Scheduled(fixedDelayString = "${reservas.disponibilidad.en-vivo.refresco-ms:15000}")
+    public void refrescar() {
+        refrescar(LocalDate.now());
+    }
+    
+    void refrescar(LocalDate hoy) {
+        for (Map.Entry<LocalDate, Canal> entrada : canales.entrySet()) {
+            if (entrada.getKey().isBefore(hoy)) {
+                // El día terminó: se cierran sus conexiones
+                entrada.getValue().suscriptores.forEach(suscriptor -> suscriptor.emitter.complete());
+            } else {
+                calculo.execute(() -> {
+                    try {
+                        if (!actualizar(entrada.getKey())) {
+                            difundir(entrada.getValue(), SseEmitter.event().comment("").build());
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Error refrescando la disponibilidad en vivo del {}", entrada.getKey(), e);
+                    }
+                });
+            }
+        }
+    }
+    
+    private void programarEnvio(LocalDate fecha) {
+        if (canales.containsKey(fecha) && porEnviar.add(fecha)) {
+            calculo.execute(() -> {
+                porEnviar.remove(fecha);
+                try {
+                    actualizar(fecha);
+                } catch (RuntimeException e) {
+                    log.error("Error enviando la disponibilidad en vivo del {}", fecha, e);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Agregar el cliente a su canal y enviarle el estado completo (solo en el hilo de cálculo)
+     */
+    private void registrar(Suscriptor suscriptor) {
+        Canal canal = canales.compute(suscriptor.fecha, (fecha, actual) -> {
+            Canal destino = actual != null ? actual : new Canal();
+            destino.suscriptores.add(suscriptor);
+            return destino;
+        });
+        if (suscriptor.cerrado.get()) {
+            // Se desconectó antes de registrarse
+            quitar(suscriptor);
+            return;
+        }
+        try {
+            if (canal.ultimo == null) {
+                canal.ultimo = disponibilidadService.obtenerMesasLibresPorHorario(suscriptor.fecha);
+            }
+            if (canal.estado == null) {
+                canal.estado = evento("estado", suscriptor.fecha, canal.version, canal.ultimo, canal.ultimo.keySet());
+            }
+            suscriptor.encolar(canal.estado);
+        } catch (RuntimeException e) {
+            log.error("Error enviando la disponibilidad en vivo del {}", suscriptor.fecha, e);
+            suscriptor.emitter.completeWithError(e);
+        }
+    }
+    
+    /**
+     * Recalcular la disponibilidad de la fecha y enviar los horarios que cambiaron (solo en el hilo de cálculo).
+     * Devuelve true si hubo cambios.
+     */
+    private boolean actualizar(LocalDate fecha) {
+        Canal canal = canales.get(fecha);
+        if (canal == null || canal.ultimo == null) {
+            return false;
+        }
+        Map<LocalTime, List<Long>> nuevo = disponibilidadService.obtenerMesasLibresPorHorario(fecha);
+        List<LocalTime> cambiados = new ArrayList<>();
+        nuevo.forEach((hora, libres) -> {
+            if (!libres.equals(canal.ultimo.get(hora))) {
+                cambiados.add(hora);
+            }
+        });
+        if (cambiados.isEmpty()) {
+            return false;
+        }
+        
+        canal.version++;
+        canal.ultimo = nuevo;
+        canal.estado = null;
+        difundir(canal, evento("cambio", fecha, canal.version, nuevo, cambiados));
+        log.debug("Disponibilidad en vivo del {}: {} horarios cambiados, {} clientes",
+                fecha, cambiados.size(), canal.suscriptores.size());
+        return true;
+    }
+    
+    private void difundir(Canal canal, Set<DataWithMediaType> evento) {
+        canal.suscriptores.forEach(suscriptor -> suscriptor.encolar(evento));
+    }
+    
+    /**
+     * Armar el evento SSE una sola vez para todos los clientes del canal
+     */
+    private Set<DataWithMediaType> evento(String nombre, LocalDate fecha, long version,
+                                          Map<LocalTime, List<Long>> libres, Iterable<LocalTime> horas) {
+        List<DisponibilidadEnVivoResponse.HorarioMesasLibresResponse> horarios = new ArrayList<>();
+        for (LocalTime hora : horas) {
+            horarios.add(DisponibilidadEnVivoResponse.HorarioMesasLibresResponse.builder()
+                    .hora(hora)
+                    .mesasLibres(libres.get(hora))
+                    .build());
+        }
+        DisponibilidadEnVivoResponse response = DisponibilidadEnVivoResponse.builder()
+                .fecha(fecha)
+                .version(version)
+                .horarios(horarios)
+                .build();
+        try {
+            return SseEmitter.event()
+                    .id(String.valueOf(version))
+                    .name(nombre)
+                    .data(objectMapper.writeValueAsString(response))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void cerrar(Suscriptor suscriptor) {
+        if (suscriptor.cerrado.compareAndSet(false, true)) {
+            abiertas.decrementAndGet();
+            quitar(suscriptor);
+        }
+    }
+    
+    private void quitar(Suscriptor suscriptor) {
+        canales.computeIfPresent(suscriptor.fecha, (fecha, canal) -> {
+            canal.suscriptores.remove(suscriptor);
+            return canal.suscriptores.isEmpty() ? null : canal;
+        });
+    }
+    
+    /**
+     * Clientes de una fecha y la última disponibilidad enviada (ultimo, version y estado solo los toca el hilo de cálculo)
+     */
+    private static class Canal {
+        
+        final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+        Map<LocalTime, List<Long>> ultimo;
+        long version = 1;
+        // Evento "estado" de la versión actual, reutilizado para los clientes que se conectan
+        Set<DataWithMediaType> estado;
+    }
+    
+    /**
+     * Conexión de un cliente: los eventos se envían en orden, de a uno, en un hilo virtual
+     * que solo existe mientras haya eventos pendientes
+     */
+    private final class Suscriptor {
+        
+        final LocalDate fecha;
+        final SseEmitter emitter;
+        final AtomicBoolean cerrado = new AtomicBoolean();
+        final Queue<Set<DataWithMediaType>> pendientes = new ConcurrentLinkedQueue<>();
+        final AtomicInteger cantidadPendientes = new AtomicInteger();
+        final AtomicBoolean enviando = new AtomicBoolean();
+        
+        Suscriptor(LocalDate fecha, SseEmitter emitter) {
+            this.fecha = fecha;
+            this.emitter = emitter;
+        }
+        
+        void encolar(Set<DataWithMediaType> evento) {
+            if (cerrado.get()) {
+                return;
+            }
+            if (cantidadPendientes.incrementAndGet() > MAXIMO_PENDIENTES) {
+                // Cliente demasiado lento: al reconectar recibe el estado completo
+                emitter.complete();
+                return;
+            }
+            pendientes.add(evento);
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::enviarPendientes);
+            }
+        }
+        
+        private void enviarPendientes() {
+            do {
+                Set<DataWithMediaType> evento;
+                while ((evento = pendientes.poll()) != null) {
+                    cantidadPendientes.decrementAndGet();
+                    if (cerrado.get()) {
+                        continue;
+                    }
+                    try {
+                        emitter.send(evento);
+                    } catch (IOException | IllegalStateException e) {
+                        // El cliente se desconectó
+                        cerrar(this);
+                    }
+                }
+                enviando.set(false);
+                // Un evento pudo llegar después del último poll y antes de soltar el envío
+            } while (!pendientes.isEmpty() && enviando.compareAndSet(false, true));
+        }
+    }
+}
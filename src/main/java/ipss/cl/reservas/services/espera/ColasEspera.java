@@ -0,0 +1,182 @@
+package ipss.cl.reservas.services.espera;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lista de espera en memoria: por fecha, una cola de prioridad por (horario, personas) en orden de llegada.
+ * Se carga una vez desde la base de datos y luego la mantiene ListaEsperaService con cada alta,
+ * asignación o baja; atender una mesa liberada solo mira la cabeza de cada cola del día.
+ */
+@Component
+public class ColasEspera {
+    
+    // Primero el que llegó antes (ids de secuencia crecientes)
+    private static final Comparator<EnEspera> PRIORIDAD = Comparator.comparing(EnEspera::id);
+    
+    private record ClaveCola(LocalTime hora, int numeroPersonas) {
+    }
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<LocalDate, Map<ClaveCola, PriorityQueue<EnEspera>>> porFecha = new TreeMap<>();
+    private final Map<Long, EnEspera> porId = new HashMap<>();
+    
+    /**
+     * Agregar una espera a la cola de su horario y tamaño de grupo: O(log n).
+     * Si ya estaba (carga inicial cruzada con un alta), no se duplica.
+     */
+    public void agregar(EnEspera espera) {
+        lock.lock();
+        try {
+            if (porId.putIfAbsent(espera.id(), espera) == null) {
+                porFecha.computeIfAbsent(espera.fecha(), f -> new HashMap<>())
+                        .computeIfAbsent(new ClaveCola(espera.hora(), espera.numeroPersonas()),
+                                c -> new PriorityQueue<>(PRIORIDAD))
+                        .add(espera);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Agregar varias esperas (carga desde la base de datos)
+     */
+    public void agregarTodas(Collection<EnEspera> esperas) {
+        lock.lock();
+        try {
+            esperas.forEach(this::agregar);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Quitar una espera asignada, cancelada o vencida. Devuelve false si no estaba.
+     */
+    public boolean quitar(Long id) {
+        lock.lock();
+        try {
+            EnEspera espera = porId.remove(id);
+            if (espera == null) {
+                return false;
+            }
+            Map<ClaveCola, PriorityQueue<EnEspera>> colas = porFecha.get(espera.fecha());
+            ClaveCola clave = new ClaveCola(espera.hora(), espera.numeroPersonas());
+            PriorityQueue<EnEspera> cola = colas.get(clave);
+            cola.remove(espera);
+            if (cola.isEmpty()) {
+                colas.remove(clave);
+                if (colas.isEmpty()) {
+                    porFecha.remove(espera.fecha());
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Primero de cada cola de la fecha, ordenados por prioridad (vacía si nadie espera ese día)
+     */
+    public List<EnEspera> primeros(LocalDate fecha) {
+        lock.lock();
+        try {
+            Map<ClaveCola, PriorityQueue<EnEspera>> colas = porFecha.get(fecha);
+            if (colas == null) {
+                return List.of();
+            }
+            List<EnEspera> primeros = new ArrayList<>(colas.size());
+            colas.values().forEach(cola -> primeros.add(cola.peek()));
+            primeros.sort(PRIORIDAD);
+            return primeros;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Indica si alguien espera mesa en la fecha
+     */
+    public boolean hayEspera(LocalDate fecha) {
+        lock.lock();
+        try {
+            return porFecha.containsKey(fecha);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Fechas con esperas
+     */
+    public List<LocalDate> fechas() {
+        lock.lock();
+        try {
+            return List.copyOf(porFecha.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Posición (desde 1) dentro de la cola de su horario y tamaño de grupo; 0 si no está esperando
+     */
+    public int posicion(Long id) {
+        lock.lock();
+        try {
+            EnEspera espera = porId.get(id);
+            if (espera == null) {
+                return 0;
+            }
+            PriorityQueue<EnEspera> cola = porFecha.get(espera.fecha())
+                    .get(new ClaveCola(espera.hora(), espera.numeroPersonas()));
+            int antes = 0;
+            for (EnEspera otra : cola) {
+                if (PRIORIDAD.compare(otra, espera) < 0) {
+                    antes++;
+                }
+            }
+            return antes + 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Descartar las esperas de días anteriores a la fecha
+     */
+    public void descartarAnterioresA(LocalDate fecha) {
+        lock.lock();
+        try {
+            porId.values().removeIf(espera -> espera.fecha().isBefore(fecha));
+            porFecha.keySet().removeIf(dia -> dia.isBefore(fecha));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Total de esperas en memoria
+     */
+    public int total() {
+        lock.lock();
+        try {
+            return porId.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
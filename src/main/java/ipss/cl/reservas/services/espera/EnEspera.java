@@ -0,0 +1,18 @@
+package ipss.cl.reservas.services.espera;
+
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Entrada de la lista de espera tal como se guarda en las colas en memoria (sin datos del cliente)
+ */
+public record EnEspera(Long id, LocalDate fecha, LocalTime hora, int numeroPersonas, TipoMesa tipoPreferido) {
+    
+    public static EnEspera de(EntradaEspera entrada) {
+        return new EnEspera(entrada.getId(), entrada.getFecha(), entrada.getHora(),
+                entrada.getNumeroPersonas(), entrada.getTipoPreferido());
+    }
+}
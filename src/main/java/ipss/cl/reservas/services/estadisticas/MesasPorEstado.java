@@ -0,0 +1,9 @@
+package ipss.cl.reservas.services.estadisticas;
+
+import ipss.cl.reservas.models.enums.EstadoMesa;
+
+/**
+ * Fila del agregado de mesas activas por estado: cantidad de mesas y de asientos (capacidad máxima)
+ */
+public record MesasPorEstado(EstadoMesa estado, Long mesas, Long asientos) {
+}
@@ -0,0 +1,19 @@
+package ipss.cl.reservas.services.estadisticas;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+
+/**
+ * Fila del agregado de reservas por estado: total histórico y, por período, cantidad de reservas,
+ * personas y minutos-persona (personas × duración) para la ocupación
+ */
+public record ReservasPorEstado(
+        EstadoReserva estado,
+        Long total,
+        Long hoy,
+        Long semana,
+        Long mes,
+        Long personasHoy,
+        Long personasSemana,
+        Long minutosPersonaHoy,
+        Long minutosPersonaSemana) {
+}
@@ -0,0 +1,14 @@
+package ipss.cl.reservas.services.lote;
+
+import ipss.cl.reservas.models.enums.EstadoReserva;
+
+import java.util.List;
+
+/**
+ * Resultado de un cambio de estado en lote: reservas cambiadas y rechazadas con su motivo
+ */
+public record ResultadoCambioEstado(EstadoReserva estado, List<Long> cambiadas, List<Rechazo> rechazadas) {
+    
+    public record Rechazo(Long id, String motivo) {
+    }
+}
@@ -0,0 +1,21 @@
+package ipss.cl.reservas.services.lote;
+
+import ipss.cl.reservas.models.entities.Reserva;
+
+/**
+ * Resultado de una solicitud del lote: la reserva creada o el motivo del rechazo
+ */
+public record ResultadoLote(Reserva reserva, String motivo) {
+    
+    public static ResultadoLote creada(Reserva reserva) {
+        return new ResultadoLote(reserva, null);
+    }
+    
+    public static ResultadoLote rechazada(String motivo) {
+        return new ResultadoLote(null, motivo);
+    }
+    
+    public boolean esCreada() {
+        return reserva != null;
+    }
+}
@@ -0,0 +1,12 @@
+package ipss.cl.reservas.services.lote;
+
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+/**
+ * Una reserva de un lote. Si la reserva no trae mesa se asigna automáticamente.
+ *
+ * @param tipoPreferido tipo de mesa preferido para la asignación automática (puede ser null)
+ */
+public record SolicitudLote(Reserva reserva, TipoMesa tipoPreferido) {
+}
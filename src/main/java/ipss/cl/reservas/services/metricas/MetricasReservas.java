@@ -0,0 +1,54 @@
+package ipss.cl.reservas.services.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contadores de solicitudes de reserva por resultado y tipo de mesa (reservas_solicitudes_total).
+ * Se registran todos al iniciar para que Prometheus vea las series en cero.
+ * Cada solicitud cuenta una vez, con su resultado final (tipo_mesa=NINGUNO si no se llegó a elegir mesa).
+ */
+@Component
+public class MetricasReservas {
+    
+    public static final String SOLICITUDES = "reservas.solicitudes";
+    public static final String SIN_TIPO = "NINGUNO";
+    
+    public enum Resultado {
+        CREADA, SIN_DISPONIBILIDAD, CAPACIDAD
+    }
+    
+    private final Map<Resultado, Map<TipoMesa, Counter>> contadores = new EnumMap<>(Resultado.class);
+    private final Map<Resultado, Counter> sinTipo = new EnumMap<>(Resultado.class);
+    
+    public MetricasReservas(MeterRegistry registry) {
+        for (Resultado resultado : Resultado.values()) {
+            Map<TipoMesa, Counter> porTipo = new EnumMap<>(TipoMesa.class);
+            for (TipoMesa tipo : TipoMesa.values()) {
+                porTipo.put(tipo, contador(registry, resultado, tipo.name()));
+            }
+            contadores.put(resultado, porTipo);
+            sinTipo.put(resultado, contador(registry, resultado, SIN_TIPO));
+        }
+    }
+    
+    /**
+     * Contar una solicitud (tipo null: sin mesa elegida)
+     */
+    public void registrar(Resultado resultado, TipoMesa tipo) {
+        (tipo != null ? contadores.get(resultado).get(tipo) : sinTipo.get(resultado)).increment();
+    }
+    
+    private static Counter contador(MeterRegistry registry, Resultado resultado, String tipo) {
+        return Counter.builder(SOLICITUDES)
+                .description("Solicitudes de reserva por resultado y tipo de mesa")
+                .tag("resultado", resultado.name().toLowerCase())
+                .tag("tipo_mesa", tipo)
+                .register(registry);
+    }
+}
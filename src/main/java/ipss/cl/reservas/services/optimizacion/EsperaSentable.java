@@ -0,0 +1,11 @@
+package ipss.cl.reservas.services.optimizacion;
+
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.entities.Mesa;
+
+/**
+ * Grupo en lista de espera que cabe en una mesa una vez aplicados los cambios propuestos
+ * (la lista de espera le asigna mesa sola al liberarse el horario)
+ */
+public record EsperaSentable(EntradaEspera espera, Mesa mesa) {
+}
@@ -0,0 +1,14 @@
+package ipss.cl.reservas.services.optimizacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+
+/**
+ * Reserva (con su mesa actual) y la mesa a la que se propone moverla
+ */
+public record MovimientoPropuesto(ReservaVista reserva, Mesa destino) {
+    
+    public Reubicacion reubicacion() {
+        return new Reubicacion(reserva.id(), reserva.mesaId(), destino.getId());
+    }
+}
@@ -0,0 +1,388 @@
+package ipss.cl.reservas.services.optimizacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Reasignación de mesas de un día por búsqueda local (recocido simulado), en memoria y con tiempo acotado.
+ * Parte de la asignación actual (siempre válida) y prueba mover una reserva a otra mesa o intercambiarla
+ * con la única reserva que se le cruza; cada grupo en lista de espera es una reserva opcional que suma
+ * si consigue mesa. Costo, de mayor a menor peso: personas en espera sin mesa, asientos sobrantes
+ * (capacidad máxima de la mesa menos personas) y reservas cambiadas de mesa.
+ * Las reservas fijas (y las retenciones) solo ocupan su mesa. No es thread-safe: una instancia por cálculo.
+ */
+public class OptimizadorMesas {
+    
+    // Un grupo en espera vale más que todos los asientos sobrantes que pueda costar sentarlo;
+    // cambiar una reserva de mesa compensa si ahorra al menos un asiento
+    private static final int PESO_PERSONA_EN_ESPERA = 1000;
+    private static final int PESO_ASIENTO_SOBRANTE = 10;
+    private static final int PESO_CAMBIO_DE_MESA = 5;
+    
+    // Temperatura al comienzo y al final del presupuesto (en unidades de costo)
+    private static final double TEMPERATURA_INICIAL = 2.0 * PESO_ASIENTO_SOBRANTE;
+    private static final double TEMPERATURA_FINAL = 0.5;
+    
+    private static final int FIN_DEL_DIA = 23 * 60 + 59;
+    private static final int SIN_MESA = -1;
+    
+    private final List<Mesa> mesas;
+    private final Map<Long, Integer> indicePorMesa = new HashMap<>();
+    private final boolean mantenerTipo;
+    private final List<Grupo> movibles = new ArrayList<>();
+    private final List<List<Grupo>> ocupantes;
+    
+    /**
+     * @param mesas        mesas a las que se puede mover una reserva (las disponibles)
+     * @param mantenerTipo una reserva solo se mueve a mesas de su mismo tipo
+     */
+    public OptimizadorMesas(List<Mesa> mesas, boolean mantenerTipo) {
+        this.mesas = List.copyOf(mesas);
+        this.mantenerTipo = mantenerTipo;
+        this.ocupantes = new ArrayList<>(this.mesas.size());
+        for (int i = 0; i < this.mesas.size(); i++) {
+            indicePorMesa.put(this.mesas.get(i).getId(), i);
+            ocupantes.add(new ArrayList<>());
+        }
+    }
+    
+    /**
+     * Ocupación que no se mueve (reserva en curso, de varias mesas o una retención).
+     * En una mesa que no está entre las del optimizador no afecta a nada.
+     */
+    public void agregarFija(Long mesaId, LocalTime hora, LocalTime horaFin) {
+        Integer mesa = indicePorMesa.get(mesaId);
+        if (mesa == null) {
+            return;
+        }
+        Grupo grupo = new Grupo(null, 0, minutos(hora), minutos(horaFin) - minutos(hora), false, mesa);
+        ocupantes.get(mesa).add(grupo);
+    }
+    
+    /**
+     * Reserva que se puede cambiar a otra mesa con capacidad para el grupo (sin mover su horario ni su duración)
+     */
+    public void agregarReserva(Long reservaId, Long mesaId, int personas, LocalTime hora, LocalTime horaFin) {
+        Integer mesa = indicePorMesa.get(mesaId);
+        if (mesa == null) {
+            throw new IllegalArgumentException("La mesa de la reserva " + reservaId + " no está entre las del optimizador");
+        }
+        Grupo grupo = new Grupo(reservaId, personas, minutos(hora), minutos(horaFin) - minutos(hora), false, mesa);
+        TipoMesa tipo = mesas.get(mesa).getTipo();
+        grupo.candidatas = candidatas(personas, mantenerTipo ? tipo : null, mesa);
+        movibles.add(grupo);
+        ocupantes.get(mesa).add(grupo);
+    }
+    
+    /**
+     * Grupo en lista de espera: sin mesa al comienzo, con la duración por defecto del tipo de la mesa que se le asigne.
+     * Si ninguna mesa tiene capacidad para el grupo no se agrega (no hay a dónde moverlo).
+     */
+    public void agregarEspera(Long esperaId, int personas, LocalTime hora) {
+        Grupo grupo = new Grupo(esperaId, personas, minutos(hora), -1, true, SIN_MESA);
+        grupo.candidatas = candidatas(personas, null, SIN_MESA);
+        if (grupo.candidatas.length > 0) {
+            movibles.add(grupo);
+        }
+    }
+    
+    /**
+     * Buscar la mejor asignación dentro del presupuesto de tiempo (con la misma semilla y sin agotar
+     * el presupuesto, el resultado es siempre el mismo)
+     */
+    public Resultado optimizar(Duration presupuesto, long semilla) {
+        long inicio = System.nanoTime();
+        long limite = inicio + presupuesto.toNanos();
+        int sobrantesAntes = asientosSobrantes();
+        
+        sentarEsperasPorOrdenDeLlegada();
+        long costo = costoTotal();
+        long mejorCosto = costo;
+        int[] mejor = asignacion();
+        long cotaInferior = cotaInferior();
+        
+        SplittableRandom random = new SplittableRandom(semilla);
+        double temperatura = TEMPERATURA_INICIAL;
+        long iteraciones = 0;
+        while (!movibles.isEmpty() && mejorCosto > cotaInferior) {
+            if ((iteraciones & 127) == 0) {
+                long ahora = System.nanoTime();
+                if (ahora >= limite) {
+                    break;
+                }
+                double avance = (double) (ahora - inicio) / (limite - inicio);
+                temperatura = TEMPERATURA_INICIAL * Math.pow(TEMPERATURA_FINAL / TEMPERATURA_INICIAL, avance);
+            }
+            iteraciones++;
+            
+            Grupo grupo = movibles.get(random.nextInt(movibles.size()));
+            int destino = grupo.candidatas[random.nextInt(grupo.candidatas.length)];
+            if (destino == grupo.mesa) {
+                continue;
+            }
+            Movimiento movimiento = proponer(grupo, destino, random);
+            if (movimiento == null) {
+                continue;
+            }
+            if (movimiento.delta <= 0 || random.nextDouble() < Math.exp(-movimiento.delta / temperatura)) {
+                aplicar(movimiento);
+                costo += movimiento.delta;
+                if (costo < mejorCosto) {
+                    mejorCosto = costo;
+                    mejor = asignacion();
+                }
+            }
+        }
+        
+        restaurar(mejor);
+        return resultado(sobrantesAntes, iteraciones, Duration.ofNanos(System.nanoTime() - inicio));
+    }
+    
+    /**
+     * Mover el grupo a la mesa de destino: directo si está libre; si se cruza con una sola reserva movible,
+     * esa pasa a la mesa que deja el grupo (intercambio), a otra mesa libre o, si está en espera, queda sin mesa
+     */
+    private Movimiento proponer(Grupo grupo, int destino, SplittableRandom random) {
+        Grupo desplazado = null;
+        for (Grupo otro : ocupantes.get(destino)) {
+            if (otro != grupo && seCruzan(grupo, otro, destino)) {
+                if (desplazado != null || otro.candidatas == null) {
+                    return null;
+                }
+                desplazado = otro;
+            }
+        }
+        long delta = costo(grupo, destino) - costo(grupo, grupo.mesa);
+        if (desplazado == null) {
+            return new Movimiento(grupo, destino, null, SIN_MESA, delta);
+        }
+        
+        int nuevaMesa = nuevaMesaPara(desplazado, destino, grupo, random);
+        if (nuevaMesa == SIN_MESA && !desplazado.enEspera) {
+            return null;
+        }
+        delta += costo(desplazado, nuevaMesa) - costo(desplazado, destino);
+        return new Movimiento(grupo, destino, desplazado, nuevaMesa, delta);
+    }
+    
+    private int nuevaMesaPara(Grupo desplazado, int mesaQueDeja, Grupo grupo, SplittableRandom random) {
+        if (grupo.mesa != SIN_MESA && admite(desplazado, grupo.mesa) && estaLibre(desplazado, grupo.mesa, grupo)) {
+            return grupo.mesa;
+        }
+        int[] candidatas = desplazado.candidatas;
+        int desde = random.nextInt(candidatas.length);
+        for (int i = 0; i < candidatas.length; i++) {
+            int mesa = candidatas[(desde + i) % candidatas.length];
+            if (mesa != mesaQueDeja && mesa != grupo.mesa && estaLibre(desplazado, mesa, null)) {
+                return mesa;
+            }
+        }
+        return SIN_MESA;
+    }
+    
+    private void aplicar(Movimiento movimiento) {
+        if (movimiento.desplazado != null) {
+            mover(movimiento.desplazado, movimiento.nuevaMesaDesplazado);
+        }
+        mover(movimiento.grupo, movimiento.destino);
+    }
+    
+    private void mover(Grupo grupo, int mesa) {
+        if (grupo.mesa != SIN_MESA) {
+            ocupantes.get(grupo.mesa).remove(grupo);
+        }
+        grupo.mesa = mesa;
+        if (mesa != SIN_MESA) {
+            ocupantes.get(mesa).add(grupo);
+        }
+    }
+    
+    /**
+     * Solución inicial: cada grupo en espera, en orden de llegada, a la mesa libre con menos asientos sobrantes
+     */
+    private void sentarEsperasPorOrdenDeLlegada() {
+        for (Grupo grupo : movibles) {
+            if (!grupo.enEspera) {
+                continue;
+            }
+            int mejor = SIN_MESA;
+            for (int mesa : grupo.candidatas) {
+                if (estaLibre(grupo, mesa, null)
+                        && (mejor == SIN_MESA || mesas.get(mesa).getCapacidadMaxima() < mesas.get(mejor).getCapacidadMaxima())) {
+                    mejor = mesa;
+                }
+            }
+            if (mejor != SIN_MESA) {
+                mover(grupo, mejor);
+            }
+        }
+    }
+    
+    /**
+     * Mesas con capacidad para el grupo (y del tipo indicado); la actual siempre está
+     */
+    private int[] candidatas(int personas, TipoMesa tipo, int actual) {
+        List<Integer> candidatas = new ArrayList<>();
+        for (int i = 0; i < mesas.size(); i++) {
+            Mesa mesa = mesas.get(i);
+            if (i == actual || (personas >= mesa.getCapacidadMinima() && personas <= mesa.getCapacidadMaxima()
+                    && (tipo == null || mesa.getTipo() == tipo))) {
+                candidatas.add(i);
+            }
+        }
+        return candidatas.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    private boolean admite(Grupo grupo, int mesa) {
+        for (int candidata : grupo.candidatas) {
+            if (candidata == mesa) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean estaLibre(Grupo grupo, int mesa, Grupo ignorado) {
+        for (Grupo otro : ocupantes.get(mesa)) {
+            if (otro != grupo && otro != ignorado && seCruzan(grupo, otro, mesa)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean seCruzan(Grupo a, Grupo b, int mesa) {
+        return a.inicio < b.fin(mesa) && b.inicio < a.fin(mesa);
+    }
+    
+    private long costo(Grupo grupo, int mesa) {
+        if (mesa == SIN_MESA) {
+            return (long) grupo.personas * PESO_PERSONA_EN_ESPERA;
+        }
+        long costo = (long) sobrantes(grupo, mesa) * PESO_ASIENTO_SOBRANTE;
+        if (!grupo.enEspera && mesa != grupo.original) {
+            costo += PESO_CAMBIO_DE_MESA;
+        }
+        return costo;
+    }
+    
+    private int sobrantes(Grupo grupo, int mesa) {
+        return Math.max(0, mesas.get(mesa).getCapacidadMaxima() - grupo.personas);
+    }
+    
+    private long costoTotal() {
+        long total = 0;
+        for (Grupo grupo : movibles) {
+            total += costo(grupo, grupo.mesa);
+        }
+        return total;
+    }
+    
+    /**
+     * Costo si cada grupo tuviera su mejor mesa sin cruces: alcanzarlo permite terminar antes del presupuesto
+     */
+    private long cotaInferior() {
+        long cota = 0;
+        for (Grupo grupo : movibles) {
+            long menor = grupo.enEspera ? costo(grupo, SIN_MESA) : Long.MAX_VALUE;
+            for (int mesa : grupo.candidatas) {
+                menor = Math.min(menor, costo(grupo, mesa));
+            }
+            cota += menor;
+        }
+        return cota;
+    }
+    
+    private int asientosSobrantes() {
+        int total = 0;
+        for (Grupo grupo : movibles) {
+            if (!grupo.enEspera && grupo.mesa != SIN_MESA) {
+                total += sobrantes(grupo, grupo.mesa);
+            }
+        }
+        return total;
+    }
+    
+    private int[] asignacion() {
+        int[] asignacion = new int[movibles.size()];
+        for (int i = 0; i < asignacion.length; i++) {
+            asignacion[i] = movibles.get(i).mesa;
+        }
+        return asignacion;
+    }
+    
+    private void restaurar(int[] asignacion) {
+        for (int i = 0; i < asignacion.length; i++) {
+            mover(movibles.get(i), asignacion[i]);
+        }
+    }
+    
+    private Resultado resultado(int sobrantesAntes, long iteraciones, Duration duracion) {
+        Map<Long, Long> reservasMovidas = new LinkedHashMap<>();
+        Map<Long, Long> esperasSentadas = new LinkedHashMap<>();
+        for (Grupo grupo : movibles) {
+            if (grupo.enEspera && grupo.mesa != SIN_MESA) {
+                esperasSentadas.put(grupo.id, mesas.get(grupo.mesa).getId());
+            } else if (!grupo.enEspera && grupo.mesa != grupo.original) {
+                reservasMovidas.put(grupo.id, mesas.get(grupo.mesa).getId());
+            }
+        }
+        return new Resultado(reservasMovidas, esperasSentadas, sobrantesAntes, asientosSobrantes(), iteraciones, duracion);
+    }
+    
+    private static int minutos(LocalTime hora) {
+        return hora.toSecondOfDay() / 60;
+    }
+    
+    /**
+     * Resultado: mesa nueva de cada reserva movida y mesa de cada grupo en espera que se puede sentar
+     * (por ID de reserva / de espera), y los asientos sobrantes de las reservas antes y después
+     */
+    public record Resultado(Map<Long, Long> reservasMovidas, Map<Long, Long> esperasSentadas,
+                            int asientosSobrantesAntes, int asientosSobrantesDespues,
+                            long iteraciones, Duration duracion) {
+    }
+    
+    private record Movimiento(Grupo grupo, int destino, Grupo desplazado, int nuevaMesaDesplazado, long delta) {
+    }
+    
+    /**
+     * Reserva, espera u ocupación fija; candidatas == null si no se mueve
+     */
+    private final class Grupo {
+        
+        private final Long id;
+        private final int personas;
+        private final int inicio;
+        // -1: la duración por defecto del tipo de la mesa
+        private final int duracion;
+        private final boolean enEspera;
+        private final int original;
+        private int[] candidatas;
+        private int mesa;
+        
+        private Grupo(Long id, int personas, int inicio, int duracion, boolean enEspera, int mesa) {
+            this.id = id;
+            this.personas = personas;
+            this.inicio = inicio;
+            this.duracion = duracion;
+            this.enEspera = enEspera;
+            this.original = mesa;
+            this.mesa = mesa;
+        }
+        
+        private int fin(int mesa) {
+            int minutos = duracion >= 0 ? duracion : mesas.get(mesa).getTipo().getDuracionMinutos();
+            return Math.min(inicio + minutos, FIN_DEL_DIA);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ipss.cl.reservas.services.optimizacion;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cambios de mesa propuestos para un día y su efecto: asientos sobrantes de las reservas
+ * antes y después, y grupos en espera que pasan a tener mesa
+ */
+public record PlanReubicacion(LocalDate fecha, List<MovimientoPropuesto> movimientos,
+                              List<EsperaSentable> esperasSentables, int asientosSobrantesAntes,
+                              int asientosSobrantesDespues, long iteraciones, Duration duracion) {
+    
+    public int personasEnEsperaSentables() {
+        return esperasSentables.stream().mapToInt(e -> e.espera().getNumeroPersonas()).sum();
+    }
+}
@@ -0,0 +1,8 @@
+package ipss.cl.reservas.services.optimizacion;
+
+/**
+ * Cambio de mesa de una reserva: la mesa de origen es la que tenía al proponer el cambio,
+ * si ya no es la misma el cambio no se aplica
+ */
+public record Reubicacion(Long reservaId, Long mesaOrigenId, Long mesaDestinoId) {
+}
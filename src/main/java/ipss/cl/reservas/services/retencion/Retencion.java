@@ -0,0 +1,33 @@
+package ipss.cl.reservas.services.retencion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Mesa apartada en [hora, horaFin) mientras el cliente completa la reserva, hasta que vence.
+ * cliente identifica a quien la pidió (para el límite por cliente; null si no se conoce).
+ * venceNanos es el mismo instante que vence, según System.nanoTime.
+ */
+public record Retencion(String token, String cliente, Long mesaId, LocalDate fecha, LocalTime hora, LocalTime horaFin,
+                        Instant vence, long venceNanos) {
+    
+    public boolean vigente(long ahoraNanos) {
+        return venceNanos - ahoraNanos > 0;
+    }
+    
+    /**
+     * Verificar si aparta la mesa en algún momento de [inicio, fin)
+     */
+    public boolean bloquea(Long mesaId, LocalTime inicio, LocalTime fin) {
+        return this.mesaId.equals(mesaId) && hora.isBefore(fin) && horaFin.isAfter(inicio);
+    }
+    
+    /**
+     * Verificar si una reserva de la mesa en [inicio, fin) cabe dentro de lo retenido
+     */
+    public boolean cubre(Long mesaId, LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        return this.mesaId.equals(mesaId) && this.fecha.equals(fecha)
+                && !inicio.isBefore(hora) && !fin.isAfter(horaFin);
+    }
+}
@@ -0,0 +1,177 @@
+package ipss.cl.reservas.services.retencion;
+
+import ipss.cl.reservas.utils.RuedaTemporal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Tabla en memoria de retenciones de mesa (sin filas en la base de datos).
+ * Cada retención se indexa por token y por fecha; una rueda de tiempo las quita al vencer.
+ * Las consultas ignoran las vencidas aunque la rueda aún no las haya quitado.
+ * Hay un máximo total y otro por cliente, contados hasta que la retención se libera o la rueda la quita.
+ * La validación contra reservas y el lock por (mesa, fecha) los pone ReservaService.
+ */
+@Component
+@Slf4j
+public class RetencionesMesas {
+    
+    private final Map<String, Retencion> porToken = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Set<Retencion>> porFecha = new ConcurrentHashMap<>();
+    private final Map<String, Integer> porCliente = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final RuedaTemporal<Retencion> vencimientos;
+    private final Duration duracion;
+    private final int maximo;
+    private final int maximoPorCliente;
+    private final LongSupplier relojNanos;
+    
+    @Autowired
+    public RetencionesMesas(@Value("${reservas.retenciones.duracion-segundos:300}") long duracionSegundos,
+                            @Value("${reservas.retenciones.tick-ms:1000}") long tickMs,
+                            @Value("${reservas.retenciones.maximo:5000}") int maximo,
+                            @Value("${reservas.retenciones.maximo-por-cliente:3}") int maximoPorCliente) {
+        this(duracionSegundos, tickMs, maximo, maximoPorCliente, System::nanoTime);
+    }
+    
+    /**
+     * Con otro reloj monotónico (tests)
+     */
+    RetencionesMesas(long duracionSegundos, long tickMs, int maximo, int maximoPorCliente, LongSupplier relojNanos) {
+        this.duracion = Duration.ofSeconds(duracionSegundos);
+        this.maximo = maximo;
+        this.maximoPorCliente = maximoPorCliente;
+        this.relojNanos = relojNanos;
+        // Una vuelta de la rueda cubre la duración completa: cada ranura solo tiene retenciones de su tick
+        this.vencimientos = new RuedaTemporal<>(Duration.ofMillis(tickMs),
+                (int) Math.max(1, duracion.toMillis() / tickMs + 1), relojNanos);
+    }
+    
+    /**
+     * Apartar la mesa en [hora, horaFin) por la duración configurada, a nombre del cliente (puede ser null)
+     */
+    public Retencion retener(Long mesaId, LocalDate fecha, LocalTime hora, LocalTime horaFin, String cliente) {
+        ocuparCupo(cliente);
+        long venceNanos = relojNanos.getAsLong() + duracion.toNanos();
+        Retencion retencion = new Retencion(UUID.randomUUID().toString(), cliente, mesaId, fecha, hora, horaFin,
+                Instant.now().plus(duracion), venceNanos);
+        porToken.put(retencion.token(), retencion);
+        porFecha.compute(fecha, (f, retenciones) -> {
+            Set<Retencion> conjunto = retenciones != null ? retenciones : ConcurrentHashMap.newKeySet();
+            conjunto.add(retencion);
+            return conjunto;
+        });
+        vencimientos.agregar(retencion, venceNanos);
+        log.debug("Mesa {} retenida el {} de {} a {}", mesaId, fecha, hora, horaFin);
+        return retencion;
+    }
+    
+    /**
+     * Retención vigente por token
+     */
+    public Optional<Retencion> vigente(String token) {
+        Retencion retencion = porToken.get(token);
+        return retencion != null && retencion.vigente(relojNanos.getAsLong()) ? Optional.of(retencion) : Optional.empty();
+    }
+    
+    /**
+     * Retenciones vigentes de una fecha
+     */
+    public List<Retencion> delDia(LocalDate fecha) {
+        Set<Retencion> retenciones = porFecha.get(fecha);
+        if (retenciones == null) {
+            return List.of();
+        }
+        long ahora = relojNanos.getAsLong();
+        return retenciones.stream().filter(retencion -> retencion.vigente(ahora)).toList();
+    }
+    
+    /**
+     * Verificar si otra retención vigente (distinta de la del token indicado) aparta la mesa en [inicio, fin)
+     */
+    public boolean estaRetenida(Long mesaId, LocalDate fecha, LocalTime inicio, LocalTime fin, String excepto) {
+        return delDia(fecha).stream()
+                .anyMatch(retencion -> !retencion.token().equals(excepto) && retencion.bloquea(mesaId, inicio, fin));
+    }
+    
+    /**
+     * Liberar una retención (el cliente desistió o ya se usó en una reserva)
+     */
+    public boolean liberar(String token) {
+        Retencion retencion = porToken.remove(token);
+        if (retencion == null) {
+            return false;
+        }
+        quitar(retencion);
+        return true;
+    }
+    
+    public int activas() {
+        return total.get();
+    }
+    
+    /**
+     * Quitar las retenciones vencidas (las liberadas antes ya no están en porToken)
+     */
+    @Scheduled(fixedDelayString = "${reservas.retenciones.tick-ms:1000}")
+    public void expirar() {
+        vencimientos.avanzar(retencion -> {
+            if (porToken.remove(retencion.token(), retencion)) {
+                quitar(retencion);
+                log.debug("Retención de la mesa {} el {} vencida", retencion.mesaId(), retencion.fecha());
+            }
+        });
+    }
+    
+    /**
+     * Tomar un cupo del cliente y uno del total (cada uno se revisa y suma en un solo paso atómico)
+     */
+    private void ocuparCupo(String cliente) {
+        if (cliente != null) {
+            porCliente.compute(cliente, (c, cantidad) -> {
+                if (cantidad != null && cantidad >= maximoPorCliente) {
+                    throw new IllegalStateException(String.format(
+                            "Ya tiene %d mesas retenidas; complete o libere alguna antes de retener otra", cantidad));
+                }
+                return cantidad == null ? 1 : cantidad + 1;
+            });
+        }
+        if (total.getAndUpdate(cantidad -> cantidad < maximo ? cantidad + 1 : cantidad) >= maximo) {
+            liberarCupo(cliente);
+            throw new IllegalStateException("Hay demasiadas retenciones activas; intente nuevamente en unos minutos");
+        }
+    }
+    
+    private void liberarCupo(String cliente) {
+        if (cliente != null) {
+            porCliente.computeIfPresent(cliente, (c, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+        }
+    }
+    
+    /**
+     * Quitar de los índices y devolver los cupos de una retención ya quitada de porToken
+     */
+    private void quitar(Retencion retencion) {
+        porFecha.computeIfPresent(retencion.fecha(), (fecha, retenciones) -> {
+            retenciones.remove(retencion);
+            return retenciones.isEmpty() ? null : retenciones;
+        });
+        total.decrementAndGet();
+        liberarCupo(retencion.cliente());
+    }
+}
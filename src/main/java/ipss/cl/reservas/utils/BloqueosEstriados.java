@@ -0,0 +1,52 @@
+package ipss.cl.reservas.utils;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de locks repartidos por hash de la clave.
+ * Dos operaciones solo compiten si sus claves caen en el mismo lock.
+ */
+public class BloqueosEstriados {
+    
+    private final ReentrantLock[] locks;
+    private final int mascara;
+    
+    /**
+     * @param cantidad número de locks (se redondea a la siguiente potencia de 2)
+     */
+    public BloqueosEstriados(int cantidad) {
+        int tamano = Integer.highestOneBit(Math.max(1, cantidad - 1)) << 1;
+        this.locks = new ReentrantLock[tamano];
+        this.mascara = tamano - 1;
+        for (int i = 0; i < tamano; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Lock que corresponde a la clave
+     */
+    public ReentrantLock para(Object clave) {
+        return locks[posicion(clave)];
+    }
+    
+    /**
+     * Locks de todas las claves, sin repetir y siempre en el mismo orden (por posición),
+     * para que dos operaciones que toman varios locks no puedan bloquearse mutuamente
+     */
+    public List<ReentrantLock> paraTodas(Collection<?> claves) {
+        BitSet posiciones = new BitSet(locks.length);
+        for (Object clave : claves) {
+            posiciones.set(posicion(clave));
+        }
+        return posiciones.stream().mapToObj(i -> locks[i]).toList();
+    }
+    
+    private int posicion(Object clave) {
+        int hash = clave.hashCode();
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,37 @@
+package ipss.cl.reservas.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class CsvUtils {
+    
+    private static final char SEPARADOR = ',';
+    
+    /**
+     * Escribir una fila CSV (RFC 4180): null queda vacío y se citan los valores
+     * con separador, comillas o saltos de línea
+     */
+    public static void escribirFila(Writer escritor, Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                escritor.write(SEPARADOR);
+            }
+            if (valores[i] != null) {
+                escritor.write(escapar(valores[i].toString()));
+            }
+        }
+        escritor.write("\r\n");
+    }
+    
+    /**
+     * Escapar un valor para CSV
+     */
+    public static String escapar(String valor) {
+        boolean requiereComillas = valor.indexOf(SEPARADOR) >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        if (!requiereComillas) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
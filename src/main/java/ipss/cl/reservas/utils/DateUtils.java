@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
+import java.util.List;
 import java.util.Locale;
 
 public class DateUtils {
@@ -22,6 +23,23 @@ public class DateUtils {
     private static final DateTimeFormatter FECHA_COMPLETA_FORMATTER = 
             DateTimeFormatter.ofPattern("EEEE, dd 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
     
+    // Horarios de apertura del restaurante (ejemplo: 12:00 a 23:00)
+    public static final List<LocalTime> HORARIOS_RESERVA = List.of(
+            LocalTime.of(12, 0),
+            LocalTime.of(12, 30),
+            LocalTime.of(13, 0),
+            LocalTime.of(13, 30),
+            LocalTime.of(14, 0),
+            LocalTime.of(14, 30),
+            LocalTime.of(19, 0),
+            LocalTime.of(19, 30),
+            LocalTime.of(20, 0),
+            LocalTime.of(20, 30),
+            LocalTime.of(21, 0),
+            LocalTime.of(21, 30),
+            LocalTime.of(22, 0)
+    );
+    
     /**
      * Formatear fecha a string
      */
@@ -120,4 +138,22 @@ public class DateUtils {
         LocalTime cierre = LocalTime.of(23, 0);
         return !hora.isBefore(apertura) && !hora.isAfter(cierre);
     }
+    
+    /**
+     * Obtener la posición de una hora dentro de los horarios de reserva (-1 si no corresponde)
+     */
+    public static int indiceHorario(LocalTime hora) {
+        return hora != null ? HORARIOS_RESERVA.indexOf(hora) : -1;
+    }
+    
+    /**
+     * Hora de término de una reserva; si pasa de medianoche se deja en 23:59
+     */
+    public static LocalTime calcularHoraFin(LocalTime inicio, int duracionMinutos) {
+        LocalTime fin = inicio.plusMinutes(duracionMinutos);
+        if (!fin.isAfter(inicio)) {
+            return LocalTime.of(23, 59);
+        }
+        return fin;
+    }
 }
@@ -1,54 +1,153 @@
 package ipss.cl.reservas.utils;
 
-import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class ReservaCodeGenerator {
+/**
+ * Códigos de reserva únicos sin consultar la base de datos.
+ * Formato: RSV-TTTTTTNNSSSC en base 36, con
+ * T = segundos desde 2024-01-01 UTC (alcanza hasta 2093), N = nodo (0-1295),
+ * S = secuencia dentro del segundo (46656 por segundo; si se agota se usa el segundo siguiente)
+ * y C = carácter de control Luhn mod 36 (detecta un carácter cambiado y la mayoría de las transposiciones).
+ */
+public final class ReservaCodeGenerator {
     
-    private static final String CARACTERES = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int LONGITUD_CODIGO = 8;
-    private static final SecureRandom random = new SecureRandom();
+    public static final String PREFIJO = "RSV-";
+    public static final int NODOS = 36 * 36;
+    
+    private static final char[] DIGITOS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final int BASE = DIGITOS.length;
+    private static final int LARGO_TIEMPO = 6;
+    private static final int LARGO_NODO = 2;
+    private static final int LARGO_SECUENCIA = 3;
+    private static final long SECUENCIAS_POR_SEGUNDO = 36L * 36 * 36;
+    private static final long EPOCA = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+    
+    private static final int INICIO = PREFIJO.length();
+    private static final int LONGITUD_CODIGO = INICIO + LARGO_TIEMPO + LARGO_NODO + LARGO_SECUENCIA + 1;
+    // Formatos anteriores (aleatorios, sin control) que pueden seguir guardados: RSV-XXXXXXXX y RSV-YYYYMMDD-XXXX
+    private static final int LONGITUD_ANTERIOR = INICIO + 8;
+    private static final int LONGITUD_ANTERIOR_CON_FECHA = INICIO + 8 + 1 + 4;
+    
+    // Último (segundo × SECUENCIAS_POR_SEGUNDO + secuencia) entregado: un CAS por código, sin locks
+    private static final AtomicLong ultimo = new AtomicLong();
+    private static volatile int nodo;
+    
+    private ReservaCodeGenerator() {
+    }
+    
+    /**
+     * Fijar el nodo de esta instancia; cada instancia que comparta la base de datos necesita uno distinto
+     */
+    public static void configurarNodo(int nodo) {
+        if (nodo < 0 || nodo >= NODOS) {
+            throw new IllegalArgumentException("El nodo del generador de códigos debe estar entre 0 y " + (NODOS - 1));
+        }
+        ReservaCodeGenerator.nodo = nodo;
+    }
     
     /**
      * Generar código único de reserva
-     * Formato: RSV-XXXXXXXX
+     * Formato: RSV-TTTTTTNNSSSC
      */
     public static String generarCodigo() {
-        String codigoAleatorio = generarCodigoAleatorio(LONGITUD_CODIGO);
-        return "RSV-" + codigoAleatorio;
+        long valor = siguiente();
+        char[] codigo = new char[LONGITUD_CODIGO];
+        PREFIJO.getChars(0, INICIO, codigo, 0);
+        int posicion = escribir(codigo, INICIO, valor / SECUENCIAS_POR_SEGUNDO, LARGO_TIEMPO);
+        posicion = escribir(codigo, posicion, nodo, LARGO_NODO);
+        posicion = escribir(codigo, posicion, valor % SECUENCIAS_POR_SEGUNDO, LARGO_SECUENCIA);
+        codigo[posicion] = DIGITOS[caracterControl(codigo, posicion)];
+        return new String(codigo);
+    }
+    
+    /**
+     * Validar formato de código (y su carácter de control) sin crear objetos:
+     * permite descartar códigos inválidos antes de consultar la base de datos
+     */
+    public static boolean esCodigoValido(String codigo) {
+        if (codigo == null || !codigo.startsWith(PREFIJO)) {
+            return false;
+        }
+        int longitud = codigo.length();
+        if (longitud == LONGITUD_CODIGO) {
+            return sonAlfanumericos(codigo, INICIO, longitud) && controlValido(codigo);
+        }
+        if (longitud == LONGITUD_ANTERIOR) {
+            return sonAlfanumericos(codigo, INICIO, longitud);
+        }
+        if (longitud == LONGITUD_ANTERIOR_CON_FECHA) {
+            int guion = INICIO + 8;
+            for (int i = INICIO; i < guion; i++) {
+                if (valor(codigo.charAt(i)) > 9) {
+                    return false;
+                }
+            }
+            return codigo.charAt(guion) == '-' && sonAlfanumericos(codigo, guion + 1, longitud);
+        }
+        return false;
     }
     
     /**
-     * Generar código con fecha
-     * Formato: RSV-YYYYMMDD-XXXX
+     * Siguiente valor: al menos el segundo actual con secuencia 0 y siempre mayor que el anterior
      */
-    public static String generarCodigoConFecha() {
-        String fecha = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String codigoAleatorio = generarCodigoAleatorio(4);
-        return "RSV-" + fecha + "-" + codigoAleatorio;
+    private static long siguiente() {
+        long piso = (System.currentTimeMillis() / 1000 - EPOCA) * SECUENCIAS_POR_SEGUNDO;
+        return ultimo.accumulateAndGet(piso, (anterior, minimo) -> Math.max(anterior + 1, minimo));
+    }
+    
+    private static int escribir(char[] destino, int desde, long numero, int largo) {
+        for (int i = desde + largo - 1; i >= desde; i--) {
+            destino[i] = DIGITOS[(int) (numero % BASE)];
+            numero /= BASE;
+        }
+        return desde + largo;
     }
     
     /**
-     * Generar código alfanumérico aleatorio
+     * Carácter de control Luhn mod 36 para codigo[INICIO, fin)
      */
-    private static String generarCodigoAleatorio(int longitud) {
-        StringBuilder codigo = new StringBuilder(longitud);
-        for (int i = 0; i < longitud; i++) {
-            int index = random.nextInt(CARACTERES.length());
-            codigo.append(CARACTERES.charAt(index));
+    private static int caracterControl(char[] codigo, int fin) {
+        int factor = 2;
+        int suma = 0;
+        for (int i = fin - 1; i >= INICIO; i--) {
+            int sumando = factor * valor(codigo[i]);
+            suma += sumando / BASE + sumando % BASE;
+            factor = 3 - factor;
+        }
+        return (BASE - suma % BASE) % BASE;
+    }
+    
+    private static boolean controlValido(String codigo) {
+        int factor = 1;
+        int suma = 0;
+        for (int i = codigo.length() - 1; i >= INICIO; i--) {
+            int sumando = factor * valor(codigo.charAt(i));
+            suma += sumando / BASE + sumando % BASE;
+            factor = 3 - factor;
+        }
+        return suma % BASE == 0;
+    }
+    
+    private static boolean sonAlfanumericos(String codigo, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (valor(codigo.charAt(i)) < 0) {
+                return false;
+            }
         }
-        return codigo.toString();
+        return true;
     }
     
     /**
-     * Validar formato de código
+     * Valor en base 36 de un carácter (solo dígitos y mayúsculas), -1 si no corresponde
      */
-    public static boolean esCodigoValido(String codigo) {
-        if (codigo == null || codigo.isEmpty()) {
-            return false;
+    private static int valor(char caracter) {
+        if (caracter >= '0' && caracter <= '9') {
+            return caracter - '0';
+        }
+        if (caracter >= 'A' && caracter <= 'Z') {
+            return caracter - 'A' + 10;
         }
-        return codigo.matches("^RSV-[A-Z0-9]{8}$") || 
-               codigo.matches("^RSV-\\d{8}-[A-Z0-9]{4}$");
+        return -1;
     }
 }
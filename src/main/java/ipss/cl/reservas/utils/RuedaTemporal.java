@@ -0,0 +1,103 @@
+package ipss.cl.reservas.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Rueda de tiempo (hashed timing wheel) para muchos plazos cortos.
+ * Agregar es O(1) y cada avance solo revisa las ranuras de los ticks transcurridos,
+ * sin ordenar ni recorrer todos los plazos. Un elemento vence en el primer avance
+ * posterior a su plazo (precisión de un tick). No hay cancelación: quien recibe
+ * los vencidos descarta los que ya no aplican.
+ */
+public class RuedaTemporal<T> {
+    
+    private final List<Entrada<T>>[] ranuras;
+    private final int mascara;
+    private final long tickNanos;
+    private final LongSupplier relojNanos;
+    private final long inicio;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Último tick procesado; los elementos pendientes siempre tienen un tick mayor
+    private long tickActual;
+    private int pendientes;
+    
+    /**
+     * @param tick      duración de un tick (precisión del vencimiento)
+     * @param cantidad  número de ranuras (se redondea a la siguiente potencia de 2)
+     * @param relojNanos reloj monotónico, normalmente System::nanoTime
+     */
+    @SuppressWarnings("unchecked")
+    public RuedaTemporal(Duration tick, int cantidad, LongSupplier relojNanos) {
+        int tamano = Integer.highestOneBit(Math.max(1, cantidad - 1)) << 1;
+        this.ranuras = new List[tamano];
+        this.mascara = tamano - 1;
+        for (int i = 0; i < tamano; i++) {
+            ranuras[i] = new ArrayList<>();
+        }
+        this.tickNanos = tick.toNanos();
+        this.relojNanos = relojNanos;
+        this.inicio = relojNanos.getAsLong();
+    }
+    
+    /**
+     * Agregar un elemento que vence en el instante indicado (según el mismo reloj)
+     */
+    public void agregar(T elemento, long vencimientoNanos) {
+        long tick = Math.ceilDiv(vencimientoNanos - inicio, tickNanos);
+        lock.lock();
+        try {
+            tick = Math.max(tick, tickActual + 1);
+            ranuras[(int) (tick & mascara)].add(new Entrada<>(elemento, tick));
+            pendientes++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Avanzar hasta el tick actual y entregar los elementos vencidos (fuera del lock).
+     * Si pasó más de una vuelta desde el último avance, basta con recorrer cada ranura una vez.
+     */
+    public void avanzar(Consumer<T> vencido) {
+        List<T> vencidos = new ArrayList<>();
+        lock.lock();
+        try {
+            long hasta = (relojNanos.getAsLong() - inicio) / tickNanos;
+            long pasos = Math.min(hasta - tickActual, ranuras.length);
+            for (long tick = tickActual + 1; tick <= tickActual + pasos; tick++) {
+                ranuras[(int) (tick & mascara)].removeIf(entrada -> {
+                    if (entrada.tick() > hasta) {
+                        return false;
+                    }
+                    vencidos.add(entrada.elemento());
+                    return true;
+                });
+            }
+            tickActual = Math.max(tickActual, hasta);
+            pendientes -= vencidos.size();
+        } finally {
+            lock.unlock();
+        }
+        vencidos.forEach(vencido);
+    }
+    
+    /**
+     * Elementos aún sin vencer
+     */
+    public int pendientes() {
+        lock.lock();
+        try {
+            return pendientes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private record Entrada<T>(T elemento, long tick) {
+    }
+}
@@ -0,0 +1,63 @@
+-- Esquema inicial: el mismo que generaba Hibernate con ddl-auto (ahora solo se valida)
+
+CREATE SEQUENCE reservas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE acumulado_reservas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cambios_reserva_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE mesas (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    numero INTEGER NOT NULL,
+    capacidad_minima INTEGER NOT NULL,
+    capacidad_maxima INTEGER NOT NULL,
+    tipo ENUM ('BARRA','EXTERIOR','INTERIOR','TERRAZA','VIP') NOT NULL,
+    estado ENUM ('DISPONIBLE','MANTENIMIENTO','OCUPADA','RESERVADA') NOT NULL,
+    descripcion VARCHAR(200),
+    activa BOOLEAN NOT NULL,
+    CONSTRAINT pk_mesas PRIMARY KEY (id),
+    CONSTRAINT uk_mesas_numero UNIQUE (numero)
+);
+
+CREATE TABLE reservas (
+    id BIGINT NOT NULL,
+    nombre_cliente VARCHAR(100) NOT NULL,
+    email_cliente VARCHAR(100) NOT NULL,
+    telefono_cliente VARCHAR(20) NOT NULL,
+    mesa_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    hora TIME(6) NOT NULL,
+    duracion_minutos INTEGER NOT NULL,
+    hora_fin TIME(6) NOT NULL,
+    numero_personas INTEGER NOT NULL,
+    estado ENUM ('CANCELADA','COMPLETADA','CONFIRMADA','NO_ASISTIO','PENDIENTE') NOT NULL,
+    observaciones VARCHAR(500),
+    codigo_reserva VARCHAR(20),
+    clave_ocupacion VARCHAR(60),
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    fecha_modificacion TIMESTAMP(6),
+    CONSTRAINT pk_reservas PRIMARY KEY (id),
+    CONSTRAINT uk_reservas_codigo_reserva UNIQUE (codigo_reserva),
+    -- Una sola reserva activa por mesa, fecha y hora de inicio
+    CONSTRAINT uk_reservas_clave_ocupacion UNIQUE (clave_ocupacion),
+    CONSTRAINT fk_reservas_mesa FOREIGN KEY (mesa_id) REFERENCES mesas (id)
+);
+
+-- Orden del listado paginado por cursor (keyset)
+CREATE INDEX idx_reservas_fecha_hora_id ON reservas (fecha, hora, id);
+
+CREATE TABLE acumulado_reservas (
+    id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    hora TIME(6) NOT NULL,
+    tipo_mesa ENUM ('BARRA','EXTERIOR','INTERIOR','TERRAZA','VIP') NOT NULL,
+    estado ENUM ('CANCELADA','COMPLETADA','CONFIRMADA','NO_ASISTIO','PENDIENTE') NOT NULL,
+    reservas BIGINT NOT NULL,
+    personas BIGINT NOT NULL,
+    CONSTRAINT pk_acumulado_reservas PRIMARY KEY (id),
+    CONSTRAINT uk_acumulado_reservas UNIQUE (fecha, hora, tipo_mesa, estado)
+);
+
+CREATE TABLE cambios_reserva (
+    id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    CONSTRAINT pk_cambios_reserva PRIMARY KEY (id)
+);
@@ -0,0 +1,22 @@
+-- Índices para los predicados de ReservaRepository, MesaRepository y AcumuladoReservasRepository.
+-- ReservaRepositoryExplainTest verifica con EXPLAIN que ninguna consulta recorra la tabla completa.
+
+-- Conflictos y solapamientos por mesa (findReservasConflicto, findReservasSolapadas, findByMesaId,
+-- findVistasActivasPorMesas); también cubre la clave foránea mesa_id
+CREATE INDEX idx_reservas_mesa_fecha_hora_estado ON reservas (mesa_id, fecha, hora, estado);
+
+-- Reservas de un día o rango por estado (ocupación, vistas del día, conteos, exportación, dashboard)
+CREATE INDEX idx_reservas_fecha_estado ON reservas (fecha, estado);
+
+-- Pendientes y conteos por estado (findReservasPendientes, findByEstado, countByEstado, resumirPorEstado)
+CREATE INDEX idx_reservas_estado_fecha ON reservas (estado, fecha);
+
+-- Reservas de un cliente (findByEmailCliente, findReservasFuturasPorEmail, filtro del listado)
+CREATE INDEX idx_reservas_email_fecha ON reservas (email_cliente, fecha);
+
+-- Búsqueda por teléfono (findByTelefonoCliente)
+CREATE INDEX idx_reservas_telefono ON reservas (telefono_cliente);
+
+-- Mesas activas por estado y por tipo (findByActivaTrue, findByEstadoAndActivaTrue, countBy..., resumen)
+CREATE INDEX idx_mesas_activa_estado ON mesas (activa, estado);
+CREATE INDEX idx_mesas_activa_tipo ON mesas (activa, tipo);
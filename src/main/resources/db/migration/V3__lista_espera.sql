@@ -0,0 +1,24 @@
+-- Lista de espera por fecha, horario y tamaño del grupo (EntradaEspera)
+
+CREATE SEQUENCE lista_espera_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE lista_espera (
+    id BIGINT NOT NULL,
+    nombre_cliente VARCHAR(100) NOT NULL,
+    email_cliente VARCHAR(100) NOT NULL,
+    telefono_cliente VARCHAR(20) NOT NULL,
+    fecha DATE NOT NULL,
+    hora TIME(6) NOT NULL,
+    numero_personas INTEGER NOT NULL,
+    tipo_preferido ENUM ('BARRA','EXTERIOR','INTERIOR','TERRAZA','VIP'),
+    estado ENUM ('ASIGNADA','CANCELADA','ESPERANDO','EXPIRADA') NOT NULL,
+    reserva_id BIGINT,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    fecha_modificacion TIMESTAMP(6),
+    CONSTRAINT pk_lista_espera PRIMARY KEY (id),
+    -- Eliminar la reserva asignada no elimina el historial de la espera
+    CONSTRAINT fk_lista_espera_reserva FOREIGN KEY (reserva_id) REFERENCES reservas (id) ON DELETE SET NULL
+);
+
+-- Carga de las esperas vigentes al arrancar, listado por día y expiración diaria
+CREATE INDEX idx_lista_espera_estado_fecha ON lista_espera (estado, fecha);
@@ -0,0 +1,13 @@
+-- Mesas que se pueden juntar para grupos grandes (relación simétrica: se guardan ambos sentidos)
+CREATE TABLE mesas_combinables (
+    mesa_id BIGINT NOT NULL,
+    combinable_con_id BIGINT NOT NULL,
+    CONSTRAINT pk_mesas_combinables PRIMARY KEY (mesa_id, combinable_con_id),
+    CONSTRAINT fk_mesas_combinables_mesa FOREIGN KEY (mesa_id) REFERENCES mesas (id),
+    CONSTRAINT fk_mesas_combinables_con FOREIGN KEY (combinable_con_id) REFERENCES mesas (id)
+);
+
+-- Reservas de un grupo en varias mesas: una fila por mesa, todas con el id de la primera
+ALTER TABLE reservas ADD COLUMN combinacion_id BIGINT;
+ALTER TABLE reservas ADD CONSTRAINT fk_reservas_combinacion FOREIGN KEY (combinacion_id) REFERENCES reservas (id);
+CREATE INDEX idx_reservas_combinacion ON reservas (combinacion_id);
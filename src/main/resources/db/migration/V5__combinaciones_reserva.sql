@@ -0,0 +1,14 @@
+-- Grupo en varias mesas: una fila por grupo, creada antes de guardar sus reservas
+-- (antes era el id de la primera reserva, que no existe hasta insertarla).
+-- Los ids salen de reservas_seq: no chocan con los de los grupos existentes
+CREATE TABLE combinaciones_reserva (
+    id BIGINT NOT NULL,
+    CONSTRAINT pk_combinaciones_reserva PRIMARY KEY (id)
+);
+
+INSERT INTO combinaciones_reserva (id)
+SELECT DISTINCT combinacion_id FROM reservas WHERE combinacion_id IS NOT NULL;
+
+ALTER TABLE reservas DROP CONSTRAINT fk_reservas_combinacion;
+ALTER TABLE reservas ADD CONSTRAINT fk_reservas_combinacion
+    FOREIGN KEY (combinacion_id) REFERENCES combinaciones_reserva (id);
@@ -0,0 +1,107 @@
+package ipss.cl.reservas.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConexionesLimitadasDataSourceTest {
+    
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection real = mock(Connection.class);
+    private final ConexionesLimitadasDataSource dataSource =
+            new ConexionesLimitadasDataSource(pool, 1, Duration.ofMillis(50));
+    
+    ConexionesLimitadasDataSourceTest() throws SQLException {
+        when(pool.getConnection()).thenReturn(real);
+        when(pool.getConnection("usuario", "clave")).thenReturn(real);
+    }
+    
+    @Test
+    void cerrarDevuelveElPermisoUnaSolaVez() throws SQLException {
+        Connection conexion = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        
+        conexion.close();
+        conexion.close();
+        
+        Connection otra = dataSource.getConnection();
+        verify(real, times(1)).close();
+        // El segundo close() no dejó un permiso de más
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        otra.close();
+    }
+    
+    @Test
+    void unErrorAlObtenerLaConexionDevuelveElPermiso() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool agotado")).thenReturn(real);
+        when(pool.getConnection("usuario", "clave")).thenThrow(new IllegalStateException("pool cerrado"));
+        
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool agotado");
+        assertThatThrownBy(() -> dataSource.getConnection("usuario", "clave")).hasMessage("pool cerrado");
+        
+        dataSource.getConnection().close();
+    }
+    
+    @Test
+    void unErrorAlCerrarIgualDevuelveElPermiso() throws SQLException {
+        doThrow(new SQLException("conexión rota")).when(real).close();
+        
+        Connection conexion = dataSource.getConnection();
+        assertThatThrownBy(conexion::close).hasMessage("conexión rota");
+        
+        dataSource.getConnection();
+    }
+    
+    @Test
+    void delegaEnLaConexionRealYPropagaSusErrores() throws SQLException {
+        when(real.getAutoCommit()).thenReturn(false);
+        when(real.prepareStatement("SELECT 1")).thenThrow(new SQLException("sintaxis"));
+        
+        try (Connection conexion = dataSource.getConnection()) {
+            assertThat(conexion.getAutoCommit()).isFalse();
+            assertThatThrownBy(() -> conexion.prepareStatement("SELECT 1"))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessage("sintaxis");
+            assertThat(conexion).isEqualTo(conexion).isNotEqualTo(real);
+        }
+    }
+    
+    @Test
+    void quienEsperaRecibeLaConexionAlCerrarse() throws Exception {
+        ConexionesLimitadasDataSource conEspera = new ConexionesLimitadasDataSource(pool, 1, Duration.ofSeconds(5));
+        Connection primera = conEspera.getConnection();
+        
+        CompletableFuture<Connection> segunda = CompletableFuture.supplyAsync(() -> {
+            try {
+                return conEspera.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (conEspera.enEspera() == 0 && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertThat(conEspera.enEspera()).isEqualTo(1);
+        assertThat(segunda).isNotDone();
+        
+        primera.close();
+        
+        assertThat(segunda.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(conEspera.enEspera()).isZero();
+    }
+}
@@ -0,0 +1,176 @@
+package ipss.cl.reservas.controllers.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ipss.cl.reservas.models.dto.response.DisponibilidadDiaResponse;
+import ipss.cl.reservas.models.dto.response.HorarioDisponibilidadResponse;
+import ipss.cl.reservas.models.dto.response.MesaDisponibilidadResponse;
+import ipss.cl.reservas.models.dto.response.ResumenDiaResponse;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.services.DisponibilidadService;
+import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.utils.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Disponibilidad de un día completo y del calendario de un rango por la API, contra reservas reales
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DisponibilidadRestControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void laGrillaDelDiaMarcaLosHorariosQueOcupaUnaReserva() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(500);
+        Mesa mesa = mesaRepository.findByNumero(1).orElseThrow();
+        reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(20, 0)));
+        
+        String json = mockMvc.perform(get("/api/disponibilidad/dia")
+                        .param("fecha", fecha.toString())
+                        .param("personas", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        DisponibilidadDiaResponse dia = objectMapper.readValue(json, DisponibilidadDiaResponse.class);
+        
+        assertThat(dia.getHorarios()).extracting(HorarioDisponibilidadResponse::getHora)
+                .containsExactlyElementsOf(DateUtils.HORARIOS_RESERVA);
+        int columna = dia.getMesas().stream().map(MesaDisponibilidadResponse::getId).toList().indexOf(mesa.getId());
+        assertThat(dia.getMesas().get(columna).getAptaParaPersonas()).isTrue();
+        
+        // La reserva de 20:00 a 22:00 ocupa todo horario que empiece antes de las 22:00 y termine después de las 20:00
+        for (HorarioDisponibilidadResponse horario : dia.getHorarios()) {
+            LocalTime hora = horario.getHora();
+            boolean ocupada = hora.isBefore(LocalTime.of(22, 0)) &&
+                              DateUtils.calcularHoraFin(hora, mesa.getTipo().getDuracionMinutos()).isAfter(LocalTime.of(20, 0));
+            assertThat(horario.getLibres().get(columna)).as("mesa libre a las %s", hora).isEqualTo(!ocupada);
+            // El conteo coincide con la consulta horario por horario
+            assertThat(horario.getMesasDisponibles()).as("mesas disponibles a las %s", hora)
+                    .isEqualTo(disponibilidadService.obtenerMesasDisponibles(fecha, hora, 2).size());
+        }
+    }
+    
+    @Test
+    void losHorariosDisponiblesSalenDeLaGrillaYDeLasMesasJuntas() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(501);
+        // Un grupo de 9 solo cabe en la mesa 6: ocupándola, los horarios que se solapan quedan sin mesas
+        Mesa grande = mesaRepository.findByNumero(6).orElseThrow();
+        Reserva reserva = nuevaReserva(grande, fecha, LocalTime.of(13, 0));
+        reserva.setNumeroPersonas(9);
+        reservaService.crearReserva(reserva);
+        
+        List<LocalTime> esperados = disponibilidadService.obtenerDisponibilidadDia(fecha, 9).getHorarios().stream()
+                .filter(horario -> horario.getMesasDisponibles() > 0)
+                .map(HorarioDisponibilidadResponse::getHora)
+                .toList();
+        String json = mockMvc.perform(get("/api/disponibilidad/horarios")
+                        .param("fecha", fecha.toString())
+                        .param("personas", "9"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        
+        assertThat(esperados).doesNotContain(LocalTime.of(12, 0), LocalTime.of(13, 0), LocalTime.of(14, 30))
+                .contains(LocalTime.of(19, 0));
+        // Al mediodía no hay mesa sola para el grupo, pero sí mesas juntas (1 y 2)
+        assertThat(objectMapper.readerForListOf(LocalTime.class).<List<LocalTime>>readValue(json))
+                .containsAll(esperados)
+                .contains(LocalTime.of(13, 0));
+    }
+    
+    @Test
+    void elCalendarioEnviaUnaLineaPorDiaEnOrden() throws Exception {
+        LocalDate inicio = LocalDate.now().plusDays(502);
+        Mesa mesa = mesaRepository.findByNumero(1).orElseThrow();
+        reservaService.crearReserva(nuevaReserva(mesa, inicio.plusDays(1), LocalTime.of(20, 0)));
+        
+        MvcResult inicial = mockMvc.perform(get("/api/disponibilidad/calendario")
+                        .param("fechaInicio", inicio.toString())
+                        .param("fechaFin", inicio.plusDays(2).toString())
+                        .param("personas", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(inicial))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        
+        List<ResumenDiaResponse> dias = new ArrayList<>();
+        for (String linea : cuerpo.split("\n")) {
+            dias.add(objectMapper.readValue(linea, ResumenDiaResponse.class));
+        }
+        assertThat(dias).extracting(ResumenDiaResponse::getFecha)
+                .containsExactly(inicio, inicio.plusDays(1), inicio.plusDays(2));
+        assertThat(dias).extracting(ResumenDiaResponse::getEstado).containsOnly("DISPONIBLE");
+        
+        // La reserva de 20:00 saca a su mesa de los 6 horarios que se solapan con ella
+        assertThat(dias.get(1).getMesasDisponibles()).isEqualTo(dias.get(0).getMesasDisponibles() - 6);
+        assertThat(dias.get(2).getMesasDisponibles()).isEqualTo(dias.get(0).getMesasDisponibles());
+        // Cada día coincide con la grilla de ese día
+        for (ResumenDiaResponse dia : dias) {
+            assertThat(dia.getHorarios()).extracting(HorarioDisponibilidadResponse::getMesasDisponibles)
+                    .containsExactlyElementsOf(disponibilidadService.obtenerDisponibilidadDia(dia.getFecha(), 2)
+                            .getHorarios().stream().map(HorarioDisponibilidadResponse::getMesasDisponibles).toList());
+        }
+    }
+    
+    @Test
+    void elCalendarioRechazaRangosInvalidosAntesDeEmpezarAEscribir() throws Exception {
+        LocalDate inicio = LocalDate.now().plusDays(505);
+        
+        mockMvc.perform(get("/api/disponibilidad/calendario")
+                        .param("fechaInicio", inicio.toString())
+                        .param("fechaFin", inicio.minusDays(1).toString())
+                        .param("personas", "2"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/disponibilidad/calendario")
+                        .param("fechaInicio", inicio.toString())
+                        .param("fechaFin", inicio.plusDays(367).toString())
+                        .param("personas", "2"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private Reserva nuevaReserva(Mesa mesa, LocalDate fecha, LocalTime hora) {
+        return Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente("Cliente Prueba")
+                .emailCliente("prueba@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(hora)
+                .numeroPersonas(mesa.getCapacidadMinima())
+                .build();
+    }
+}
@@ -0,0 +1,329 @@
+package ipss.cl.reservas.controllers.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.DisponibilidadService;
+import ipss.cl.reservas.services.ReservaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reservas por la API con open-in-view, como en la aplicación: la asignación automática
+ * bajo concurrencia, PUT /api/reservas/{id} con el mismo lock y la misma validación que una reserva nueva
+ * y el listado filtrado y paginado por cursor y su exportación
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReservaRestControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Autowired
+    private ReservaRepository reservaRepository;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void asignacionAutomaticaConcurrenteUsaMesasDistintas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int dia = 0; dia < 10; dia++) {
+                LocalDate fecha = LocalDate.now().plusDays(310 + dia);
+                LocalTime hora = LocalTime.of(20, 0);
+                // Tantas solicitudes como mesas libres: todas caben si ninguna se queda con una mesa ya tomada
+                int mesasLibres = disponibilidadService.obtenerMesasDisponibles(fecha, hora, 2).size();
+                String cuerpo = """
+                        {"nombreCliente":"Cliente Prueba","emailCliente":"prueba@example.com",
+                         "telefonoCliente":"+56900000000","fecha":"%s","hora":"20:00","numeroPersonas":2}
+                        """.formatted(fecha);
+                
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<MvcResult>> respuestas = new ArrayList<>();
+                for (int i = 0; i < mesasLibres; i++) {
+                    respuestas.add(executor.submit(() -> {
+                        largada.await();
+                        return mockMvc.perform(post("/api/reservas")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(cuerpo))
+                                .andReturn();
+                    }));
+                }
+                largada.countDown();
+                
+                Set<Long> mesas = new HashSet<>();
+                for (Future<MvcResult> respuesta : respuestas) {
+                    MockHttpServletResponse response = respuesta.get(30, TimeUnit.SECONDS).getResponse();
+                    assertThat(response.getStatus()).isEqualTo(201);
+                    mesas.add(objectMapper.readTree(response.getContentAsString()).get("mesaId").asLong());
+                }
+                assertThat(mesas).hasSize(mesasLibres);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void moverAUnHorarioOcupadoSeRechaza() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(300);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(19, 0)));
+        Reserva aMover = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(13, 0)));
+        
+        mockMvc.perform(put("/api/reservas/{id}", aMover.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"hora\":\"19:30\"}"))
+                .andExpect(status().isBadRequest());
+        
+        assertThat(reservaRepository.findById(aMover.getId()).orElseThrow().getHora()).isEqualTo(LocalTime.of(13, 0));
+        assertThat(reservaRepository.findReservasSolapadas(mesa.getId(), fecha, LocalTime.of(19, 30), LocalTime.of(21, 30)))
+                .hasSize(1);
+    }
+    
+    @Test
+    void moverAUnHorarioLibreSeAplica() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(301);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Reserva aMover = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(13, 0)));
+        
+        mockMvc.perform(put("/api/reservas/{id}", aMover.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"hora\":\"20:00\",\"fecha\":\"" + fecha.plusDays(1) + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hora").value("20:00:00"));
+        
+        Reserva movida = reservaRepository.findById(aMover.getId()).orElseThrow();
+        assertThat(movida.getFecha()).isEqualTo(fecha.plusDays(1));
+        assertThat(movida.getHora()).isEqualTo(LocalTime.of(20, 0));
+    }
+    
+    @Test
+    void cambioDeEstadoPorPutPasaPorCambiarEstado() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(302);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Reserva reserva = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(13, 0)));
+        
+        mockMvc.perform(put("/api/reservas/{id}", reserva.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"estado\":\"CANCELADA\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CANCELADA"));
+        
+        // La mesa quedó libre: el mismo horario se puede volver a reservar
+        assertThat(reservaRepository.findById(reserva.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoReserva.CANCELADA);
+        reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(13, 0)));
+    }
+    
+    @Test
+    void elListadoSeRecorrePorCursorSinRepetirNiSaltarReservas() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(303);
+        List<Long> esperadas = crearReservasParaListado(fecha);
+        
+        List<Long> vistas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            MockHttpServletRequestBuilder pedido = get("/api/reservas")
+                    .param("fechaDesde", fecha.toString())
+                    .param("fechaHasta", fecha.plusDays(1).toString())
+                    .param("tamano", "2");
+            if (cursor != null) {
+                pedido.param("cursor", cursor);
+            }
+            JsonNode pagina = leer(mockMvc.perform(pedido).andExpect(status().isOk()).andReturn());
+            pagina.get("items").forEach(item -> vistas.add(item.get("id").asLong()));
+            cursor = pagina.get("siguiente").isNull() ? null : pagina.get("siguiente").asText();
+            paginas++;
+        } while (cursor != null);
+        
+        // Ordenadas por (fecha, hora, id), también entre reservas de la misma fecha y hora
+        assertThat(vistas).containsExactlyElementsOf(esperadas);
+        assertThat(paginas).isEqualTo(3);
+    }
+    
+    @Test
+    void losFiltrosDelListadoSeCombinan() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(305);
+        List<Long> ids = crearReservasParaListado(fecha);
+        Long mesa1 = mesaRepository.findByNumero(1).orElseThrow().getId();
+        Long mesa2 = mesaRepository.findByNumero(2).orElseThrow().getId();
+        
+        assertThat(listar(fecha, "estado", "CANCELADA")).containsExactly(ids.get(4));
+        assertThat(listar(fecha, "mesaId", mesa1.toString())).containsExactly(ids.get(0), ids.get(3));
+        assertThat(listar(fecha, "mesaId", mesa2.toString(), "estado", "PENDIENTE")).containsExactly(ids.get(1));
+        assertThat(listar(fecha, "mesaId", mesa2.toString(), "estado", "CONFIRMADA")).isEmpty();
+    }
+    
+    @Test
+    void unCursorOTamanoInvalidoEsUnaSolicitudIncorrecta() throws Exception {
+        mockMvc.perform(get("/api/reservas").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reservas").param("tamano", "0"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void exportarEnCsvCitaLosCamposConSeparadoresYSaltos() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(307);
+        Reserva conComas = nuevaReserva(mesaRepository.findByNumero(1).orElseThrow(), fecha, LocalTime.of(12, 0));
+        conComas.setNombreCliente("Pérez, Ana");
+        conComas.setObservaciones("junto a la ventana, \"tranquila\"\nsi se puede");
+        Reserva reserva = reservaService.crearReserva(conComas);
+        reservaService.crearReserva(nuevaReserva(mesaRepository.findByNumero(1).orElseThrow(), fecha, LocalTime.of(19, 0)));
+        
+        MvcResult resultado = mockMvc.perform(get("/api/reservas/exportar")
+                        .param("fechaDesde", fecha.toString())
+                        .param("fechaHasta", fecha.toString())
+                        .param("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservas_" + fecha + "_" + fecha + ".csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        
+        assertThat(csv).startsWith("id,codigoReserva,fecha,hora,");
+        assertThat(csv).contains(reserva.getId() + "," + reserva.getCodigoReserva() + "," + fecha + ",12:00,");
+        assertThat(csv).contains(",\"Pérez, Ana\",prueba@example.com,+56900000000,"
+                + "\"junto a la ventana, \"\"tranquila\"\"\nsi se puede\",");
+        // Cabecera y dos filas, con el salto de línea de la observación dentro de las comillas
+        assertThat(csv.split("\r\n")).hasSize(3);
+    }
+    
+    @Test
+    void exportarEnNdjsonEnviaUnaReservaPorLinea() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(308);
+        Mesa mesa = mesaRepository.findByNumero(1).orElseThrow();
+        Reserva primera = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(12, 0)));
+        Reserva segunda = reservaService.crearReserva(nuevaReserva(mesa, fecha.plusDays(1), LocalTime.of(12, 0)));
+        
+        MvcResult resultado = mockMvc.perform(get("/api/reservas/exportar")
+                        .param("fechaDesde", fecha.toString())
+                        .param("fechaHasta", fecha.plusDays(1).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        
+        List<Long> ids = new ArrayList<>();
+        for (String linea : ndjson.split("\n")) {
+            ids.add(objectMapper.readTree(linea).get("id").asLong());
+        }
+        assertThat(ids).containsExactly(primera.getId(), segunda.getId());
+    }
+    
+    @Test
+    void exportarRechazaFormatosYRangosInvalidos() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(308);
+        
+        mockMvc.perform(get("/api/reservas/exportar")
+                        .param("fechaDesde", fecha.toString())
+                        .param("fechaHasta", fecha.toString())
+                        .param("formato", "xlsx"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reservas/exportar")
+                        .param("fechaDesde", fecha.toString())
+                        .param("fechaHasta", fecha.minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+    
+    /**
+     * Cinco reservas en dos días, en el orden en que las debe listar la API; la última queda cancelada
+     */
+    private List<Long> crearReservasParaListado(LocalDate fecha) {
+        Mesa mesa1 = mesaRepository.findByNumero(1).orElseThrow();
+        Mesa mesa2 = mesaRepository.findByNumero(2).orElseThrow();
+        Mesa mesa3 = mesaRepository.findByNumero(3).orElseThrow();
+        // La de las 19:00 se crea primero: tiene el id más bajo pero va después de las de las 12:00
+        Reserva noche = reservaService.crearReserva(nuevaReserva(mesa1, fecha, LocalTime.of(19, 0)));
+        List<Reserva> mediodia = List.of(
+                reservaService.crearReserva(nuevaReserva(mesa1, fecha, LocalTime.of(12, 0))),
+                reservaService.crearReserva(nuevaReserva(mesa2, fecha, LocalTime.of(12, 0))),
+                reservaService.crearReserva(nuevaReserva(mesa3, fecha, LocalTime.of(12, 0))));
+        Reserva cancelada = reservaService.crearReserva(nuevaReserva(mesa2, fecha.plusDays(1), LocalTime.of(13, 0)));
+        reservaService.cancelarReserva(cancelada.getId());
+        return List.of(mediodia.get(0).getId(), mediodia.get(1).getId(), mediodia.get(2).getId(),
+                noche.getId(), cancelada.getId());
+    }
+    
+    private List<Long> listar(LocalDate fecha, String... filtros) throws Exception {
+        MockHttpServletRequestBuilder pedido = get("/api/reservas")
+                .param("fechaDesde", fecha.toString())
+                .param("fechaHasta", fecha.plusDays(1).toString());
+        for (int i = 0; i < filtros.length; i += 2) {
+            pedido.param(filtros[i], filtros[i + 1]);
+        }
+        List<Long> ids = new ArrayList<>();
+        leer(mockMvc.perform(pedido).andExpect(status().isOk()).andReturn())
+                .get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+    
+    private JsonNode leer(MvcResult resultado) throws Exception {
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+    
+    private Reserva nuevaReserva(Mesa mesa, LocalDate fecha, LocalTime hora) {
+        return Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente("Cliente Prueba")
+                .emailCliente("prueba@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(hora)
+                .numeroPersonas(mesa.getCapacidadMinima())
+                .build();
+    }
+}
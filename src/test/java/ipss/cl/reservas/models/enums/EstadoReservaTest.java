@@ -0,0 +1,49 @@
+package ipss.cl.reservas.models.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static ipss.cl.reservas.models.enums.EstadoReserva.CANCELADA;
+import static ipss.cl.reservas.models.enums.EstadoReserva.COMPLETADA;
+import static ipss.cl.reservas.models.enums.EstadoReserva.CONFIRMADA;
+import static ipss.cl.reservas.models.enums.EstadoReserva.NO_ASISTIO;
+import static ipss.cl.reservas.models.enums.EstadoReserva.PENDIENTE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EstadoReservaTest {
+    
+    @Test
+    void estadosOrigen() {
+        assertThat(PENDIENTE.estadosOrigen()).isEmpty();
+        assertThat(CONFIRMADA.estadosOrigen()).containsExactly(PENDIENTE);
+        assertThat(CANCELADA.estadosOrigen()).containsExactlyInAnyOrder(PENDIENTE, CONFIRMADA);
+        assertThat(COMPLETADA.estadosOrigen()).containsExactlyInAnyOrder(PENDIENTE, CONFIRMADA);
+        assertThat(NO_ASISTIO.estadosOrigen()).containsExactlyInAnyOrder(PENDIENTE, CONFIRMADA);
+    }
+    
+    @Test
+    void lasActivasPuedenAvanzarOTerminar() {
+        assertThat(PENDIENTE.puedeCambiarA(CONFIRMADA)).isTrue();
+        for (EstadoReserva activo : EstadoReserva.ACTIVOS) {
+            assertThat(activo.puedeCambiarA(CANCELADA)).isTrue();
+            assertThat(activo.puedeCambiarA(COMPLETADA)).isTrue();
+            assertThat(activo.puedeCambiarA(NO_ASISTIO)).isTrue();
+        }
+        assertThat(CONFIRMADA.puedeCambiarA(PENDIENTE)).isFalse();
+    }
+    
+    @Test
+    void losEstadosFinalesNoCambian() {
+        for (EstadoReserva origen : new EstadoReserva[] {CANCELADA, COMPLETADA, NO_ASISTIO}) {
+            for (EstadoReserva destino : EstadoReserva.values()) {
+                assertThat(origen.puedeCambiarA(destino)).as("%s -> %s", origen, destino).isFalse();
+            }
+        }
+    }
+    
+    @Test
+    void ningunEstadoPasaASiMismo() {
+        for (EstadoReserva estado : EstadoReserva.values()) {
+            assertThat(estado.puedeCambiarA(estado)).as(estado.name()).isFalse();
+        }
+    }
+}
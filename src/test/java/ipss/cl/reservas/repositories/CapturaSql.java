@@ -0,0 +1,38 @@
+package ipss.cl.reservas.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * StatementInspector de pruebas: guarda el SQL que Hibernate envía desde el hilo actual mientras se captura
+ */
+public class CapturaSql implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> CAPTURADAS = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> capturadas = CAPTURADAS.get();
+        if (capturadas != null) {
+            capturadas.add(sql);
+        }
+        return sql;
+    }
+    
+    /**
+     * Ejecutar la invocación y devolver las sentencias SQL que generó
+     */
+    public static List<String> capturar(Supplier<?> invocacion) {
+        List<String> capturadas = new ArrayList<>();
+        CAPTURADAS.set(capturadas);
+        try {
+            invocacion.get();
+        } finally {
+            CAPTURADAS.remove();
+        }
+        return capturadas;
+    }
+}
@@ -0,0 +1,178 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.consulta.CursorReserva;
+import ipss.cl.reservas.services.consulta.FiltroReservas;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ejecuta cada consulta de los repositorios, toma el SQL que genera Hibernate y pide su plan a H2 con EXPLAIN.
+ * Falla si alguna recorre una tabla completa (tableScan) en vez de usar un índice.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ipss.cl.reservas.repositories.CapturaSql")
+class PlanesConsultasTest {
+    
+    private static final LocalDate HOY = LocalDate.now();
+    private static final LocalDate EN_UN_MES = HOY.plusDays(30);
+    private static final LocalTime HORA = LocalTime.of(20, 0);
+    private static final String EMAIL = "juan.perez@example.com";
+    private static final CursorReserva CURSOR = new CursorReserva(HOY, HORA, 1L);
+    
+    @Autowired
+    private ReservaRepository reservaRepository;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @Autowired
+    private AcumuladoReservasRepository acumuladoRepository;
+    
+    @Autowired
+    private CambioReservaRepository cambioRepository;
+    
+    @Autowired
+    private EntradaEsperaRepository esperaRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @TestFactory
+    Stream<DynamicTest> consultasDeReservasUsanIndices() {
+        return Stream.of(
+                consulta("findByCodigoReserva", () -> reservaRepository.findByCodigoReserva("RSV-00000000")),
+                consulta("findByEmailCliente", () -> reservaRepository.findByEmailCliente(EMAIL)),
+                consulta("findByTelefonoCliente", () -> reservaRepository.findByTelefonoCliente("+56912345678")),
+                consulta("findByFecha", () -> reservaRepository.findByFecha(HOY)),
+                consulta("findByFechaAndEstado", () -> reservaRepository.findByFechaAndEstado(HOY, EstadoReserva.CONFIRMADA)),
+                consulta("findByEstado", () -> reservaRepository.findByEstado(EstadoReserva.PENDIENTE)),
+                consulta("findByMesaId", () -> reservaRepository.findByMesaId(1L)),
+                consulta("findReservasConflicto", () -> reservaRepository.findReservasConflicto(1L, HOY, HORA)),
+                consulta("findOcupacionesPorFecha", () -> reservaRepository.findOcupacionesPorFecha(HOY)),
+                consulta("streamOcupacionesEntreFechas", () -> {
+                    try (var ocupaciones = reservaRepository.streamOcupacionesEntreFechas(HOY, EN_UN_MES)) {
+                        return ocupaciones.toList();
+                    }
+                }),
+                consulta("streamVistasEntreFechas", () -> {
+                    try (var vistas = reservaRepository.streamVistasEntreFechas(HOY, EN_UN_MES)) {
+                        return vistas.toList();
+                    }
+                }),
+                consulta("findReservasSolapadas", () -> reservaRepository.findReservasSolapadas(1L, HOY, HORA, HORA.plusHours(2))),
+                consulta("findVistasActivasPorMesas", () -> reservaRepository.findVistasActivasPorMesas(List.of(1L, 2L), HOY, EN_UN_MES)),
+                consulta("findVistaById", () -> reservaRepository.findVistaById(1L)),
+                consulta("findVistasByIdIn", () -> reservaRepository.findVistasByIdIn(List.of(1L, 2L))),
+                consulta("actualizarEstado", () -> reservaRepository.actualizarEstado(
+                        List.of(1L, 2L), EstadoReserva.ACTIVOS, EstadoReserva.CONFIRMADA, LocalDateTime.now())),
+                consulta("actualizarEstadoLiberandoMesa", () -> reservaRepository.actualizarEstadoLiberandoMesa(
+                        List.of(1L, 2L), EstadoReserva.ACTIVOS, EstadoReserva.COMPLETADA, LocalDateTime.now())),
+                consulta("liberarClavesOcupacion", () -> reservaRepository.liberarClavesOcupacion(List.of(1L, 2L))),
+                consulta("findVistaByCodigoReserva", () -> reservaRepository.findVistaByCodigoReserva("RSV-00000000")),
+                consulta("findVistasFuturasPorEmail", () -> reservaRepository.findVistasFuturasPorEmail(EMAIL, HOY)),
+                consulta("findVistasDelDia", () -> reservaRepository.findVistasDelDia(HOY)),
+                consulta("findVistasPendientes", () -> reservaRepository.findVistasPendientes(HOY)),
+                consulta("countByEstado", () -> reservaRepository.countByEstado(EstadoReserva.CANCELADA)),
+                consulta("countByFecha", () -> reservaRepository.countByFecha(HOY)),
+                consulta("findByFechaBetween", () -> reservaRepository.findByFechaBetween(HOY, EN_UN_MES)),
+                consulta("findReservasFuturasPorEmail", () -> reservaRepository.findReservasFuturasPorEmail(EMAIL, HOY)),
+                consulta("findReservasDelDia", () -> reservaRepository.findReservasDelDia(HOY)),
+                consulta("findReservasPendientes", () -> reservaRepository.findReservasPendientes(HOY)),
+                consulta("resumirPorEstado", () -> reservaRepository.resumirPorEstado(
+                        HOY, HOY.minusDays(6), HOY, HOY.withDayOfMonth(1), EN_UN_MES)),
+                consulta("agruparPorHorarioYTipo", () -> reservaRepository.agruparPorHorarioYTipo(List.of(HOY, EN_UN_MES))),
+                consulta("findFechasConReservas", () -> reservaRepository.findFechasConReservas()),
+                consulta("countPersonasPorFecha", () -> reservaRepository.countPersonasPorFecha(HOY)),
+                consulta("countPersonasEntreFechas", () -> reservaRepository.countPersonasEntreFechas(HOY, EN_UN_MES)),
+                consulta("buscarPagina sin filtros", () -> reservaRepository.buscarPagina(FiltroReservas.ninguno(), null, 51)),
+                consulta("buscarPagina por estado con cursor", () -> reservaRepository.buscarPagina(
+                        new FiltroReservas(EstadoReserva.PENDIENTE, null, null, null, null), CURSOR, 51)),
+                consulta("buscarPagina por fechas con cursor", () -> reservaRepository.buscarPagina(
+                        new FiltroReservas(null, HOY, EN_UN_MES, null, null), CURSOR, 51)),
+                consulta("buscarPagina por mesa", () -> reservaRepository.buscarPagina(
+                        new FiltroReservas(null, null, null, 1L, null), null, 51)),
+                consulta("buscarPagina por email con cursor", () -> reservaRepository.buscarPagina(
+                        new FiltroReservas(null, null, null, null, EMAIL), CURSOR, 51)));
+    }
+    
+    @TestFactory
+    Stream<DynamicTest> consultasDeMesasUsanIndices() {
+        return Stream.of(
+                consulta("findByNumero", () -> mesaRepository.findByNumero(1)),
+                consulta("findByActivaTrue", () -> mesaRepository.findByActivaTrue()),
+                consulta("findByEstadoAndActivaTrue", () -> mesaRepository.findByEstadoAndActivaTrue(EstadoMesa.DISPONIBLE)),
+                consulta("findByTipoAndActivaTrue", () -> mesaRepository.findByTipoAndActivaTrue(TipoMesa.VIP)),
+                consulta("findByCapacidad...AndActivaTrue", () -> mesaRepository
+                        .findByCapacidadMinimaLessThanEqualAndCapacidadMaximaGreaterThanEqualAndActivaTrue(4, 4)),
+                consulta("countByEstadoAndActivaTrue", () -> mesaRepository.countByEstadoAndActivaTrue(EstadoMesa.OCUPADA)),
+                consulta("countByActivaTrue", () -> mesaRepository.countByActivaTrue()),
+                consulta("resumirActivasPorEstado", () -> mesaRepository.resumirActivasPorEstado()));
+    }
+    
+    @TestFactory
+    Stream<DynamicTest> consultasDelAcumuladoUsanIndices() {
+        return Stream.of(
+                consulta("deleteByFechaIn", () -> acumuladoRepository.deleteByFechaIn(List.of(HOY))),
+                consulta("sumarPorFecha", () -> acumuladoRepository.sumarPorFecha(
+                        HOY, EN_UN_MES, EstadoReserva.CON_PERSONAS, null)),
+                consulta("sumarPorEstado", () -> acumuladoRepository.sumarPorEstado(HOY, EN_UN_MES, TipoMesa.VIP)),
+                consulta("sumarPorHorario", () -> acumuladoRepository.sumarPorHorario(
+                        HOY, EN_UN_MES, EstadoReserva.CON_PERSONAS, TipoMesa.BARRA)),
+                consulta("findByOrderByIdAsc", () -> cambioRepository.findByOrderByIdAsc(PageRequest.of(0, 100))),
+                consulta("findParesCombinables", () -> mesaRepository.findParesCombinables()),
+                consulta("findByCombinacionId", () -> reservaRepository.findByCombinacionId(1L)),
+                consulta("findVistasDeCombinaciones", () -> reservaRepository.findVistasDeCombinaciones(List.of(1L, 2L))),
+                consulta("findByEstadoDesde", () -> esperaRepository.findByEstadoDesde(EstadoEspera.ESPERANDO, HOY)),
+                consulta("findByEstadoYFecha", () -> esperaRepository.findByEstadoYFecha(EstadoEspera.ESPERANDO, HOY)),
+                consulta("actualizarEstado (espera)", () -> esperaRepository.actualizarEstado(
+                        1L, EstadoEspera.ESPERANDO, EstadoEspera.CANCELADA, null, LocalDateTime.now())),
+                consulta("actualizarEstadoAnterioresA", () -> esperaRepository.actualizarEstadoAnterioresA(
+                        HOY, EstadoEspera.ESPERANDO, EstadoEspera.EXPIRADA, LocalDateTime.now())));
+    }
+    
+    /**
+     * Test de una consulta: se ejecuta en una transacción que se revierte y se revisa el plan de cada sentencia
+     */
+    private DynamicTest consulta(String nombre, Supplier<?> invocacion) {
+        return DynamicTest.dynamicTest(nombre, () -> {
+            TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+            List<String> sentencias = transaccion.execute(status -> {
+                status.setRollbackOnly();
+                return CapturaSql.capturar(invocacion);
+            });
+            
+            assertThat(sentencias).as("SQL de %s", nombre).isNotEmpty();
+            for (String sql : sentencias) {
+                assertThat(plan(sql)).as("Plan de %s", nombre).doesNotContain("tableScan");
+            }
+        });
+    }
+    
+    private String plan(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                (ResultSetExtractor<String>) rs -> rs.next() ? rs.getString(1) : null);
+    }
+}
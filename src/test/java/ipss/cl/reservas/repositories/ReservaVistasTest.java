@@ -0,0 +1,110 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las proyecciones ReservaVista: traen los datos de la reserva y de su mesa en un solo SELECT,
+ * con los filtros y el orden de cada consulta
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ipss.cl.reservas.repositories.CapturaSql")
+class ReservaVistasTest {
+    
+    @Autowired
+    private ReservaRepository reservaRepository;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Test
+    void laVistaTraeLaReservaYSuMesaEnUnaSolaSentencia() {
+        LocalDate fecha = LocalDate.now().plusDays(600);
+        Mesa mesa = mesaRepository.findByNumero(1).orElseThrow();
+        Reserva datos = nuevaReserva(mesa, fecha, LocalTime.of(19, 0), "vista@example.com");
+        datos.setObservaciones("Cumpleaños");
+        Reserva reserva = reservaService.crearReserva(datos);
+        
+        AtomicReference<Optional<ReservaVista>> resultado = new AtomicReference<>();
+        List<String> sentencias = CapturaSql.capturar(() -> {
+            resultado.set(reservaRepository.findVistaById(reserva.getId()));
+            return null;
+        });
+        
+        assertThat(sentencias).hasSize(1);
+        ReservaVista vista = resultado.get().orElseThrow();
+        assertThat(vista.id()).isEqualTo(reserva.getId());
+        assertThat(vista.mesaId()).isEqualTo(mesa.getId());
+        assertThat(vista.mesaNumero()).isEqualTo(mesa.getNumero());
+        assertThat(vista.mesaTipo()).isEqualTo(mesa.getTipo());
+        assertThat(vista.fecha()).isEqualTo(fecha);
+        assertThat(vista.hora()).isEqualTo(LocalTime.of(19, 0));
+        assertThat(vista.horaFin()).isEqualTo(LocalTime.of(19, 0).plusMinutes(mesa.getTipo().getDuracionMinutos()));
+        assertThat(vista.duracionMinutos()).isEqualTo(mesa.getTipo().getDuracionMinutos());
+        assertThat(vista.numeroPersonas()).isEqualTo(mesa.getCapacidadMinima());
+        assertThat(vista.estado()).isEqualTo(EstadoReserva.PENDIENTE);
+        assertThat(vista.nombreCliente()).isEqualTo("Cliente Vista");
+        assertThat(vista.emailCliente()).isEqualTo("vista@example.com");
+        assertThat(vista.telefonoCliente()).isEqualTo("+56900000000");
+        assertThat(vista.observaciones()).isEqualTo("Cumpleaños");
+        assertThat(vista.codigoReserva()).isEqualTo(reserva.getCodigoReserva());
+        assertThat(vista.fechaCreacion()).isNotNull();
+        assertThat(vista.combinacionId()).isNull();
+        assertThat(reservaRepository.findVistaByCodigoReserva(reserva.getCodigoReserva())).contains(vista);
+    }
+    
+    @Test
+    void lasVistasFiltranPorEstadoYOrdenanPorHora() {
+        LocalDate fecha = LocalDate.now().plusDays(601);
+        String email = "vistas-dia@example.com";
+        Mesa mesa1 = mesaRepository.findByNumero(1).orElseThrow();
+        Mesa mesa3 = mesaRepository.findByNumero(3).orElseThrow();
+        Reserva noche = reservaService.crearReserva(nuevaReserva(mesa1, fecha, LocalTime.of(19, 0), email));
+        Reserva mediodia = reservaService.crearReserva(nuevaReserva(mesa3, fecha, LocalTime.of(12, 0), email));
+        Reserva cancelada = reservaService.crearReserva(nuevaReserva(mesa1, fecha, LocalTime.of(13, 0), email));
+        reservaService.cancelarReserva(cancelada.getId());
+        Reserva confirmada = reservaService.crearReserva(nuevaReserva(mesa3, fecha, LocalTime.of(20, 0), email));
+        reservaService.cambiarEstado(confirmada.getId(), EstadoReserva.CONFIRMADA);
+        
+        assertThat(reservaRepository.findVistasDelDia(fecha)).extracting(ReservaVista::id)
+                .containsExactly(mediodia.getId(), cancelada.getId(), noche.getId(), confirmada.getId());
+        assertThat(reservaRepository.findVistasFuturasPorEmail(email, LocalDate.now())).extracting(ReservaVista::id)
+                .containsExactly(mediodia.getId(), noche.getId(), confirmada.getId());
+        assertThat(reservaRepository.findVistasPendientes(fecha)).extracting(ReservaVista::id)
+                .contains(mediodia.getId(), noche.getId())
+                .doesNotContain(cancelada.getId(), confirmada.getId());
+        // Por mesa y luego por fecha y hora, solo las activas
+        assertThat(reservaRepository.findVistasActivasPorMesas(List.of(mesa3.getId(), mesa1.getId()), fecha, fecha))
+                .extracting(ReservaVista::id)
+                .containsExactly(noche.getId(), mediodia.getId(), confirmada.getId());
+    }
+    
+    private Reserva nuevaReserva(Mesa mesa, LocalDate fecha, LocalTime hora, String email) {
+        return Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente("Cliente Vista")
+                .emailCliente(email)
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(hora)
+                .numeroPersonas(mesa.getCapacidadMinima())
+                .build();
+    }
+}
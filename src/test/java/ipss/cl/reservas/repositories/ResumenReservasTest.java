@@ -0,0 +1,84 @@
+package ipss.cl.reservas.repositories;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.services.ReservaService;
+import ipss.cl.reservas.services.estadisticas.ReservasPorEstado;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Agregado del dashboard: cada reserva cuenta en los períodos (día, semana, mes) que contienen su fecha
+ */
+@SpringBootTest
+class ResumenReservasTest {
+    
+    @Autowired
+    private ReservaRepository reservaRepository;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Test
+    void cadaReservaCuentaEnLosPeriodosQueContienenSuFecha() {
+        // Un "hoy" lejano, para que en los períodos solo estén las reservas de esta prueba
+        LocalDate hoy = LocalDate.now().plusDays(710);
+        LocalDate inicioSemana = hoy.minusDays(2);
+        LocalDate finSemana = hoy.plusDays(4);
+        LocalDate inicioMes = hoy.minusDays(10);
+        LocalDate finMes = hoy.plusDays(10);
+        Mesa mesa = mesaRepository.findByNumero(2).orElseThrow();
+        
+        crear(mesa, hoy, 4);
+        crear(mesa, finSemana, 5);
+        crear(mesa, finSemana.plusDays(1), 6);
+        crear(mesa, inicioMes, 4);
+        crear(mesa, finMes.plusDays(1), 4);
+        Reserva cancelada = crear(mesa, hoy.plusDays(1), 6);
+        reservaService.cancelarReserva(cancelada.getId());
+        
+        Map<EstadoReserva, ReservasPorEstado> filas = reservaRepository
+                .resumirPorEstado(hoy, inicioSemana, finSemana, inicioMes, finMes).stream()
+                .collect(Collectors.toMap(ReservasPorEstado::estado, Function.identity()));
+        
+        ReservasPorEstado pendientes = filas.get(EstadoReserva.PENDIENTE);
+        assertThat(pendientes.hoy()).isEqualTo(1);
+        assertThat(pendientes.semana()).isEqualTo(2);
+        assertThat(pendientes.mes()).isEqualTo(4);
+        assertThat(pendientes.personasHoy()).isEqualTo(4);
+        assertThat(pendientes.personasSemana()).isEqualTo(9);
+        // Personas × duración (120 minutos en una mesa de terraza)
+        assertThat(pendientes.minutosPersonaHoy()).isEqualTo(4 * 120);
+        assertThat(pendientes.minutosPersonaSemana()).isEqualTo(9 * 120);
+        
+        ReservasPorEstado canceladas = filas.get(EstadoReserva.CANCELADA);
+        assertThat(canceladas.hoy()).isZero();
+        assertThat(canceladas.semana()).isEqualTo(1);
+        assertThat(canceladas.personasSemana()).isEqualTo(6);
+    }
+    
+    private Reserva crear(Mesa mesa, LocalDate fecha, int personas) {
+        return reservaService.crearReserva(Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente("Cliente Resumen")
+                .emailCliente("resumen@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(LocalTime.of(20, 0))
+                .numeroPersonas(personas)
+                .build());
+    }
+}
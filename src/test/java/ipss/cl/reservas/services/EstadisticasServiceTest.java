@@ -0,0 +1,119 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.models.dto.view.EstadisticasDTO;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.estadisticas.MesasPorEstado;
+import ipss.cl.reservas.services.estadisticas.ReservasPorEstado;
+import ipss.cl.reservas.utils.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Estadísticas del dashboard a partir de las dos filas agregadas: totales por período y tasas de ocupación
+ */
+class EstadisticasServiceTest {
+    
+    // 13 horarios de 30 minutos
+    private static final long MINUTOS_DIA = 390;
+    
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private final MesaRepository mesaRepository = mock(MesaRepository.class);
+    private final EstadisticasService estadisticasService = new EstadisticasService(
+            reservaRepository, mesaRepository, new ConcurrentMapCacheManager(EstadisticasService.CACHE));
+    
+    EstadisticasServiceTest() {
+        // 30 asientos: 11.700 minutos-persona por día y 81.900 por semana
+        when(mesaRepository.resumirActivasPorEstado()).thenReturn(List.of(
+                new MesasPorEstado(EstadoMesa.DISPONIBLE, 3L, 20L),
+                new MesasPorEstado(EstadoMesa.OCUPADA, 1L, 10L)));
+    }
+    
+    @Test
+    void sumaLosPeriodosDeTodosLosEstadosYLasPersonasSoloDeLosQueOcupan() {
+        when(reservaRepository.resumirPorEstado(any(), any(), any(), any(), any())).thenReturn(List.of(
+                fila(EstadoReserva.PENDIENTE, 40, 3, 10, 20, 8, 30, 0, 0),
+                fila(EstadoReserva.CONFIRMADA, 15, 2, 4, 9, 5, 12, 0, 0),
+                fila(EstadoReserva.CANCELADA, 7, 1, 2, 3, 6, 6, 0, 0)));
+        
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+        
+        assertThat(estadisticas.getTotalReservasHoy()).isEqualTo(6);
+        assertThat(estadisticas.getTotalReservasSemana()).isEqualTo(16);
+        assertThat(estadisticas.getTotalReservasMes()).isEqualTo(32);
+        assertThat(estadisticas.getReservasPendientes()).isEqualTo(40);
+        assertThat(estadisticas.getReservasConfirmadas()).isEqualTo(15);
+        assertThat(estadisticas.getReservasCanceladas()).isEqualTo(7);
+        // Sin fila para el estado: cero
+        assertThat(estadisticas.getReservasCompletadas()).isZero();
+        // Las canceladas no traen personas
+        assertThat(estadisticas.getPersonasHoy()).isEqualTo(13);
+        assertThat(estadisticas.getPersonasSemana()).isEqualTo(42);
+        
+        assertThat(estadisticas.getTotalMesas()).isEqualTo(4);
+        assertThat(estadisticas.getMesasDisponibles()).isEqualTo(3);
+        assertThat(estadisticas.getMesasOcupadas()).isEqualTo(1);
+        assertThat(estadisticas.getMesasReservadas()).isZero();
+        
+        verify(reservaRepository).resumirPorEstado(LocalDate.now(), DateUtils.inicioSemanaActual(),
+                DateUtils.finSemanaActual(), DateUtils.inicioMesActual(), DateUtils.finMesActual());
+    }
+    
+    @Test
+    void laOcupacionEsMinutosPersonaReservadosSobreDisponibles() {
+        when(reservaRepository.resumirPorEstado(any(), any(), any(), any(), any())).thenReturn(List.of(
+                fila(EstadoReserva.PENDIENTE, 0, 0, 0, 0, 0, 0, 2_340, 8_190),
+                fila(EstadoReserva.COMPLETADA, 0, 0, 0, 0, 0, 0, 1_560, 19_110),
+                // Una cancelada no ocupa asientos
+                fila(EstadoReserva.CANCELADA, 0, 0, 0, 0, 0, 0, 5_000, 5_000)));
+        
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+        
+        // 3.900 / 11.700 = 33,3 % (un decimal); 27.300 / 81.900 = 33,3 %
+        assertThat(estadisticas.getTasaOcupacionHoy()).isEqualTo(33.3);
+        assertThat(estadisticas.getTasaOcupacionSemana()).isEqualTo(33.3);
+    }
+    
+    @Test
+    void laOcupacionNoPasaDeCienNiDivideSinMesas() {
+        when(reservaRepository.resumirPorEstado(any(), any(), any(), any(), any())).thenReturn(List.of(
+                fila(EstadoReserva.CONFIRMADA, 0, 0, 0, 0, 0, 0, 30 * MINUTOS_DIA * 2, 0)));
+        
+        assertThat(estadisticasService.obtenerEstadisticas().getTasaOcupacionHoy()).isEqualTo(100.0);
+        
+        EstadisticasService sinMesas = new EstadisticasService(reservaRepository, mock(MesaRepository.class),
+                new ConcurrentMapCacheManager(EstadisticasService.CACHE));
+        assertThat(sinMesas.obtenerEstadisticas().getTasaOcupacionHoy()).isZero();
+        assertThat(sinMesas.obtenerEstadisticas().getTotalMesas()).isZero();
+    }
+    
+    @Test
+    void seCalculaUnaVezPorDiaMientrasEsteEnCache() {
+        when(reservaRepository.resumirPorEstado(any(), any(), any(), any(), any())).thenReturn(List.of());
+        
+        estadisticasService.obtenerEstadisticas();
+        estadisticasService.obtenerEstadisticas();
+        
+        verify(reservaRepository, times(1)).resumirPorEstado(any(), any(), any(), any(), any());
+        verify(mesaRepository, times(1)).resumirActivasPorEstado();
+    }
+    
+    private static ReservasPorEstado fila(EstadoReserva estado, long total, long hoy, long semana, long mes,
+                                          long personasHoy, long personasSemana,
+                                          long minutosPersonaHoy, long minutosPersonaSemana) {
+        return new ReservasPorEstado(estado, total, hoy, semana, mes, personasHoy, personasSemana,
+                minutosPersonaHoy, minutosPersonaSemana);
+    }
+}
@@ -0,0 +1,146 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.models.entities.EntradaEspera;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoEspera;
+import ipss.cl.reservas.repositories.EntradaEsperaRepository;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.espera.ColasEspera;
+import ipss.cl.reservas.services.espera.EnEspera;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Atención de la lista de espera: a quién se le da la mesa liberada y cuándo se salta una espera
+ */
+class ListaEsperaServiceTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    private static final LocalTime HORA = LocalTime.of(20, 0);
+    
+    private final EntradaEsperaRepository esperaRepository = mock(EntradaEsperaRepository.class);
+    private final ReservaService reservaService = mock(ReservaService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleTransactionStatus transaccion = new SimpleTransactionStatus();
+    private final ColasEspera colas = new ColasEspera();
+    private final ListaEsperaService listaEspera = new ListaEsperaService(
+            esperaRepository, reservaService, mock(CatalogoMesas.class), colas, transactionManager);
+    private final Mesa mesa = Mesa.builder().id(1L).numero(1).capacidadMinima(2).capacidadMaxima(4).build();
+    
+    ListaEsperaServiceTest() {
+        when(transactionManager.getTransaction(any())).thenReturn(transaccion);
+        when(reservaService.crearReserva(any(Reserva.class)))
+                .thenAnswer(invocacion -> {
+                    Reserva reserva = invocacion.getArgument(0);
+                    reserva.setId(100L);
+                    return reserva;
+                });
+    }
+    
+    @AfterEach
+    void detener() {
+        listaEspera.detener();
+    }
+    
+    @Test
+    void laMesaLiberadaEsParaElPrimeroQueCabe() {
+        esperando(1L, 6);
+        esperando(2L, 2);
+        esperando(3L, 2);
+        // Se liberó una sola mesa, para 2 a 4 personas
+        when(reservaService.buscarMesaDisponible(FECHA, HORA, 2, null))
+                .thenReturn(Optional.of(mesa), Optional.empty());
+        when(esperaRepository.actualizarEstado(anyLong(), any(), any(), any(), any())).thenReturn(1);
+        
+        listaEspera.atender(FECHA);
+        
+        // El grupo de 6 llegó antes pero no cabe; entre los de 2, el que llegó primero
+        ArgumentCaptor<Reserva> creada = ArgumentCaptor.forClass(Reserva.class);
+        verify(reservaService).crearReserva(creada.capture());
+        assertThat(creada.getValue().getNombreCliente()).isEqualTo("Cliente 2");
+        verify(esperaRepository).actualizarEstado(eq(2L), eq(EstadoEspera.ESPERANDO), eq(EstadoEspera.ASIGNADA),
+                eq(100L), any());
+        assertThat(colas.posicion(2L)).isZero();
+        assertThat(colas.posicion(1L)).isEqualTo(1);
+        assertThat(colas.posicion(3L)).isEqualTo(1);
+    }
+    
+    @Test
+    void unaEsperaYaAtendidaOCanceladaSeSalta() {
+        esperando(1L, 2);
+        esperando(2L, 2);
+        when(esperaRepository.findById(1L)).thenReturn(Optional.of(entrada(1L, 2, EstadoEspera.CANCELADA)));
+        when(reservaService.buscarMesaDisponible(FECHA, HORA, 2, null))
+                .thenReturn(Optional.of(mesa), Optional.of(mesa), Optional.empty());
+        when(esperaRepository.actualizarEstado(anyLong(), any(), any(), any(), any())).thenReturn(1);
+        
+        listaEspera.atender(FECHA);
+        
+        // La cancelada sale de la cola sin reserva; la mesa queda para la siguiente
+        ArgumentCaptor<Reserva> creada = ArgumentCaptor.forClass(Reserva.class);
+        verify(reservaService).crearReserva(creada.capture());
+        assertThat(creada.getValue().getNombreCliente()).isEqualTo("Cliente 2");
+        assertThat(colas.total()).isZero();
+    }
+    
+    @Test
+    void siSeCancelaMientrasSeAsignaLaReservaSeDeshace() {
+        esperando(1L, 2);
+        when(reservaService.buscarMesaDisponible(FECHA, HORA, 2, null)).thenReturn(Optional.of(mesa));
+        // El UPDATE condicionado a ESPERANDO no encuentra la fila: otro la canceló entretanto
+        when(esperaRepository.actualizarEstado(anyLong(), any(), any(), any(), any())).thenReturn(0);
+        
+        listaEspera.atender(FECHA);
+        
+        assertThat(transaccion.isRollbackOnly()).isTrue();
+        assertThat(colas.total()).isZero();
+    }
+    
+    @Test
+    void siOtraOperacionTomaLaMesaElGrupoSigueEsperando() {
+        esperando(1L, 2);
+        when(reservaService.buscarMesaDisponible(FECHA, HORA, 2, null)).thenReturn(Optional.of(mesa));
+        when(reservaService.crearReserva(any(Reserva.class)))
+                .thenThrow(new IllegalStateException("La mesa no está disponible para la fecha y hora seleccionadas"));
+        
+        listaEspera.atender(FECHA);
+        
+        verify(esperaRepository, never()).actualizarEstado(anyLong(), any(), any(), any(), any());
+        assertThat(colas.posicion(1L)).isEqualTo(1);
+    }
+    
+    private void esperando(Long id, int personas) {
+        colas.agregar(new EnEspera(id, FECHA, HORA, personas, null));
+        when(esperaRepository.findById(id)).thenReturn(Optional.of(entrada(id, personas, EstadoEspera.ESPERANDO)));
+    }
+    
+    private static EntradaEspera entrada(Long id, int personas, EstadoEspera estado) {
+        return EntradaEspera.builder()
+                .id(id)
+                .nombreCliente("Cliente " + id)
+                .emailCliente("cliente" + id + "@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(FECHA)
+                .hora(HORA)
+                .numeroPersonas(personas)
+                .estado(estado)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package ipss.cl.reservas.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ipss.cl.reservas.models.dto.response.MesaResponse;
+import ipss.cl.reservas.models.dto.response.ReservaMesaResponse;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * MesaResponse: las próximas reservas solo se cargan si se piden, para todas las mesas con una sola query
+ */
+class MesaServiceTest {
+    
+    private static final LocalDate HOY = LocalDate.now();
+    
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private final MesaService mesaService = new MesaService(null, reservaRepository, null);
+    private final Mesa mesa1 = mesa(1L, 1);
+    private final Mesa mesa2 = mesa(2L, 2);
+    
+    MesaServiceTest() {
+        ReflectionTestUtils.setField(mesaService, "reservasDiasMaximo", 30);
+    }
+    
+    @Test
+    void sinReservasDiasNoConsultaReservas() throws Exception {
+        List<MesaResponse> respuesta = mesaService.convertirAResponse(List.of(mesa1, mesa2), null);
+        
+        assertThat(respuesta).extracting(MesaResponse::getProximasReservas).containsOnlyNulls();
+        assertThat(respuesta.get(0).getCombinableCon()).containsExactly(2L, 3L);
+        assertThat(new ObjectMapper().writeValueAsString(respuesta.get(0))).doesNotContain("proximasReservas");
+        verifyNoInteractions(reservaRepository);
+    }
+    
+    @Test
+    void agrupaLasReservasDeLaVentanaPorMesaConUnaSolaQuery() {
+        when(reservaRepository.findVistasActivasPorMesas(anyCollection(), any(), any())).thenReturn(List.of(
+                vista(10L, mesa1, HOY.plusDays(1)),
+                vista(11L, mesa1, HOY.plusDays(3))));
+        
+        List<MesaResponse> respuesta = mesaService.convertirAResponse(List.of(mesa1, mesa2), 7);
+        
+        verify(reservaRepository, times(1)).findVistasActivasPorMesas(List.of(1L, 2L), HOY, HOY.plusDays(7));
+        assertThat(respuesta.get(0).getProximasReservas()).extracting(ReservaMesaResponse::getId).containsExactly(10L, 11L);
+        assertThat(respuesta.get(0).getProximasReservas().get(0).getHoraFin()).isEqualTo(LocalTime.of(22, 0));
+        // Una mesa sin reservas en la ventana lleva una lista vacía, no null
+        assertThat(respuesta.get(1).getProximasReservas()).isEmpty();
+    }
+    
+    @Test
+    void laVentanaSeAcotaAlMaximoConfigurado() {
+        mesaService.convertirAResponse(mesa1, 365);
+        
+        verify(reservaRepository).findVistasActivasPorMesas(eq(List.of(1L)), eq(HOY), eq(HOY.plusDays(30)));
+    }
+    
+    @Test
+    void rechazaUnaVentanaNegativa() {
+        assertThatThrownBy(() -> mesaService.convertirAResponse(mesa1, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(reservaRepository);
+    }
+    
+    private static Mesa mesa(Long id, int numero) {
+        return Mesa.builder()
+                .id(id)
+                .numero(numero)
+                .tipo(TipoMesa.INTERIOR)
+                .capacidadMinima(2)
+                .capacidadMaxima(4)
+                .estado(EstadoMesa.DISPONIBLE)
+                .activa(true)
+                .combinableCon(Set.of(3L, 2L))
+                .build();
+    }
+    
+    private static ReservaVista vista(Long id, Mesa mesa, LocalDate fecha) {
+        return new ReservaVista(id, "Cliente", "cliente@example.com", "+56900000000",
+                mesa.getId(), mesa.getNumero(), mesa.getTipo(), fecha, LocalTime.of(20, 0), LocalTime.of(22, 0), 120, 2,
+                EstadoReserva.PENDIENTE, null, "RSV-" + id, null, null, null);
+    }
+}
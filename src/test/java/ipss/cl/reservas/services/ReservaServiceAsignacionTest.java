@@ -0,0 +1,175 @@
+package ipss.cl.reservas.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ipss.cl.reservas.exceptions.CapacidadMesaException;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.asignacion.AsignadorMesas;
+import ipss.cl.reservas.services.metricas.MetricasReservas;
+import ipss.cl.reservas.services.retencion.RetencionesMesas;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Asignación automática de mesa: reintentos cuando otra reserva toma la mesa elegida y métricas por solicitud
+ */
+class ReservaServiceAsignacionTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    private static final LocalTime HORA = LocalTime.of(20, 0);
+    
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private final MesaRepository mesaRepository = mock(MesaRepository.class);
+    private final DisponibilidadService disponibilidadService = mock(DisponibilidadService.class);
+    private final AsignadorMesas asignadorMesas = mock(AsignadorMesas.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReservaService reservaService = new ReservaService(
+            reservaRepository, mesaRepository, disponibilidadService, asignadorMesas,
+            mock(ApplicationEventPublisher.class), new MetricasReservas(registry), null, null,
+            mock(RetencionesMesas.class), null, transactionManager);
+    private final Mesa mesa = Mesa.builder().id(1L).numero(1).tipo(TipoMesa.TERRAZA)
+            .capacidadMinima(2).capacidadMaxima(4).estado(EstadoMesa.DISPONIBLE).activa(true).build();
+    
+    ReservaServiceAsignacionTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocacion -> new SimpleTransactionStatus());
+        when(mesaRepository.findById(mesa.getId())).thenReturn(Optional.of(mesa));
+        when(asignadorMesas.asignar(eq(FECHA), eq(HORA), anyInt(), any(), any())).thenReturn(Optional.of(mesa));
+        when(reservaRepository.saveAndFlush(any(Reserva.class))).thenAnswer(invocacion -> {
+            Reserva reserva = invocacion.getArgument(0);
+            reserva.setId(100L);
+            return reserva;
+        });
+    }
+    
+    @Test
+    void unaSolicitudQueSaleAlTercerIntentoCuentaUnaSolaVez() {
+        // Las dos primeras veces otra reserva tomó la mesa entre elegirla y tomar su lock
+        when(disponibilidadService.esMesaDisponible(anyLong(), any(), any(), any(), isNull()))
+                .thenReturn(false, false, true);
+        
+        List<Reserva> creadas = reservaService.crearReservaConMesaAutomatica(datos(2), null, null);
+        
+        assertThat(creadas).extracting(Reserva::getId).containsExactly(100L);
+        assertThat(contador("creada", "TERRAZA")).isEqualTo(1);
+        assertThat(contador("sin_disponibilidad", "TERRAZA")).isZero();
+    }
+    
+    @Test
+    void seRindeTrasCincoIntentosCadaUnoEnSuTransaccion() {
+        when(disponibilidadService.esMesaDisponible(anyLong(), any(), any(), any(), isNull())).thenReturn(false);
+        
+        assertThatThrownBy(() -> reservaService.crearReservaConMesaAutomatica(datos(2), TipoMesa.TERRAZA, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("La mesa no está disponible");
+        
+        verify(asignadorMesas, times(ReservaService.INTENTOS_ASIGNACION))
+                .asignar(FECHA, HORA, 2, TipoMesa.TERRAZA, null);
+        verify(transactionManager, times(ReservaService.INTENTOS_ASIGNACION)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(reservaRepository, never()).saveAndFlush(any());
+        assertThat(contador("sin_disponibilidad", "TERRAZA")).isEqualTo(1);
+    }
+    
+    @Test
+    void reintentaCuandoOtraReservaGanaLaCarreraAlGuardar() {
+        when(disponibilidadService.esMesaDisponible(anyLong(), any(), any(), any(), isNull())).thenReturn(true);
+        when(reservaRepository.saveAndFlush(any(Reserva.class)))
+                .thenThrow(new DataIntegrityViolationException("clave_ocupacion"))
+                .thenAnswer(invocacion -> invocacion.getArgument(0));
+        
+        assertThat(reservaService.crearReservaConMesaAutomatica(datos(2), null, null)).hasSize(1);
+        
+        verify(reservaRepository, times(2)).saveAndFlush(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        assertThat(contador("creada", "TERRAZA")).isEqualTo(1);
+    }
+    
+    @Test
+    void unErrorDeCapacidadNoSeReintenta() {
+        when(disponibilidadService.esMesaDisponible(anyLong(), any(), any(), any(), isNull())).thenReturn(true);
+        
+        assertThatThrownBy(() -> reservaService.crearReservaConMesaAutomatica(datos(6), null, null))
+                .isInstanceOf(CapacidadMesaException.class);
+        
+        verify(asignadorMesas, times(1)).asignar(any(), any(), anyInt(), any(), any());
+        assertThat(contador("capacidad", "TERRAZA")).isEqualTo(1);
+    }
+    
+    @Test
+    void sinMesasLibresCuentaUnRechazoSinTipo() {
+        when(asignadorMesas.asignar(eq(FECHA), eq(HORA), anyInt(), any(), any())).thenReturn(Optional.empty());
+        when(disponibilidadService.obtenerCombinacionesDisponibles(FECHA, HORA, 2, null)).thenReturn(List.of());
+        
+        assertThatThrownBy(() -> reservaService.crearReservaConMesaAutomatica(datos(2), null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No hay mesas disponibles");
+        assertThat(contador("sin_disponibilidad", MetricasReservas.SIN_TIPO)).isEqualTo(1);
+    }
+    
+    @Test
+    void unaReservaEnMesaIndicadaCuentaSuResultado() {
+        when(disponibilidadService.esMesaDisponible(anyLong(), any(), any(), any(), isNull())).thenReturn(true);
+        
+        assertThatThrownBy(() -> reservaService.crearReserva(conMesa(datos(6))))
+                .isInstanceOf(IllegalArgumentException.class);
+        reservaService.crearReserva(conMesa(datos(2)));
+        
+        assertThat(contador("capacidad", "TERRAZA")).isEqualTo(1);
+        assertThat(contador("creada", "TERRAZA")).isEqualTo(1);
+        
+        // Una solicitud inválida (mesa inexistente) no cuenta
+        Reserva sinMesa = datos(2);
+        sinMesa.setMesa(Mesa.builder().id(99L).build());
+        assertThatThrownBy(() -> reservaService.crearReserva(sinMesa)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.find(MetricasReservas.SOLICITUDES).counters().stream().mapToDouble(c -> c.count()).sum())
+                .isEqualTo(2);
+    }
+    
+    private double contador(String resultado, String tipo) {
+        return registry.get(MetricasReservas.SOLICITUDES).tag("resultado", resultado).tag("tipo_mesa", tipo)
+                .counter().count();
+    }
+    
+    private Reserva conMesa(Reserva reserva) {
+        reserva.setMesa(mesa);
+        return reserva;
+    }
+    
+    private static Reserva datos(int personas) {
+        return Reserva.builder()
+                .nombreCliente("Cliente Prueba")
+                .emailCliente("prueba@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(FECHA)
+                .hora(HORA)
+                .numeroPersonas(personas)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.exceptions.MesaNoDisponibleException;
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.utils.DateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReservaServiceConcurrenciaTest {
+    
+    private static final int INTENTOS_POR_CLAVE = 150;
+    // Horarios de reserva separados por al menos la duración máxima de una reserva: cada hora es una clave independiente
+    private static final List<LocalTime> HORAS = List.of(
+            LocalTime.of(12, 0), LocalTime.of(14, 30), LocalTime.of(19, 0), LocalTime.of(22, 0));
+    // Días de estas pruebas: se vacían al terminar cada una
+    private static final int PRIMER_DIA = 200;
+    private static final int ULTIMO_DIA = 202;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Autowired
+    private ReservaRepository reservaRepository;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @AfterEach
+    void eliminarReservas() {
+        reservaRepository.findByFechaBetween(LocalDate.now().plusDays(PRIMER_DIA), LocalDate.now().plusDays(ULTIMO_DIA))
+                .forEach(reserva -> reservaService.eliminarReserva(reserva.getId()));
+    }
+    
+    @Test
+    void reservasConcurrentesNoDuplicanMesaFechaHora() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(PRIMER_DIA);
+        assertThat(HORAS).allMatch(DateUtils.HORARIOS_RESERVA::contains);
+        List<Mesa> mesas = mesaRepository.findByActivaTrue();
+        int claves = mesas.size() * HORAS.size();
+        
+        AtomicInteger creadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        AtomicInteger choquesEnBaseDatos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        List<Future<?>> tareas = new ArrayList<>();
+        
+        for (int intento = 0; intento < INTENTOS_POR_CLAVE; intento++) {
+            for (Mesa mesa : mesas) {
+                for (LocalTime hora : HORAS) {
+                    tareas.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            reservaService.crearReserva(nuevaReserva(mesa, fecha, hora));
+                            creadas.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            rechazadas.incrementAndGet();
+                        } catch (MesaNoDisponibleException e) {
+                            // Solo la detiene el índice único: el lock no funcionó
+                            choquesEnBaseDatos.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+            }
+        }
+        
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        assertThat(tareas).hasSize(claves * INTENTOS_POR_CLAVE);
+        assertThat(creadas.get()).isEqualTo(claves);
+        assertThat(rechazadas.get()).isEqualTo(claves * (INTENTOS_POR_CLAVE - 1));
+        assertThat(choquesEnBaseDatos.get()).isZero();
+        
+        // Exactamente una reserva activa por mesa y horario en la base de datos
+        for (Mesa mesa : mesas) {
+            for (LocalTime hora : HORAS) {
+                assertThat(reservaRepository.findReservasConflicto(mesa.getId(), fecha, hora)).hasSize(1);
+            }
+        }
+    }
+    
+    @Test
+    void indiceUnicoRechazaDosReservasActivasAunqueSeSalteElServicio() {
+        LocalDate fecha = LocalDate.now().plusDays(PRIMER_DIA + 1);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        LocalTime hora = LocalTime.of(19, 0);
+        
+        reservaRepository.saveAndFlush(nuevaReserva(mesa, fecha, hora));
+        
+        assertThatThrownBy(() -> reservaRepository.saveAndFlush(nuevaReserva(mesa, fecha, hora)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        
+        // Una reserva cancelada no ocupa la clave
+        Reserva cancelada = nuevaReserva(mesa, fecha, hora);
+        cancelada.setEstado(EstadoReserva.CANCELADA);
+        reservaRepository.saveAndFlush(cancelada);
+    }
+    
+    @Test
+    void rechazaReservasQueSeSolapanConUnaEnCurso() {
+        LocalDate fecha = LocalDate.now().plusDays(ULTIMO_DIA);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Reserva primera = nuevaReserva(mesa, fecha, LocalTime.of(20, 0));
+        primera.setDuracionMinutos(120);
+        reservaService.crearReserva(primera);
+        
+        // Empieza antes de que termine la primera
+        assertThatThrownBy(() -> reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(21, 30))))
+                .isInstanceOf(IllegalStateException.class);
+        
+        // Termina justo cuando empieza la primera y empieza justo cuando termina
+        Reserva antes = nuevaReserva(mesa, fecha, LocalTime.of(19, 0));
+        antes.setDuracionMinutos(60);
+        reservaService.crearReserva(antes);
+        reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(22, 0)));
+    }
+    
+    private Reserva nuevaReserva(Mesa mesa, LocalDate fecha, LocalTime hora) {
+        return Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente("Cliente Concurrente")
+                .emailCliente("concurrente@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(hora)
+                .numeroPersonas(mesa.getCapacidadMinima())
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.consulta.ReservaVista;
+import ipss.cl.reservas.services.lote.ResultadoCambioEstado;
+import ipss.cl.reservas.services.lote.ResultadoCambioEstado.Rechazo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cambio de estado en lote: validación por reserva, un solo UPDATE y un evento por reserva cambiada
+ */
+class ReservaServiceLoteTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ReservaService reservaService = new ReservaService(
+            reservaRepository, null, null, null, eventPublisher, null, null, null, null, null, null);
+    
+    @Test
+    void rechazaLasQueNoPuedenCambiarYLasQueNoExisten() {
+        when(reservaRepository.findVistasByIdIn(anyCollection())).thenReturn(List.of(
+                vista(1L, EstadoReserva.PENDIENTE),
+                vista(2L, EstadoReserva.CONFIRMADA),
+                vista(3L, EstadoReserva.CANCELADA)));
+        when(reservaRepository.actualizarEstadoLiberandoMesa(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(2);
+        
+        ResultadoCambioEstado resultado = reservaService.cambiarEstadoEnLote(List.of(1L, 2L, 3L, 99L), EstadoReserva.COMPLETADA);
+        
+        assertThat(resultado.cambiadas()).containsExactly(1L, 2L);
+        assertThat(resultado.rechazadas()).extracting(Rechazo::id).containsExactly(3L, 99L);
+        // Las aceptadas cambian con un solo UPDATE condicionado a los estados de origen
+        verify(reservaRepository, times(1)).actualizarEstadoLiberandoMesa(
+                eq(List.of(1L, 2L)), eq(EstadoReserva.COMPLETADA.estadosOrigen()), eq(EstadoReserva.COMPLETADA), any());
+        verify(reservaRepository, never()).save(any());
+    }
+    
+    @Test
+    void publicaUnEventoPorReservaCambiada() {
+        when(reservaRepository.findVistasByIdIn(anyCollection())).thenReturn(List.of(
+                vista(1L, EstadoReserva.PENDIENTE),
+                vista(2L, EstadoReserva.PENDIENTE)));
+        when(reservaRepository.actualizarEstado(anyCollection(), anyCollection(), any(), any())).thenReturn(2);
+        
+        reservaService.cambiarEstadoEnLote(List.of(1L, 2L), EstadoReserva.CONFIRMADA);
+        
+        ArgumentCaptor<ReservaCambiadaEvent> eventos = ArgumentCaptor.forClass(ReservaCambiadaEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventos.capture());
+        assertThat(eventos.getAllValues()).extracting(ReservaCambiadaEvent::reservaId).containsExactly(1L, 2L);
+        // Siguen activas: el evento lleva su ocupación
+        assertThat(eventos.getAllValues()).allSatisfy(evento -> {
+            assertThat(evento.ocupacion()).isNotNull();
+            assertThat(evento.fechas()).containsExactly(FECHA);
+        });
+    }
+    
+    @Test
+    void sinAceptadasNoHayUpdateNiEventos() {
+        when(reservaRepository.findVistasByIdIn(anyCollection())).thenReturn(List.of(vista(3L, EstadoReserva.CANCELADA)));
+        
+        ResultadoCambioEstado resultado = reservaService.cambiarEstadoEnLote(List.of(3L), EstadoReserva.COMPLETADA);
+        
+        assertThat(resultado.cambiadas()).isEmpty();
+        verify(reservaRepository, never()).actualizarEstadoLiberandoMesa(anyCollection(), anyCollection(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+    
+    private static ReservaVista vista(Long id, EstadoReserva estado) {
+        return new ReservaVista(id, "Cliente", "cliente@example.com", "+56900000000",
+                1L, 1, TipoMesa.INTERIOR, FECHA, LocalTime.of(19, 0), LocalTime.of(21, 0), 120, 2,
+                estado, null, "RSV-" + id, null, null, null);
+    }
+}
@@ -0,0 +1,312 @@
+package ipss.cl.reservas.services;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.entities.Reserva;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.EstadoReserva;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.AcumuladoReservasRepository;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import ipss.cl.reservas.services.analitica.ActualizadorAcumulado;
+import ipss.cl.reservas.services.analitica.TotalPorFecha;
+import ipss.cl.reservas.services.combinacion.CombinacionMesas;
+import ipss.cl.reservas.services.lote.ResultadoLote;
+import ipss.cl.reservas.services.lote.SolicitudLote;
+import ipss.cl.reservas.services.metricas.MetricasReservas;
+import ipss.cl.reservas.services.retencion.Retencion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest
+class ReservaServiceTest {
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Autowired
+    private ReservaRepository reservaRepository;
+    
+    @Autowired
+    private MesaRepository mesaRepository;
+    
+    @Autowired
+    private MesaService mesaService;
+    
+    @Autowired
+    private AcumuladoReservasRepository acumuladoRepository;
+    
+    @Autowired
+    private ActualizadorAcumulado actualizadorAcumulado;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+    
+    @Test
+    void reactivarUnaReservaCuyaMesaYaSeOcupoSeRechaza() {
+        LocalDate fecha = LocalDate.now().plusDays(400);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Reserva a = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(19, 0)));
+        reservaService.cambiarEstado(a.getId(), EstadoReserva.CANCELADA);
+        Reserva b = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(19, 30)));
+        
+        assertThatThrownBy(() -> reservaService.cambiarEstado(a.getId(), EstadoReserva.PENDIENTE))
+                .isInstanceOf(IllegalStateException.class);
+        
+        assertThat(reservaRepository.findById(a.getId()).orElseThrow().getEstado()).isEqualTo(EstadoReserva.CANCELADA);
+        assertThat(reservaRepository.findReservasSolapadas(mesa.getId(), fecha, LocalTime.of(19, 0), LocalTime.of(21, 30)))
+                .extracting(Reserva::getId)
+                .containsExactly(b.getId());
+    }
+    
+    @Test
+    void unaReservaCanceladaNoPuedeCompletarse() {
+        LocalDate fecha = LocalDate.now().plusDays(403);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Reserva reserva = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(19, 0)));
+        reservaService.cancelarReserva(reserva.getId());
+        
+        assertThatThrownBy(() -> reservaService.completarReserva(reserva.getId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("CANCELADA");
+        assertThat(reservaRepository.findById(reserva.getId()).orElseThrow().getEstado()).isEqualTo(EstadoReserva.CANCELADA);
+    }
+    
+    @Test
+    void moverUnaReservaDeDiaReprocesaAmbosDias() {
+        LocalDate antes = LocalDate.now().plusDays(401);
+        LocalDate despues = antes.plusDays(1);
+        Mesa mesa = mesaRepository.findByActivaTrue().get(0);
+        Reserva reserva = reservaService.crearReserva(nuevaReserva(mesa, antes, LocalTime.of(19, 0)));
+        actualizadorAcumulado.procesarCambios();
+        assertThat(reservasPorDia(antes, despues)).containsOnly(entry(antes, 1L));
+        
+        reservaService.actualizarReserva(reserva.getId(), Reserva.builder().fecha(despues).build());
+        actualizadorAcumulado.procesarCambios();
+        
+        // El día de origen también se recalcula: ya no cuenta la reserva
+        assertThat(reservasPorDia(antes, despues)).containsOnly(entry(despues, 1L));
+        // Y su mesa queda libre en el índice de disponibilidad
+        reservaService.crearReserva(nuevaReserva(mesa, antes, LocalTime.of(19, 0)));
+    }
+    
+    @Test
+    void laRetencionSoloLaUsaQuienLaTiene() {
+        LocalDate fecha = LocalDate.now().plusDays(404);
+        Mesa mesa = mesaDisponible();
+        Retencion retencion = reservaService.retenerMesa(mesa.getId(), fecha, LocalTime.of(19, 0),
+                mesa.getCapacidadMinima(), null, 120, "10.0.0.1");
+        
+        // Para los demás la mesa está ocupada mientras dure la retención
+        assertThatThrownBy(() -> reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(19, 0))))
+                .isInstanceOf(IllegalStateException.class);
+        
+        Reserva reserva = reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(19, 0)), retencion.token());
+        assertThat(reserva.getId()).isNotNull();
+        assertThat(reservaService.buscarRetencion(retencion.token())).isEmpty();
+    }
+    
+    @Test
+    void noSeRetieneUnaMesaQueNoEstaDisponible() {
+        Mesa mesa = mesaDisponible();
+        mesaService.cambiarEstado(mesa.getId(), EstadoMesa.MANTENIMIENTO);
+        try {
+            assertThatThrownBy(() -> reservaService.retenerMesa(mesa.getId(), LocalDate.now().plusDays(405),
+                    LocalTime.of(19, 0), mesa.getCapacidadMinima(), null, 120, "10.0.0.1"))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            mesaService.cambiarEstado(mesa.getId(), EstadoMesa.DISPONIBLE);
+        }
+    }
+    
+    @Test
+    void unaReservaCombinadaCuentaUnaVezYComparteCombinacion() {
+        LocalDate fecha = LocalDate.now().plusDays(406);
+        CombinacionMesas combinacion = reservaService.buscarCombinacionDisponible(fecha, LocalTime.of(20, 0), 12, null, null)
+                .orElseThrow();
+        double antes = creadas(combinacion.mesas().get(0));
+        
+        Reserva datos = nuevaReserva(combinacion.mesas().get(0), fecha, LocalTime.of(20, 0));
+        datos.setNumeroPersonas(12);
+        List<Reserva> reservas = reservaService.crearReservaCombinada(datos, combinacion);
+        
+        assertThat(reservas).hasSize(combinacion.mesas().size());
+        assertThat(reservas.get(0).getCombinacionId()).isNotNull();
+        assertThat(reservas).extracting(Reserva::getCombinacionId).containsOnly(reservas.get(0).getCombinacionId());
+        assertThat(creadas(combinacion.mesas().get(0))).isEqualTo(antes + 1);
+    }
+    
+    @Test
+    void unaReservaCombinadaOcupaTodasSusMesasYSeCancelaCompleta() {
+        LocalDate fecha = LocalDate.now().plusDays(407);
+        CombinacionMesas combinacion = reservaService.buscarCombinacionDisponible(fecha, LocalTime.of(20, 0), 12, null, null)
+                .orElseThrow();
+        Reserva datos = nuevaReserva(combinacion.mesas().get(0), fecha, LocalTime.of(20, 0));
+        datos.setNumeroPersonas(12);
+        List<Reserva> reservas = reservaService.crearReservaCombinada(datos, combinacion);
+        
+        // Cada mesa queda ocupada de 20:00 a 22:00, también al final del intervalo
+        for (Mesa mesa : combinacion.mesas()) {
+            assertThat(disponibilidadService.esMesaDisponible(mesa.getId(), fecha, LocalTime.of(19, 0), LocalTime.of(20, 30)))
+                    .isFalse();
+            assertThat(disponibilidadService.esMesaDisponible(mesa.getId(), fecha, LocalTime.of(21, 45), LocalTime.of(23, 0)))
+                    .isFalse();
+            assertThat(disponibilidadService.esMesaDisponible(mesa.getId(), fecha, LocalTime.of(22, 0), LocalTime.of(23, 0)))
+                    .isTrue();
+            assertThatThrownBy(() -> reservaService.crearReserva(nuevaReserva(mesa, fecha, LocalTime.of(21, 30))))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        
+        // Cancelar una de las reservas cancela el grupo y libera todas las mesas
+        reservaService.cancelarReserva(reservas.get(reservas.size() - 1).getId());
+        
+        assertThat(reservaRepository.findAllById(reservas.stream().map(Reserva::getId).toList()))
+                .extracting(Reserva::getEstado)
+                .containsOnly(EstadoReserva.CANCELADA);
+        for (Mesa mesa : combinacion.mesas()) {
+            assertThat(disponibilidadService.esMesaDisponible(mesa.getId(), fecha, LocalTime.of(20, 0), LocalTime.of(22, 0)))
+                    .isTrue();
+        }
+    }
+    
+    @Test
+    void dosSolicitudesDelLoteNoPuedenTomarLaMismaMesa() {
+        LocalDate fecha = LocalDate.now().plusDays(408);
+        Mesa mesa = mesaDisponible();
+        double rechazadasAntes = contador("sin_disponibilidad", mesa.getTipo().name());
+        
+        List<ResultadoLote> resultados = reservaService.crearReservasEnLote(List.of(
+                new SolicitudLote(nuevaReserva(mesa, fecha, LocalTime.of(19, 0)), null),
+                new SolicitudLote(nuevaReserva(mesa, fecha, LocalTime.of(19, 30)), null)));
+        
+        // La segunda se valida contra la primera aunque esta todavía no esté en la base
+        assertThat(resultados.get(0).esCreada()).isTrue();
+        assertThat(resultados.get(1).esCreada()).isFalse();
+        assertThat(resultados.get(1).motivo()).contains("no está disponible");
+        assertThat(reservaRepository.findReservasSolapadas(mesa.getId(), fecha, LocalTime.of(19, 0), LocalTime.of(22, 0)))
+                .extracting(Reserva::getId)
+                .containsExactly(resultados.get(0).reserva().getId());
+        assertThat(contador("sin_disponibilidad", mesa.getTipo().name())).isEqualTo(rechazadasAntes + 1);
+    }
+    
+    @Test
+    void unRechazoDelLoteNoImpideCrearLasDemas() {
+        LocalDate fecha = LocalDate.now().plusDays(409);
+        Mesa mesa = mesaDisponible();
+        double creadasAntes = creadas(mesa);
+        double capacidadAntes = contador("capacidad", mesa.getTipo().name());
+        Reserva sinMesa = nuevaReserva(mesa, fecha, LocalTime.of(19, 0));
+        sinMesa.setMesa(Mesa.builder().id(-1L).build());
+        Reserva muyGrande = nuevaReserva(mesa, fecha, LocalTime.of(20, 0));
+        muyGrande.setNumeroPersonas(mesa.getCapacidadMaxima() + 1);
+        
+        List<ResultadoLote> resultados = reservaService.crearReservasEnLote(List.of(
+                new SolicitudLote(nuevaReserva(mesa, fecha, LocalTime.of(12, 0)), null),
+                new SolicitudLote(sinMesa, null),
+                new SolicitudLote(muyGrande, null),
+                new SolicitudLote(nuevaReserva(mesa, fecha, LocalTime.of(19, 0)), null)));
+        
+        // Un resultado por solicitud, en el mismo orden
+        assertThat(resultados).extracting(ResultadoLote::esCreada).containsExactly(true, false, false, true);
+        assertThat(resultados.get(1).motivo()).isEqualTo("Mesa no encontrada");
+        assertThat(resultados.get(2).motivo()).contains("capacidad");
+        assertThat(reservaRepository.findAllById(List.of(
+                resultados.get(0).reserva().getId(), resultados.get(3).reserva().getId()))).hasSize(2);
+        assertThat(creadas(mesa)).isEqualTo(creadasAntes + 2);
+        assertThat(contador("capacidad", mesa.getTipo().name())).isEqualTo(capacidadAntes + 1);
+    }
+    
+    @Test
+    void elLoteAsignaMesaContandoLasYaAsignadas() {
+        LocalDate fecha = LocalDate.now().plusDays(410);
+        Reserva primera = sinMesa(fecha, LocalTime.of(20, 0), 4);
+        Reserva segunda = sinMesa(fecha, LocalTime.of(20, 0), 4);
+        
+        List<ResultadoLote> resultados = reservaService.crearReservasEnLote(List.of(
+                new SolicitudLote(primera, TipoMesa.TERRAZA),
+                new SolicitudLote(segunda, TipoMesa.TERRAZA)));
+        
+        assertThat(resultados).allMatch(ResultadoLote::esCreada);
+        Mesa terraza = resultados.get(0).reserva().getMesa();
+        Mesa otra = resultados.get(1).reserva().getMesa();
+        assertThat(terraza.getTipo()).isEqualTo(TipoMesa.TERRAZA);
+        // La única terraza ya quedó tomada por la primera solicitud del lote
+        assertThat(otra.getId()).isNotEqualTo(terraza.getId());
+        assertThat(otra.getCapacidadMaxima()).isGreaterThanOrEqualTo(4);
+        assertThat(resultados).extracting(resultado -> resultado.reserva().getDuracionMinutos())
+                .containsExactly(TipoMesa.TERRAZA.getDuracionMinutos(), otra.getTipo().getDuracionMinutos());
+    }
+    
+    @Test
+    void unGrupoSinMesaEnElLoteCuentaSinDisponibilidad() {
+        LocalDate fecha = LocalDate.now().plusDays(411);
+        double antes = contador("sin_disponibilidad", TipoMesa.VIP.name());
+        
+        List<ResultadoLote> resultados = reservaService.crearReservasEnLote(List.of(
+                new SolicitudLote(sinMesa(fecha, LocalTime.of(20, 0), 40), TipoMesa.VIP)));
+        
+        assertThat(resultados.get(0).esCreada()).isFalse();
+        assertThat(resultados.get(0).motivo()).startsWith("No hay mesas disponibles");
+        assertThat(contador("sin_disponibilidad", TipoMesa.VIP.name())).isEqualTo(antes + 1);
+    }
+    
+    private double creadas(Mesa mesa) {
+        return contador("creada", mesa.getTipo().name());
+    }
+    
+    private double contador(String resultado, String tipoMesa) {
+        return meterRegistry.counter(MetricasReservas.SOLICITUDES, "resultado", resultado, "tipo_mesa", tipoMesa).count();
+    }
+    
+    private Map<LocalDate, Long> reservasPorDia(LocalDate desde, LocalDate hasta) {
+        return acumuladoRepository.sumarPorFecha(desde, hasta, EnumSet.allOf(EstadoReserva.class), null).stream()
+                .collect(Collectors.toMap(TotalPorFecha::fecha, TotalPorFecha::reservas));
+    }
+    
+    private Mesa mesaDisponible() {
+        return mesaRepository.findByActivaTrue().stream()
+                .filter(mesa -> mesa.getEstado() == EstadoMesa.DISPONIBLE)
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private Reserva nuevaReserva(Mesa mesa, LocalDate fecha, LocalTime hora) {
+        return Reserva.builder()
+                .mesa(mesa)
+                .nombreCliente("Cliente Prueba")
+                .emailCliente("prueba@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(hora)
+                .duracionMinutos(120)
+                .numeroPersonas(mesa.getCapacidadMinima())
+                .build();
+    }
+    
+    private Reserva sinMesa(LocalDate fecha, LocalTime hora, int personas) {
+        return Reserva.builder()
+                .nombreCliente("Cliente Prueba")
+                .emailCliente("prueba@example.com")
+                .telefonoCliente("+56900000000")
+                .fecha(fecha)
+                .hora(hora)
+                .numeroPersonas(personas)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.DisponibilidadService;
+import ipss.cl.reservas.services.disponibilidad.IndiceDisponibilidad;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static ipss.cl.reservas.services.asignacion.MenorCapacidadEstrategiaTest.mesa;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsignadorMesasTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    private static final LocalTime HORA = LocalTime.of(20, 0);
+    
+    private final DisponibilidadService disponibilidadService = mock(DisponibilidadService.class);
+    private final IndiceDisponibilidad indiceDisponibilidad = mock(IndiceDisponibilidad.class);
+    private final Map<String, EstrategiaAsignacion> estrategias = Map.of(
+            "menor-capacidad", new MenorCapacidadEstrategia(),
+            "tipo-preferido", new TipoPreferidoEstrategia(),
+            "reservar-grandes", new ReservarMesasGrandesEstrategia());
+    private final Mesa interior = mesa(1, TipoMesa.INTERIOR, 2, 4);
+    private final Mesa terraza = mesa(2, TipoMesa.TERRAZA, 4, 6);
+    
+    @Test
+    void usaLaEstrategiaConfigurada() {
+        when(disponibilidadService.obtenerMesasDisponibles(FECHA, HORA, 4, null))
+                .thenReturn(List.of(terraza, interior));
+        
+        assertThat(asignador("tipo-preferido").asignar(FECHA, HORA, 4, TipoMesa.TERRAZA, null)).contains(terraza);
+        assertThat(asignador("menor-capacidad").asignar(FECHA, HORA, 4, TipoMesa.TERRAZA, null)).contains(interior);
+    }
+    
+    @Test
+    void sinCandidatasNoConsultaLaOcupacion() {
+        when(disponibilidadService.obtenerMesasDisponibles(FECHA, HORA, 12, 90)).thenReturn(List.of());
+        
+        assertThat(asignador("reservar-grandes").asignar(FECHA, HORA, 12, null, 90)).isEmpty();
+        verify(indiceDisponibilidad, never()).ocupacionPorHorario(any());
+    }
+    
+    @Test
+    void rechazaUnaEstrategiaDesconocida() {
+        assertThatThrownBy(() -> asignador("al-azar"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("al-azar");
+    }
+    
+    private AsignadorMesas asignador(String estrategia) {
+        return new AsignadorMesas(disponibilidadService, indiceDisponibilidad, estrategias, estrategia);
+    }
+}
@@ -0,0 +1,53 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenorCapacidadEstrategiaTest {
+    
+    private final MenorCapacidadEstrategia estrategia = new MenorCapacidadEstrategia();
+    
+    @Test
+    void eligeLaMesaConMenosAsientosVacios() {
+        Mesa grande = mesa(1, TipoMesa.INTERIOR, 6, 10);
+        Mesa chica = mesa(2, TipoMesa.TERRAZA, 2, 4);
+        Mesa mediana = mesa(3, TipoMesa.EXTERIOR, 4, 6);
+        
+        assertThat(estrategia.elegir(List.of(grande, chica, mediana), contexto(4))).contains(chica);
+    }
+    
+    @Test
+    void aIgualCapacidadMaximaPrefiereLaDeMayorMinimoYLuegoElMenorNumero() {
+        Mesa flexible = mesa(1, TipoMesa.VIP, 2, 6);
+        Mesa ajustada = mesa(5, TipoMesa.EXTERIOR, 4, 6);
+        Mesa ajustadaMenorNumero = mesa(2, TipoMesa.TERRAZA, 4, 6);
+        
+        assertThat(estrategia.elegir(List.of(flexible, ajustada), contexto(4))).contains(ajustada);
+        assertThat(estrategia.elegir(List.of(ajustada, flexible, ajustadaMenorNumero), contexto(4)))
+                .contains(ajustadaMenorNumero);
+    }
+    
+    @Test
+    void sinCandidatasNoEligeNada() {
+        assertThat(estrategia.elegir(List.of(), contexto(2))).isEmpty();
+    }
+    
+    static ContextoAsignacion contexto(int personas) {
+        return new ContextoAsignacion(null, null, personas, null, null, null);
+    }
+    
+    static Mesa mesa(int numero, TipoMesa tipo, int minima, int maxima) {
+        return Mesa.builder()
+                .id((long) numero)
+                .numero(numero)
+                .tipo(tipo)
+                .capacidadMinima(minima)
+                .capacidadMaxima(maxima)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.utils.DateUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static ipss.cl.reservas.services.asignacion.MenorCapacidadEstrategiaTest.mesa;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservarMesasGrandesEstrategiaTest {
+    
+    private static final LocalTime HORA = LocalTime.of(20, 0);
+    
+    private final ReservarMesasGrandesEstrategia estrategia = new ReservarMesasGrandesEstrategia();
+    private final BitSet[] ocupacion = IntStream.range(0, DateUtils.HORARIOS_RESERVA.size())
+            .mapToObj(i -> new BitSet())
+            .toArray(BitSet[]::new);
+    private final Mesa terraza = mesa(2, TipoMesa.TERRAZA, 4, 6);
+    private final Mesa exterior = mesa(5, TipoMesa.EXTERIOR, 4, 6);
+    private final Mesa grande = mesa(6, TipoMesa.INTERIOR, 6, 10);
+    
+    @Test
+    void laMesaGrandeQuedaParaLosGruposGrandes() {
+        // La mesa grande está completamente libre y la chica fragmentada: igual se usa la chica
+        ocupar(terraza, LocalTime.of(21, 0));
+        
+        assertThat(estrategia.elegir(List.of(grande, terraza), contexto())).contains(terraza);
+    }
+    
+    @Test
+    void aIgualCapacidadEligeLaMesaConMenosHorariosLibresDespues() {
+        ocupar(exterior, LocalTime.of(21, 30));
+        
+        assertThat(estrategia.elegir(List.of(terraza, exterior), contexto())).contains(exterior);
+    }
+    
+    @Test
+    void soloCuentanLosHorariosPosterioresALaHoraPedida() {
+        // Ocupación de la tarde y de la misma hora pedida: no distingue a las mesas, desempata el número
+        ocupar(exterior, LocalTime.of(13, 0));
+        ocupar(exterior, HORA);
+        
+        assertThat(estrategia.elegir(List.of(exterior, terraza), contexto())).contains(terraza);
+        
+        ocupar(terraza, LocalTime.of(20, 30));
+        assertThat(estrategia.elegir(List.of(exterior, terraza), contexto())).contains(terraza);
+        ocupar(exterior, LocalTime.of(22, 0));
+        ocupar(exterior, LocalTime.of(21, 0));
+        assertThat(estrategia.elegir(List.of(exterior, terraza), contexto())).contains(exterior);
+    }
+    
+    @Test
+    void conUnaSolaCandidataNoConsultaLaOcupacion() {
+        ContextoAsignacion sinOcupacion = new ContextoAsignacion(null, HORA, 4, null,
+                () -> {
+                    throw new AssertionError("no debería calcular la ocupación");
+                },
+                id -> id.intValue() - 1);
+        
+        assertThat(estrategia.elegir(List.of(grande), sinOcupacion)).contains(grande);
+    }
+    
+    private void ocupar(Mesa mesa, LocalTime hora) {
+        ocupacion[DateUtils.HORARIOS_RESERVA.indexOf(hora)].set(mesa.getNumero() - 1);
+    }
+    
+    private ContextoAsignacion contexto() {
+        return new ContextoAsignacion(null, HORA, 4, null, () -> ocupacion, id -> id.intValue() - 1);
+    }
+}
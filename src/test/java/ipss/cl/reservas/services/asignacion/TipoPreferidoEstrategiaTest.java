@@ -0,0 +1,42 @@
+package ipss.cl.reservas.services.asignacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ipss.cl.reservas.services.asignacion.MenorCapacidadEstrategiaTest.mesa;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TipoPreferidoEstrategiaTest {
+    
+    private final TipoPreferidoEstrategia estrategia = new TipoPreferidoEstrategia();
+    private final Mesa interiorChica = mesa(1, TipoMesa.INTERIOR, 2, 4);
+    private final Mesa terraza = mesa(2, TipoMesa.TERRAZA, 4, 6);
+    private final Mesa interiorGrande = mesa(6, TipoMesa.INTERIOR, 6, 10);
+    
+    @Test
+    void elTipoPedidoGanaAunqueSobrenAsientos() {
+        assertThat(estrategia.elegir(List.of(interiorChica, terraza), contexto(4, TipoMesa.TERRAZA)))
+                .contains(terraza);
+    }
+    
+    @Test
+    void entreMesasDelTipoPedidoEligeLaMenor() {
+        assertThat(estrategia.elegir(List.of(interiorGrande, terraza, interiorChica), contexto(4, TipoMesa.INTERIOR)))
+                .contains(interiorChica);
+    }
+    
+    @Test
+    void sinMesasDelTipoPedidoNiPreferenciaUsaLaMenorCapacidad() {
+        assertThat(estrategia.elegir(List.of(interiorGrande, terraza, interiorChica), contexto(4, TipoMesa.VIP)))
+                .contains(interiorChica);
+        assertThat(estrategia.elegir(List.of(interiorGrande, terraza), contexto(4, null)))
+                .contains(terraza);
+    }
+    
+    private static ContextoAsignacion contexto(int personas, TipoMesa tipoPreferido) {
+        return new ContextoAsignacion(null, null, personas, tipoPreferido, null, null);
+    }
+}
@@ -0,0 +1,121 @@
+package ipss.cl.reservas.services.catalogo;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.repositories.MesaRepository;
+import ipss.cl.reservas.services.MesaService;
+import ipss.cl.reservas.services.combinacion.ParMesas;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogoMesasTest {
+    
+    private final MesaRepository mesaRepository = mock(MesaRepository.class);
+    private final CatalogoMesas catalogo = new CatalogoMesas(
+            mesaRepository, new ConcurrentMapCacheManager(CatalogoMesas.CACHE));
+    private final Mesa interior = mesa(1L, 2, TipoMesa.INTERIOR, 2, 4);
+    private final Mesa terraza = mesa(2L, 1, TipoMesa.TERRAZA, 4, 6);
+    
+    CatalogoMesasTest() {
+        when(mesaRepository.findByActivaTrue()).thenReturn(List.of(interior, terraza));
+        when(mesaRepository.findParesCombinables()).thenReturn(List.of(new ParMesas(1L, 2L), new ParMesas(2L, 1L)));
+    }
+    
+    @Test
+    void cargaUnaVezYArmaLasVistas() {
+        assertThat(catalogo.activas()).extracting(Mesa::getNumero).containsExactly(1, 2);
+        assertThat(catalogo.porId(1L)).get().extracting(Mesa::getTipo).isEqualTo(TipoMesa.INTERIOR);
+        assertThat(catalogo.porId(99L)).isEmpty();
+        assertThat(catalogo.porEstado(EstadoMesa.DISPONIBLE)).hasSize(2);
+        assertThat(catalogo.porEstado(EstadoMesa.MANTENIMIENTO)).isEmpty();
+        assertThat(catalogo.porTipo(TipoMesa.TERRAZA)).extracting(Mesa::getId).containsExactly(2L);
+        assertThat(catalogo.porCapacidad(4)).extracting(Mesa::getId).containsExactly(2L, 1L);
+        assertThat(catalogo.porCapacidad(5)).extracting(Mesa::getId).containsExactly(2L);
+        assertThat(catalogo.porCapacidad(7)).isEmpty();
+        assertThat(catalogo.porCapacidad(-1)).isEmpty();
+        
+        verify(mesaRepository, times(1)).findByActivaTrue();
+        verify(mesaRepository, times(1)).findParesCombinables();
+    }
+    
+    @Test
+    void lasMesasSonCopiasConSusCombinables() {
+        Mesa copia = catalogo.porId(1L).orElseThrow();
+        
+        assertThat(copia).isNotSameAs(interior);
+        assertThat(copia.getCombinableCon()).containsExactly(2L);
+        assertThat(copia.getReservas()).isNull();
+    }
+    
+    @Test
+    void invalidarVuelveALeerLaBase() {
+        catalogo.activas();
+        when(mesaRepository.findByActivaTrue()).thenReturn(List.of(interior));
+        
+        catalogo.invalidar();
+        
+        assertThat(catalogo.activas()).extracting(Mesa::getId).containsExactly(1L);
+        verify(mesaRepository, times(2)).findByActivaTrue();
+    }
+    
+    @Test
+    void dentroDeUnaTransaccionDescartaOtraVezAlTerminar() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogo.invalidar();
+            // Una lectura concurrente antes del commit deja en cache el estado anterior
+            catalogo.activas();
+            when(mesaRepository.findByActivaTrue()).thenReturn(List.of(terraza));
+            
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        assertThat(catalogo.activas()).extracting(Mesa::getId).containsExactly(2L);
+    }
+    
+    @Test
+    void mesaServiceInvalidaAlCambiarUnaMesa() {
+        MesaService mesaService = new MesaService(mesaRepository, null, catalogo);
+        Mesa guardada = mesa(1L, 2, TipoMesa.INTERIOR, 2, 4);
+        when(mesaRepository.findById(1L)).thenReturn(Optional.of(guardada));
+        when(mesaRepository.save(any(Mesa.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+        assertThat(catalogo.porEstado(EstadoMesa.MANTENIMIENTO)).isEmpty();
+        
+        mesaService.cambiarEstado(1L, EstadoMesa.MANTENIMIENTO);
+        when(mesaRepository.findByActivaTrue()).thenReturn(List.of(guardada, terraza));
+        assertThat(catalogo.porEstado(EstadoMesa.MANTENIMIENTO)).extracting(Mesa::getId).containsExactly(1L);
+        
+        mesaService.desactivarMesa(1L);
+        when(mesaRepository.findByActivaTrue()).thenReturn(List.of(terraza));
+        assertThat(catalogo.activas()).extracting(Mesa::getId).containsExactly(2L);
+        assertThat(mesaService.listarMesasPorCapacidad(3)).isEmpty();
+    }
+    
+    private static Mesa mesa(Long id, int numero, TipoMesa tipo, int minima, int maxima) {
+        return Mesa.builder()
+                .id(id)
+                .numero(numero)
+                .tipo(tipo)
+                .capacidadMinima(minima)
+                .capacidadMaxima(maxima)
+                .estado(EstadoMesa.DISPONIBLE)
+                .activa(true)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package ipss.cl.reservas.services.combinacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CombinacionMesasTest {
+    
+    private final Mesa chica = mesa(1L, TipoMesa.INTERIOR, 2, 4);
+    private final Mesa grande = mesa(2L, TipoMesa.TERRAZA, 4, 6);
+    private final CombinacionMesas combinacion = CombinacionMesas.de(List.of(chica, grande), id -> id.intValue() - 1);
+    
+    @Test
+    void capacidadYDuracionDeLaCombinacion() {
+        // Mínimo: más de las 6 que caben sin la mesa chica; máximo: la suma
+        assertThat(combinacion.capacidadMinima()).isEqualTo(7);
+        assertThat(combinacion.capacidadMaxima()).isEqualTo(10);
+        assertThat(combinacion.duracionMinutos()).isEqualTo(120);
+        assertThat(combinacion.posiciones().stream().toArray()).containsExactly(0, 1);
+        
+        CombinacionMesas conVip = CombinacionMesas.de(List.of(chica, mesa(3L, TipoMesa.VIP, 2, 8)), id -> id.intValue() - 1);
+        assertThat(conVip.duracionMinutos()).isEqualTo(150);
+    }
+    
+    @Test
+    void rechazaGruposQueNoLaNecesitanOQueNoCaben() {
+        assertThat(combinacion.admite(6)).isFalse();
+        assertThat(combinacion.admite(7)).isTrue();
+        assertThat(combinacion.admite(10)).isTrue();
+        assertThat(combinacion.admite(11)).isFalse();
+    }
+    
+    @Test
+    void repartirLlenaPrimeroLaMesaMasGrande() {
+        assertThat(combinacion.repartir(7)).containsExactly(2, 5);
+        assertThat(combinacion.repartir(8)).containsExactly(2, 6);
+        assertThat(combinacion.repartir(10)).containsExactly(4, 6);
+    }
+    
+    @Test
+    void repartirRespetaLaCapacidadDeCadaMesa() {
+        CombinacionMesas tres = CombinacionMesas.de(
+                List.of(chica, grande, mesa(3L, TipoMesa.INTERIOR, 6, 10)), id -> id.intValue() - 1);
+        for (int personas = tres.capacidadMinima(); personas <= tres.capacidadMaxima(); personas++) {
+            int[] reparto = tres.repartir(personas);
+            assertThat(IntStream.of(reparto).sum()).isEqualTo(personas);
+            for (int i = 0; i < reparto.length; i++) {
+                Mesa mesa = tres.mesas().get(i);
+                assertThat(reparto[i]).isBetween(mesa.getCapacidadMinima(), mesa.getCapacidadMaxima());
+            }
+        }
+    }
+    
+    private static Mesa mesa(Long id, TipoMesa tipo, int minima, int maxima) {
+        return Mesa.builder()
+                .id(id)
+                .numero(id.intValue())
+                .tipo(tipo)
+                .capacidadMinima(minima)
+                .capacidadMaxima(maxima)
+                .build();
+    }
+}
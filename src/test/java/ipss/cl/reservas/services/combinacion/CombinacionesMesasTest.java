@@ -0,0 +1,97 @@
+package ipss.cl.reservas.services.combinacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.EstadoMesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import ipss.cl.reservas.services.catalogo.CatalogoMesas;
+import ipss.cl.reservas.services.disponibilidad.IndiceDisponibilidad;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Búsqueda de combinaciones sobre el catálogo: mesas 1-2-3 en línea, la 4 suelta y la 5 (junto a la 3) en mantenimiento
+ */
+class CombinacionesMesasTest {
+    
+    private final Mesa mesa1 = mesa(1L, 2, 4, EstadoMesa.DISPONIBLE, 2L);
+    private final Mesa mesa2 = mesa(2L, 2, 4, EstadoMesa.DISPONIBLE, 1L, 3L);
+    private final Mesa mesa3 = mesa(3L, 4, 6, EstadoMesa.DISPONIBLE, 2L, 5L);
+    private final Mesa mesa4 = mesa(4L, 2, 8, EstadoMesa.DISPONIBLE);
+    private final Mesa mesa5 = mesa(5L, 6, 10, EstadoMesa.MANTENIMIENTO, 3L);
+    
+    private final CatalogoMesas catalogoMesas = mock(CatalogoMesas.class);
+    private final IndiceDisponibilidad indiceDisponibilidad = mock(IndiceDisponibilidad.class);
+    private final CombinacionesMesas combinaciones = new CombinacionesMesas(catalogoMesas, indiceDisponibilidad);
+    
+    CombinacionesMesasTest() {
+        ReflectionTestUtils.setField(combinaciones, "maxMesas", 3);
+        when(indiceDisponibilidad.posicion(anyLong())).thenAnswer(invocacion -> invocacion.<Long>getArgument(0).intValue());
+        when(catalogoMesas.activas()).thenReturn(List.of(mesa1, mesa2, mesa3, mesa4, mesa5));
+    }
+    
+    @Test
+    void laMejorPrimeroLaDeMenosAsientosDeSobra() {
+        // 1+2 admite 5-8 y 2+3 admite 7-10
+        assertThat(numeros(combinaciones.paraPersonas(7))).containsExactly(List.of(1, 2), List.of(2, 3));
+        assertThat(numeros(combinaciones.paraPersonas(5))).containsExactly(List.of(1, 2));
+    }
+    
+    @Test
+    void grupoQueCabeEnMenosMesasNoSeCombina() {
+        assertThat(combinaciones.paraPersonas(4)).isEmpty();
+        // 1+2+3 (11-14) no se ofrece para 10: 2+3 alcanza
+        assertThat(numeros(combinaciones.paraPersonas(10))).containsExactly(List.of(2, 3));
+    }
+    
+    @Test
+    void soloMesasContiguasYDisponibles() {
+        // 1 y 3 no son vecinas; la 4 no se combina con nadie; la 5 está en mantenimiento
+        assertThat(numeros(combinaciones.paraPersonas(12))).containsExactly(List.of(1, 2, 3));
+        assertThat(combinaciones.paraPersonas(15)).isEmpty();
+        assertThat(combinaciones.paraPersonas(100)).isEmpty();
+    }
+    
+    @Test
+    void respetaElMaximoDeMesas() {
+        ReflectionTestUtils.setField(combinaciones, "maxMesas", 2);
+        
+        assertThat(combinaciones.paraPersonas(12)).isEmpty();
+        assertThat(combinaciones.paraPersonas(7)).hasSize(2);
+    }
+    
+    @Test
+    void seRecalculaCuandoCambiaElCatalogo() {
+        assertThat(combinaciones.paraPersonas(7)).hasSize(2);
+        
+        when(catalogoMesas.activas()).thenReturn(List.of(mesa1, mesa3, mesa4, mesa5));
+        
+        assertThat(combinaciones.paraPersonas(7)).isEmpty();
+    }
+    
+    private static List<List<Integer>> numeros(List<CombinacionMesas> combinaciones) {
+        return combinaciones.stream()
+                .map(combinacion -> combinacion.mesas().stream().map(Mesa::getNumero).toList())
+                .toList();
+    }
+    
+    private static Mesa mesa(Long id, int minima, int maxima, EstadoMesa estado, Long... vecinas) {
+        return Mesa.builder()
+                .id(id)
+                .numero(id.intValue())
+                .tipo(TipoMesa.INTERIOR)
+                .capacidadMinima(minima)
+                .capacidadMaxima(maxima)
+                .estado(estado)
+                .activa(true)
+                .combinableCon(Set.of(vecinas))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package ipss.cl.reservas.services.consulta;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorReservaTest {
+    
+    @Test
+    void codificarYDecodificarDevuelveLaMismaPosicion() {
+        CursorReserva cursor = new CursorReserva(LocalDate.of(2030, 12, 31), LocalTime.of(21, 30), 9_876_543_210L);
+        
+        String texto = cursor.codificar();
+        
+        // Se puede poner tal cual en la query string
+        assertThat(texto).matches("[A-Za-z0-9_-]+");
+        assertThat(CursorReserva.decodificar(texto)).isEqualTo(cursor);
+    }
+    
+    @Test
+    void rechazaCursoresQueNoGeneroElServidor() {
+        assertThatThrownBy(() -> CursorReserva.decodificar("no es base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor inválido");
+        assertThatThrownBy(() -> CursorReserva.decodificar(base64("2030-01-01|12:00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorReserva.decodificar(base64("2030-13-01|12:00|1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorReserva.decodificar(base64("2030-01-01|12:00|uno")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
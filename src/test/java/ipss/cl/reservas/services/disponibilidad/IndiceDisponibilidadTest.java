@@ -0,0 +1,106 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.repositories.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndiceDisponibilidadTest {
+    
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 14);
+    private static final LocalDate MARTES = LUNES.plusDays(1);
+    private static final Long MESA = 3L;
+    private static final LocalTime INICIO = LocalTime.of(19, 0);
+    private static final LocalTime FIN = LocalTime.of(21, 0);
+    
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private final IndiceDisponibilidad indice = new IndiceDisponibilidad(reservaRepository);
+    
+    @BeforeEach
+    void habilitar() {
+        ReflectionTestUtils.setField(indice, "habilitado", true);
+    }
+    
+    @Test
+    void cargaCadaDiaUnaSolaVez() {
+        when(reservaRepository.findOcupacionesPorFecha(LUNES)).thenReturn(List.of(ocupacion(1L, LUNES)));
+        
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isFalse();
+        assertThat(indice.estaLibre(MESA, LUNES, FIN, FIN.plusHours(2))).isTrue();
+        
+        verify(reservaRepository, times(1)).findOcupacionesPorFecha(LUNES);
+    }
+    
+    @Test
+    void moverUnaReservaDeDiaActualizaAmbosDias() {
+        when(reservaRepository.findOcupacionesPorFecha(LUNES)).thenReturn(List.of(ocupacion(1L, LUNES)));
+        when(reservaRepository.findOcupacionesPorFecha(MARTES)).thenReturn(List.of());
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isFalse();
+        assertThat(indice.estaLibre(MESA, MARTES, INICIO, FIN)).isTrue();
+        
+        indice.onReservaCambiada(new ReservaCambiadaEvent(1L, ocupacion(1L, MARTES), Set.of(LUNES, MARTES)));
+        
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isTrue();
+        assertThat(indice.estaLibre(MESA, MARTES, INICIO, FIN)).isFalse();
+        // Los dos días siguen siendo los cargados al principio
+        verify(reservaRepository, times(1)).findOcupacionesPorFecha(LUNES);
+        verify(reservaRepository, times(1)).findOcupacionesPorFecha(MARTES);
+    }
+    
+    @Test
+    void cancelarUnaReservaLiberaSuMesa() {
+        when(reservaRepository.findOcupacionesPorFecha(LUNES)).thenReturn(List.of(ocupacion(1L, LUNES)));
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isFalse();
+        
+        indice.onReservaCambiada(new ReservaCambiadaEvent(1L, null, Set.of(LUNES)));
+        
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isTrue();
+    }
+    
+    @Test
+    void cargaQueSeCruzaConUnCambioNoSeConserva() {
+        // Mientras se lee el día, se confirma una reserva que la lectura no alcanzó a ver
+        when(reservaRepository.findOcupacionesPorFecha(LUNES))
+                .thenAnswer(invocacion -> {
+                    indice.onReservaCambiada(new ReservaCambiadaEvent(1L, ocupacion(1L, LUNES), Set.of(LUNES)));
+                    return List.of();
+                })
+                .thenReturn(List.of(ocupacion(1L, LUNES)));
+        
+        // La consulta en curso responde con lo que leyó, pero el día no queda en el índice
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isTrue();
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isFalse();
+        verify(reservaRepository, times(2)).findOcupacionesPorFecha(LUNES);
+        
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isFalse();
+        verify(reservaRepository, times(2)).findOcupacionesPorFecha(LUNES);
+    }
+    
+    @Test
+    void verificarConsistenciaReconstruyeElDiaSiDifiereDeLaBaseDeDatos() {
+        when(reservaRepository.findOcupacionesPorFecha(LUNES))
+                .thenReturn(List.of(ocupacion(1L, LUNES)))
+                .thenReturn(List.of());
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isFalse();
+        
+        assertThat(indice.verificarConsistencia(LUNES)).hasSize(1);
+        
+        assertThat(indice.estaLibre(MESA, LUNES, INICIO, FIN)).isTrue();
+    }
+    
+    private static Ocupacion ocupacion(Long reservaId, LocalDate fecha) {
+        return new Ocupacion(reservaId, MESA, fecha, INICIO, FIN);
+    }
+}
@@ -0,0 +1,102 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import ipss.cl.reservas.utils.DateUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OcupacionDiaTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    private static final Long MESA = 7L;
+    
+    // Posición de la mesa en los BitSet = su ID
+    private final OcupacionDia dia = new OcupacionDia(Long::intValue);
+    
+    @Test
+    void mesaSinReservasEstaLibre() {
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 0))).isTrue();
+    }
+    
+    @Test
+    void reservaQueTerminaJustoAlEmpezarNoBloquea() {
+        dia.agregar(ocupacion(1L, "17:00", "19:00"));
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 0))).isTrue();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(18, 59), LocalTime.of(21, 0))).isFalse();
+    }
+    
+    @Test
+    void reservaQueEmpiezaJustoAlTerminarNoBloquea() {
+        dia.agregar(ocupacion(1L, "21:00", "23:00"));
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 0))).isTrue();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 1))).isFalse();
+    }
+    
+    @Test
+    void soloMiraLasReservasDeLaMesa() {
+        dia.agregar(new Ocupacion(1L, 8L, FECHA, LocalTime.of(19, 0), LocalTime.of(21, 0)));
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 0))).isTrue();
+        assertThat(dia.estaLibre(8L, LocalTime.of(20, 0), LocalTime.of(20, 30))).isFalse();
+    }
+    
+    @Test
+    void huecoEntreDosReservas() {
+        dia.agregar(ocupacion(1L, "12:00", "14:00"));
+        dia.agregar(ocupacion(2L, "19:00", "21:00"));
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(14, 0), LocalTime.of(19, 0))).isTrue();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(13, 30), LocalTime.of(15, 0))).isFalse();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(17, 0), LocalTime.of(22, 0))).isFalse();
+    }
+    
+    @Test
+    void reservasSolapadasDeLaMismaMesa() {
+        // Una reserva larga tapada por otra que empieza después y termina antes (p. ej. guardadas por dos instancias)
+        dia.agregar(ocupacion(1L, "12:00", "18:00"));
+        dia.agregar(ocupacion(2L, "13:00", "14:00"));
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(15, 0), LocalTime.of(16, 0))).isFalse();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(17, 30), LocalTime.of(19, 0))).isFalse();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(18, 0), LocalTime.of(19, 0))).isTrue();
+        
+        dia.quitar(1L);
+        assertThat(dia.estaLibre(MESA, LocalTime.of(15, 0), LocalTime.of(16, 0))).isTrue();
+    }
+    
+    @Test
+    void quitarLiberaElIntervaloYLosHorarios() {
+        dia.agregar(ocupacion(1L, "19:00", "21:00"));
+        assertThat(ocupadaA(dia.ocupadasPorHorario(), "19:30")).isTrue();
+        
+        dia.quitar(1L);
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 0))).isTrue();
+        assertThat(ocupadaA(dia.ocupadasPorHorario(), "19:30")).isFalse();
+    }
+    
+    @Test
+    void agregarLaMismaReservaReemplazaSuIntervalo() {
+        dia.agregar(ocupacion(1L, "12:00", "14:00"));
+        dia.agregar(ocupacion(1L, "19:00", "21:00"));
+        
+        assertThat(dia.estaLibre(MESA, LocalTime.of(12, 0), LocalTime.of(14, 0))).isTrue();
+        assertThat(dia.estaLibre(MESA, LocalTime.of(19, 0), LocalTime.of(21, 0))).isFalse();
+        assertThat(dia.ocupaciones()).hasSize(1);
+    }
+    
+    private static Ocupacion ocupacion(Long reservaId, String hora, String horaFin) {
+        return new Ocupacion(reservaId, MESA, FECHA, LocalTime.parse(hora), LocalTime.parse(horaFin));
+    }
+    
+    private static boolean ocupadaA(BitSet[] porHorario, String hora) {
+        int horario = DateUtils.indiceHorario(LocalTime.parse(hora));
+        return porHorario[horario].get(MESA.intValue());
+    }
+}
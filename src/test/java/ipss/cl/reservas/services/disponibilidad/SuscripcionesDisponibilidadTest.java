@@ -0,0 +1,232 @@
+package ipss.cl.reservas.services.disponibilidad;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ipss.cl.reservas.events.ReservaCambiadaEvent;
+import ipss.cl.reservas.services.DisponibilidadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Disponibilidad en vivo con emisores de prueba: registran lo que se les envía y pueden bloquear el envío
+ * para simular un cliente lento
+ */
+class SuscripcionesDisponibilidadTest {
+    
+    private static final LocalDate FECHA = LocalDate.now().plusDays(1);
+    private static final LocalTime HORA = LocalTime.of(20, 0);
+    private static final Pattern NOMBRE = Pattern.compile("event:(\\w+)");
+    
+    private final DisponibilidadService disponibilidadService = mock(DisponibilidadService.class);
+    private final CountDownLatch liberarLentos = new CountDownLatch(1);
+    private volatile boolean lentos;
+    private SuscripcionesDisponibilidad suscripciones = crear(10);
+    
+    @AfterEach
+    void detener() {
+        liberarLentos.countDown();
+        suscripciones.detener();
+    }
+    
+    @Test
+    void elEstadoCompletoLlegaAntesQueCualquierCambio() {
+        when(disponibilidadService.obtenerMesasLibresPorHorario(FECHA)).thenReturn(Map.of(HORA, List.of(1L, 2L)),
+                Map.of(HORA, List.of(2L)));
+        EmisorPrueba primero = suscribir(FECHA);
+        esperar(() -> primero.nombres().equals(List.of("estado")));
+        
+        // El cliente que se conecta justo después del cambio recibe el estado nuevo, no el cambio
+        suscripciones.onReservaCambiada(cambio(FECHA));
+        EmisorPrueba segundo = suscribir(FECHA);
+        
+        esperar(() -> primero.nombres().equals(List.of("estado", "cambio")));
+        esperar(() -> segundo.nombres().equals(List.of("estado")));
+        assertThat(segundo.eventos.get(0)).contains("id:2").contains("\"mesasLibres\":[2]");
+    }
+    
+    @Test
+    void variosCambiosDelMismoDiaSalenEnUnSoloEvento() {
+        LocalDate otra = FECHA.plusDays(1);
+        CountDownLatch calculando = new CountDownLatch(1);
+        when(disponibilidadService.obtenerMesasLibresPorHorario(FECHA)).thenReturn(Map.of(HORA, List.of(1L, 2L)),
+                Map.of(HORA, List.of(2L)));
+        when(disponibilidadService.obtenerMesasLibresPorHorario(otra)).thenAnswer(invocacion -> {
+            calculando.await();
+            return Map.of(HORA, List.of(1L));
+        });
+        EmisorPrueba emisor = suscribir(FECHA);
+        esperar(() -> emisor.nombres().size() == 1);
+        
+        // El hilo de cálculo queda ocupado con otro día mientras llegan los cambios
+        suscribir(otra);
+        for (int i = 0; i < 3; i++) {
+            suscripciones.onReservaCambiada(cambio(FECHA));
+        }
+        calculando.countDown();
+        
+        // Un cliente nuevo se registra después de todo lo encolado
+        EmisorPrueba ultimo = suscribir(FECHA);
+        esperar(() -> ultimo.nombres().size() == 1);
+        esperar(() -> emisor.nombres().size() == 2);
+        assertThat(emisor.nombres()).containsExactly("estado", "cambio");
+        verify(disponibilidadService, times(2)).obtenerMesasLibresPorHorario(FECHA);
+    }
+    
+    @Test
+    void seCierraLaConexionDeUnClienteQueNoAlcanzaALeer() {
+        when(disponibilidadService.obtenerMesasLibresPorHorario(FECHA)).thenReturn(Map.of(HORA, List.of(1L)));
+        lentos = true;
+        EmisorPrueba lento = suscribir(FECHA);
+        esperar(() -> lento.eventos.size() == 1);
+        
+        // Cada refresco sin cambios le encola un comentario mientras sigue bloqueado en el primer envío
+        for (int i = 0; i < 40; i++) {
+            suscripciones.refrescar(LocalDate.now());
+        }
+        
+        esperar(() -> lento.completado);
+        esperar(() -> suscripciones.abiertas() == 0);
+        assertThat(lento.nombres()).containsExactly("estado");
+    }
+    
+    @Test
+    void respetaElMaximoDeConexiones() {
+        suscripciones.detener();
+        suscripciones = crear(2);
+        EmisorPrueba primero = suscribir(FECHA);
+        suscribir(FECHA.plusDays(1));
+        
+        assertThatThrownBy(() -> suscripciones.suscribir(FECHA))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("máximo de conexiones");
+        assertThat(suscripciones.abiertas()).isEqualTo(2);
+        
+        // Al cerrarse una conexión se libera su lugar
+        primero.complete();
+        assertThat(suscripciones.abiertas()).isEqualTo(1);
+        suscribir(FECHA);
+        assertThat(suscripciones.abiertas()).isEqualTo(2);
+    }
+    
+    @Test
+    void rechazaFechasPasadas() {
+        assertThatThrownBy(() -> suscripciones.suscribir(LocalDate.now().minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThat(suscripciones.abiertas()).isZero();
+        verifyNoInteractions(disponibilidadService);
+    }
+    
+    @Test
+    void refrescarCierraLosCanalesDeDiasTerminados() {
+        LocalDate siguiente = FECHA.plusDays(1);
+        EmisorPrueba terminado = suscribir(FECHA);
+        EmisorPrueba vigente = suscribir(siguiente);
+        esperar(() -> terminado.nombres().size() == 1 && vigente.nombres().size() == 1);
+        
+        suscripciones.refrescar(siguiente);
+        
+        esperar(() -> terminado.completado);
+        esperar(() -> suscripciones.abiertas() == 1);
+        assertThat(vigente.completado).isFalse();
+    }
+    
+    private SuscripcionesDisponibilidad crear(int maximoConexiones) {
+        return new SuscripcionesDisponibilidad(disponibilidadService, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), 60_000, maximoConexiones) {
+            @Override
+            SseEmitter nuevoEmitter(long timeoutMs) {
+                return new EmisorPrueba(lentos ? liberarLentos : null);
+            }
+        };
+    }
+    
+    private EmisorPrueba suscribir(LocalDate fecha) {
+        return (EmisorPrueba) suscripciones.suscribir(fecha);
+    }
+    
+    private static ReservaCambiadaEvent cambio(LocalDate fecha) {
+        return new ReservaCambiadaEvent(1L, null, Set.of(fecha));
+    }
+    
+    private static void esperar(BooleanSupplier condicion) {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+            Thread.onSpinWait();
+        }
+    }
+    
+    /**
+     * Emisor sin servlet: guarda el texto de cada evento y ejecuta el callback de cierre como lo haría el contenedor
+     */
+    private static class EmisorPrueba extends SseEmitter {
+        
+        final List<String> eventos = new CopyOnWriteArrayList<>();
+        final CountDownLatch liberar;
+        volatile boolean completado;
+        private Runnable alCompletar = () -> { };
+        
+        EmisorPrueba(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+        
+        List<String> nombres() {
+            List<String> nombres = new ArrayList<>();
+            for (String evento : eventos) {
+                Matcher matcher = NOMBRE.matcher(evento);
+                nombres.add(matcher.find() ? matcher.group(1) : "comentario");
+            }
+            return nombres;
+        }
+        
+        @Override
+        public void send(Set<DataWithMediaType> datos) {
+            StringBuilder texto = new StringBuilder();
+            datos.forEach(dato -> texto.append(dato.getData()));
+            eventos.add(texto.toString());
+            if (liberar != null) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            alCompletar = callback;
+        }
+        
+        @Override
+        public synchronized void complete() {
+            if (!completado) {
+                completado = true;
+                alCompletar.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ipss.cl.reservas.services.espera;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColasEsperaTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    private static final LocalTime VEINTE = LocalTime.of(20, 0);
+    private static final LocalTime VEINTIUNA = LocalTime.of(21, 0);
+    
+    private final ColasEspera colas = new ColasEspera();
+    
+    @Test
+    void cadaColaAtiendeEnOrdenDeLlegada() {
+        colas.agregar(espera(7L, VEINTE, 2));
+        colas.agregar(espera(3L, VEINTE, 2));
+        colas.agregar(espera(5L, VEINTE, 2));
+        
+        assertThat(ids(colas.primeros(FECHA))).containsExactly(3L);
+        assertThat(colas.posicion(3L)).isEqualTo(1);
+        assertThat(colas.posicion(5L)).isEqualTo(2);
+        assertThat(colas.posicion(7L)).isEqualTo(3);
+        
+        colas.quitar(3L);
+        assertThat(ids(colas.primeros(FECHA))).containsExactly(5L);
+        assertThat(colas.posicion(7L)).isEqualTo(2);
+        assertThat(colas.posicion(3L)).isZero();
+    }
+    
+    @Test
+    void unaColaPorHorarioYTamanoDeGrupo() {
+        colas.agregar(espera(4L, VEINTE, 2));
+        colas.agregar(espera(2L, VEINTE, 4));
+        colas.agregar(espera(6L, VEINTIUNA, 2));
+        colas.agregar(espera(1L, VEINTE, 4));
+        
+        // La cabeza de cada cola, la que llegó antes primero
+        assertThat(ids(colas.primeros(FECHA))).containsExactly(1L, 4L, 6L);
+        assertThat(colas.posicion(2L)).isEqualTo(2);
+        assertThat(colas.posicion(6L)).isEqualTo(1);
+    }
+    
+    @Test
+    void agregarDosVecesNoDuplica() {
+        colas.agregar(espera(1L, VEINTE, 2));
+        colas.agregarTodas(List.of(espera(1L, VEINTE, 2), espera(2L, VEINTE, 2)));
+        
+        assertThat(colas.total()).isEqualTo(2);
+        assertThat(colas.posicion(2L)).isEqualTo(2);
+    }
+    
+    @Test
+    void quitarElUltimoBorraLaFecha() {
+        colas.agregar(espera(1L, VEINTE, 2));
+        
+        assertThat(colas.quitar(1L)).isTrue();
+        assertThat(colas.quitar(1L)).isFalse();
+        assertThat(colas.hayEspera(FECHA)).isFalse();
+        assertThat(colas.primeros(FECHA)).isEmpty();
+        assertThat(colas.fechas()).isEmpty();
+    }
+    
+    @Test
+    void descartarDiasAnteriores() {
+        colas.agregar(espera(1L, VEINTE, 2));
+        colas.agregar(new EnEspera(2L, FECHA.plusDays(1), VEINTE, 2, null));
+        
+        colas.descartarAnterioresA(FECHA.plusDays(1));
+        
+        assertThat(colas.fechas()).containsExactly(FECHA.plusDays(1));
+        assertThat(colas.total()).isEqualTo(1);
+        assertThat(colas.posicion(1L)).isZero();
+    }
+    
+    private static EnEspera espera(Long id, LocalTime hora, int personas) {
+        return new EnEspera(id, FECHA, hora, personas, null);
+    }
+    
+    private static List<Long> ids(List<EnEspera> esperas) {
+        return esperas.stream().map(EnEspera::id).toList();
+    }
+}
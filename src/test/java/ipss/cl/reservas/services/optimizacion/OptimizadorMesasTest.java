@@ -0,0 +1,199 @@
+package ipss.cl.reservas.services.optimizacion;
+
+import ipss.cl.reservas.models.entities.Mesa;
+import ipss.cl.reservas.models.enums.TipoMesa;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class OptimizadorMesasTest {
+    
+    private static final Duration PRESUPUESTO = Duration.ofSeconds(1);
+    
+    private final Mesa chica = mesa(1L, TipoMesa.INTERIOR, 2, 4);
+    private final Mesa grande = mesa(2L, TipoMesa.INTERIOR, 2, 8);
+    
+    @Test
+    void pasaUnGrupoChicoALaMesaQueLeCorresponde() {
+        OptimizadorMesas optimizador = new OptimizadorMesas(List.of(chica, grande), true);
+        optimizador.agregarReserva(10L, grande.getId(), 2, LocalTime.of(19, 0), LocalTime.of(21, 0));
+        
+        OptimizadorMesas.Resultado resultado = optimizador.optimizar(PRESUPUESTO, 1);
+        
+        assertThat(resultado.reservasMovidas()).containsExactly(entry(10L, chica.getId()));
+        assertThat(resultado.asientosSobrantesAntes()).isEqualTo(6);
+        assertThat(resultado.asientosSobrantesDespues()).isEqualTo(2);
+    }
+    
+    @Test
+    void liberaLaMesaGrandeParaUnGrupoEnEspera() {
+        OptimizadorMesas optimizador = new OptimizadorMesas(List.of(chica, grande), true);
+        optimizador.agregarReserva(10L, grande.getId(), 2, LocalTime.of(19, 0), LocalTime.of(21, 0));
+        optimizador.agregarEspera(20L, 6, LocalTime.of(19, 30));
+        
+        OptimizadorMesas.Resultado resultado = optimizador.optimizar(PRESUPUESTO, 1);
+        
+        assertThat(resultado.reservasMovidas()).containsExactly(entry(10L, chica.getId()));
+        assertThat(resultado.esperasSentadas()).containsExactly(entry(20L, grande.getId()));
+    }
+    
+    @Test
+    void noMueveAUnaMesaOcupadaNiDeOtroTipo() {
+        Mesa terraza = mesa(3L, TipoMesa.TERRAZA, 2, 4);
+        OptimizadorMesas optimizador = new OptimizadorMesas(List.of(chica, grande, terraza), true);
+        optimizador.agregarFija(chica.getId(), LocalTime.of(20, 0), LocalTime.of(22, 0));
+        optimizador.agregarReserva(10L, grande.getId(), 2, LocalTime.of(19, 0), LocalTime.of(21, 0));
+        
+        OptimizadorMesas.Resultado resultado = optimizador.optimizar(PRESUPUESTO, 1);
+        
+        assertThat(resultado.reservasMovidas()).isEmpty();
+        assertThat(resultado.asientosSobrantesDespues()).isEqualTo(resultado.asientosSobrantesAntes());
+    }
+    
+    @Test
+    void elPlanSiempreEsValidoYNoEmpeoraLaAsignacion() {
+        for (long semilla = 0; semilla < 200; semilla++) {
+            Dia dia = Dia.aleatorio(new SplittableRandom(semilla));
+            OptimizadorMesas.Resultado resultado = dia.optimizador().optimizar(Duration.ofMillis(10), semilla);
+            
+            assertThat(resultado.asientosSobrantesAntes()).as("semilla %d", semilla).isEqualTo(dia.sobrantesActuales());
+            dia.verificar(resultado, semilla);
+        }
+    }
+    
+    private static Mesa mesa(Long id, TipoMesa tipo, int minima, int maxima) {
+        return Mesa.builder()
+                .id(id)
+                .numero(id.intValue())
+                .tipo(tipo)
+                .capacidadMinima(minima)
+                .capacidadMaxima(maxima)
+                .build();
+    }
+    
+    private static int minutos(LocalTime hora) {
+        return hora.toSecondOfDay() / 60;
+    }
+    
+    private record Ocupacion(Long id, Long mesaId, int personas, LocalTime hora, LocalTime horaFin) {
+    }
+    
+    /**
+     * Un día armado al azar: cada reserva en una mesa que la admite y sin cruces, como las deja la asignación al reservar
+     */
+    private record Dia(List<Mesa> mesas, boolean mantenerTipo, List<Ocupacion> fijas,
+                       List<Ocupacion> reservas, List<Ocupacion> esperas) {
+        
+        static Dia aleatorio(SplittableRandom random) {
+            List<Mesa> mesas = new ArrayList<>();
+            int cantidad = random.nextInt(3, 9);
+            for (long id = 1; id <= cantidad; id++) {
+                int minima = random.nextInt(1, 5);
+                TipoMesa tipo = random.nextBoolean() ? TipoMesa.INTERIOR : TipoMesa.VIP;
+                mesas.add(mesa(id, tipo, minima, minima + random.nextInt(0, 7)));
+            }
+            Dia dia = new Dia(mesas, random.nextBoolean(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+            for (long id = 1; id <= 30; id++) {
+                Mesa mesa = mesas.get(random.nextInt(mesas.size()));
+                int personas = random.nextInt(mesa.getCapacidadMinima(), mesa.getCapacidadMaxima() + 1);
+                LocalTime hora = LocalTime.of(12, 0).plusMinutes(15L * random.nextInt(40));
+                LocalTime horaFin = hora.plusMinutes(30L * random.nextInt(2, 6));
+                Ocupacion ocupacion = new Ocupacion(id, mesa.getId(), personas, hora, horaFin);
+                if (dia.estaLibre(mesa.getId(), minutos(hora), minutos(horaFin))) {
+                    (random.nextInt(5) == 0 ? dia.fijas() : dia.reservas()).add(ocupacion);
+                }
+            }
+            int esperas = random.nextInt(0, 6);
+            for (long id = 1; id <= esperas; id++) {
+                LocalTime hora = LocalTime.of(12, 0).plusMinutes(15L * random.nextInt(40));
+                dia.esperas().add(new Ocupacion(id, null, random.nextInt(1, 10), hora, null));
+            }
+            return dia;
+        }
+        
+        OptimizadorMesas optimizador() {
+            OptimizadorMesas optimizador = new OptimizadorMesas(mesas, mantenerTipo);
+            fijas.forEach(fija -> optimizador.agregarFija(fija.mesaId(), fija.hora(), fija.horaFin()));
+            reservas.forEach(reserva -> optimizador.agregarReserva(reserva.id(), reserva.mesaId(), reserva.personas(),
+                    reserva.hora(), reserva.horaFin()));
+            esperas.forEach(espera -> optimizador.agregarEspera(espera.id(), espera.personas(), espera.hora()));
+            return optimizador;
+        }
+        
+        int sobrantesActuales() {
+            return reservas.stream().mapToInt(reserva -> sobrantes(reserva, reserva.mesaId())).sum();
+        }
+        
+        void verificar(OptimizadorMesas.Resultado resultado, long semilla) {
+            Map<Long, Mesa> porId = new HashMap<>();
+            mesas.forEach(mesa -> porId.put(mesa.getId(), mesa));
+            Dia plan = new Dia(mesas, mantenerTipo, new ArrayList<>(fijas), new ArrayList<>(), new ArrayList<>());
+            long costoActual = 0;
+            long costoPlan = 0;
+            
+            for (Ocupacion reserva : reservas) {
+                Long mesaId = resultado.reservasMovidas().getOrDefault(reserva.id(), reserva.mesaId());
+                Mesa mesa = porId.get(mesaId);
+                if (!mesaId.equals(reserva.mesaId())) {
+                    assertThat(reserva.personas()).as("semilla %d, reserva %d", semilla, reserva.id())
+                            .isBetween(mesa.getCapacidadMinima(), mesa.getCapacidadMaxima());
+                    if (mantenerTipo) {
+                        assertThat(mesa.getTipo()).isEqualTo(porId.get(reserva.mesaId()).getTipo());
+                    }
+                    costoPlan += 5;
+                }
+                assertThat(plan.estaLibre(mesaId, minutos(reserva.hora()), minutos(reserva.horaFin())))
+                        .as("semilla %d, reserva %d se cruza en la mesa %d", semilla, reserva.id(), mesaId)
+                        .isTrue();
+                plan.reservas().add(new Ocupacion(reserva.id(), mesaId, reserva.personas(), reserva.hora(), reserva.horaFin()));
+                costoActual += 10L * sobrantes(reserva, reserva.mesaId());
+                costoPlan += 10L * sobrantes(reserva, mesaId);
+            }
+            assertThat(resultado.asientosSobrantesDespues()).isEqualTo(plan.sobrantesActuales());
+            
+            for (Ocupacion espera : esperas) {
+                costoActual += 1000L * espera.personas();
+                Long mesaId = resultado.esperasSentadas().get(espera.id());
+                if (mesaId == null) {
+                    costoPlan += 1000L * espera.personas();
+                    continue;
+                }
+                Mesa mesa = porId.get(mesaId);
+                assertThat(espera.personas()).as("semilla %d, espera %d", semilla, espera.id())
+                        .isBetween(mesa.getCapacidadMinima(), mesa.getCapacidadMaxima());
+                int inicio = minutos(espera.hora());
+                int fin = Math.min(inicio + mesa.getTipo().getDuracionMinutos(), 23 * 60 + 59);
+                assertThat(plan.estaLibre(mesaId, inicio, fin))
+                        .as("semilla %d, espera %d se cruza en la mesa %d", semilla, espera.id(), mesaId)
+                        .isTrue();
+                plan.fijas().add(new Ocupacion(espera.id(), mesaId, espera.personas(), espera.hora(),
+                        LocalTime.of(fin / 60, fin % 60)));
+                costoPlan += 10L * sobrantes(espera, mesaId);
+            }
+            
+            assertThat(costoPlan).as("semilla %d", semilla).isLessThanOrEqualTo(costoActual);
+        }
+        
+        private boolean estaLibre(Long mesaId, int inicio, int fin) {
+            List<Ocupacion> todas = new ArrayList<>(fijas);
+            todas.addAll(reservas);
+            return todas.stream()
+                    .filter(otra -> otra.mesaId().equals(mesaId))
+                    .noneMatch(otra -> inicio < minutos(otra.horaFin()) && minutos(otra.hora()) < fin);
+        }
+        
+        private int sobrantes(Ocupacion ocupacion, Long mesaId) {
+            Mesa mesa = mesas.stream().filter(m -> m.getId().equals(mesaId)).findFirst().orElseThrow();
+            return Math.max(0, mesa.getCapacidadMaxima() - ocupacion.personas());
+        }
+    }
+}
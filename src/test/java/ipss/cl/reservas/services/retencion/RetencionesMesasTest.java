@@ -0,0 +1,144 @@
+package ipss.cl.reservas.services.retencion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetencionesMesasTest {
+    
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 15);
+    private static final LocalTime HORA = LocalTime.of(19, 0);
+    private static final LocalTime HORA_FIN = LocalTime.of(21, 0);
+    
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+    
+    @Test
+    void venceAlCumplirseLaDuracion() {
+        RetencionesMesas retenciones = retenciones(10, 10);
+        Retencion retencion = retenciones.retener(1L, FECHA, HORA, HORA_FIN, "cliente");
+        assertThat(retenciones.estaRetenida(1L, FECHA, HORA, HORA_FIN, null)).isTrue();
+        
+        reloj.addAndGet(Duration.ofSeconds(300).toNanos());
+        
+        // Vencida ya no cuenta, aunque la rueda todavía no la haya quitado
+        assertThat(retenciones.vigente(retencion.token())).isEmpty();
+        assertThat(retenciones.estaRetenida(1L, FECHA, HORA, HORA_FIN, null)).isFalse();
+        assertThat(retenciones.activas()).isEqualTo(1);
+        
+        reloj.addAndGet(Duration.ofSeconds(1).toNanos());
+        retenciones.expirar();
+        
+        assertThat(retenciones.activas()).isZero();
+        assertThat(retenciones.delDia(FECHA)).isEmpty();
+        assertThat(retenciones.liberar(retencion.token())).isFalse();
+    }
+    
+    @Test
+    void sigueVigenteAntesDeVencer() {
+        RetencionesMesas retenciones = retenciones(10, 10);
+        Retencion retencion = retenciones.retener(1L, FECHA, HORA, HORA_FIN, "cliente");
+        
+        reloj.addAndGet(Duration.ofSeconds(299).toNanos());
+        retenciones.expirar();
+        
+        assertThat(retenciones.vigente(retencion.token())).contains(retencion);
+        assertThat(retenciones.activas()).isEqualTo(1);
+    }
+    
+    @Test
+    void laRetencionPropiaNoBloqueaASuDueno() {
+        RetencionesMesas retenciones = retenciones(10, 10);
+        Retencion retencion = retenciones.retener(1L, FECHA, HORA, HORA_FIN, "cliente");
+        
+        assertThat(retenciones.estaRetenida(1L, FECHA, HORA, HORA_FIN, retencion.token())).isFalse();
+        assertThat(retenciones.estaRetenida(1L, FECHA, HORA, HORA_FIN, "otro-token")).isTrue();
+        assertThat(retenciones.estaRetenida(2L, FECHA, HORA, HORA_FIN, null)).isFalse();
+        assertThat(retenciones.estaRetenida(1L, FECHA, HORA_FIN, HORA_FIN.plusHours(1), null)).isFalse();
+    }
+    
+    @Test
+    void maximoPorCliente() {
+        RetencionesMesas retenciones = retenciones(10, 2);
+        retenciones.retener(1L, FECHA, HORA, HORA_FIN, "a");
+        Retencion segunda = retenciones.retener(2L, FECHA, HORA, HORA_FIN, "a");
+        
+        assertThatThrownBy(() -> retenciones.retener(3L, FECHA, HORA, HORA_FIN, "a"))
+                .isInstanceOf(IllegalStateException.class);
+        // Otro cliente, y las retenciones sin cliente, no cuentan para "a"
+        retenciones.retener(3L, FECHA, HORA, HORA_FIN, "b");
+        retenciones.retener(4L, FECHA, HORA, HORA_FIN, null);
+        
+        // Al liberar una, "a" recupera su cupo
+        retenciones.liberar(segunda.token());
+        retenciones.retener(5L, FECHA, HORA, HORA_FIN, "a");
+        assertThat(retenciones.activas()).isEqualTo(4);
+    }
+    
+    @Test
+    void maximoTotal() {
+        RetencionesMesas retenciones = retenciones(2, 2);
+        retenciones.retener(1L, FECHA, HORA, HORA_FIN, "a");
+        retenciones.retener(2L, FECHA, HORA, HORA_FIN, "b");
+        
+        assertThatThrownBy(() -> retenciones.retener(3L, FECHA, HORA, HORA_FIN, "c"))
+                .isInstanceOf(IllegalStateException.class);
+        // El intento rechazado no le quita cupo al cliente
+        reloj.addAndGet(Duration.ofSeconds(301).toNanos());
+        retenciones.expirar();
+        for (int i = 0; i < 2; i++) {
+            retenciones.retener(3L, FECHA, HORA, HORA_FIN, "c");
+        }
+        assertThat(retenciones.activas()).isEqualTo(2);
+    }
+    
+    @Test
+    void elMaximoTotalNoSeSuperaConRetencionesConcurrentes() throws Exception {
+        int maximo = 50;
+        RetencionesMesas retenciones = retenciones(maximo, 1000);
+        AtomicInteger aceptadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < 16; hilo++) {
+            String cliente = "cliente-" + hilo;
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        retenciones.retener(1L, FECHA, HORA, HORA_FIN, cliente);
+                        aceptadas.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Sin cupo
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+        
+        assertThat(aceptadas.get()).isEqualTo(maximo);
+        assertThat(retenciones.activas()).isEqualTo(maximo);
+        assertThat(retenciones.delDia(FECHA)).hasSize(maximo);
+    }
+    
+    private RetencionesMesas retenciones(int maximo, int maximoPorCliente) {
+        return new RetencionesMesas(300, 1000, maximo, maximoPorCliente, reloj::get);
+    }
+}
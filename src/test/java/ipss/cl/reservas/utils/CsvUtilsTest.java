@@ -0,0 +1,32 @@
+package ipss.cl.reservas.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvUtilsTest {
+    
+    @Test
+    void soloCitaLosValoresQueLoNecesitan() {
+        assertThat(CsvUtils.escapar("Ana Pérez")).isEqualTo("Ana Pérez");
+        assertThat(CsvUtils.escapar("")).isEmpty();
+        assertThat(CsvUtils.escapar("Pérez, Ana")).isEqualTo("\"Pérez, Ana\"");
+        assertThat(CsvUtils.escapar("mesa \"tranquila\"")).isEqualTo("\"mesa \"\"tranquila\"\"\"");
+        assertThat(CsvUtils.escapar("línea 1\nlínea 2")).isEqualTo("\"línea 1\nlínea 2\"");
+        assertThat(CsvUtils.escapar("línea 1\r\nlínea 2")).isEqualTo("\"línea 1\r\nlínea 2\"");
+    }
+    
+    @Test
+    void escribeUnaFilaTerminadaEnCrlfConNullVacio() throws IOException {
+        StringWriter escritor = new StringWriter();
+        
+        CsvUtils.escribirFila(escritor, 1L, null, LocalTime.of(20, 0), "a,b", "");
+        CsvUtils.escribirFila(escritor, "x");
+        
+        assertThat(escritor.toString()).isEqualTo("1,,20:00,\"a,b\",\r\nx\r\n");
+    }
+}
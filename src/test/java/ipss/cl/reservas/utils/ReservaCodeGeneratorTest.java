@@ -0,0 +1,91 @@
+package ipss.cl.reservas.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservaCodeGeneratorTest {
+    
+    private static final String DIGITOS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final long SECUENCIAS_POR_SEGUNDO = 36L * 36 * 36;
+    
+    @Test
+    void codigosGeneradosSonValidosYCrecientes() {
+        Set<String> codigos = new HashSet<>();
+        String anterior = "";
+        for (int i = 0; i < 10_000; i++) {
+            String codigo = ReservaCodeGenerator.generarCodigo();
+            assertThat(codigo).hasSize(16).startsWith(ReservaCodeGenerator.PREFIJO);
+            assertThat(ReservaCodeGenerator.esCodigoValido(codigo)).as(codigo).isTrue();
+            assertThat(codigo).isGreaterThan(anterior);
+            codigos.add(codigo);
+            anterior = codigo;
+        }
+        assertThat(codigos).hasSize(10_000);
+    }
+    
+    @Test
+    void cambiarUnSoloCaracterInvalidaElCodigo() {
+        String codigo = ReservaCodeGenerator.generarCodigo();
+        for (int i = ReservaCodeGenerator.PREFIJO.length(); i < codigo.length(); i++) {
+            for (char reemplazo : DIGITOS.toCharArray()) {
+                if (reemplazo == codigo.charAt(i)) {
+                    continue;
+                }
+                String alterado = codigo.substring(0, i) + reemplazo + codigo.substring(i + 1);
+                assertThat(ReservaCodeGenerator.esCodigoValido(alterado)).as(alterado).isFalse();
+            }
+        }
+    }
+    
+    @Test
+    void secuenciaAgotadaPasaAlSegundoSiguiente() {
+        // Última secuencia de un segundo futuro: el reloj no alcanza a adelantarlo durante el test
+        long segundo = Long.parseLong(ReservaCodeGenerator.generarCodigo().substring(4, 10), 36) + 1000;
+        AtomicLong ultimo = (AtomicLong) ReflectionTestUtils.getField(ReservaCodeGenerator.class, "ultimo");
+        long anterior = ultimo.get();
+        try {
+            ultimo.set(segundo * SECUENCIAS_POR_SEGUNDO + SECUENCIAS_POR_SEGUNDO - 1);
+            
+            String codigo = ReservaCodeGenerator.generarCodigo();
+            
+            assertThat(Long.parseLong(codigo.substring(4, 10), 36)).isEqualTo(segundo + 1);
+            assertThat(codigo.substring(12, 15)).isEqualTo("000");
+            assertThat(ReservaCodeGenerator.esCodigoValido(codigo)).isTrue();
+        } finally {
+            // El resto de la JVM sigue con códigos del segundo actual (el del test no se repite: es de un segundo futuro)
+            ultimo.set(anterior);
+        }
+    }
+    
+    @Test
+    void elNodoQuedaEnElCodigo() {
+        try {
+            ReservaCodeGenerator.configurarNodo(36 * 2 + 35);
+            assertThat(ReservaCodeGenerator.generarCodigo().substring(10, 12)).isEqualTo("2Z");
+        } finally {
+            ReservaCodeGenerator.configurarNodo(0);
+        }
+        assertThatThrownBy(() -> ReservaCodeGenerator.configurarNodo(ReservaCodeGenerator.NODOS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void aceptaLosFormatosAnteriores() {
+        assertThat(ReservaCodeGenerator.esCodigoValido("RSV-AB12CD34")).isTrue();
+        assertThat(ReservaCodeGenerator.esCodigoValido("RSV-20240115-X9Z2")).isTrue();
+        
+        assertThat(ReservaCodeGenerator.esCodigoValido("RSV-ab12cd34")).isFalse();
+        assertThat(ReservaCodeGenerator.esCodigoValido("RSV-2024011A-X9Z2")).isFalse();
+        assertThat(ReservaCodeGenerator.esCodigoValido("RSV-20240115_X9Z2")).isFalse();
+        assertThat(ReservaCodeGenerator.esCodigoValido("RES-AB12CD34")).isFalse();
+        assertThat(ReservaCodeGenerator.esCodigoValido("RSV-AB12CD3")).isFalse();
+        assertThat(ReservaCodeGenerator.esCodigoValido(null)).isFalse();
+    }
+}
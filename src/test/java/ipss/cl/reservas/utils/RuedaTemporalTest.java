@@ -0,0 +1,68 @@
+package ipss.cl.reservas.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuedaTemporalTest {
+    
+    private static final long TICK = Duration.ofMillis(10).toNanos();
+    
+    // Reloj manual: el test decide cuándo pasa el tiempo
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+    // 4 ranuras: una vuelta son 4 ticks
+    private final RuedaTemporal<String> rueda = new RuedaTemporal<>(Duration.ofNanos(TICK), 4, reloj::get);
+    
+    @Test
+    void venceEnElPrimerAvancePosteriorASuPlazo() {
+        rueda.agregar("a", reloj.get() + 2 * TICK);
+        
+        assertThat(avanzarTicks(1)).isEmpty();
+        assertThat(avanzarTicks(1)).containsExactly("a");
+        assertThat(rueda.pendientes()).isZero();
+        assertThat(avanzarTicks(1)).isEmpty();
+    }
+    
+    @Test
+    void plazoMasLargoQueUnaVueltaEsperaSuTick() {
+        // Tick 10 cae en la misma ranura que el 2 y el 6: al pasar por ella antes de tiempo se queda
+        rueda.agregar("lejano", reloj.get() + 10 * TICK);
+        rueda.agregar("cercano", reloj.get() + 2 * TICK);
+        
+        assertThat(avanzarTicks(2)).containsExactly("cercano");
+        assertThat(avanzarTicks(4)).isEmpty();
+        assertThat(avanzarTicks(3)).isEmpty();
+        assertThat(avanzarTicks(1)).containsExactly("lejano");
+    }
+    
+    @Test
+    void unAvanceTrasVariasVueltasEntregaTodoLoVencido() {
+        for (int i = 1; i <= 8; i++) {
+            rueda.agregar("e" + i, reloj.get() + i * TICK);
+        }
+        
+        assertThat(avanzarTicks(20)).containsExactlyInAnyOrder("e1", "e2", "e3", "e4", "e5", "e6", "e7", "e8");
+        assertThat(rueda.pendientes()).isZero();
+    }
+    
+    @Test
+    void plazoYaPasadoVenceEnElSiguienteAvance() {
+        avanzarTicks(5);
+        rueda.agregar("atrasado", reloj.get() - 3 * TICK);
+        
+        assertThat(rueda.pendientes()).isEqualTo(1);
+        assertThat(avanzarTicks(1)).containsExactly("atrasado");
+    }
+    
+    private List<String> avanzarTicks(int ticks) {
+        reloj.addAndGet(ticks * TICK);
+        List<String> vencidos = new ArrayList<>();
+        rueda.avanzar(vencidos::add);
+        return vencidos;
+    }
+}